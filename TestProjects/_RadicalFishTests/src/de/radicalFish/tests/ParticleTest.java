@@ -36,10 +36,11 @@ import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.glutils.ShaderProgram;
 import com.badlogic.gdx.math.Vector2;
-import com.badlogic.gdx.utils.TimeUtils;
 import de.radicalfish.BasicGame;
 import de.radicalfish.GameContainer;
 import de.radicalfish.GameInput;
+import de.radicalfish.debug.Profiler;
+import de.radicalfish.debug.ProfilerScope;
 import de.radicalfish.effects.Rumble;
 import de.radicalfish.effects.Rumble.RUMBLE_AXIS;
 import de.radicalfish.effects.Rumble.RUMBLE_POWER;
@@ -82,7 +83,7 @@ public class ParticleTest extends BasicGame implements RadicalFishTest {
 	private float mouseX, mouseY;
 	private float minColor = 0.1f, maxColor = 0.6f, colorSpeed = 0.05f;
 	
-	private long updateTime, renderTime, localTime, runs;
+	private ProfilerScope updateScope, renderScope;
 	
 	private int width, height;
 	private int size;
@@ -126,6 +127,9 @@ public class ParticleTest extends BasicGame implements RadicalFishTest {
 		
 		particle = new Texture("data/particle.png");
 		
+		updateScope = Profiler.getScope("update/particles");
+		renderScope = Profiler.getScope("render/particles");
+		
 		showOptions = container.isShowDebug();
 		ShaderProgram.pedantic = false;
 		shader = new ToneShader(tone);
@@ -135,95 +139,99 @@ public class ParticleTest extends BasicGame implements RadicalFishTest {
 		GameInput in = container.getInput();
 		width = container.getDisplayWidth();
 		height = container.getDisplayHeight();
-		runs++;
 		
 		rumble.update(delta);
 		
-		localTime = TimeUtils.nanoTime();
-		
-		handleInput(container, delta);
-		if (in.isKeyDown(Keys.O)) {
-			tone.setRed(tone.getRed() + 1 * delta);
-		}
-		if (in.isKeyDown(Keys.I)) {
-			tone.setRed(tone.getRed() - 1 * delta);
-		}
-		if (in.isKeyDown(Keys.L)) {
-			tone.setGreen(tone.getGreen() + 1 * delta);
-		}
-		if (in.isKeyDown(Keys.K)) {
-			tone.setGreen(tone.getGreen() - 1 * delta);
-		}
-		if (in.isKeyDown(Keys.M)) {
-			tone.setBlue(tone.getBlue() + 1 * delta);
-		}
-		if (in.isKeyDown(Keys.N)) {
-			tone.setBlue(tone.getBlue() - 1 * delta);
-		}
-		
-		cycleColor();
-		
-		for (int i = 0; i < size; i++) {
-			particles[i].update(delta);
+		Profiler.begin("particles");
+		try {
+			handleInput(container, delta);
+			if (in.isKeyDown(Keys.O)) {
+				tone.setRed(tone.getRed() + 1 * delta);
+			}
+			if (in.isKeyDown(Keys.I)) {
+				tone.setRed(tone.getRed() - 1 * delta);
+			}
+			if (in.isKeyDown(Keys.L)) {
+				tone.setGreen(tone.getGreen() + 1 * delta);
+			}
+			if (in.isKeyDown(Keys.K)) {
+				tone.setGreen(tone.getGreen() - 1 * delta);
+			}
+			if (in.isKeyDown(Keys.M)) {
+				tone.setBlue(tone.getBlue() + 1 * delta);
+			}
+			if (in.isKeyDown(Keys.N)) {
+				tone.setBlue(tone.getBlue() - 1 * delta);
+			}
+			
+			cycleColor();
 			
-			if (pressState == 1) {
-				suckHard(i, delta, mouseX, mouseY);
-			} else if (pressState == 2) {
-				suckHard(i, delta, mouseX, mouseY);
-				spinHard(i, delta, mouseX, mouseY);
-			} else if (pressState == 3) {
-				spinHard(i, delta, mouseX, mouseY);
+			for (int i = 0; i < size; i++) {
+				particles[i].update(delta);
+				
+				if (pressState == 1) {
+					suckHard(i, delta, mouseX, mouseY);
+				} else if (pressState == 2) {
+					suckHard(i, delta, mouseX, mouseY);
+					spinHard(i, delta, mouseX, mouseY);
+				} else if (pressState == 3) {
+					spinHard(i, delta, mouseX, mouseY);
+				}
 			}
+		} finally {
+			Profiler.end();
 		}
-		updateTime += TimeUtils.nanoTime() - localTime;
 	}
 	public void render(GameContainer container, Graphics g) throws RadicalFishException {
 		SpriteBatch batch = g.getSpriteBatch();
 		Font font = container.getFont();
 		
-		localTime = TimeUtils.nanoTime();
-		
-		batch.setShader(shader.getShader());
-		
-		g.translate(rumble.getOffsetX(), rumble.getOffsetY());
-		g.apply();
-		
-		if (!clearScreen) {
-			batch.begin();
-			g.setColor(transClear);
-			g.fillRect(0, 0, container.getDisplayWidth(), container.getDisplayHeight());
-			batch.end();
-		}
-		
-		g.setBlendMode(BlendMode.ADD);
-		batch.setColor(loopyColorShit);
-		batch.begin();
-		
-		shader.setUniforms();
-		
-		{
-			for (int i = 0; i < size; i++) {
-				batch.draw(particle, particles[i].px, particles[i].py, pixelWidth, pixelWidth);
+		Profiler.begin("particles");
+		try {
+			batch.setShader(shader.getShader());
+			
+			g.translate(rumble.getOffsetX(), rumble.getOffsetY());
+			g.apply();
+			
+			if (!clearScreen) {
+				batch.begin();
+				g.setColor(transClear);
+				g.fillRect(0, 0, container.getDisplayWidth(), container.getDisplayHeight());
+				batch.end();
 			}
 			
-			batch.setShader(null);
-			g.resetTransform(true);
-			if (showOptions) {
-				rendercalls = batch.renderCalls;
-				g.setBlendMode(BlendMode.NORMAL);
-				batch.setColor(1, 1, 1, 1);
-				font.draw(batch, "Particles: " + size + " (left/right resize)", 5, 35);
-				font.draw(batch, "Calls/Max: " + rendercalls + "/" + batch.maxSpritesInBatch, 5, 50);
-				font.draw(batch, "Particle Size: " + pixelWidth + " (+/- resize)", 5, 65);
-				font.draw(batch, "Clear Screen (C): " + clearScreen, 5, 85);
-				font.draw(batch, "Random Offset (S): " + gravityRandom, 5, 100);
-				font.draw(batch, "Update: " + ((updateTime / runs) / 1000) + "us", 5, 120);
-				font.draw(batch, "Render: " + ((renderTime / runs) / 1000) + "us", 5, 135);
+			g.setBlendMode(BlendMode.ADD);
+			batch.setColor(loopyColorShit);
+			batch.begin();
+			
+			shader.setUniforms();
+			
+			{
+				for (int i = 0; i < size; i++) {
+					batch.draw(particle, particles[i].px, particles[i].py, pixelWidth, pixelWidth);
+				}
+				
+				batch.setShader(null);
+				g.resetTransform(true);
+				if (showOptions) {
+					rendercalls = batch.renderCalls;
+					g.setBlendMode(BlendMode.NORMAL);
+					batch.setColor(1, 1, 1, 1);
+					font.draw(batch, "Particles: " + size + " (left/right resize)", 5, 35);
+					font.draw(batch, "Calls/Max: " + rendercalls + "/" + batch.maxSpritesInBatch, 5, 50);
+					font.draw(batch, "Particle Size: " + pixelWidth + " (+/- resize)", 5, 65);
+					font.draw(batch, "Clear Screen (C): " + clearScreen, 5, 85);
+					font.draw(batch, "Random Offset (S): " + gravityRandom, 5, 100);
+					font.draw(batch, "Update: " + (updateScope.getAverage() / 1000) + "us (p99 "
+							+ (updateScope.getP99() / 1000) + "us)", 5, 120);
+					font.draw(batch, "Render: " + (renderScope.getAverage() / 1000) + "us (p99 "
+							+ (renderScope.getP99() / 1000) + "us)", 5, 135);
+				}
 			}
+			batch.end();
+		} finally {
+			Profiler.end();
 		}
-		batch.end();
-		
-		renderTime += TimeUtils.nanoTime() - localTime;
 		
 	}
 	
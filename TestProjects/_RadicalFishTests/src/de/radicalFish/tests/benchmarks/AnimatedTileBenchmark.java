@@ -0,0 +1,190 @@
+/*
+ * Copyright (c) 2012, Stefan Lange
+ * 
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ *     * Redistributions of source code must retain the above copyright notice,
+ *       this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of Stefan Lange nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package de.radicalfish.tests.benchmarks;
+import de.radicalfish.context.GameContext;
+import de.radicalfish.context.GameDelta;
+import de.radicalfish.context.defaults.DefaultGameDelta;
+import de.radicalfish.graphics.Graphics;
+import de.radicalfish.world.GameWorld;
+import de.radicalfish.world.map.AnimatedTile;
+import de.radicalfish.world.map.ChunkedLayer;
+import de.radicalfish.world.map.IntArrayLayer;
+import de.radicalfish.world.map.TileAnimations;
+
+/**
+ * Updates a layer full of water (every cell an {@link AnimatedTile}, using one of 4 animations) once with every tile
+ * advancing its own timer and once bound to {@link TileAnimations}. Prints the time per update and checks that both
+ * show the same tile ids afterwards. Run it as a plain java application, the size of the layer can be passed as first
+ * argument (default 512).
+ * 
+ * @author Stefan Lange
+ * @version 1.0.0
+ * @since 18.10.2026
+ */
+public class AnimatedTileBenchmark {
+	
+	private static final int FRAMES = 200;
+	private static final float DELTA = 1 / 60f;
+	
+	public static void main(String[] args) {
+		int size = args.length > 0 ? Integer.parseInt(args[0]) : 512;
+		System.out.println("Layer: " + size + "x" + size + " animated tiles");
+		
+		IntArrayLayer own = createLayer(size);
+		IntArrayLayer shared = createLayer(size);
+		TileAnimations animations = new TileAnimations();
+		shared.setAnimations(animations);
+		System.out.println("Distinct animations: " + animations.getSize());
+		
+		GameDelta delta = new DefaultGameDelta();
+		delta.update(null, null, DELTA);
+		// warm up
+		for (int i = 0; i < 20; i++) {
+			own.update(null, null, delta);
+			animations.update(delta);
+			shared.update(null, null, delta);
+		}
+		
+		long time = System.nanoTime();
+		for (int i = 0; i < FRAMES; i++) {
+			own.update(null, null, delta);
+		}
+		float ownTime = (System.nanoTime() - time) / 1000000f / FRAMES;
+		
+		time = System.nanoTime();
+		for (int i = 0; i < FRAMES; i++) {
+			animations.update(delta);
+			shared.update(null, null, delta);
+		}
+		float sharedTime = (System.nanoTime() - time) / 1000000f / FRAMES;
+		
+		int differences = 0;
+		for (int x = 0; x < size; x++) {
+			for (int y = 0; y < size; y++) {
+				if (own.getTileIDAt(x, y) != shared.getTileIDAt(x, y)) {
+					differences++;
+				}
+			}
+		}
+		System.out.println("Own timer per tile: " + String.format("%.4f", ownTime) + " ms per update");
+		System.out.println("Shared animations : " + String.format("%.4f", sharedTime) + " ms per update");
+		System.out.println("Different ids     : " + differences);
+	}
+	
+	// INTERN
+	// 
+	private static IntArrayLayer createLayer(int size) {
+		IntArrayLayer layer = new IntArrayLayer("water", null, size, size, ChunkedLayer.DEFAULT_CHUNK_SIZE);
+		for (int x = 0; x < size; x++) {
+			for (int y = 0; y < size; y++) {
+				int kind = (x / 8 + y / 8) % 4;
+				layer.setTileAt(x, y, new Water(new int[] { 200 + kind * 50, 250, 300 }, new int[] { kind * 3,
+						kind * 3 + 1, kind * 3 + 2 }, kind % 2 == 0));
+			}
+		}
+		return layer;
+	}
+	
+	// INTERN CLASSES
+	// 
+	/**
+	 * An {@link AnimatedTile} advancing its own timer in update, times are in ms.
+	 */
+	private static class Water implements AnimatedTile {
+		
+		private int[] times, indexes;
+		private boolean pingPong;
+		private int frame, direction = 1;
+		private float next;
+		
+		public Water(int[] times, int[] indexes, boolean pingPong) {
+			this.times = times;
+			this.indexes = indexes;
+			this.pingPong = pingPong;
+			next = times[0];
+		}
+		
+		public void update(GameContext context, GameWorld world, GameDelta delta) {
+			next -= delta.getDelta() * 1000f;
+			while (next < 0) {
+				frame = (frame + direction) % indexes.length;
+				if (pingPong) {
+					if (frame <= 0) {
+						frame = 0;
+						direction = 1;
+					} else if (frame >= indexes.length - 1) {
+						frame = indexes.length - 1;
+						direction = -1;
+					}
+				}
+				next += times[frame];
+			}
+		}
+		public void render(GameContext context, GameWorld world, Graphics g) {}
+		
+		public int getTileID() {
+			return indexes[frame];
+		}
+		public void setTileID(int id) {}
+		public int[] getFrameTimes() {
+			return times;
+		}
+		public int[] getIndexes() {
+			return indexes;
+		}
+		public int getFrameTime(int index) {
+			return times[index];
+		}
+		public int getIndex(int index) {
+			return indexes[index];
+		}
+		public boolean isPingPong() {
+			return pingPong;
+		}
+		
+		public void setFrameTimes(int[] times) {
+			this.times = times;
+		}
+		public void setIndexes(int[] indexes) {
+			this.indexes = indexes;
+		}
+		public void setFrameTime(int index, int time) {
+			times[index] = time;
+		}
+		public void setIndex(int index, int tileIndex) {
+			indexes[index] = tileIndex;
+		}
+		public void setPingPong(boolean pingpong) {
+			this.pingPong = pingpong;
+		}
+		
+	}
+	
+}
@@ -0,0 +1,242 @@
+/*
+ * Copyright (c) 2012, Stefan Lange
+ * 
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ *     * Redistributions of source code must retain the above copyright notice,
+ *       this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of Stefan Lange nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package de.radicalfish.tests.benchmarks;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import com.badlogic.gdx.math.Vector2;
+import de.radicalfish.context.GameContext;
+import de.radicalfish.context.GameDelta;
+import de.radicalfish.context.defaults.DefaultGameDelta;
+import de.radicalfish.graphics.Graphics;
+import de.radicalfish.world.Camera;
+import de.radicalfish.world.CollisionManager;
+import de.radicalfish.world.Entity;
+import de.radicalfish.world.EntityPool;
+import de.radicalfish.world.EntitySystem;
+import de.radicalfish.world.GameWorld;
+import de.radicalfish.world.PooledEntitySystem;
+import de.radicalfish.world.map.Map;
+
+/**
+ * A bullet hell scene: every frame 200 bullets get spawned, each one lives for 90 frames (about 18000 bullets alive,
+ * 12000 spawned per second at 60 fps). Runs the scene once with a new bullet per spawn and once with an
+ * {@link EntityPool} and prints the time per frame, the number of bullets created and the number of garbage
+ * collections while measuring. Run it as a plain java application, the number of bullets per frame can be passed as
+ * first argument.
+ * 
+ * @author Stefan Lange
+ * @version 1.0.0
+ * @since 18.10.2026
+ */
+public class EntityChurnBenchmark {
+	
+	private static final int FRAMES = 1200;
+	private static final int LIFETIME = 90;
+	
+	private static int created;
+	
+	public static void main(String[] args) {
+		int perFrame = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+		
+		System.out.println("Bullets per frame: " + perFrame + ", lifetime: " + LIFETIME + " frames");
+		run("new      ", new PooledEntitySystem(), perFrame);
+		run("pooled   ", new PooledEntitySystem(new EntityPool()), perFrame);
+	}
+	
+	// INTERN
+	// 
+	private static void run(String name, PooledEntitySystem system, int perFrame) {
+		GameWorld world = new BenchmarkWorld();
+		GameDelta delta = new DefaultGameDelta();
+		
+		// warm up, fills the pool and the lists
+		for (int i = 0; i < LIFETIME * 3; i++) {
+			step(system, world, delta, perFrame);
+		}
+		
+		created = 0;
+		long gcs = collections();
+		long time = System.nanoTime();
+		for (int i = 0; i < FRAMES; i++) {
+			step(system, world, delta, perFrame);
+		}
+		float average = (System.nanoTime() - time) / 1000000f / FRAMES;
+		
+		System.out.println(name + ": " + String.format("%.3f", average) + " ms per frame, "
+				+ system.getEntities().size() + " alive, " + created + " created, " + (collections() - gcs) + " gcs");
+	}
+	private static void step(PooledEntitySystem system, GameWorld world, GameDelta delta, int perFrame) {
+		for (int i = 0; i < perFrame; i++) {
+			Bullet bullet;
+			if (system.getPool() != null) {
+				bullet = system.spawn(Bullet.class, null, world);
+			} else {
+				bullet = new Bullet();
+				system.addEntity(bullet, null, world);
+			}
+			float angle = i * 360f / perFrame;
+			bullet.setPosition(500, 500);
+			bullet.setVelocity((float) Math.cos(angle), (float) Math.sin(angle));
+		}
+		system.update(null, world, delta);
+	}
+	private static long collections() {
+		long count = 0;
+		for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+			count += Math.max(0, bean.getCollectionCount());
+		}
+		return count;
+	}
+	
+	// INTERN CLASSES
+	// 
+	/**
+	 * A bullet flying in a straight line until its lifetime is over.
+	 */
+	public static class Bullet extends Entity {
+		
+		private int age;
+		
+		public Bullet() {
+			created++;
+		}
+		
+		public void init(GameContext context, GameWorld world) {}
+		public void doUpdate(GameContext context, GameWorld world, GameDelta delta) {
+			position.add(velocity);
+			if (++age >= LIFETIME) {
+				setAlive(false);
+			}
+		}
+		public void doRender(GameContext context, GameWorld world, Graphics g) {}
+		public void reset() {
+			super.reset();
+			age = 0;
+		}
+		
+		public boolean canCollide() {
+			return false;
+		}
+		public int getLayer() {
+			return 0;
+		}
+		public int getCollisionWidth() {
+			return 4;
+		}
+		public int getCollisionHeight() {
+			return 4;
+		}
+		
+	}
+	/**
+	 * A world which only knows its tile size and a camera which never moves.
+	 */
+	private static class BenchmarkWorld implements GameWorld {
+		
+		private final Camera camera = new BenchmarkCamera();
+		
+		public void init(GameContext context) {}
+		public void update(GameContext context, GameDelta delta) {}
+		public void render(GameContext context, Graphics g) {}
+		public void dispose() {}
+		
+		public void addCollisionManager(String name, CollisionManager manager) {}
+		public void addEntitySystem(String name, EntitySystem system) {}
+		public void removeEntitySystem(String name) {}
+		public void setCamera(Camera camera) {}
+		public void setMap(Map map) {}
+		public void setGravity(float gravity) {}
+		
+		public CollisionManager getCollisionManager(String name) {
+			return null;
+		}
+		public List<EntitySystem> getEntitySystems() {
+			return null;
+		}
+		public EntitySystem getEntitySystem(String name) {
+			return null;
+		}
+		public Camera getCamera() {
+			return camera;
+		}
+		public Map getMap() {
+			return null;
+		}
+		public float getGravity() {
+			return 0;
+		}
+		public int getTileSize() {
+			return 16;
+		}
+		
+	}
+	/**
+	 * A camera standing still at 0, 0.
+	 */
+	private static class BenchmarkCamera implements Camera {
+		
+		private final Vector2 current = new Vector2();
+		
+		public void update(GameContext context, GameWorld world, GameDelta delta) {}
+		public void translate(GameContext context, GameWorld world, Graphics g) {}
+		public void translateMap(GameContext context, GameWorld world, Graphics g) {}
+		
+		public Vector2 getCurrent() {
+			return current;
+		}
+		public float getCurrentX() {
+			return 0;
+		}
+		public float getCurrentY() {
+			return 0;
+		}
+		public Vector2 getTarget() {
+			return current;
+		}
+		public float getTargetX() {
+			return 0;
+		}
+		public float getTargetY() {
+			return 0;
+		}
+		public float getSpeed() {
+			return 0;
+		}
+		
+		public void setCurrent(GameWorld world, float x, float y) {}
+		public void setTarget(GameWorld world, float x, float y, int time) {}
+		public void setSpeed(float speed) {}
+		public void centerCurrent(GameWorld world, float x, float y) {}
+		public void centerTarget(GameWorld world, float x, float y, int time) {}
+		
+	}
+	
+}
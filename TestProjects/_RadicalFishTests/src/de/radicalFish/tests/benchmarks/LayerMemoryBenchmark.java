@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2012, Stefan Lange
+ * 
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ *     * Redistributions of source code must retain the above copyright notice,
+ *       this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of Stefan Lange nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package de.radicalfish.tests.benchmarks;
+import java.util.Random;
+import de.radicalfish.world.map.ChunkedLayer;
+import de.radicalfish.world.map.IntArrayLayer;
+import de.radicalfish.world.map.Layer;
+import de.radicalfish.world.map.SimpleTile;
+import de.radicalfish.world.map.Tile;
+
+/**
+ * Compares the heap used by a map stored as <code>Tile[][]</code> ({@link ChunkedLayer} with one {@link SimpleTile}
+ * per cell) against the same map stored in {@link IntArrayLayer}s. The map has 4 layers plus a collision layer. Run it
+ * as a plain java application, the size of the map can be passed as first argument (default 1024).
+ * 
+ * @author Stefan Lange
+ * @version 1.0.0
+ * @since 18.10.2026
+ */
+public class LayerMemoryBenchmark {
+	
+	private static final int LAYERS = 5;
+	
+	public static void main(String[] args) {
+		int size = args.length > 0 ? Integer.parseInt(args[0]) : 1024;
+		
+		System.out.println("Map: " + size + "x" + size + " tiles, " + LAYERS + " layers");
+		
+		long base = usedMemory();
+		Layer[] tileLayers = new Layer[LAYERS];
+		for (int i = 0; i < LAYERS; i++) {
+			tileLayers[i] = new ChunkedLayer("layer" + i, null, createTiles(size), ChunkedLayer.DEFAULT_CHUNK_SIZE);
+		}
+		long tiles = usedMemory() - base;
+		System.out.println("Tile[][]     : " + (tiles / 1024 / 1024) + " MB");
+		tileLayers = null;
+		
+		base = usedMemory();
+		Layer[] intLayers = new Layer[LAYERS];
+		Random rnd = new Random(42);
+		for (int i = 0; i < LAYERS; i++) {
+			IntArrayLayer layer = new IntArrayLayer("layer" + i, null, size, size, IntArrayLayer.DEFAULT_CHUNK_SIZE);
+			for (int x = 0; x < size; x++) {
+				for (int y = 0; y < size; y++) {
+					layer.setTileAt(x, y, rnd.nextInt(256));
+				}
+			}
+			intLayers[i] = layer;
+		}
+		long ints = usedMemory() - base;
+		System.out.println("IntArrayLayer: " + (ints / 1024 / 1024) + " MB");
+		System.out.println("Saved        : " + ((tiles - ints) / 1024 / 1024) + " MB ("
+				+ (ints == 0 ? 0 : tiles / ints) + "x less)");
+				
+		// keep the layers reachable until measured
+		System.out.println(intLayers.length == LAYERS ? "done" : "");
+	}
+	
+	// INTERN
+	// 
+	private static Tile[][] createTiles(int size) {
+		Random rnd = new Random(42);
+		Tile[][] tiles = new Tile[size][size];
+		for (int x = 0; x < size; x++) {
+			for (int y = 0; y < size; y++) {
+				tiles[x][y] = new SimpleTile(rnd.nextInt(256));
+			}
+		}
+		return tiles;
+	}
+	private static long usedMemory() {
+		Runtime runtime = Runtime.getRuntime();
+		for (int i = 0; i < 4; i++) {
+			System.gc();
+			try {
+				Thread.sleep(50);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+	
+}
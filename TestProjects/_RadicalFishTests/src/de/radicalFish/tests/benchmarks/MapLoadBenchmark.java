@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2012, Stefan Lange
+ * 
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ *     * Redistributions of source code must retain the above copyright notice,
+ *       this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of Stefan Lange nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package de.radicalfish.tests.benchmarks;
+import java.io.File;
+import java.io.FileInputStream;
+import java.util.Random;
+import de.radicalfish.debug.Logger;
+import de.radicalfish.world.Entity;
+import de.radicalfish.world.map.EntityLayer;
+import de.radicalfish.world.map.IntArrayLayer;
+import de.radicalfish.world.map.Layer;
+import de.radicalfish.world.map.Map;
+import de.radicalfish.world.map.MapIO;
+import de.radicalfish.world.map.MapIOReader;
+import de.radicalfish.world.map.SimpleEntityLayer;
+import de.radicalfish.world.map.SimpleMap;
+import de.radicalfish.world.map.SimpleTile;
+import de.radicalfish.world.map.Tile;
+import de.radicalfish.world.map.TileSet;
+
+/**
+ * Compares loading an uncompressed map with {@link MapIO#readMap(java.io.InputStream, boolean, MapIOReader)} against
+ * {@link MapIO#readMapMapped(String, MapIOReader)}. The maps are made of {@link IntArrayLayer}s (2 layers plus the
+ * collision layer) filled with random ids, written to temp files and loaded a few times with each path. Run it as a
+ * plain java application with enough heap (-Xmx2g) for the biggest map. The sizes can be passed as arguments (default
+ * 256 1024 4096).
+ * 
+ * @author Stefan Lange
+ * @version 1.0.0
+ * @since 18.10.2026
+ */
+public class MapLoadBenchmark {
+	
+	private static final int LAYERS = 2;
+	private static final int RUNS = 5;
+	
+	public static void main(String[] args) throws Exception {
+		int[] sizes = { 256, 1024, 4096 };
+		if (args.length > 0) {
+			sizes = new int[args.length];
+			for (int i = 0; i < args.length; i++) {
+				sizes[i] = Integer.parseInt(args[i]);
+			}
+		}
+		Logger.setLogging(false);
+		
+		for (int size : sizes) {
+			File file = File.createTempFile("map" + size, ".map");
+			file.deleteOnExit();
+			MapIO.writeMap(file.getPath(), createMap(size), false);
+			
+			// warm up both paths once
+			readStream(file);
+			readMapped(file);
+			
+			long stream = Long.MAX_VALUE, mapped = Long.MAX_VALUE;
+			for (int i = 0; i < RUNS; i++) {
+				long time = System.nanoTime();
+				readStream(file);
+				stream = Math.min(stream, System.nanoTime() - time);
+				
+				time = System.nanoTime();
+				readMapped(file);
+				mapped = Math.min(mapped, System.nanoTime() - time);
+			}
+			
+			System.out.println("Map " + size + "x" + size + " (" + (file.length() / 1024) + " KB): stream "
+					+ (stream / 1000000) + " ms, mapped " + (mapped / 1000000) + " ms ("
+					+ String.format("%.1f", (double) stream / mapped) + "x)");
+			file.delete();
+		}
+	}
+	
+	// INTERN
+	// 
+	private static Map readStream(File file) throws Exception {
+		return MapIO.readMap(new FileInputStream(file), false, READER);
+	}
+	private static Map readMapped(File file) {
+		return MapIO.readMapMapped(file.getPath(), READER);
+	}
+	private static Map createMap(int size) {
+		Random rnd = new Random(42);
+		SimpleMap map = new SimpleMap("benchmark", size, size, 16);
+		for (int i = 0; i <= LAYERS; i++) {
+			IntArrayLayer layer = new IntArrayLayer("layer" + i, null, size, size, IntArrayLayer.DEFAULT_CHUNK_SIZE);
+			for (int x = 0; x < size; x++) {
+				for (int y = 0; y < size; y++) {
+					layer.setTileAt(x, y, rnd.nextInt(256));
+				}
+			}
+			if (i < LAYERS) {
+				map.getLayers().add(layer);
+			} else {
+				map.setCollisionLayer(layer);
+			}
+		}
+		return map;
+	}
+	
+	private static final MapIOReader READER = new MapIOReader() {
+		public Map getMapInstance(String classname) {
+			return new SimpleMap();
+		}
+		public Layer getLayerIntance(String classname) {
+			return new IntArrayLayer();
+		}
+		public TileSet getTileSetIntance(String classname, String resourceName, String resourceLocation) {
+			return null;
+		}
+		public Tile getTileInstance(String classname, String type) {
+			return new SimpleTile();
+		}
+		public EntityLayer getEntityLayerInstance(String classname) {
+			return new SimpleEntityLayer();
+		}
+		public Entity getEntityInstance(String classname) {
+			throw new UnsupportedOperationException("the benchmark map has no entities");
+		}
+	};
+	
+}
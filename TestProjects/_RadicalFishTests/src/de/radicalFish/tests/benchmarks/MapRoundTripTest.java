@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2012, Stefan Lange
+ * 
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ *     * Redistributions of source code must retain the above copyright notice,
+ *       this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of Stefan Lange nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package de.radicalfish.tests.benchmarks;
+import java.io.File;
+import java.io.FileInputStream;
+import de.radicalfish.debug.Logger;
+import de.radicalfish.world.Entity;
+import de.radicalfish.world.map.ChunkedLayer;
+import de.radicalfish.world.map.EntityLayer;
+import de.radicalfish.world.map.IntArrayLayer;
+import de.radicalfish.world.map.Layer;
+import de.radicalfish.world.map.Map;
+import de.radicalfish.world.map.MapIO;
+import de.radicalfish.world.map.MapIOReader;
+import de.radicalfish.world.map.SimpleEntityLayer;
+import de.radicalfish.world.map.SimpleMap;
+import de.radicalfish.world.map.SimpleTile;
+import de.radicalfish.world.map.Tile;
+import de.radicalfish.world.map.TileSet;
+
+/**
+ * Writes a map with negative tile ids and loads it back into {@link IntArrayLayer}s with
+ * {@link MapIO#readMap(java.io.InputStream, boolean, MapIOReader)} and {@link MapIO#readMapMapped(String, MapIOReader)}
+ * for zipped, raw and block encoded files. Negative ids must come back as {@link IntArrayLayer#EMPTY} (like
+ * {@link IntArrayLayer#setTileAt(int, int, int)} does) and all other ids must survive. Run it as a plain java
+ * application, it throws an exception on the first mismatch.
+ * 
+ * @author Stefan Lange
+ * @version 1.0.0
+ * @since 18.10.2026
+ */
+public class MapRoundTripTest {
+	
+	private static final int SIZE = 48;
+	
+	public static void main(String[] args) throws Exception {
+		Logger.setLogging(false);
+		
+		// zipped files use runs, uncompressed files use the raw or block encoding
+		for (int i = 0; i < 2; i++) {
+			Map map = createMap(i == 0);
+			
+			File file = File.createTempFile("roundtrip", ".map");
+			file.deleteOnExit();
+			MapIO.writeMap(file.getPath(), map, false);
+			check(map, MapIO.readMap(new FileInputStream(file), false, READER), "stream");
+			check(map, MapIO.readMapMapped(file.getPath(), READER), "mapped");
+			
+			MapIO.writeMap(file.getPath(), map, true);
+			check(map, MapIO.readMap(new FileInputStream(file), true, READER), "zipped");
+			file.delete();
+		}
+		System.out.println("Map round trip: ok");
+	}
+	
+	// INTERN
+	// 
+	private static void check(Map expected, Map loaded, String path) {
+		for (int i = 0; i < expected.getLayers().size(); i++) {
+			Layer source = expected.getLayers().get(i);
+			IntArrayLayer layer = (IntArrayLayer) loaded.getLayers().get(i);
+			for (int x = 0; x < SIZE; x++) {
+				for (int y = 0; y < SIZE; y++) {
+					Tile tile = source.getTileAt(x, y);
+					int id = tile == null || tile.getTileID() < 0 ? IntArrayLayer.EMPTY : tile.getTileID();
+					if (layer.getTileIDAt(x, y) != id) {
+						throw new IllegalStateException(path + ": " + layer.getName() + " at " + x + ", " + y
+								+ " expected " + id + " but was " + layer.getTileIDAt(x, y));
+					}
+				}
+			}
+		}
+	}
+	private static Map createMap(boolean runs) {
+		SimpleMap map = new SimpleMap("roundtrip", SIZE, SIZE, 16);
+		Tile[][] tiles = new Tile[SIZE][SIZE];
+		for (int x = 0; x < SIZE; x++) {
+			for (int y = 0; y < SIZE; y++) {
+				if (runs) {
+					// long runs of the same negative id hit the fill path of the loader
+					tiles[x][y] = y < SIZE / 2 ? new SimpleTile(-2) : new SimpleTile(x);
+				} else {
+					int id = (x * 31 + y * 17) % 7 - 3;
+					tiles[x][y] = id == 0 ? null : new SimpleTile(id);
+				}
+			}
+		}
+		map.getLayers().add(new ChunkedLayer("layer", null, tiles, 16));
+		map.setCollisionLayer(new ChunkedLayer("collision", null, new Tile[SIZE][SIZE], 16));
+		return map;
+	}
+	
+	private static final MapIOReader READER = new MapIOReader() {
+		public Map getMapInstance(String classname) {
+			return new SimpleMap();
+		}
+		public Layer getLayerIntance(String classname) {
+			return new IntArrayLayer();
+		}
+		public TileSet getTileSetIntance(String classname, String resourceName, String resourceLocation) {
+			return null;
+		}
+		public Tile getTileInstance(String classname, String type) {
+			return new SimpleTile();
+		}
+		public EntityLayer getEntityLayerInstance(String classname) {
+			return new SimpleEntityLayer();
+		}
+		public Entity getEntityInstance(String classname) {
+			throw new UnsupportedOperationException("the test map has no entities");
+		}
+	};
+	
+}
@@ -0,0 +1,267 @@
+/*
+ * Copyright (c) 2012, Stefan Lange
+ * 
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ *     * Redistributions of source code must retain the above copyright notice,
+ *       this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of Stefan Lange nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package de.radicalfish.tests.benchmarks;
+import java.util.List;
+import com.badlogic.gdx.math.Vector2;
+import de.radicalfish.context.GameContext;
+import de.radicalfish.context.GameDelta;
+import de.radicalfish.context.defaults.DefaultGameDelta;
+import de.radicalfish.graphics.Graphics;
+import de.radicalfish.world.Camera;
+import de.radicalfish.world.CollisionManager;
+import de.radicalfish.world.Entity;
+import de.radicalfish.world.EntityEffects;
+import de.radicalfish.world.EntitySystem;
+import de.radicalfish.world.GameWorld;
+import de.radicalfish.world.ParallelEntitySystem;
+import de.radicalfish.world.map.Map;
+
+/**
+ * Updates 20000 entities with some expensive steering logic in a {@link ParallelEntitySystem} with 1, 2, 4 and 8
+ * threads. Every entity damages another one now and then and dead entities spawn a replacement, both through the
+ * {@link EntityEffects} buffers. Prints the time per frame and a checksum over the state of all entities after the run,
+ * which has to be the same for every number of threads. Run it as a plain java application, the number of entities can
+ * be passed as first argument.
+ * 
+ * @author Stefan Lange
+ * @version 1.0.0
+ * @since 18.10.2026
+ */
+public class ParallelEntityBenchmark {
+	
+	private static final int FRAMES = 300;
+	private static final int[] THREADS = { 1, 2, 4, 8 };
+	
+	public static void main(String[] args) {
+		int count = args.length > 0 ? Integer.parseInt(args[0]) : 20000;
+		
+		System.out.println("Entities: " + count + ", processors: " + Runtime.getRuntime().availableProcessors());
+		float base = 0;
+		long expected = 0;
+		for (int threads : THREADS) {
+			ParallelEntitySystem system = new ParallelEntitySystem(threads);
+			float time = run(system, count);
+			long checksum = checksum(system);
+			system.dispose();
+			if (threads == 1) {
+				base = time;
+				expected = checksum;
+			}
+			System.out.println(threads + " thread(s): " + String.format("%.3f", time) + " ms per frame, speed up "
+					+ String.format("%.2f", base / time) + ", checksum " + Long.toHexString(checksum)
+					+ (checksum == expected ? "" : " DIFFERS!"));
+		}
+	}
+	
+	// INTERN
+	// 
+	private static float run(ParallelEntitySystem system, int count) {
+		GameWorld world = new BenchmarkWorld();
+		GameDelta delta = new DefaultGameDelta();
+		for (int i = 0; i < count; i++) {
+			system.addEntity(new Agent(system, i), null, world);
+		}
+		
+		// warm up
+		for (int i = 0; i < 50; i++) {
+			system.update(null, world, delta);
+		}
+		long time = System.nanoTime();
+		for (int i = 0; i < FRAMES; i++) {
+			system.update(null, world, delta);
+		}
+		return (System.nanoTime() - time) / 1000000f / FRAMES;
+	}
+	private static long checksum(ParallelEntitySystem system) {
+		long checksum = system.getEntities().size();
+		for (int i = 0; i < system.getEntities().size(); i++) {
+			Agent agent = (Agent) system.getEntities().get(i);
+			checksum = checksum * 31 + agent.getID();
+			checksum = checksum * 31 + Float.floatToIntBits(agent.getPositionX());
+			checksum = checksum * 31 + Float.floatToIntBits(agent.getPositionY());
+			checksum = checksum * 31 + agent.health;
+		}
+		return checksum;
+	}
+	
+	// INTERN CLASSES
+	// 
+	/**
+	 * An entity steering towards a moving target, hitting another agent every 16 frames.
+	 */
+	private static class Agent extends Entity {
+		
+		private final ParallelEntitySystem system;
+		private final Damage damage;
+		private int health = 100, age;
+		
+		public Agent(ParallelEntitySystem system, int id) {
+			this.system = system;
+			damage = new Damage();
+			setID(id);
+			setPosition((id * 37) % 1000, (id * 91) % 1000);
+		}
+		
+		public void init(GameContext context, GameWorld world) {}
+		public void doUpdate(GameContext context, GameWorld world, GameDelta delta) {
+			age++;
+			// some "expensive" ai, only float arithmetic to be exact on every thread
+			float tx = (age * 7) % 1000, ty = (age * 13) % 1000;
+			float vx = velocity.x, vy = velocity.y;
+			for (int i = 0; i < 200; i++) {
+				float dx = tx - position.x - vx, dy = ty - position.y - vy;
+				vx = vx * 0.98f + dx * 0.0001f;
+				vy = vy * 0.98f + dy * 0.0001f;
+			}
+			velocity.set(vx, vy);
+			position.add(velocity);
+			
+			if ((age + getID()) % 16 == 0) {
+				List<Entity> entities = system.getEntities();
+				damage.target = (Agent) entities.get((getID() * 7 + age) % entities.size());
+				system.getEffects().post(damage);
+			}
+			if (health <= 0) {
+				setAlive(false);
+				system.getEffects().spawn(new Agent(system, getID() + 100000));
+			}
+		}
+		public void doRender(GameContext context, GameWorld world, Graphics g) {}
+		
+		public boolean canCollide() {
+			return false;
+		}
+		public int getLayer() {
+			return 0;
+		}
+		public int getCollisionWidth() {
+			return 16;
+		}
+		public int getCollisionHeight() {
+			return 16;
+		}
+		
+	}
+	/**
+	 * Damage an agent deals to another one.
+	 */
+	private static class Damage implements EntityEffects.Effect {
+		
+		private Agent target;
+		
+		public void apply(GameContext context, GameWorld world) {
+			target.health -= 7;
+		}
+		
+	}
+	/**
+	 * A world which only knows its tile size and a camera which never moves.
+	 */
+	private static class BenchmarkWorld implements GameWorld {
+		
+		private final Camera camera = new BenchmarkCamera();
+		
+		public void init(GameContext context) {}
+		public void update(GameContext context, GameDelta delta) {}
+		public void render(GameContext context, Graphics g) {}
+		public void dispose() {}
+		
+		public void addCollisionManager(String name, CollisionManager manager) {}
+		public void addEntitySystem(String name, EntitySystem system) {}
+		public void removeEntitySystem(String name) {}
+		public void setCamera(Camera camera) {}
+		public void setMap(Map map) {}
+		public void setGravity(float gravity) {}
+		
+		public CollisionManager getCollisionManager(String name) {
+			return null;
+		}
+		public List<EntitySystem> getEntitySystems() {
+			return null;
+		}
+		public EntitySystem getEntitySystem(String name) {
+			return null;
+		}
+		public Camera getCamera() {
+			return camera;
+		}
+		public Map getMap() {
+			return null;
+		}
+		public float getGravity() {
+			return 0;
+		}
+		public int getTileSize() {
+			return 16;
+		}
+		
+	}
+	/**
+	 * A camera standing still at 0, 0.
+	 */
+	private static class BenchmarkCamera implements Camera {
+		
+		private final Vector2 current = new Vector2();
+		
+		public void update(GameContext context, GameWorld world, GameDelta delta) {}
+		public void translate(GameContext context, GameWorld world, Graphics g) {}
+		public void translateMap(GameContext context, GameWorld world, Graphics g) {}
+		
+		public Vector2 getCurrent() {
+			return current;
+		}
+		public float getCurrentX() {
+			return 0;
+		}
+		public float getCurrentY() {
+			return 0;
+		}
+		public Vector2 getTarget() {
+			return current;
+		}
+		public float getTargetX() {
+			return 0;
+		}
+		public float getTargetY() {
+			return 0;
+		}
+		public float getSpeed() {
+			return 0;
+		}
+		
+		public void setCurrent(GameWorld world, float x, float y) {}
+		public void setTarget(GameWorld world, float x, float y, int time) {}
+		public void setSpeed(float speed) {}
+		public void centerCurrent(GameWorld world, float x, float y) {}
+		public void centerTarget(GameWorld world, float x, float y, int time) {}
+		
+	}
+	
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2012, Stefan Lange
+ * 
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ *     * Redistributions of source code must retain the above copyright notice,
+ *       this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of Stefan Lange nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package de.radicalfish.tests.benchmarks;
+import java.util.Random;
+import de.radicalfish.particles.Drag;
+import de.radicalfish.particles.GravityPoint;
+import de.radicalfish.particles.ParticleSystem;
+import de.radicalfish.particles.Vortex;
+
+/**
+ * Updates 200000 particles pulled towards and spun around a point with drag, once with one object per particle like
+ * the old ParticleTest did and then with a {@link ParticleSystem} with 1, 2 and 4 threads. Prints the time per frame
+ * (a frame at 60 fps has 16.6 ms). Run it as a plain java application, the number of particles can be passed as first
+ * argument.
+ * 
+ * @author Stefan Lange
+ * @version 1.0.0
+ * @since 18.10.2026
+ */
+public class ParticleBenchmark {
+	
+	private static final int FRAMES = 300;
+	private static final int[] THREADS = { 1, 2, 4 };
+	private static final float DELTA = 1 / 60f;
+	
+	public static void main(String[] args) {
+		int count = args.length > 0 ? Integer.parseInt(args[0]) : 200000;
+		
+		System.out.println("Particles: " + count + ", processors: " + Runtime.getRuntime().availableProcessors());
+		System.out.println("objects: " + String.format("%.3f", runObjects(count)) + " ms per frame");
+		for (int threads : THREADS) {
+			ParticleSystem system = new ParticleSystem(count, threads);
+			float time = runSystem(system, count);
+			system.dispose();
+			System.out.println("system, " + threads + " thread(s): " + String.format("%.3f", time) + " ms per frame");
+		}
+	}
+	
+	// INTERN
+	// 
+	private static float runObjects(int count) {
+		Random random = new Random(1);
+		Particle[] particles = new Particle[count];
+		for (int i = 0; i < count; i++) {
+			particles[i] = new Particle();
+			particles[i].px = random.nextFloat() * 800;
+			particles[i].py = random.nextFloat() * 600;
+			particles[i].life = 1000;
+		}
+		// shuffle like objects allocated over time would be
+		for (int i = count - 1; i > 0; i--) {
+			int j = random.nextInt(i + 1);
+			Particle temp = particles[i];
+			particles[i] = particles[j];
+			particles[j] = temp;
+		}
+		
+		for (int i = 0; i < 50; i++) {
+			updateObjects(particles);
+		}
+		long time = System.nanoTime();
+		for (int i = 0; i < FRAMES; i++) {
+			updateObjects(particles);
+		}
+		return (System.nanoTime() - time) / 1000000f / FRAMES;
+	}
+	private static void updateObjects(Particle[] particles) {
+		float factor = (float) Math.pow(1 - 0.3f, DELTA), dx, dy, length;
+		for (int i = 0; i < particles.length; i++) {
+			Particle p = particles[i];
+			dx = 400 - p.px;
+			dy = 300 - p.py;
+			length = (float) Math.sqrt(dx * dx + dy * dy);
+			if (length > 0.0001f) {
+				p.vx += dx / length * 600 * DELTA;
+				p.vy += dy / length * 600 * DELTA;
+				p.vx -= dy / length * 400 * DELTA;
+				p.vy += dx / length * 400 * DELTA;
+			}
+			p.vx *= factor;
+			p.vy *= factor;
+			p.px += p.vx * DELTA;
+			p.py += p.vy * DELTA;
+			p.life -= DELTA;
+		}
+	}
+	private static float runSystem(ParticleSystem system, int count) {
+		Random random = new Random(1);
+		for (int i = 0; i < count; i++) {
+			system.spawn(random.nextFloat() * 800, random.nextFloat() * 600, 0, 0, 1000, 0);
+		}
+		system.addAffector(new GravityPoint(400, 300, 600));
+		system.addAffector(new Vortex(400, 300, 400));
+		system.addAffector(new Drag(0.3f));
+		
+		for (int i = 0; i < 50; i++) {
+			system.update(DELTA);
+		}
+		long time = System.nanoTime();
+		for (int i = 0; i < FRAMES; i++) {
+			system.update(DELTA);
+		}
+		return (System.nanoTime() - time) / 1000000f / FRAMES;
+	}
+	
+	// INTERN CLASSES
+	// 
+	/**
+	 * A particle as an object, like the ParticleTest used.
+	 */
+	private static class Particle {
+		private float px, py, vx, vy, life;
+	}
+	
+}
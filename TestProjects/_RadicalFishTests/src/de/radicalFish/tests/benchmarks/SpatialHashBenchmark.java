@@ -0,0 +1,196 @@
+/*
+ * Copyright (c) 2012, Stefan Lange
+ * 
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ *     * Redistributions of source code must retain the above copyright notice,
+ *       this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of Stefan Lange nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package de.radicalfish.tests.benchmarks;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import com.badlogic.gdx.math.Rectangle;
+import de.radicalfish.context.GameContext;
+import de.radicalfish.context.GameDelta;
+import de.radicalfish.graphics.Graphics;
+import de.radicalfish.world.Camera;
+import de.radicalfish.world.CollisionManager;
+import de.radicalfish.world.Entity;
+import de.radicalfish.world.EntitySystem;
+import de.radicalfish.world.GameWorld;
+import de.radicalfish.world.collision.SpatialHashCollisionManager;
+import de.radicalfish.world.map.Map;
+
+/**
+ * Moves 10000 entities (16x16) through a world of 400x400 tiles and checks them with the
+ * {@link SpatialHashCollisionManager}, one call per entity and frame like an entity system does. Prints the average
+ * time per frame and compares the reported pairs of the last frame against a brute force check. Run it as a plain
+ * java application, the number of entities can be passed as first argument.
+ * 
+ * @author Stefan Lange
+ * @version 1.0.0
+ * @since 18.10.2026
+ */
+public class SpatialHashBenchmark {
+	
+	private static final int TILE_SIZE = 16;
+	private static final int WORLD_SIZE = 400 * TILE_SIZE;
+	private static final int FRAMES = 600;
+	private static final float FRAME_BUDGET = 1000f / 60;
+	
+	public static void main(String[] args) {
+		int count = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+		
+		Random rnd = new Random(42);
+		List<MovingEntity> entities = new ArrayList<MovingEntity>();
+		for (int i = 0; i < count; i++) {
+			MovingEntity entity = new MovingEntity();
+			entity.setPosition(rnd.nextFloat() * WORLD_SIZE, rnd.nextFloat() * WORLD_SIZE);
+			entity.setVelocity(rnd.nextFloat() * 4 - 2, rnd.nextFloat() * 4 - 2);
+			entities.add(entity);
+		}
+		
+		GameWorld world = new BenchmarkWorld();
+		SpatialHashCollisionManager manager = new SpatialHashCollisionManager();
+		
+		// warm up
+		for (int i = 0; i < 100; i++) {
+			step(world, manager, entities);
+		}
+		
+		long time = System.nanoTime(), worst = 0;
+		for (int i = 0; i < FRAMES; i++) {
+			long frame = System.nanoTime();
+			step(world, manager, entities);
+			worst = Math.max(worst, System.nanoTime() - frame);
+		}
+		float average = (System.nanoTime() - time) / 1000000f / FRAMES;
+		
+		manager.nextPass();
+		System.out.println("Entities: " + count + ", Cells: " + manager.getCellCount());
+		System.out.println("Average : " + String.format("%.3f", average) + " ms per frame (budget "
+				+ String.format("%.1f", FRAME_BUDGET) + " ms)");
+		System.out.println("Worst   : " + String.format("%.3f", worst / 1000000f) + " ms");
+		System.out.println("Pairs   : " + manager.getPairCount() + " (brute force: " + bruteForce(entities) + ")");
+	}
+	
+	// INTERN
+	// 
+	private static void step(GameWorld world, CollisionManager manager, List<MovingEntity> entities) {
+		for (int i = 0; i < entities.size(); i++) {
+			MovingEntity entity = entities.get(i);
+			entity.doUpdate(null, world, null);
+			manager.checkCollision(null, world, entity, false);
+		}
+	}
+	private static int bruteForce(List<MovingEntity> entities) {
+		Rectangle a = new Rectangle(), b = new Rectangle();
+		int pairs = 0;
+		for (int i = 0; i < entities.size(); i++) {
+			entities.get(i).calculateCollisionBox(a);
+			for (int j = i + 1; j < entities.size(); j++) {
+				if (a.overlaps(entities.get(j).calculateCollisionBox(b))) {
+					pairs++;
+				}
+			}
+		}
+		return pairs;
+	}
+	
+	// INTERN CLASSES
+	// 
+	/**
+	 * A 16x16 entity moving with a constant speed and bouncing off the border of the world.
+	 */
+	private static class MovingEntity extends Entity {
+		
+		public void init(GameContext context, GameWorld world) {}
+		public void doUpdate(GameContext context, GameWorld world, GameDelta delta) {
+			position.add(velocity);
+			if (position.x < 0 || position.x > WORLD_SIZE - TILE_SIZE) {
+				velocity.x = -velocity.x;
+			}
+			if (position.y < 0 || position.y > WORLD_SIZE - TILE_SIZE) {
+				velocity.y = -velocity.y;
+			}
+		}
+		public void doRender(GameContext context, GameWorld world, Graphics g) {}
+		
+		public boolean canCollide() {
+			return true;
+		}
+		public int getLayer() {
+			return 0;
+		}
+		public int getCollisionWidth() {
+			return TILE_SIZE;
+		}
+		public int getCollisionHeight() {
+			return TILE_SIZE;
+		}
+		
+	}
+	/**
+	 * A world which only knows its tile size.
+	 */
+	private static class BenchmarkWorld implements GameWorld {
+		
+		public void init(GameContext context) {}
+		public void update(GameContext context, GameDelta delta) {}
+		public void render(GameContext context, Graphics g) {}
+		public void dispose() {}
+		
+		public void addCollisionManager(String name, CollisionManager manager) {}
+		public void addEntitySystem(String name, EntitySystem system) {}
+		public void removeEntitySystem(String name) {}
+		public void setCamera(Camera camera) {}
+		public void setMap(Map map) {}
+		public void setGravity(float gravity) {}
+		
+		public CollisionManager getCollisionManager(String name) {
+			return null;
+		}
+		public List<EntitySystem> getEntitySystems() {
+			return null;
+		}
+		public EntitySystem getEntitySystem(String name) {
+			return null;
+		}
+		public Camera getCamera() {
+			return null;
+		}
+		public Map getMap() {
+			return null;
+		}
+		public float getGravity() {
+			return 0;
+		}
+		public int getTileSize() {
+			return TILE_SIZE;
+		}
+		
+	}
+	
+}
@@ -0,0 +1,348 @@
+/*
+ * Copyright (c) 2012, Stefan Lange
+ * 
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ *     * Redistributions of source code must retain the above copyright notice,
+ *       this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of Stefan Lange nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package de.radicalfish.tests.benchmarks;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.utils.Array;
+import de.radicalfish.debug.AllocationMonitor;
+import de.radicalfish.font.StyleParser;
+import de.radicalfish.font.StyledLine;
+import de.radicalfish.font.StyledText;
+import de.radicalfish.font.commands.ColorCommand;
+import de.radicalfish.font.commands.FadeCommand;
+import de.radicalfish.font.commands.GroupCommand;
+import de.radicalfish.font.commands.MoveCommand;
+import de.radicalfish.font.commands.RepeatCommand;
+import de.radicalfish.font.commands.ResetCommand;
+import de.radicalfish.font.commands.ResetCommand.RESET;
+import de.radicalfish.font.commands.StyleCommand;
+import de.radicalfish.state.transitions.FadeTransition.FADE;
+import de.radicalfish.util.RadicalFishException;
+import de.radicalfish.util.Utils;
+
+/**
+ * Parses a generated dialogue script (2000 lines with 4 commands each by default) with the {@link StyleParser} and
+ * with a copy of the regex based parser it replaced. Prints the time and the allocated bytes per script and checks
+ * that both parsers return the same text and charpoints. Run it as a plain java application, the number of lines can
+ * be passed as first argument.
+ * 
+ * @author Stefan Lange
+ * @version 1.0.0
+ * @since 18.10.2026
+ */
+public class StyleParserBenchmark {
+	
+	private static final int WARMUP = 20;
+	private static final int RUNS = 50;
+	
+	public static void main(String[] args) {
+		int lines = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+		String script = createScript(lines);
+		System.out.println("Lines: " + lines + ", chars: " + script.length());
+		
+		StyleParser parser = new StyleParser();
+		LegacyStyleParser legacy = new LegacyStyleParser();
+		StyledText text = new StyledText();
+		StyledText legacyText = new StyledText();
+		
+		String result = parser.parseMultiLine(script, text);
+		String legacyResult = legacy.parseMultiLine(script, legacyText);
+		System.out.println("same text: " + result.equals(legacyResult) + ", same commands: "
+				+ sameCommands(text, legacyText));
+		
+		AllocationMonitor allocations = new AllocationMonitor();
+		allocations.setBudget(0);
+		for (int i = 0; i < WARMUP; i++) {
+			legacy.parseMultiLine(script, legacyText);
+			parser.parseMultiLine(script, text);
+		}
+		long start = allocations.begin();
+		long time = System.nanoTime();
+		for (int i = 0; i < RUNS; i++) {
+			legacy.parseMultiLine(script, legacyText);
+		}
+		float legacyTime = (System.nanoTime() - time) / 1000000f / RUNS;
+		allocations.endRender(start);
+		allocations.endFrame();
+		long legacyBytes = allocations.getLastFrame() / RUNS;
+		
+		start = allocations.begin();
+		time = System.nanoTime();
+		for (int i = 0; i < RUNS; i++) {
+			parser.parseMultiLine(script, text);
+		}
+		float parserTime = (System.nanoTime() - time) / 1000000f / RUNS;
+		allocations.endRender(start);
+		allocations.endFrame();
+		long parserBytes = allocations.getLastFrame() / RUNS;
+		
+		System.out.println("regex parser:  " + String.format("%.3f", legacyTime) + " ms, " + legacyBytes / 1024
+				+ " KB per script");
+		System.out.println("single pass:   " + String.format("%.3f", parserTime) + " ms, " + parserBytes / 1024
+				+ " KB per script");
+	}
+	
+	// INTERN
+	// 
+	/**
+	 * @return a script where every line has text and 4 different commands out of a small set, like a dialogue where the
+	 *         same colors and effects come up again and again.
+	 */
+	private static String createScript(int lines) {
+		String[] commands = { "[co:1.0,0.2,0.2,1.0]", "[sc:0.2,1.0,0.2,1.0]", "[fd:1.5,in]", "[x:color]",
+				"[mv:0,-4,0.5]", "[sm:2, 2, 0.25]", "[rp:(fd:1.0,out), 4]", "[gp:(sm:0,-2,0.3),0.05,6]" };
+		String[] words = { "Hello", "there,", "traveller.", "The", "fish", "are", "radical", "today", "and", "you",
+				"should", "see", "them!" };
+		Random random = new Random(1);
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < lines; i++) {
+			int first = random.nextInt(commands.length);
+			for (int w = 0; w < 12; w++) {
+				if (w % 3 == 0) {
+					// the old parser gets the charpoint of a command wrong if it's twice in a line
+					sb.append(commands[(first + w / 3) % commands.length]);
+				}
+				sb.append(words[random.nextInt(words.length)]).append(' ');
+			}
+			sb.append('\n');
+		}
+		return sb.toString();
+	}
+	private static boolean sameCommands(StyledText a, StyledText b) {
+		if (a.lines.size != b.lines.size) {
+			return false;
+		}
+		for (int i = 0; i < a.lines.size; i++) {
+			Array<StyleCommand> ca = a.lines.get(i).commands, cb = b.lines.get(i).commands;
+			if (ca.size != cb.size) {
+				return false;
+			}
+			for (int j = 0; j < ca.size; j++) {
+				if (ca.get(j).getClass() != cb.get(j).getClass() || ca.get(j).charpoint != cb.get(j).charpoint) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+	
+	// INTERN CLASSES
+	// 
+	/**
+	 * The regex based parser the {@link StyleParser} used before, copied to compare against.
+	 */
+	private static class LegacyStyleParser {
+		
+		// lookahead so nested brackets should work (SHOULD not sure I suck an regex)
+		private static final Pattern param = Pattern.compile(",(?![^()]*+\\))");
+		// should work on unix system that way
+		private static final Pattern lineSep = Pattern.compile("\r?\n");
+		// version 3.0 hopefully covers all needs
+		private static final Pattern cp = Pattern.compile("\\[(\\w+)(?::([^,\\]]+(?:,[^,\\]]+?)*))?\\]");
+		
+		public String parseLine(String text, StyledLine output) {
+			Utils.notNull("text", text);
+			
+			StyledLine con = output;
+			con.commands.clear();
+			
+			if (!text.isEmpty()) {
+				text = _parse(text, con);
+			}
+			
+			return text;
+		}
+		public String parseMultiLine(String text, StyledText output) {
+			Utils.notNull("text", text);
+			
+			StyledText con = output;
+			con.lines.clear();
+			
+			StringBuilder sb = new StringBuilder();
+			String[] lines = lineSep.split(text);
+			for (int i = 0; i < lines.length; i++) {
+				StyledLine line = new StyledLine();
+				sb.append(parseLine(lines[i], line) + "\n");
+				output.add(line);
+			}
+			return sb.toString();
+		}
+		
+		private String _parse(String line, StyledLine output) {
+			Matcher matcher = cp.matcher(line);
+			while (matcher.find()) {
+				String name;
+				String command = matcher.group();
+				
+				int index = line.indexOf(command);
+				line = line.replace(command, "");
+				
+				command = command.substring(1, command.length() - 1);
+				if (command.contains(":")) {
+					name = command.substring(0, command.indexOf(":"));
+					command = command.substring(command.indexOf(":") + 1, command.length()).replace(" ", "");
+				} else {
+					name = command;
+					command = "";
+				}
+				
+				output.add(createCommand(name, command, index));
+			}
+			return line;
+		}
+		
+		private StyleCommand createCommand(String name, String params, int charpoint) {
+			if (name.equals("co")) {
+				return createColorCommand(param.split(params), false, charpoint);
+			} else if (name.equals("sc")) {
+				return createColorCommand(param.split(params), true, charpoint);
+			} else if (name.equals("fd")) {
+				return createFadeCommand(param.split(params), charpoint);
+			} else if (name.equals("x")) {
+				return createResetCommand(param.split(params), charpoint);
+			} else if (name.equals("gp")) {
+				return createGroupCommand(param.split(params), charpoint);
+			} else if (name.equals("rp")) {
+				return createRepeatCommand(param.split(params), charpoint);
+			} else if (name.equals("mv")) {
+				return createMoveCommand(param.split(params), charpoint, false);
+			} else if (name.equals("sm")) {
+				return createMoveCommand(param.split(params), charpoint, true);
+			}
+			throw new RadicalFishException("Could not parse command: " + name + " with paramaters: " + params + " at charpoint: " + charpoint);
+		}
+		private StyleCommand createColorCommand(String[] params, boolean single, int charpoint) {
+			if (params.length != 4) {
+				throw new RadicalFishException("Number of Parameters for color/scolor (co/sc) command must be 4 (r, g, b, a)");
+			}
+			Color c = new Color(parseFloat(params[0]), parseFloat(params[1]), parseFloat(params[2]), parseFloat(params[3]));
+			return new ColorCommand(c, charpoint, single);
+		}
+		private StyleCommand createFadeCommand(String[] params, int charpoint) {
+			if (params.length != 2) {
+				throw new RadicalFishException("Number of Parameters for fade (fd) command must be 2 (duration, type)");
+			}
+			
+			float duration = parseFloat(params[0]);
+			if (!params[1].equals("in") && !params[1].equals("out")) {
+				throw new RadicalFishException("second parameter of fade command is not valid (must be in or out) given: " + params[1]);
+			}
+			boolean type = params[1].equals("in");
+			
+			return new FadeCommand(type ? FADE.IN : FADE.OUT, duration, charpoint);
+		}
+		private StyleCommand createResetCommand(String[] params, int charpoint) {
+			if (params.length != 1) {
+				throw new RadicalFishException("Number of Parameters for reset (x) command must be 1 (type)");
+			}
+			RESET res = null;
+			try {
+				res = RESET.valueOf(params[0].toUpperCase());
+			} catch (IllegalArgumentException e) {
+				throw new RadicalFishException("the given reset type is not in the enum: '" + params[0] + "'");
+			}
+			return new ResetCommand(res, charpoint);
+			
+		}
+		private StyleCommand createGroupCommand(String[] params, int charpoint) {
+			if (params.length != 3) {
+				throw new RadicalFishException("Number of Parameters for group command must be 3 (command, delay, number of characters)");
+			}
+			
+			String name;
+			String command = params[0].substring(1, params[0].length() - 1);
+			if (command.contains(":")) {
+				name = command.substring(0, command.indexOf(":"));
+				command = command.substring(command.indexOf(":") + 1, command.length()).replace(" ", "");
+			} else {
+				name = command;
+				command = "";
+			}
+			
+			float delay = parseFloat(params[1]);
+			int times = parseInt(params[2]);
+			
+			Array<StyleCommand> c = new Array<StyleCommand>();
+			for (int i = 0; i < times; i++) {
+				c.add(createCommand(name, command, charpoint));
+			}
+			
+			return new GroupCommand(c, charpoint, delay);
+		}
+		private StyleCommand createRepeatCommand(String[] params, int charpoint) {
+			if (params.length != 2) {
+				throw new RadicalFishException("Number of Parameters for repeat (rp) command must be 2 (command, number of characters)");
+			}
+			
+			String name;
+			String command = params[0].substring(1, params[0].length() - 1);
+			if (command.contains(":")) {
+				name = command.substring(0, command.indexOf(":"));
+				command = command.substring(command.indexOf(":") + 1, command.length()).replace(" ", "");
+			} else {
+				name = command;
+				command = "";
+			}
+			
+			int times = parseInt(params[1]);
+			
+			return new RepeatCommand(createCommand(name, command, charpoint), charpoint, times);
+		}
+		private StyleCommand createMoveCommand(String[] params, int charpoint, boolean single) {
+			if (params.length != 3) {
+				throw new RadicalFishException("Number of Parameters for move/smove (mv/sm) command must be 3 (x, y, time)");
+			}
+			
+			float x = parseFloat(params[0]);
+			float y = parseFloat(params[1]);
+			float time = parseFloat(params[2]);
+			return new MoveCommand(x, y, charpoint, time, single);
+		}
+		
+		private int parseInt(String val) {
+			try {
+				return Integer.parseInt(val);
+			} catch (NumberFormatException e) {
+				throw new RadicalFishException("Could not parse int value parameter (Maybe a parameter is not a int where it should be).");
+			}
+		}
+		private float parseFloat(String val) {
+			try {
+				return Float.parseFloat(val);
+			} catch (NumberFormatException e) {
+				throw new RadicalFishException("Could not parse float value parameter (Maybe a parameter is not a float where it should be).");
+			}
+		}
+		
+	}
+	
+}
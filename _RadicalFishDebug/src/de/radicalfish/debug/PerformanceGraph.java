@@ -55,6 +55,9 @@ import de.matthiasmann.twl.utils.TintAnimator;
  * A graph capable of displaying the time a certain update loop took in one frame. You can add
  * {@link PerformanceListener}s which can be used to visualize the update time. Use the setter for FPS and delta to
  * display them on the graph.
+ * <p>
+ * Scopes of the {@link Profiler} can be added by path with {@link #addProfilerScope(String, Color)}, e.g.
+ * "update/world/entities".
  * 
  * @author Stefan Lange
  * @version 1.0.0
@@ -94,6 +97,16 @@ public class PerformanceGraph extends ResizableFrame {
 		listeners.add(model);
 		list.addCheckBox(name, color, model.checkbox, model.lastTime);
 	}
+	/**
+	 * Adds the scope of the {@link Profiler} at <code>path</code> to the graph, named after the path. The scope gets
+	 * created if it was not measured yet.
+	 */
+	public void addProfilerScope(String path, Color color) {
+		if (path == null) {
+			throw new NullPointerException("path is null!");
+		}
+		addPerformanceListener(Profiler.getScope(path), path, color);
+	}
 	
 	// INTERN
 	// 
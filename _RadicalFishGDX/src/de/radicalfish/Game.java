@@ -58,7 +58,8 @@ public interface Game extends Disposable {
 	 */
 	public void update(GameContainer container, float delta) ;
 	/**
-	 * Renders the game. All drawing code should be here.
+	 * Renders the game. All drawing code should be here. If the container runs with a fixed timestep,
+	 * {@link GameContainer#getAlpha()} tells how far the time is into the next update.
 	 * 
 	 * @param container
 	 *            The container holding the game
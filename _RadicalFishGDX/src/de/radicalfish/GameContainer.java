@@ -29,6 +29,7 @@
  */
 package de.radicalfish;
 import java.util.Date;
+import java.util.concurrent.atomic.AtomicInteger;
 import com.badlogic.gdx.Application.ApplicationType;
 import com.badlogic.gdx.ApplicationListener;
 import com.badlogic.gdx.Gdx;
@@ -37,10 +38,13 @@ import com.badlogic.gdx.InputProcessor;
 import com.badlogic.gdx.graphics.GL10;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import de.radicalfish.debug.AllocationMonitor;
 import de.radicalfish.debug.DebugCallback;
 import de.radicalfish.debug.Logger;
+import de.radicalfish.debug.Profiler;
 import de.radicalfish.font.BMFont;
 import de.radicalfish.font.Font;
+import de.radicalfish.font.TextBuffer;
 import de.radicalfish.graphics.BlendMode;
 import de.radicalfish.graphics.Graphics;
 import de.radicalfish.util.RadicalFishException;
@@ -60,6 +64,21 @@ import de.radicalfish.util.Version;
  * and dispose() methods.
  * <p>
  * is the container is paused, it will not call any update or render code.
+ * <p>
+ * By default the game gets updated once per frame with the measured delta. With
+ * {@link #setFixedTimestep(boolean)} the container updates the game in fixed steps of 1 / tick rate seconds instead:
+ * the frame time gets collected in an accumulator and the game gets updated as often as whole steps fit in, but at
+ * most {@link #getMaxCatchUpSteps()} times per frame. The rest of the accumulator is exposed as {@link #getAlpha()}
+ * (between 0 and 1), so the render code can blend between the old and the current state (see
+ * {@link de.radicalfish.world.Entity#getInterpolatedX(float)}).
+ * <p>
+ * With {@link #setThreadedUpdate(boolean)} the game gets updated on its own thread with the tick rate, while the GL
+ * thread only renders. Input events get queued and handed to the game on the update thread. The game should implement
+ * {@link ThreadedGame} to publish a snapshot of its state after each update, render may only read that snapshot.
+ * <p>
+ * Every update and render gets measured by the {@link Profiler} in the scopes "update" and "render" ("publish" and
+ * "debug" for the rest), scopes opened by the game end up below these. The bytes allocated per frame get measured by
+ * the {@link AllocationMonitor} (see {@link #getAllocationMonitor()}), both show up in the debug overlay.
  * 
  * @author Stefan Lange
  * @version 1.0.0
@@ -88,14 +107,18 @@ public class GameContainer implements ApplicationListener {
 	protected GameInput input;
 	protected Graphics graphics;
 	protected VIEWTYPE viewtype = VIEWTYPE.FIX;
+	protected final AllocationMonitor allocations = new AllocationMonitor();
+	protected final TextBuffer debugText = new TextBuffer();
 	
 	protected String title = "";
 	protected String fontPath = "", fontDefPath = "";
 	
-	/** last measured delta (updated per frame). */
+	/** last measured delta (updated per frame). In fixed timestep mode this is the tick time during an update. */
 	public float delta;
 	/** last measured fps (updated per frame). */
 	public int fps;
+	/** how far the accumulator is into the next tick (0 to 1), always 1 if no fixed timestep is used. */
+	public float alpha = 1;
 	
 	/** the width of the game container. */
 	public int width = 800;
@@ -104,6 +127,11 @@ public class GameContainer implements ApplicationListener {
 	
 	private int batchSize = 2000;
 	
+	private volatile float tickTime = 1f / 60;
+	private float accumulator = 0;
+	private volatile int maxCatchUpSteps = 5;
+	private int ticks = 0;
+	
 	/** True if we want to use smooth delta (default is false). */
 	public boolean smoothDelta = false;
 	/** True if the transform should be reseted every frame (default is true). */
@@ -120,12 +148,18 @@ public class GameContainer implements ApplicationListener {
 	
 	private boolean createYUp = false;
 	private boolean created = false;
-	private boolean running = true;
+	private volatile boolean running = true;
 	private boolean canSetFullScreen = true;
 	private boolean fullscreen = false;
-	private boolean paused = false;
+	private volatile boolean paused = false;
 	private boolean vsync = true;
 	private boolean useGL20 = false;
+	private boolean fixedTimestep = false;
+	private boolean threadedUpdate = false;
+	
+	private UpdateThread updateThread;
+	private volatile long lastTick;
+	private volatile RuntimeException updateError;
 	
 	/**
 	 * Creates a new GameContainer with the given parameters. fullscreen will be set to false.
@@ -203,6 +237,15 @@ public class GameContainer implements ApplicationListener {
 	protected void fireUpdate() {
 		game.update(this, delta);
 	}
+	/**
+	 * Gets called after each update in threaded mode to call publish on the {@link ThreadedGame} implementation.
+	 * Override for your own code.
+	 */
+	protected void firePublish() {
+		if (game instanceof ThreadedGame) {
+			((ThreadedGame) game).publish(this);
+		}
+	}
 	/**
 	 * Gets called to call render on the {@link Game} implementation. Override for your own code.
 	 */
@@ -281,6 +324,9 @@ public class GameContainer implements ApplicationListener {
 			defaultFont = new BMFont(new BitmapFont(graphics.isYDown()));
 		}
 		
+		if (threadedUpdate) {
+			startUpdateThread();
+		}
 	}
 	public void render() {
 		try {
@@ -288,21 +334,35 @@ public class GameContainer implements ApplicationListener {
 				return;
 			}
 			if (running) {
-				delta = Gdx.graphics.getDeltaTime();
 				fps = Gdx.graphics.getFramesPerSecond();
 				
-				if (Gdx.app.getType() != ApplicationType.Android && smoothDelta) {
-					if (fps != 0) {
-						delta = (1000 / fps) / 1000f;
+				if (threadedUpdate) {
+					// delta stays at the tick time, it's read by the update thread
+					if (updateError != null) {
+						throw new RadicalFishException("the update thread failed", updateError);
 					}
+					ticks = updateThread.takeTicks();
+					alpha = Math.min(1f, (System.nanoTime() - lastTick) / (tickTime * 1000000000f));
+				} else if (fixedTimestep) {
+					delta = Gdx.graphics.getDeltaTime();
+					updateFixed();
+				} else {
+					delta = Gdx.graphics.getDeltaTime();
+					if (Gdx.app.getType() != ApplicationType.Android && smoothDelta) {
+						if (fps != 0) {
+							delta = (1000 / fps) / 1000f;
+						}
+					}
+					ticks = 1;
+					alpha = 1;
+					updateGame();
 				}
-				
-				fireUpdate();
-				if (debugCallBack != null) {
-					debugCallBack.update(this, delta);
+				if (debugCallBack != null && !threadedUpdate) {
+					updateDebug();
 				}
 				
 				// render
+				long renderStart = allocations.begin();
 				if (clipViewport) {
 					Gdx.gl.glClearColor(0, 0, 0, 1);
 					Gdx.gl.glClear(GL10.GL_COLOR_BUFFER_BIT);
@@ -319,9 +379,14 @@ public class GameContainer implements ApplicationListener {
 					graphics.clearScreen();
 				}
 				
-				fireRender();
-				if (debugCallBack != null) {
-					debugCallBack.render(this, graphics);
+				Profiler.begin("render");
+				try {
+					fireRender();
+					if (debugCallBack != null) {
+						debugCallBack.render(this, graphics);
+					}
+				} finally {
+					Profiler.end();
 				}
 				
 				// reset all to make each frame normal
@@ -334,16 +399,28 @@ public class GameContainer implements ApplicationListener {
 				// render fps
 				if (showDebug) {
 					batch.begin();
-					defaultFont.draw(batch, "Fps: " + fps, 5, (!graphics.isYDown() ? height - 5 : 5));
-					defaultFont.draw(batch, "Delta: " + (int) (delta * 1000) + "ms", 5, (!graphics.isYDown() ? height - 20 : 20));
+					debugText.clear().append("Fps: ").append(fps);
+					defaultFont.draw(batch, debugText, 5, (!graphics.isYDown() ? height - 5 : 5));
+					debugText.clear().append("Delta: ").append(delta * 1000, 2).append("ms");
+					defaultFont.draw(batch, debugText, 5, (!graphics.isYDown() ? height - 20 : 20));
+					if (allocations.isAvailable()) {
+						debugText.clear().append("Alloc: ").append(allocations.getLastFrame() / 1024);
+						debugText.append("KB (avg ").append(allocations.getAverage() / 1024);
+						debugText.append("KB, max ").append(allocations.getMax() / 1024).append("KB)");
+						defaultFont.draw(batch, debugText, 5, (!graphics.isYDown() ? height - 35 : 35));
+					}
 					batch.end();
 				}
+				allocations.endRender(renderStart);
+				allocations.endFrame();
 				
 				if (clipViewport) {
 					Gdx.gl.glDisable(GL10.GL_SCISSOR_TEST);
 				}
 				
-				input.update();
+				if (!threadedUpdate) {
+					input.update();
+				}
 			} else {
 				Gdx.app.exit();
 			}
@@ -370,6 +447,7 @@ public class GameContainer implements ApplicationListener {
 	}
 	
 	public void dispose() {
+		stopUpdateThread();
 		if (debugCallBack != null) {
 			debugCallBack.dispose();
 		}
@@ -380,6 +458,63 @@ public class GameContainer implements ApplicationListener {
 	
 	// INTERN
 	// 
+	private void updateFixed() {
+		float frameDelta = delta;
+		accumulator += frameDelta;
+		ticks = 0;
+		delta = tickTime;
+		while (accumulator >= tickTime && ticks < maxCatchUpSteps) {
+			updateGame();
+			accumulator -= tickTime;
+			ticks++;
+		}
+		// drop what we can't catch up, otherwise a slow frame makes the following frames slower too
+		if (accumulator >= tickTime) {
+			accumulator = accumulator % tickTime;
+		}
+		alpha = accumulator / tickTime;
+		delta = frameDelta;
+	}
+	private void updateGame() {
+		long start = allocations.begin();
+		Profiler.begin("update");
+		try {
+			fireUpdate();
+		} finally {
+			Profiler.end();
+		}
+		allocations.endUpdate(start);
+	}
+	private void updateDebug() {
+		Profiler.begin("debug");
+		try {
+			debugCallBack.update(this, delta);
+		} finally {
+			Profiler.end();
+		}
+	}
+	private void startUpdateThread() {
+		updateError = null;
+		delta = tickTime;
+		lastTick = System.nanoTime();
+		input.setQueued(true);
+		updateThread = new UpdateThread();
+		updateThread.start();
+	}
+	private void stopUpdateThread() {
+		if (updateThread == null) {
+			return;
+		}
+		updateThread.active = false;
+		updateThread.interrupt();
+		try {
+			updateThread.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		updateThread = null;
+		input.setQueued(false);
+	}
 	private void checkFullscreen(boolean fullscreen) {
 		if (this.fullscreen != fullscreen) {
 			this.fullscreen = fullscreen;
@@ -527,6 +662,60 @@ public class GameContainer implements ApplicationListener {
 	public void setSmoothDeltas(boolean smoothDelta) {
 		this.smoothDelta = smoothDelta;
 	}
+	/**
+	 * True if the game should be updated in fixed steps (see {@link #setTickRate(int)}). Smooth deltas are ignored in
+	 * this mode. Default is false.
+	 */
+	public void setFixedTimestep(boolean fixedTimestep) {
+		this.fixedTimestep = fixedTimestep;
+		accumulator = 0;
+		alpha = 1;
+	}
+	/**
+	 * True if the game should be updated on its own thread with the tick rate (see {@link #setTickRate(int)}) while the
+	 * GL thread renders. The game should implement {@link ThreadedGame}. {@link #getAlpha()} tells how far the time is
+	 * into the next update since the last published one. The update of the {@link DebugCallback} runs on the update
+	 * thread as well, its render stays on the GL thread. Default is false.
+	 * <p>
+	 * A {@link de.radicalfish.state.StateBasedGame} passes null as world to the render methods of its states in this
+	 * mode, since the world gets changed by the update thread at the same time. States which render the world have to
+	 * use {@link de.radicalfish.state.StateBasedGame#getSnapshot()} instead.
+	 */
+	public void setThreadedUpdate(boolean threadedUpdate) {
+		if (this.threadedUpdate == threadedUpdate) {
+			return;
+		}
+		this.threadedUpdate = threadedUpdate;
+		if (created) {
+			if (threadedUpdate) {
+				startUpdateThread();
+			} else {
+				stopUpdateThread();
+			}
+		}
+	}
+	/**
+	 * Sets the number of updates per second in fixed timestep and threaded mode. Default is 60.
+	 */
+	public void setTickRate(int ticksPerSecond) {
+		if (ticksPerSecond <= 0) {
+			throw new RadicalFishException("ticksPerSecond must be greater than 0!");
+		}
+		tickTime = 1f / ticksPerSecond;
+		if (threadedUpdate) {
+			delta = tickTime;
+		}
+	}
+	/**
+	 * Sets the maximum number of updates per frame in fixed timestep mode. If a frame took longer, the game runs slower
+	 * instead of trying to catch up with more and more updates. Default is 5.
+	 */
+	public void setMaxCatchUpSteps(int maxCatchUpSteps) {
+		if (maxCatchUpSteps <= 0) {
+			throw new RadicalFishException("maxCatchUpSteps must be greater than 0!");
+		}
+		this.maxCatchUpSteps = maxCatchUpSteps;
+	}
 	/**
 	 * True if the viewport of the game should be clipped. If the window gets resized, the "game area" will clip the
 	 * width and height set in the constructor. This works well when the
@@ -580,6 +769,12 @@ public class GameContainer implements ApplicationListener {
 	public GameInput getInput() {
 		return input;
 	}
+	/**
+	 * @return the monitor measuring the bytes allocated per frame. Use it to set the budget.
+	 */
+	public AllocationMonitor getAllocationMonitor() {
+		return allocations;
+	}
 	/**
 	 * @return the debug callback, can be null if on another implementation then Desktop.
 	 */
@@ -612,6 +807,18 @@ public class GameContainer implements ApplicationListener {
 	public boolean isSmoothDeltas() {
 		return smoothDelta;
 	}
+	/**
+	 * @return true if the game gets updated on its own thread.
+	 */
+	public boolean isThreadedUpdate() {
+		return threadedUpdate;
+	}
+	/**
+	 * @return true if the game gets updated in fixed steps.
+	 */
+	public boolean isFixedTimestep() {
+		return fixedTimestep;
+	}
 	/**
 	 * @return true if the screen gets cleared every frame.
 	 */
@@ -673,6 +880,37 @@ public class GameContainer implements ApplicationListener {
 	public int getFPS() {
 		return fps;
 	}
+	/**
+	 * @return how far the time is into the next update in fixed timestep mode (0 to 1). Use it in render to blend
+	 *         between the old and the current state. Always 1 if no fixed timestep is used.
+	 */
+	public float getAlpha() {
+		return alpha;
+	}
+	/**
+	 * @return the number of updates per second in fixed timestep mode.
+	 */
+	public int getTickRate() {
+		return Math.round(1f / tickTime);
+	}
+	/**
+	 * @return the time of one update in fixed timestep mode in seconds.
+	 */
+	public float getTickTime() {
+		return tickTime;
+	}
+	/**
+	 * @return the maximum number of updates per frame in fixed timestep mode.
+	 */
+	public int getMaxCatchUpSteps() {
+		return maxCatchUpSteps;
+	}
+	/**
+	 * @return the number of updates in the last frame.
+	 */
+	public int getTicks() {
+		return ticks;
+	}
 	
 	/**
 	 * @return the width of the container.
@@ -728,4 +966,81 @@ public class GameContainer implements ApplicationListener {
 		return sb.toString();
 	}
 	
+	// INTERN CLASSES
+	// 
+	/**
+	 * Updates the game with the tick rate in threaded mode.
+	 */
+	private class UpdateThread extends Thread {
+		
+		private volatile boolean active = true;
+		private final AtomicInteger ticks = new AtomicInteger();
+		
+		public UpdateThread() {
+			super("GameContainer Update");
+			setDaemon(true);
+		}
+		
+		public void run() {
+			long next = System.nanoTime();
+			try {
+				while (active) {
+					if (paused || !running) {
+						Thread.sleep(10);
+						next = System.nanoTime();
+						continue;
+					}
+					long tickNanos = (long) (tickTime * 1000000000d);
+					long now = System.nanoTime();
+					if (now < next) {
+						long wait = next - now;
+						Thread.sleep(wait / 1000000, (int) (wait % 1000000));
+						continue;
+					}
+					int steps = 0;
+					while (now >= next && steps < maxCatchUpSteps) {
+						tick();
+						next += tickNanos;
+						steps++;
+					}
+					// drop what we can't catch up
+					if (now >= next) {
+						next = now + tickNanos;
+					}
+				}
+			} catch (InterruptedException e) {
+				// stopped
+			} catch (RuntimeException e) {
+				updateError = e;
+			}
+		}
+		
+		/**
+		 * @return the number of updates since the last call.
+		 */
+		public int takeTicks() {
+			return ticks.getAndSet(0);
+		}
+		
+		private void tick() {
+			// the tick rate can be changed by the GL thread at any time
+			delta = tickTime;
+			input.processQueue();
+			updateGame();
+			if (debugCallBack != null) {
+				updateDebug();
+			}
+			input.update();
+			Profiler.begin("publish");
+			try {
+				firePublish();
+			} finally {
+				Profiler.end();
+			}
+			lastTick = System.nanoTime();
+			ticks.incrementAndGet();
+		}
+		
+	}
+	
 }
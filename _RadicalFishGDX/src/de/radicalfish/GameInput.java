@@ -39,6 +39,7 @@ import com.badlogic.gdx.Input.Peripheral;
 import com.badlogic.gdx.Input.TextInputListener;
 import com.badlogic.gdx.InputMultiplexer;
 import com.badlogic.gdx.InputProcessor;
+import com.badlogic.gdx.utils.IntArray;
 import com.badlogic.gdx.utils.ObjectIntMap;
 import de.radicalfish.debug.DebugCallback;
 
@@ -63,7 +64,7 @@ public class GameInput implements InputProcessor {
 			for (Field field : fields) {
 				if (Modifier.isStatic(field.getModifiers()) && Modifier.isPublic(field.getModifiers())
 						&& Modifier.isFinal(field.getModifiers()) && field.getType().equals(int.class)) {
-					
+						
 					int key = field.getInt(null);
 					
 					if (key >= 0) {
@@ -91,6 +92,8 @@ public class GameInput implements InputProcessor {
 	private boolean[] pressed;
 	private boolean[] buttons;
 	
+	private EventQueue queue;
+	
 	public GameInput() {
 		input = Gdx.input;
 		listener = new InputMultiplexer();
@@ -110,6 +113,15 @@ public class GameInput implements InputProcessor {
 		Arrays.fill(pressed, false);
 		Arrays.fill(buttons, false);
 	}
+	/**
+	 * Hands all queued events to the listeners. Call this on the thread which updates the game, the
+	 * {@link GameContainer} does this before each update in threaded mode.
+	 */
+	public void processQueue() {
+		if (queue != null) {
+			queue.drain(listener);
+		}
+	}
 	
 	/**
 	 * Inserts the {@link InputProcessor} on the first index of the processors. If you ad a second one it will override
@@ -312,6 +324,12 @@ public class GameInput implements InputProcessor {
 	
 	// GETTER
 	// 
+	/**
+	 * @return true if the events get queued until {@link #processQueue()} gets called.
+	 */
+	public boolean isQueued() {
+		return queue != null && input.getInputProcessor() == queue;
+	}
 	/**
 	 * @return whether the screen is currently touched.
 	 */
@@ -505,6 +523,22 @@ public class GameInput implements InputProcessor {
 	
 	// SETTER
 	// 
+	/**
+	 * True if input events should be queued instead of handed to the listeners right away. The queued events get
+	 * handed to the listeners on the thread which calls {@link #processQueue()}. Used by the {@link GameContainer} when
+	 * the game gets updated on its own thread. Switching it off hands all queued events to the listeners.
+	 */
+	public void setQueued(boolean queued) {
+		if (queued) {
+			if (queue == null) {
+				queue = new EventQueue();
+			}
+			input.setInputProcessor(queue);
+		} else {
+			input.setInputProcessor(listener);
+			processQueue();
+		}
+	}
 	/**
 	 * Sets whether the BACK button on Android should be caught. This will prevent the app from being paused. Will have
 	 * no effect on the desktop.
@@ -579,4 +613,102 @@ public class GameInput implements InputProcessor {
 		return keyCount;
 	}
 	
+	// INTERN CLASSES
+	// 
+	/**
+	 * Records input events from the input thread and replays them on the thread which updates the game.
+	 */
+	private static class EventQueue implements InputProcessor {
+		
+		private static final int KEY_DOWN = 0, KEY_UP = 1, KEY_TYPED = 2, TOUCH_DOWN = 3, TOUCH_UP = 4;
+		private static final int TOUCH_DRAGGED = 5, SCROLLED = 6, MOUSE_MOVED = 7;
+		
+		private IntArray events = new IntArray(64);
+		private IntArray processing = new IntArray(64);
+		
+		public boolean keyDown(int keycode) {
+			add(KEY_DOWN, keycode, 0, 0, 0);
+			return true;
+		}
+		public boolean keyUp(int keycode) {
+			add(KEY_UP, keycode, 0, 0, 0);
+			return true;
+		}
+		public boolean keyTyped(char character) {
+			add(KEY_TYPED, character, 0, 0, 0);
+			return true;
+		}
+		public boolean touchDown(int screenX, int screenY, int pointer, int button) {
+			add(TOUCH_DOWN, screenX, screenY, pointer, button);
+			return true;
+		}
+		public boolean touchUp(int screenX, int screenY, int pointer, int button) {
+			add(TOUCH_UP, screenX, screenY, pointer, button);
+			return true;
+		}
+		public boolean touchDragged(int screenX, int screenY, int pointer) {
+			add(TOUCH_DRAGGED, screenX, screenY, pointer, 0);
+			return true;
+		}
+		public boolean scrolled(int amount) {
+			add(SCROLLED, amount, 0, 0, 0);
+			return true;
+		}
+		public boolean mouseMoved(int screenX, int screenY) {
+			add(MOUSE_MOVED, screenX, screenY, 0, 0);
+			return true;
+		}
+		
+		/**
+		 * Hands all recorded events to <code>target</code> in the order they came in.
+		 */
+		public void drain(InputProcessor target) {
+			synchronized (this) {
+				IntArray temp = processing;
+				processing = events;
+				events = temp;
+			}
+			int[] items = processing.items;
+			for (int i = 0; i < processing.size; i += 5) {
+				int a = items[i + 1], b = items[i + 2], c = items[i + 3], d = items[i + 4];
+				switch (items[i]) {
+					case KEY_DOWN:
+						target.keyDown(a);
+						break;
+					case KEY_UP:
+						target.keyUp(a);
+						break;
+					case KEY_TYPED:
+						target.keyTyped((char) a);
+						break;
+					case TOUCH_DOWN:
+						target.touchDown(a, b, c, d);
+						break;
+					case TOUCH_UP:
+						target.touchUp(a, b, c, d);
+						break;
+					case TOUCH_DRAGGED:
+						target.touchDragged(a, b, c);
+						break;
+					case SCROLLED:
+						target.scrolled(a);
+						break;
+					default:
+						target.mouseMoved(a, b);
+						break;
+				}
+			}
+			processing.clear();
+		}
+		
+		private synchronized void add(int type, int a, int b, int c, int d) {
+			events.add(type);
+			events.add(a);
+			events.add(b);
+			events.add(c);
+			events.add(d);
+		}
+		
+	}
+	
 }
@@ -37,6 +37,7 @@ import com.badlogic.gdx.utils.Array;
 import de.radicalfish.assets.FontSheetLoader.FontSheetParameter;
 import de.radicalfish.assets.SpriteFontLoader.SpriteFontParameter;
 import de.radicalfish.font.FontSheet;
+import de.radicalfish.font.GlyphIndex;
 import de.radicalfish.font.SpriteFont;
 
 /**
@@ -57,6 +58,10 @@ public class SpriteFontLoader extends SynchronousAssetLoader<SpriteFont, SpriteF
 	
 	public SpriteFont load(AssetManager assetManager, String fileName, SpriteFontParameter parameter) {
 		FontSheet sheet = assetManager.get(fontSheetName, FontSheet.class);
+		if (parameter.chars != null) {
+			GlyphIndex glyphs = new GlyphIndex(parameter.chars);
+			return new SpriteFont(sheet, parameter.characterSpace, parameter.lineSpace, glyphs);
+		}
 		return new SpriteFont(sheet, parameter.characterSpace, parameter.lineSpace, parameter.startChar);
 	}
 	public Array<AssetDescriptor> getDependencies(String fileName, SpriteFontParameter parameter) {
@@ -93,6 +98,8 @@ public class SpriteFontLoader extends SynchronousAssetLoader<SpriteFont, SpriteF
 		public int lineSpace;
 		/** the starting character. */
 		public char startChar;
+		/** The characters of the sheet in their order, if set the {@link #startChar} is not used. */
+		public String chars;
 		
 		public SpriteFontParameter(FontSheetParameter fontsheet, int charakterSpace, int lineSpace, char startChar) {
 			this.fontSheetParameter = fontsheet;
@@ -0,0 +1,303 @@
+/*
+ * Copyright (c) 2012, Stefan Lange
+ * 
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ *     * Redistributions of source code must retain the above copyright notice,
+ *       this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of Stefan Lange nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package de.radicalfish.debug;
+import java.lang.reflect.Method;
+import java.util.concurrent.atomic.AtomicLong;
+import de.radicalfish.util.RadicalFishException;
+
+/**
+ * Measures how many bytes the game allocates per frame, split into update and render. Garbage created every frame
+ * ends up in GC pauses sooner or later, which show up as frame spikes, so the goal is to get these numbers down to 0.
+ * <p>
+ * The monitor uses <code>getThreadAllocatedBytes</code> of the ThreadMXBean of the desktop JVM, which counts the bytes
+ * allocated by a thread. Code to measure goes between {@link #begin()} and {@link #endUpdate(long)} or
+ * {@link #endRender(long)}, both on the same thread. Updates can be measured on another thread than render, the bytes
+ * of all updates since the last frame get added up. {@link #endFrame()} moves the frame into the history (the last
+ * {@link #HISTORY} frames) and logs a warning if the frame allocated more than the budget (at most once per second).
+ * <p>
+ * The bean is looked up via reflection, so this class can be used on every platform. Where it does not exist (e.g.
+ * Android) {@link #isAvailable()} returns false and all methods do nothing. The {@link de.radicalfish.GameContainer}
+ * measures every frame and shows the values in the debug overlay.
+ * 
+ * @author Stefan Lange
+ * @version 1.0.0
+ * @since 18.10.2026
+ */
+public class AllocationMonitor {
+	
+	/** The number of frames the monitor keeps. */
+	public static final int HISTORY = 120;
+	/** The default budget in bytes per frame. */
+	public static final long DEFAULT_BUDGET = 16 * 1024;
+	
+	private static final long WARN_INTERVAL = 1000000000L;
+	
+	private final Object bean;
+	private final Method allocatedBytes;
+	private final long overhead;
+	
+	private final long[] updateHistory = new long[HISTORY];
+	private final long[] renderHistory = new long[HISTORY];
+	private final AtomicLong pendingUpdate = new AtomicLong();
+	private long pendingRender;
+	private int next, count;
+	
+	private long budget = DEFAULT_BUDGET;
+	private long lastWarning;
+	private long frames, exceeded;
+	
+	private boolean enabled = true;
+	
+	/**
+	 * Creates a new {@link AllocationMonitor}.
+	 */
+	public AllocationMonitor() {
+		Object bean = null;
+		Method allocatedBytes = null;
+		try {
+			Class<?> factory = Class.forName("java.lang.management.ManagementFactory");
+			bean = factory.getMethod("getThreadMXBean").invoke(null);
+			Class<?> type = Class.forName("com.sun.management.ThreadMXBean");
+			if (type.isInstance(bean)) {
+				allocatedBytes = type.getMethod("getThreadAllocatedBytes", long.class);
+				if (!((Boolean) type.getMethod("isThreadAllocatedMemorySupported").invoke(bean))) {
+					allocatedBytes = null;
+				} else {
+					type.getMethod("setThreadAllocatedMemoryEnabled", boolean.class).invoke(bean, true);
+				}
+			}
+		} catch (Exception e) {
+			// not on a desktop jvm
+			allocatedBytes = null;
+		}
+		this.bean = bean;
+		this.allocatedBytes = allocatedBytes;
+		this.overhead = allocatedBytes == null ? 0 : calibrate();
+	}
+	
+	// METHODS
+	// 
+	/**
+	 * @return the start value to pass to {@link #endUpdate(long)} or {@link #endRender(long)} on the same thread.
+	 */
+	public long begin() {
+		if (!enabled || allocatedBytes == null) {
+			return 0;
+		}
+		return sample();
+	}
+	/**
+	 * Adds the bytes allocated by the current thread since <code>start</code> to the updates of the current frame.
+	 */
+	public void endUpdate(long start) {
+		if (!enabled || allocatedBytes == null) {
+			return;
+		}
+		pendingUpdate.addAndGet(Math.max(0, sample() - start - overhead));
+	}
+	/**
+	 * Adds the bytes allocated by the current thread since <code>start</code> to the render of the current frame.
+	 */
+	public void endRender(long start) {
+		if (!enabled || allocatedBytes == null) {
+			return;
+		}
+		pendingRender += Math.max(0, sample() - start - overhead);
+	}
+	/**
+	 * Moves the current frame into the history and logs a warning if it allocated more than the budget. Call this
+	 * once per frame on the render thread.
+	 */
+	public void endFrame() {
+		if (!enabled || allocatedBytes == null) {
+			return;
+		}
+		long update = pendingUpdate.getAndSet(0);
+		long render = pendingRender;
+		pendingRender = 0;
+		
+		updateHistory[next] = update;
+		renderHistory[next] = render;
+		next = (next + 1) % HISTORY;
+		if (count < HISTORY) {
+			count++;
+		}
+		frames++;
+		
+		if (budget > 0 && update + render > budget) {
+			exceeded++;
+			long now = System.nanoTime();
+			if (now - lastWarning >= WARN_INTERVAL) {
+				lastWarning = now;
+				Logger.warn("Frame allocated " + (update + render) + " bytes (update: " + update + ", render: " + render
+						+ "), budget is " + budget + " bytes. Exceeded in " + exceeded + " of " + frames + " frames.");
+			}
+		}
+	}
+	/**
+	 * Clears the history.
+	 */
+	public void reset() {
+		pendingUpdate.set(0);
+		pendingRender = 0;
+		next = 0;
+		count = 0;
+		frames = 0;
+		exceeded = 0;
+	}
+	
+	// GETTER
+	// 
+	/**
+	 * @return true if the platform can measure allocations.
+	 */
+	public boolean isAvailable() {
+		return allocatedBytes != null;
+	}
+	public boolean isEnabled() {
+		return enabled;
+	}
+	/**
+	 * @return the bytes the updates of the last frame allocated.
+	 */
+	public long getLastUpdate() {
+		return count == 0 ? 0 : updateHistory[(next + HISTORY - 1) % HISTORY];
+	}
+	/**
+	 * @return the bytes the render of the last frame allocated.
+	 */
+	public long getLastRender() {
+		return count == 0 ? 0 : renderHistory[(next + HISTORY - 1) % HISTORY];
+	}
+	/**
+	 * @return the bytes the last frame allocated.
+	 */
+	public long getLastFrame() {
+		return getLastUpdate() + getLastRender();
+	}
+	/**
+	 * @return the average bytes per frame over the history.
+	 */
+	public long getAverage() {
+		if (count == 0) {
+			return 0;
+		}
+		long sum = 0;
+		for (int i = 0; i < count; i++) {
+			sum += updateHistory[i] + renderHistory[i];
+		}
+		return sum / count;
+	}
+	/**
+	 * @return the most bytes a frame in the history allocated.
+	 */
+	public long getMax() {
+		long max = 0;
+		for (int i = 0; i < count; i++) {
+			max = Math.max(max, updateHistory[i] + renderHistory[i]);
+		}
+		return max;
+	}
+	/**
+	 * @return the bytes the updates of the frame <code>age</code> frames ago allocated, 0 is the last frame.
+	 */
+	public long getUpdate(int age) {
+		return age >= count ? 0 : updateHistory[(next + HISTORY - 1 - age) % HISTORY];
+	}
+	/**
+	 * @return the bytes the render of the frame <code>age</code> frames ago allocated, 0 is the last frame.
+	 */
+	public long getRender(int age) {
+		return age >= count ? 0 : renderHistory[(next + HISTORY - 1 - age) % HISTORY];
+	}
+	/**
+	 * @return the number of frames in the history.
+	 */
+	public int getCount() {
+		return count;
+	}
+	/**
+	 * @return the number of frames measured since the last reset.
+	 */
+	public long getFrames() {
+		return frames;
+	}
+	/**
+	 * @return the number of frames which allocated more than the budget since the last reset.
+	 */
+	public long getExceeded() {
+		return exceeded;
+	}
+	public long getBudget() {
+		return budget;
+	}
+	
+	// SETTER
+	// 
+	/**
+	 * @param budget
+	 *            the bytes a frame may allocate before a warning gets logged, 0 for no warnings
+	 */
+	public void setBudget(long budget) {
+		if (budget < 0) {
+			throw new RadicalFishException("budget must be 0 or greater!");
+		}
+		this.budget = budget;
+	}
+	/**
+	 * @param enabled
+	 *            false to stop measuring
+	 */
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+	
+	// INTERN
+	// 
+	private long sample() {
+		try {
+			return (Long) allocatedBytes.invoke(bean, Thread.currentThread().getId());
+		} catch (Exception e) {
+			throw new RadicalFishException("could not read the allocated bytes", e);
+		}
+	}
+	/**
+	 * @return the bytes a measurement allocates itself (the reflective call boxes its argument and result).
+	 */
+	private long calibrate() {
+		long min = Long.MAX_VALUE;
+		for (int i = 0; i < 16; i++) {
+			long start = sample();
+			min = Math.min(min, sample() - start);
+		}
+		return Math.max(0, min);
+	}
+	
+}
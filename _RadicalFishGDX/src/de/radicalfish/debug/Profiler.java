@@ -0,0 +1,214 @@
+/*
+ * Copyright (c) 2012, Stefan Lange
+ * 
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ *     * Redistributions of source code must retain the above copyright notice,
+ *       this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of Stefan Lange nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package de.radicalfish.debug;
+import java.util.Locale;
+import de.radicalfish.util.Utils;
+
+/**
+ * A global profiler for the engine, used the same way as the {@link Logger}. Code to measure goes between
+ * {@link #begin(String)} and {@link #end()}, scopes can be nested:
+ * 
+ * <pre>
+ * Profiler.begin(&quot;world&quot;);
+ * Profiler.begin(&quot;entities&quot;);
+ * ...
+ * Profiler.end();
+ * Profiler.end();
+ * </pre>
+ * 
+ * Every scope is a {@link ProfilerScope} identified by its path (e.g. "update/world/entities") and keeps the last
+ * {@link ProfilerScope#HISTORY} measured times for min, average and percentile values. The scopes are created the
+ * first time they are entered, after that beginning and ending a scope creates no objects.
+ * <p>
+ * Each thread has its own stack of open scopes, so the update thread and the render thread can measure at the same
+ * time as long as they don't use the same scope. The {@link de.radicalfish.GameContainer} opens "update" and
+ * "render" scopes, everything measured inside of the game ends up below these.
+ * 
+ * @author Stefan Lange
+ * @version 1.0.0
+ * @since 18.10.2026
+ */
+public class Profiler {
+	
+	private static final ProfilerScope root = new ProfilerScope(null, "");
+	private static final ThreadLocal<ScopeStack> stacks = new ThreadLocal<ScopeStack>() {
+		protected ScopeStack initialValue() {
+			return new ScopeStack();
+		}
+	};
+	
+	private static volatile boolean enabled = true;
+	
+	// STATIC METHODS
+	// 
+	/**
+	 * Opens the scope <code>name</code> below the scope currently open on this thread. Every call must be followed by
+	 * a call to {@link #end()}, best in a finally block.
+	 * 
+	 * @param name
+	 *            the name of the scope, must not contain '/'
+	 */
+	public static void begin(String name) {
+		ScopeStack stack = stacks.get();
+		if (!enabled) {
+			// keep begin and end balanced if the profiler gets enabled in between
+			stack.push(null, 0);
+			return;
+		}
+		ProfilerScope parent = stack.peek();
+		stack.push((parent == null ? root : parent).getChild(name), System.nanoTime());
+	}
+	/**
+	 * Closes the scope opened last on this thread and records the time it was open.
+	 */
+	public static void end() {
+		long time = System.nanoTime();
+		ScopeStack stack = stacks.get();
+		if (stack.size == 0) {
+			return;
+		}
+		stack.size--;
+		ProfilerScope scope = stack.scopes[stack.size];
+		if (scope != null) {
+			scope.record(time - stack.starts[stack.size]);
+			stack.scopes[stack.size] = null;
+		}
+	}
+	
+	/**
+	 * Clears the recorded times of all scopes.
+	 */
+	public static void reset() {
+		root.reset();
+	}
+	/**
+	 * Logs the min, average and 99th percentile of all scopes.
+	 */
+	public static void log() {
+		ProfilerScope[] children = root.getChildren();
+		for (int i = 0; i < children.length; i++) {
+			log(children[i], "");
+		}
+	}
+	
+	// STATIC GETTER
+	// 
+	/**
+	 * @return the scope at <code>path</code> (the names of the nested scopes separated by '/', e.g.
+	 *         "update/world/entities"). The scope gets created if it was not entered yet, so this can be used to set up
+	 *         displays before the first frame.
+	 */
+	public static ProfilerScope getScope(String path) {
+		Utils.notNull("path", path);
+		ProfilerScope scope = root;
+		int start = 0;
+		while (start <= path.length()) {
+			int end = path.indexOf('/', start);
+			if (end == -1) {
+				end = path.length();
+			}
+			if (end > start) {
+				scope = scope.getChild(path.substring(start, end));
+			}
+			start = end + 1;
+		}
+		return scope;
+	}
+	/**
+	 * @return the invisible scope all top level scopes are children of.
+	 */
+	public static ProfilerScope getRoot() {
+		return root;
+	}
+	public static boolean isEnabled() {
+		return enabled;
+	}
+	
+	// STATIC SETTER
+	// 
+	/**
+	 * True to measure the scopes, false to make {@link #begin(String)} and {@link #end()} do nothing but keeping track
+	 * of the nesting.
+	 */
+	public static void setEnabled(boolean value) {
+		enabled = value;
+	}
+	
+	// INTERN STATIC METHODS
+	// 
+	private static void log(ProfilerScope scope, String indent) {
+		Logger.info(String.format(Locale.ENGLISH, "%s%s: min %.3f ms, avg %.3f ms, p99 %.3f ms (%d calls)", indent,
+				scope.getName(), scope.getMin() / 1000000f, scope.getAverage() / 1000000f, scope.getP99() / 1000000f,
+				scope.getCalls()));
+		ProfilerScope[] children = scope.getChildren();
+		for (int i = 0; i < children.length; i++) {
+			log(children[i], indent + "  ");
+		}
+	}
+	
+	// INTERN CLASSES
+	// 
+	/**
+	 * The open scopes of one thread with the time they were opened.
+	 */
+	private static class ScopeStack {
+		
+		private ProfilerScope[] scopes = new ProfilerScope[16];
+		private long[] starts = new long[16];
+		private int size;
+		
+		private void push(ProfilerScope scope, long start) {
+			if (size == scopes.length) {
+				ProfilerScope[] newScopes = new ProfilerScope[size * 2];
+				System.arraycopy(scopes, 0, newScopes, 0, size);
+				scopes = newScopes;
+				long[] newStarts = new long[size * 2];
+				System.arraycopy(starts, 0, newStarts, 0, size);
+				starts = newStarts;
+			}
+			scopes[size] = scope;
+			starts[size] = start;
+			size++;
+		}
+		/**
+		 * @return the innermost measured scope or null if there is none.
+		 */
+		private ProfilerScope peek() {
+			for (int i = size - 1; i >= 0; i--) {
+				if (scopes[i] != null) {
+					return scopes[i];
+				}
+			}
+			return null;
+		}
+		
+	}
+	
+}
@@ -0,0 +1,228 @@
+/*
+ * Copyright (c) 2012, Stefan Lange
+ * 
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ *     * Redistributions of source code must retain the above copyright notice,
+ *       this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of Stefan Lange nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package de.radicalfish.debug;
+import java.util.Arrays;
+import de.radicalfish.util.RadicalFishException;
+
+/**
+ * A scope of the {@link Profiler}. Keeps the last {@link #HISTORY} measured times in a ring buffer and gives the
+ * minimum, maximum, average and percentiles of them. All times are in nanoseconds.
+ * <p>
+ * A scope is a {@link PerformanceListener} too, giving the last measured time, so it can be added to a
+ * PerformanceGraph of the debug module directly.
+ * 
+ * @author Stefan Lange
+ * @version 1.0.0
+ * @since 18.10.2026
+ */
+public class ProfilerScope implements PerformanceListener {
+	
+	/** The number of measured times a scope keeps. */
+	public static final int HISTORY = 128;
+	
+	private static final ProfilerScope[] NO_CHILDREN = new ProfilerScope[0];
+	
+	private final ProfilerScope parent;
+	private final String name, path;
+	private volatile ProfilerScope[] children = NO_CHILDREN;
+	
+	private final long[] samples = new long[HISTORY];
+	private final long[] sorted = new long[HISTORY];
+	private int next, count;
+	private long calls;
+	private long last;
+	
+	ProfilerScope(ProfilerScope parent, String name) {
+		this.parent = parent;
+		this.name = name;
+		this.path = parent == null || parent.parent == null ? name : parent.path + "/" + name;
+	}
+	
+	// METHODS
+	// 
+	/**
+	 * Adds a measured time.
+	 */
+	public void record(long nanos) {
+		samples[next] = nanos;
+		next = (next + 1) % HISTORY;
+		if (count < HISTORY) {
+			count++;
+		}
+		calls++;
+		last = nanos;
+	}
+	/**
+	 * Clears the recorded times of this scope and all scopes below.
+	 */
+	public void reset() {
+		next = 0;
+		count = 0;
+		calls = 0;
+		last = 0;
+		ProfilerScope[] children = this.children;
+		for (int i = 0; i < children.length; i++) {
+			children[i].reset();
+		}
+	}
+	
+	// GETTER
+	// 
+	/**
+	 * @return the child scope <code>name</code>, it gets created if it doesn't exist.
+	 */
+	public ProfilerScope getChild(String name) {
+		ProfilerScope[] children = this.children;
+		for (int i = 0; i < children.length; i++) {
+			if (children[i].name.equals(name)) {
+				return children[i];
+			}
+		}
+		return addChild(name);
+	}
+	/**
+	 * @return the scopes below this one. The array must not be changed.
+	 */
+	public ProfilerScope[] getChildren() {
+		return children;
+	}
+	public ProfilerScope getParent() {
+		return parent;
+	}
+	public String getName() {
+		return name;
+	}
+	/**
+	 * @return the names of this scope and all scopes above, separated by '/'.
+	 */
+	public String getPath() {
+		return path;
+	}
+	/**
+	 * @return the number of times the scope was measured since the last reset.
+	 */
+	public long getCalls() {
+		return calls;
+	}
+	/**
+	 * @return the number of measured times in the history.
+	 */
+	public int getCount() {
+		return count;
+	}
+	/**
+	 * @return the last measured time.
+	 */
+	public long getLast() {
+		return last;
+	}
+	/**
+	 * @return the shortest time in the history.
+	 */
+	public long getMin() {
+		if (count == 0) {
+			return 0;
+		}
+		long min = Long.MAX_VALUE;
+		for (int i = 0; i < count; i++) {
+			min = Math.min(min, samples[i]);
+		}
+		return min;
+	}
+	/**
+	 * @return the longest time in the history.
+	 */
+	public long getMax() {
+		long max = 0;
+		for (int i = 0; i < count; i++) {
+			max = Math.max(max, samples[i]);
+		}
+		return max;
+	}
+	/**
+	 * @return the average time of the history.
+	 */
+	public long getAverage() {
+		if (count == 0) {
+			return 0;
+		}
+		long sum = 0;
+		for (int i = 0; i < count; i++) {
+			sum += samples[i];
+		}
+		return sum / count;
+	}
+	/**
+	 * @return the time 99% of the times in the history are shorter than or equal to.
+	 */
+	public long getP99() {
+		return getPercentile(0.99f);
+	}
+	/**
+	 * @param percentile
+	 *            the percentile between 0 and 1
+	 * @return the time the given percentile of the times in the history are shorter than or equal to.
+	 */
+	public long getPercentile(float percentile) {
+		if (count == 0) {
+			return 0;
+		}
+		System.arraycopy(samples, 0, sorted, 0, count);
+		Arrays.sort(sorted, 0, count);
+		int index = (int) Math.ceil(percentile * count) - 1;
+		return sorted[Math.max(0, Math.min(count - 1, index))];
+	}
+	/**
+	 * @return the last measured time in microseconds.
+	 */
+	public long getMessuredTime() {
+		return last / 1000;
+	}
+	
+	// INTERN
+	// 
+	private synchronized ProfilerScope addChild(String name) {
+		// another thread could have added it in the meantime
+		for (int i = 0; i < children.length; i++) {
+			if (children[i].name.equals(name)) {
+				return children[i];
+			}
+		}
+		if (name.indexOf('/') != -1) {
+			throw new RadicalFishException("the name of a scope must not contain '/': " + name);
+		}
+		ProfilerScope child = new ProfilerScope(this, name);
+		ProfilerScope[] newChildren = Arrays.copyOf(children, children.length + 1);
+		newChildren[children.length] = child;
+		children = newChildren;
+		return child;
+	}
+	
+}
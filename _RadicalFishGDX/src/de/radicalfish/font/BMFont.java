@@ -30,6 +30,8 @@
 package de.radicalfish.font;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.BitmapFont.BitmapFontData;
+import com.badlogic.gdx.graphics.g2d.BitmapFont.Glyph;
 import com.badlogic.gdx.graphics.g2d.BitmapFont.HAlignment;
 import com.badlogic.gdx.graphics.g2d.BitmapFont.TextBounds;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
@@ -62,6 +64,41 @@ public class BMFont implements Font {
 	public void draw(SpriteBatch batch, String text, float x, float y, GameContainer c, StyledText style) {
 		font.drawMultiLine(batch, text, x, y);
 	}
+	public void draw(SpriteBatch batch, CharSequence text, float x, float y) {
+		font.drawMultiLine(batch, text, x, y);
+	}
+	public TextCache cache(TextCache cache, CharSequence text, float x, float y) {
+		return cache(cache, text, x, y, 0, HAlignment.LEFT);
+	}
+	public TextCache cache(TextCache cache, CharSequence text, float x, float y, float alignWidth,
+			HAlignment alignment) {
+		int length = text.length();
+		if (cache == null) {
+			cache = new TextCache(length);
+		}
+		BitmapFontData data = font.getData();
+		cache.begin(font.getRegion().getTexture(), length, font.getColor().toFloatBits());
+		
+		// like BitmapFont.drawMultiLine
+		float maxWidth = 0;
+		int start = 0, lines = 0;
+		while (start < length) {
+			int end = start;
+			while (end < length && text.charAt(end) != '\n') {
+				end++;
+			}
+			float offset = 0;
+			if (alignment != HAlignment.LEFT) {
+				offset = TextCache.align(font.getBounds(text, start, end).width, alignWidth, alignment);
+			}
+			maxWidth = Math.max(maxWidth, cacheLine(cache, text, start, end, x + offset, y + data.ascent));
+			y += data.down;
+			lines++;
+			start = end + 1;
+		}
+		cache.setBounds(maxWidth, data.capHeight + (lines - 1) * data.lineHeight);
+		return cache;
+	}
 	
 	public void drawMultiLine(SpriteBatch batch, String text, float x, float y) {
 		font.drawMultiLine(batch, text, x, y);
@@ -81,6 +118,44 @@ public class BMFont implements Font {
 		font.dispose();
 	}
 	
+	// INTERN
+	// 
+	/**
+	 * Adds the glyphs of one line to <code>cache</code> the way {@link BitmapFont} draws them (kerning, scale and
+	 * integer positions).
+	 * 
+	 * @return the width of the line.
+	 */
+	private float cacheLine(TextCache cache, CharSequence text, int start, int end, float x, float y) {
+		BitmapFontData data = font.getData();
+		float scaleX = data.scaleX, scaleY = data.scaleY;
+		boolean integer = font.usesIntegerPositions() && scaleX == 1 && scaleY == 1;
+		if (integer) {
+			x = (int) x;
+			y = (int) y;
+		}
+		float startX = x;
+		Glyph last = null;
+		for (int i = start; i < end; i++) {
+			char c = text.charAt(i);
+			Glyph g = data.getGlyph(c);
+			if (g == null) {
+				continue;
+			}
+			if (last != null) {
+				x += last.getKerning(c) * scaleX;
+				if (integer) {
+					x = (int) x;
+				}
+			}
+			cache.add(x + g.xoffset * scaleX, y + g.yoffset * scaleY, g.width * scaleX, g.height * scaleY, g.u, g.v,
+					g.u2, g.v2);
+			x += g.xadvance * scaleX;
+			last = g;
+		}
+		return x - startX;
+	}
+	
 	// SETTER
 	// 
 	public void setColor(Color color) {
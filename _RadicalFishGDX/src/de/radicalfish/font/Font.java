@@ -60,6 +60,28 @@ public interface Font extends Disposable {
 	 *            the list of commands to style the text in
 	 */
 	public void draw(SpriteBatch batch, String text, float x, float y, GameContainer c, StyledText style);
+	/**
+	 * Draws the given <code>text</code> like {@link #draw(SpriteBatch, String, float, float)}, but without creating
+	 * any objects. Use this with a {@link TextBuffer} for text which changes every frame.
+	 */
+	public void draw(SpriteBatch batch, CharSequence text, float x, float y);
+	/**
+	 * Puts the vertices of the given <code>text</code> at <code>x</code>, <code>y</code> in the current color into
+	 * <code>cache</code>, it can be drawn every frame without laying out the text again.
+	 * 
+	 * @param cache
+	 *            the cache to fill, the old text gets removed. If null a new cache gets created.
+	 * @return the filled cache.
+	 */
+	public TextCache cache(TextCache cache, CharSequence text, float x, float y);
+	/**
+	 * Puts the vertices of the given multi line <code>text</code> into <code>cache</code>, see
+	 * {@link #cache(TextCache, CharSequence, float, float)}. Each line gets aligned in <code>alignWidth</code>.
+	 * 
+	 * @return the filled cache.
+	 */
+	public TextCache cache(TextCache cache, CharSequence text, float x, float y, float alignWidth,
+			HAlignment alignment);
 	
 	/**
 	 * Draws the given multi line <code>text</code> at <code>x</code>, <code>y</code>.
@@ -54,6 +54,8 @@ public class FontSheet implements Disposable {
 	/** The base texture all the sub regions share */
 	public final Texture base;
 	private TextureRegion[][] regions;
+	// the same regions row by row, to find a tile by its index
+	private TextureRegion[] tiles;
 	
 	/** The widths for each tile across the sheet. */
 	public final int[][] tw;
@@ -148,11 +150,11 @@ public class FontSheet implements Disposable {
 	
 	/**
 	 * @param index
-	 *            the index of the tile
+	 *            the index of the tile, counted row by row
 	 * @return a cached {@link TextureRegion} kept in this sheet.
 	 */
 	public TextureRegion getSubImage(int index) {
-		return getSubImage(index & tilesAcross, index / tilesDown);
+		return tiles[index];
 	}
 	/**
 	 * @param x
@@ -177,6 +179,7 @@ public class FontSheet implements Disposable {
 		}
 		int wcount = 0, hcount = 0;
 		regions = new TextureRegion[tilesAcross][tilesDown];
+		tiles = new TextureRegion[tilesAcross * tilesDown];
 		for (int y = 0; y < tilesDown; y++) {
 			for (int x = 0; x < tilesAcross; x++) {
 				wcount = hcount = 0;
@@ -187,6 +190,7 @@ public class FontSheet implements Disposable {
 				TextureRegion reg = new TextureRegion(base, wcount, hcount, tw[y][x], th);
 				reg.flip(false, true);
 				regions[x][y] = reg;
+				tiles[y * tilesAcross + x] = reg;
 			}
 		}
 	}
@@ -242,4 +246,10 @@ public class FontSheet implements Disposable {
 	public int getTilesDown() {
 		return tilesDown;
 	}
+	/**
+	 * @return the number of tiles in the sheet.
+	 */
+	public int getTileCount() {
+		return tiles.length;
+	}
 }
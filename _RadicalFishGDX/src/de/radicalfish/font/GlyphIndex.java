@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) 2012, Stefan Lange
+ * 
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ *     * Redistributions of source code must retain the above copyright notice,
+ *       this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of Stefan Lange nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package de.radicalfish.font;
+import de.radicalfish.util.RadicalFishException;
+import de.radicalfish.util.Utils;
+
+/**
+ * Maps characters to the index of their tile in a {@link FontSheet} (counted row by row). The table is split into
+ * pages of 256 characters which only get created if a character of the page is mapped, so a sheet with ASCII, German
+ * umlauts and Japanese kana only needs a few small arrays and a lookup is two array reads for every character.
+ * <p>
+ * Characters which are not mapped are skipped when drawn. For characters outside of ASCII the fallback index gets used
+ * instead (if one is set), e.g. the '?' glyph so missing characters of a localized text stay visible. Only the basic
+ * multilingual plane is supported, surrogate pairs are two unknown characters.
+ * 
+ * @author Stefan Lange
+ * @version 1.0.0
+ * @since 18.10.2026
+ */
+public class GlyphIndex {
+	
+	private static final int PAGE_SIZE = 256;
+	private static final int PAGES = 65536 / PAGE_SIZE;
+	
+	// index + 1 of every mapped char, 0 means not mapped
+	private final int[][] pages = new int[PAGES][];
+	
+	private int fallback = -1;
+	private int size;
+	
+	/**
+	 * Creates a new empty {@link GlyphIndex}.
+	 */
+	public GlyphIndex() {}
+	/**
+	 * Creates a new {@link GlyphIndex} for a sheet with <code>count</code> characters in the order of their char values
+	 * (e.g. ASCII), starting with <code>first</code>.
+	 */
+	public GlyphIndex(char first, int count) {
+		set(first, 0, count);
+	}
+	/**
+	 * Creates a new {@link GlyphIndex} for a sheet with the characters of <code>chars</code> in this order, e.g.
+	 * <code>" !\"#...xyz{|}~"</code>.
+	 */
+	public GlyphIndex(CharSequence chars) {
+		add(chars, 0);
+	}
+	
+	// METHODS
+	// 
+	/**
+	 * Maps <code>c</code> to the tile <code>index</code>.
+	 */
+	public void set(char c, int index) {
+		if (index < 0) {
+			throw new RadicalFishException("index must be positive: " + index);
+		}
+		int[] page = pages[c / PAGE_SIZE];
+		if (page == null) {
+			page = pages[c / PAGE_SIZE] = new int[PAGE_SIZE];
+		}
+		if (page[c & PAGE_SIZE - 1] == 0) {
+			size++;
+		}
+		page[c & PAGE_SIZE - 1] = index + 1;
+	}
+	/**
+	 * Maps <code>count</code> characters starting with <code>first</code> to the tiles starting with
+	 * <code>firstIndex</code>.
+	 */
+	public void set(char first, int firstIndex, int count) {
+		int end = Math.min(first + count, 65536);
+		for (int c = first; c < end; c++) {
+			set((char) c, firstIndex + c - first);
+		}
+	}
+	/**
+	 * Maps every character of <code>chars</code> to the tile <code>firstIndex</code> plus its index in
+	 * <code>chars</code>.
+	 */
+	public void add(CharSequence chars, int firstIndex) {
+		Utils.notNull("chars", chars);
+		for (int i = 0; i < chars.length(); i++) {
+			set(chars.charAt(i), firstIndex + i);
+		}
+	}
+	/**
+	 * Removes the mapping of <code>c</code>.
+	 */
+	public void remove(char c) {
+		int[] page = pages[c / PAGE_SIZE];
+		if (page != null && page[c & PAGE_SIZE - 1] != 0) {
+			page[c & PAGE_SIZE - 1] = 0;
+			size--;
+		}
+	}
+	/**
+	 * Removes all mappings and the fallback.
+	 */
+	public void clear() {
+		for (int i = 0; i < PAGES; i++) {
+			pages[i] = null;
+		}
+		size = 0;
+		fallback = -1;
+	}
+	
+	// SETTER
+	// 
+	/**
+	 * Sets the tile to draw for characters outside of ASCII which are not mapped, -1 to skip them.
+	 */
+	public void setFallback(int index) {
+		fallback = index < 0 ? -1 : index;
+	}
+	/**
+	 * Sets the tile of <code>c</code> as fallback, see {@link #setFallback(int)}. Nothing gets used if <code>c</code>
+	 * is not mapped.
+	 */
+	public void setFallback(char c) {
+		int[] page = pages[c / PAGE_SIZE];
+		fallback = page == null ? -1 : page[c & PAGE_SIZE - 1] - 1;
+	}
+	
+	// GETTER
+	// 
+	/**
+	 * @return the tile index of <code>c</code>, the fallback if <code>c</code> is not mapped and not ASCII or -1 if
+	 *         there is no glyph for <code>c</code>.
+	 */
+	public int get(char c) {
+		int[] page = pages[c / PAGE_SIZE];
+		if (page != null) {
+			int index = page[c & PAGE_SIZE - 1];
+			if (index != 0) {
+				return index - 1;
+			}
+		}
+		return c > 127 ? fallback : -1;
+	}
+	/**
+	 * @return true if <code>c</code> is mapped.
+	 */
+	public boolean contains(char c) {
+		int[] page = pages[c / PAGE_SIZE];
+		return page != null && page[c & PAGE_SIZE - 1] != 0;
+	}
+	/**
+	 * @return the tile index used for unknown characters outside of ASCII or -1.
+	 */
+	public int getFallback() {
+		return fallback;
+	}
+	/**
+	 * @return the number of mapped characters.
+	 */
+	public int size() {
+		return size;
+	}
+	
+}
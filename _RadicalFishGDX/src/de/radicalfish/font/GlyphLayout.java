@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2012, Stefan Lange
+ * 
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ *     * Redistributions of source code must retain the above copyright notice,
+ *       this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of Stefan Lange nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package de.radicalfish.font;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+
+/**
+ * The layout of a text drawn with a {@link SpriteFont}: the text split into lines and for every glyph the region to
+ * draw, the x offset in its line and the index of the char in its line (for the {@link StyledLine}). The
+ * {@link SpriteFont} keeps the layouts of the last drawn strings and uses them again as long as the text, the font and
+ * {@link SpriteFont#charakterSpace} stay the same, so the text only gets split and measured once.
+ * <p>
+ * The arrays only grow, a layout can be filled again with another text without creating objects.
+ * 
+ * @author Stefan Lange
+ * @version 1.0.0
+ * @since 18.10.2026
+ */
+class GlyphLayout {
+	
+	/** The text this layout was made of, null if the text was not a string (e.g. a {@link TextBuffer}). */
+	String text;
+	/** The {@link SpriteFont#charakterSpace} this layout was made with. */
+	int space;
+	/** The neighbours in the cache of the {@link SpriteFont}, ordered from the most to the least recently used. */
+	GlyphLayout newer, older;
+	
+	/** The number of lines. */
+	int lines;
+	/** The index of the first glyph of each line, the entry after the last line is the number of glyphs. */
+	int[] lineStarts = new int[2];
+	/** The width of each line. */
+	int[] lineWidths = new int[1];
+	/** The width of the longest line. */
+	int width;
+	
+	/** The region of each glyph. */
+	TextureRegion[] regions = new TextureRegion[16];
+	/** The x offset of each glyph in its line. */
+	int[] offsets = new int[16];
+	/** The index of each glyph's char in its line. */
+	int[] chars = new int[16];
+	
+	// METHODS
+	// 
+	/**
+	 * Lays out <code>text</code> with <code>font</code>. Lines are separated by <code>\n</code> or
+	 * <code>\r\n</code>, empty lines at the end are dropped like {@link String#split(String)} does.
+	 * 
+	 * @param key
+	 *            the string to remember as the text of this layout or null
+	 */
+	void set(SpriteFont font, CharSequence text, String key) {
+		this.text = key;
+		space = font.charakterSpace;
+		lines = 0;
+		
+		FontSheet sheet = font.font;
+		GlyphIndex index = font.glyphs;
+		int glyphs = 0, start = 0, length = text.length();
+		int used = 1;
+		while (start <= length) {
+			int end = start;
+			while (end < length && text.charAt(end) != '\n') {
+				end++;
+			}
+			int lineEnd = end > start && text.charAt(end - 1) == '\r' ? end - 1 : end;
+			if (lineEnd > start) {
+				used = lines + 1;
+			}
+			
+			ensureLines(lines + 1);
+			lineStarts[lines] = glyphs;
+			ensureGlyphs(glyphs + lineEnd - start);
+			int x = 0;
+			for (int i = start; i < lineEnd; i++) {
+				char c = text.charAt(i);
+				int tile = index.get(c);
+				if (tile >= 0 && tile < font.totalChars) {
+					TextureRegion region = sheet.getSubImage(tile);
+					regions[glyphs] = region;
+					offsets[glyphs] = x;
+					chars[glyphs] = i - start;
+					glyphs++;
+					x += region.getRegionWidth() + space;
+				}
+			}
+			lineWidths[lines] = glyphs > lineStarts[lines] ? x - space : 0;
+			lines++;
+			start = end + 1;
+		}
+		
+		// drop empty lines at the end, but keep one
+		lines = used;
+		lineStarts[lines] = glyphs;
+		width = 0;
+		for (int i = 0; i < lines; i++) {
+			width = Math.max(width, lineWidths[i]);
+		}
+	}
+	/**
+	 * Removes the text so the layout can't be found by it anymore.
+	 */
+	void clear() {
+		text = null;
+		lines = 0;
+		width = 0;
+		lineStarts[0] = 0;
+		for (int i = 0; i < regions.length; i++) {
+			regions[i] = null;
+		}
+	}
+	
+	// GETTER
+	// 
+	/**
+	 * @return true if this layout was made with the current settings of <code>font</code>.
+	 */
+	boolean matches(SpriteFont font) {
+		return space == font.charakterSpace;
+	}
+	
+	// INTERN
+	// 
+	private void ensureLines(int size) {
+		if (size + 1 > lineStarts.length) {
+			int[] newStarts = new int[Math.max(size + 1, lineStarts.length * 2)];
+			System.arraycopy(lineStarts, 0, newStarts, 0, lines);
+			lineStarts = newStarts;
+			int[] newWidths = new int[newStarts.length];
+			System.arraycopy(lineWidths, 0, newWidths, 0, lines);
+			lineWidths = newWidths;
+		}
+	}
+	private void ensureGlyphs(int size) {
+		if (size > regions.length) {
+			int length = Math.max(size, regions.length * 2);
+			TextureRegion[] newRegions = new TextureRegion[length];
+			System.arraycopy(regions, 0, newRegions, 0, regions.length);
+			regions = newRegions;
+			int[] newOffsets = new int[length];
+			System.arraycopy(offsets, 0, newOffsets, 0, offsets.length);
+			offsets = newOffsets;
+			int[] newChars = new int[length];
+			System.arraycopy(chars, 0, newChars, 0, chars.length);
+			chars = newChars;
+		}
+	}
+	
+}
@@ -28,22 +28,23 @@
  * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
  */
 package de.radicalfish.font;
-import java.io.UnsupportedEncodingException;
-import java.util.regex.Pattern;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.g2d.BitmapFont.HAlignment;
 import com.badlogic.gdx.graphics.g2d.BitmapFont.TextBounds;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.utils.NumberUtils;
+import com.badlogic.gdx.utils.ObjectMap;
 import de.radicalfish.GameContainer;
 import de.radicalfish.font.commands.ResetCommand;
-import de.radicalfish.util.RadicalFishException;
+import de.radicalfish.util.Utils;
 
 /**
  * A {@link Font} implementation which uses the {@link FontSheet}. This class supports styled fonts. Multi line texts
  * must be separated by a <code>\n</code> separator!
  * <p>
- * It uses ASCII encoding so the font file should have all characters in the ASCII order, eg. like this:
+ * The characters are found in the sheet with a {@link GlyphIndex}. Created with a start character the font file should
+ * have all characters in the ASCII order, eg. like this:
  * 
  * <pre>
  *   !"#$%&'()*+,-./
@@ -53,7 +54,15 @@ import de.radicalfish.util.RadicalFishException;
  * 
  * </pre>
  * 
- * This would only display upper case characters and the starting character would be ' ' (space).
+ * This would only display upper case characters and the starting character would be ' ' (space). Characters outside of
+ * ASCII are drawn as '?' then. For other sheets (e.g. with umlauts or kana) create a {@link GlyphIndex} with the
+ * characters of the sheet in their order, they are drawn as fast as ASCII characters.
+ * <p>
+ * The layout of a string (its lines and the position of every glyph) gets computed once and cached for the
+ * {@link #LAYOUT_CACHE_SIZE} most recently used strings, so drawing and measuring the same text again is only a hash
+ * lookup. Text which changes every frame should be drawn as a {@link TextBuffer}, it gets laid out again every time
+ * without creating objects. Text which never changes can be put into a {@link TextCache} with
+ * {@link #cache(TextCache, CharSequence, float, float)}.
  * <p>
  * {@link SpriteFont} does NOT reset transformations for each character. This means you must add a {@link ResetCommand}
  * if you want to apply a command only for some letters.
@@ -64,19 +73,27 @@ import de.radicalfish.util.RadicalFishException;
  */
 public class SpriteFont implements Font {
 	
-	// should work on unix system that way
-	private static final Pattern split = Pattern.compile("\r?\n");
+	/** The number of strings the font keeps the layout of. */
+	public static final int LAYOUT_CACHE_SIZE = 128;
 	
 	private final TextBounds bounds = new TextBounds();
 	private final StyleInfo info = new StyleInfo();
 	
+	private final ObjectMap<String, GlyphLayout> layouts = new ObjectMap<String, GlyphLayout>(LAYOUT_CACHE_SIZE * 2);
+	private final GlyphLayout tempLayout = new GlyphLayout();
+	private GlyphLayout newestLayout, oldestLayout;
+	
 	private Color tempColor = Color.WHITE.cpy();
 	
 	/** The {@link FontSheet} the {@link SpriteFont} uses. */
 	public final FontSheet font;
 	
-	/** The starting character in the ASCII. */
+	/** The starting character in the ASCII, 0 if the font was created with a {@link GlyphIndex}. */
 	public final char startChar;
+	/**
+	 * The index of the tile of each character in the {@link FontSheet}. Call {@link #clearLayouts()} after a change.
+	 */
+	public final GlyphIndex glyphs;
 	
 	private float color = Color.WHITE.toFloatBits();
 	
@@ -119,7 +136,27 @@ public class SpriteFont implements Font {
 	 *            the starting char from the ASCII
 	 */
 	public SpriteFont(FontSheet font, int charakterSpace, int lineSpace, char startChar) {
+		this(font, charakterSpace, lineSpace, startChar, createIndex(font, startChar));
+	}
+	/**
+	 * Creates a new {@link SpriteFont}.
+	 * 
+	 * @param font
+	 *            the {@link FontSheet} used to draw the characters
+	 * @param charakterSpace
+	 *            the space between two characters (can be negative)
+	 * @param lineSpace
+	 *            the space between two lines (can be negative)
+	 * @param glyphs
+	 *            the index of the tile of each character
+	 */
+	public SpriteFont(FontSheet font, int charakterSpace, int lineSpace, GlyphIndex glyphs) {
+		this(font, charakterSpace, lineSpace, (char) 0, glyphs);
+	}
+	private SpriteFont(FontSheet font, int charakterSpace, int lineSpace, char startChar, GlyphIndex glyphs) {
+		Utils.notNull("glyphs", glyphs);
 		this.startChar = startChar;
+		this.glyphs = glyphs;
 		this.font = font;
 		this.charakterSpace = charakterSpace;
 		this.lineSpace = lineSpace;
@@ -130,82 +167,172 @@ public class SpriteFont implements Font {
 	// 
 	public void draw(SpriteBatch batch, String text, float x, float y) {
 		drawMultiLine(batch, text, x, y, null, null);
-		
 	}
 	public void draw(SpriteBatch batch, String text, float x, float y, GameContainer c, StyledText style) {
 		drawMultiLine(batch, text, x, y, c, style);
 	}
+	public void draw(SpriteBatch batch, CharSequence text, float x, float y) {
+		// the text may change every frame, so it does not go into the cache
+		tempLayout.set(this, text, null);
+		drawLayout(batch, tempLayout, x, y, 0, HAlignment.LEFT, null, null);
+	}
+	public TextCache cache(TextCache cache, CharSequence text, float x, float y) {
+		return cache(cache, text, x, y, 0, HAlignment.LEFT);
+	}
+	public TextCache cache(TextCache cache, CharSequence text, float x, float y, float alignWidth,
+			HAlignment alignment) {
+		GlyphLayout layout = tempLayout;
+		if (text instanceof String) {
+			layout = getLayout((String) text);
+		} else {
+			tempLayout.set(this, text, null);
+		}
+		int glyphs = layout.lineStarts[layout.lines];
+		if (cache == null) {
+			cache = new TextCache(glyphs);
+		}
+		cache.begin(font.base, glyphs, color);
+		
+		float ypos = y;
+		for (int i = 0; i < layout.lines; i++) {
+			float xpos = x + TextCache.align(layout.lineWidths[i], alignWidth, alignment);
+			for (int g = layout.lineStarts[i]; g < layout.lineStarts[i + 1]; g++) {
+				TextureRegion region = layout.regions[g];
+				// like SpriteBatch.draw(TextureRegion, float, float)
+				cache.add(xpos + layout.offsets[g], ypos, Math.abs(region.getRegionWidth()),
+						Math.abs(region.getRegionHeight()), region.getU(), region.getV2(), region.getU2(),
+						region.getV());
+			}
+			ypos += getLineHeight() + lineSpace;
+		}
+		cache.setBounds(layout.width, getHeight(layout.lines));
+		return cache;
+	}
 	
 	public void drawMultiLine(SpriteBatch batch, String text, float x, float y) {
 		drawMultiLine(batch, text, x, y, null, null);
 	}
 	public void drawMultiLine(SpriteBatch batch, String text, float x, float y, float alignWidth, HAlignment alignment) {
-		
+		drawLayout(batch, getLayout(text), x, y, alignWidth, alignment, null, null);
 	}
 	
 	public void drawMultiLine(SpriteBatch batch, String text, float x, float y, GameContainer c, StyledText style) {
+		drawLayout(batch, getLayout(text), x, y, 0, HAlignment.LEFT, c, style);
+	}
+	public void drawMultiLine(SpriteBatch batch, String text, float x, float y, float aw, HAlignment aa, GameContainer c, StyledText style) {
+		drawLayout(batch, getLayout(text), x, y, aw, aa, c, style);
+	}
+	
+	/**
+	 * Removes all cached layouts. The cache only holds {@link #LAYOUT_CACHE_SIZE} strings, so this is only needed to
+	 * free the strings, e.g. after a scene with a lot of text.
+	 */
+	public void clearLayouts() {
+		for (GlyphLayout layout = newestLayout; layout != null; layout = layout.older) {
+			layout.clear();
+			layout.newer = null;
+		}
+		layouts.clear();
+		newestLayout = null;
+		oldestLayout = null;
+	}
+	
+	public void dispose() {
+		clearLayouts();
+		font.dispose();
+	}
+	
+	// INTERN
+	// 
+	/**
+	 * @return the cached layout of <code>text</code>. If there is none the least recently used layout gets replaced
+	 *         once the cache is full.
+	 */
+	private GlyphLayout getLayout(String text) {
+		GlyphLayout layout = layouts.get(text);
+		if (layout != null) {
+			if (!layout.matches(this)) {
+				layout.set(this, text, layout.text);
+			}
+		} else {
+			if (layouts.size < LAYOUT_CACHE_SIZE) {
+				layout = new GlyphLayout();
+			} else {
+				layout = oldestLayout;
+				layouts.remove(layout.text);
+			}
+			layout.set(this, text, text);
+			layouts.put(text, layout);
+		}
+		if (layout != newestLayout) {
+			// unlink and put in front of the others
+			if (layout.newer != null) {
+				layout.newer.older = layout.older;
+			}
+			if (layout.older != null) {
+				layout.older.newer = layout.newer;
+			} else if (layout == oldestLayout) {
+				oldestLayout = layout.newer;
+			}
+			layout.newer = null;
+			layout.older = newestLayout;
+			if (newestLayout != null) {
+				newestLayout.newer = layout;
+			}
+			newestLayout = layout;
+			if (oldestLayout == null) {
+				oldestLayout = layout;
+			}
+		}
+		return layout;
+	}
+	private void drawLayout(SpriteBatch batch, GlyphLayout layout, float x, float y, float alignWidth,
+			HAlignment alignment, GameContainer c, StyledText style) {
 		float oldColor = batch.getColor().toFloatBits();
 		batch.setColor(color);
 		info.setColor(color);
 		info.reset();
 		
-		String[] lines = split.split(text);
 		float ypos = y;
-		StyledLine line = null;
-		for (int i = 0; i < lines.length; i++) {
+		StyledLine s = null;
+		for (int i = 0; i < layout.lines; i++) {
 			if (style != null) {
-				if (i < style.lines.size) {
-					line = style.lines.get(i);
+				s = i < style.lines.size ? style.lines.get(i) : null;
+			}
+			float xpos = x + TextCache.align(layout.lineWidths[i], alignWidth, alignment);
+			for (int g = layout.lineStarts[i]; g < layout.lineStarts[i + 1]; g++) {
+				TextureRegion region = layout.regions[g];
+				if (s != null) {
+					int width = region.getRegionWidth();
+					info.size.set(width, font.getTileHeight());
+					info.origin.set(width / 2, font.getTileHeight() / 2);
+					s.execute(c, info, layout.chars[g]);
+					float[] array = info.createVertices(region, xpos + layout.offsets[g], ypos);
+					batch.draw(font.base, array, 0, array.length);
+					s.finish(c, info);
 				} else {
-					line = null;
+					batch.draw(region, xpos + layout.offsets[g], ypos);
 				}
 			}
-			drawLine(batch, lines[i], x, ypos, 0, lines[i].length(), c, line);
 			ypos += getLineHeight() + lineSpace;
 		}
 		
 		batch.setColor(oldColor);
 	}
-	public void drawMultiLine(SpriteBatch batch, String text, float x, float y, float aw, HAlignment aa, GameContainer c, StyledText style) {
-		
-	}
-	
-	public void dispose() {
-		font.dispose();
+	/**
+	 * @return an index for the ASCII characters of the sheet starting with <code>startChar</code>, every other
+	 *         character is drawn as '?' like the US-ASCII encoding does it.
+	 */
+	private static GlyphIndex createIndex(FontSheet font, char startChar) {
+		GlyphIndex glyphs = new GlyphIndex(startChar, Math.min(font.tilesAcross * font.tilesDown, 128 - startChar));
+		glyphs.setFallback('?');
+		return glyphs;
 	}
-	
-	// INTERN
-	// 
-	private void drawLine(SpriteBatch batch, String str, float x, float y, int start, int end, GameContainer c, StyledLine s) {
-		try {
-			byte[] data = str.getBytes("US-ASCII");
-			int count = 0;
-			int width = 0;
-			for (int i = 0; i < data.length; i++) {
-				int index = data[i] - startChar;
-				if (index < totalChars) {
-					int xPos = (index % font.tilesAcross);
-					int yPos = (index / font.tilesAcross);
-					if ((i >= start) || (i <= end)) {
-						if (s != null) {
-							width = font.getTileWidthAt(xPos, yPos);
-							info.size.set(width, font.getTileHeight());
-							info.origin.set(width / 2, font.getTileHeight() / 2);
-							s.execute(c, info, i);
-							float[] array = info.createVertices(font.getSubImage(xPos, yPos), x + count, y);
-							batch.draw(font.base, array, 0, array.length);
-							s.finish(c, info);
-						} else {
-							batch.draw(font.getSubImage(xPos, yPos), x + count, y);
-						}
-					}
-					count += font.getTileWidthAt(xPos, yPos) + charakterSpace;
-				}
-			}
-		} catch (UnsupportedEncodingException e) {
-			// Should never happen, ASCII is supported pretty much anywhere
-			throw new RadicalFishException(e.getMessage());
-		}
+	/**
+	 * @return the height of <code>lines</code> lines as drawn (the line height plus {@link #lineSpace} between them).
+	 */
+	private float getHeight(int lines) {
+		return lines * getLineHeight() + (lines - 1) * lineSpace;
 	}
 	
 	// SETTER
@@ -240,16 +367,20 @@ public class SpriteFont implements Font {
 		}
 		return tempColor;
 	}
+	/**
+	 * @return the bounds of <code>text</code>, the instance is shared between calls.
+	 */
 	public TextBounds getBounds(String text) {
-		bounds.height = getHeight(text);
-		bounds.width = getWidth(text);
-		return null;
+		GlyphLayout layout = getLayout(text);
+		bounds.width = layout.width;
+		bounds.height = getHeight(layout.lines);
+		return bounds;
 	}
 	public float getWidth(String text) {
-		return 0;
+		return getLayout(text).width;
 	}
 	public float getHeight(String text) {
-		return font.getTileHeight() * split.split(text).length;
+		return getHeight(getLayout(text).lines);
 	}
 	public float getLineHeight() {
 		return font.getTileHeight();
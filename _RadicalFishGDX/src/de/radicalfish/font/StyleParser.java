@@ -28,11 +28,9 @@
  * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
  */
 package de.radicalfish.font;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 import com.badlogic.gdx.graphics.Color;
-import com.badlogic.gdx.utils.Array;
 import de.radicalfish.font.commands.ColorCommand;
+import de.radicalfish.font.commands.CommandPool;
 import de.radicalfish.font.commands.FadeCommand;
 import de.radicalfish.font.commands.GroupCommand;
 import de.radicalfish.font.commands.MoveCommand;
@@ -103,6 +101,18 @@ import de.radicalfish.util.Utils;
  * </ul>
  * </li> </li>
  * <hr>
+ * The parser reads the text once from left to right and writes the text without commands into a builder it reuses.
+ * The parameters of a command get parsed once per parser, every following command with the same text (e.g. the same
+ * color in a whole dialogue script) only creates the new command for its charpoint. The parser keeps at most
+ * {@link #TEMPLATE_CACHE_SIZE} parsed commands, if there are more all of them get dropped and parsed again when they
+ * show up next. A '[' which does not start a valid command stays in the text.
+ * <p>
+ * The commands are taken from the {@link CommandPool} of the parser. Parsing into a {@link StyledLine} or
+ * {@link StyledText} frees its previous commands into the pool first, so a text which gets parsed into the same
+ * output again (e.g. a dialog box shown again) creates no new commands. The output also keeps the returned text, if
+ * the next text parsed into it has the same result the same string is returned again. Don't parse into an output
+ * whose commands are still used somewhere else.
+ * <p>
  * This is merely a utility class and you should use it as a starting point to see how the styled font system works.
  * 
  * @author Stefan Lange
@@ -113,13 +123,11 @@ public class StyleParser {
 	
 	/** A non-thread-safe instance of the {@link StyleParser}. */
 	public static final StyleParser INSTANCE = new StyleParser();
+	/** The number of different commands the parser keeps parsed. */
+	public static final int TEMPLATE_CACHE_SIZE = 1024;
 	
-	// lookahead so nested brackets should work (SHOULD not sure I suck an regex)
-	private static final Pattern param = Pattern.compile(",(?![^()]*+\\))");
-	// should work on unix system that way
-	private static final Pattern lineSep = Pattern.compile("\r?\n");
-	// version 3.0 hopefully covers all needs
-	private static final Pattern cp = Pattern.compile("\\[(\\w+)(?::([^,\\]]+(?:,[^,\\]]+?)*))?\\]");
+	private static final int COLOR = 0, SINGLE_COLOR = 1, FADE_CHARS = 2, RESET_STYLE = 3, GROUP = 4, REPEAT = 5,
+			MOVE = 6, SINGLE_MOVE = 7;
 	
 	/**
 	 * Contains all {@link StyleCommand}s after a {@link StyleParser#parseMultiLine(String, StyledText)} if the given
@@ -132,182 +140,423 @@ public class StyleParser {
 	 */
 	public final StyledLine cachedLine = new StyledLine();
 	
+	// the text without the commands
+	private final StringBuilder text = new StringBuilder();
+	// the command currently parsed without spaces
+	private final StringBuilder token = new StringBuilder();
+	// the start and end of the parameters of the commands currently parsed, one pair per parameter. The parameters
+	// of an inner command (in a group or repeat) go behind the ones of the outer command.
+	private int[] params = new int[16];
+	private int usedParams;
+	
+	// the parsed commands, a hash table with the command texts as keys
+	private Template[] templates = new Template[64];
+	private int templateCount;
+	
+	private final CommandPool pool;
+	
+	/**
+	 * Creates a new {@link StyleParser} with its own {@link CommandPool}.
+	 */
+	public StyleParser() {
+		this(new CommandPool());
+	}
+	/**
+	 * Creates a new {@link StyleParser} which takes its commands from <code>pool</code>.
+	 */
+	public StyleParser(CommandPool pool) {
+		Utils.notNull("pool", pool);
+		this.pool = pool;
+	}
+	
 	// METHODS
 	// 
 	public String parseLine(String text, StyledLine output) {
 		Utils.notNull("text", text);
 		
 		StyledLine con = output == null ? cachedLine : output;
-		con.commands.clear();
+		con.free(pool);
 		
-		if (!text.isEmpty()) {
-			text = _parse(text, con);
-		}
+		this.text.setLength(0);
+		parse(text, 0, text.length(), con);
+		con.compile();
 		
-		return text;
+		con.result = getResult(con.result);
+		return con.result;
 	}
 	public String parseMultiLine(String text, StyledText output) {
 		Utils.notNull("text", text);
 		
 		StyledText con = output == null ? cachedText : output;
-		con.lines.clear();
+		con.free(pool);
 		
-		StringBuilder sb = new StringBuilder();
-		String[] lines = lineSep.split(text);
-		for (int i = 0; i < lines.length; i++) {
-			StyledLine line = new StyledLine();
-			sb.append(parseLine(lines[i], line) + "\n");
-			output.add(line);
+		// like String.split, empty lines at the end are dropped (but an empty text is one line)
+		int length = text.length();
+		while (length > 0 && (text.charAt(length - 1) == '\n' || text.charAt(length - 1) == '\r')) {
+			length--;
 		}
-		return sb.toString();
+		
+		this.text.setLength(0);
+		if (length == 0 && text.length() > 0) {
+			con.result = getResult(con.result);
+			return con.result;
+		}
+		int start = 0;
+		do {
+			int end = text.indexOf('\n', start);
+			if (end == -1 || end > length) {
+				end = length;
+			}
+			int lineEnd = end > start && text.charAt(end - 1) == '\r' ? end - 1 : end;
+			
+			StyledLine line = con.obtainLine();
+			parse(text, start, lineEnd, line);
+			line.compile();
+			this.text.append('\n');
+			
+			start = end + 1;
+		} while (start < length);
+		
+		con.result = getResult(con.result);
+		return con.result;
+	}
+	
+	/**
+	 * Removes all parsed commands the parser keeps to create the same commands again. The parser only keeps
+	 * {@link #TEMPLATE_CACHE_SIZE} commands, so this is only needed to free them, e.g. after a scene with a lot of
+	 * text.
+	 */
+	public void clearCache() {
+		for (int i = 0; i < templates.length; i++) {
+			templates[i] = null;
+		}
+		templateCount = 0;
+	}
+	
+	// GETTER
+	// 
+	/**
+	 * @return the pool the commands are taken from and freed into.
+	 */
+	public CommandPool getPool() {
+		return pool;
 	}
 	
 	// INTERN
 	// 
-	private String _parse(String line, StyledLine output) {
-		Matcher matcher = cp.matcher(line);
-		while (matcher.find()) {
-			String name;
-			String command = matcher.group();
-			
-			int index = line.indexOf(command);
-			line = line.replace(command, "");
-			
-			command = command.substring(1, command.length() - 1);
-			if (command.contains(":")) {
-				name = command.substring(0, command.indexOf(":"));
-				command = command.substring(command.indexOf(":") + 1, command.length()).replace(" ", "");
-			} else {
-				name = command;
-				command = "";
+	/**
+	 * Appends the chars of <code>line</code> from <code>start</code> to <code>end</code> to the text and adds the
+	 * commands to <code>output</code>.
+	 */
+	private void parse(String line, int start, int end, StyledLine output) {
+		int lineStart = text.length();
+		int i = start;
+		while (i < end) {
+			char c = line.charAt(i);
+			if (c == '[') {
+				int close = readCommand(line, i + 1, end);
+				if (close != -1) {
+					int charpoint = text.length() - lineStart;
+					output.add(getTemplate(charpoint).create(pool, charpoint));
+					i = close + 1;
+					continue;
+				}
 			}
-			
-			output.add(createCommand(name, command, index));
+			text.append(c);
+			i++;
 		}
-		return line;
 	}
-	
-	private StyleCommand createCommand(String name, String params, int charpoint) {
-		if (name.equals("co")) {
-			return createColorCommand(param.split(params), false, charpoint);
-		} else if (name.equals("sc")) {
-			return createColorCommand(param.split(params), true, charpoint);
-		} else if (name.equals("fd")) {
-			return createFadeCommand(param.split(params), charpoint);
-		} else if (name.equals("x")) {
-			return createResetCommand(param.split(params), charpoint);
-		} else if (name.equals("gp")) {
-			return createGroupCommand(param.split(params), charpoint);
-		} else if (name.equals("rp")) {
-			return createRepeatCommand(param.split(params), charpoint);
-		} else if (name.equals("mv")) {
-			return createMoveCommand(param.split(params), charpoint, false);
-		} else if (name.equals("sm")) {
-			return createMoveCommand(param.split(params), charpoint, true);
+	/**
+	 * Reads a command like <code>name</code> or <code>name:param,param</code> starting at <code>start</code> into
+	 * the token (without spaces). The command must be closed by a ']', every parameter must have at least one char.
+	 * 
+	 * @return the index of the closing ']' or -1 if there is no valid command.
+	 */
+	private int readCommand(String line, int start, int end) {
+		token.setLength(0);
+		int i = start;
+		while (i < end && isNameChar(line.charAt(i))) {
+			token.append(line.charAt(i++));
 		}
-		throw new RadicalFishException("Could not parse command: " + name + " with paramaters: " + params + " at charpoint: " + charpoint);
-	}
-	private StyleCommand createColorCommand(String[] params, boolean single, int charpoint) {
-		if (params.length != 4) {
-			throw new RadicalFishException("Number of Parameters for color/scolor (co/sc) command must be 4 (r, g, b, a)");
+		if (i == start || i == end) {
+			return -1;
 		}
-		Color c = new Color(parseFloat(params[0]), parseFloat(params[1]), parseFloat(params[2]), parseFloat(params[3]));
-		return new ColorCommand(c, charpoint, single);
+		if (line.charAt(i) == ']') {
+			return i;
+		}
+		if (line.charAt(i) != ':') {
+			return -1;
+		}
+		token.append(':');
+		int segment = 0;
+		for (i++; i < end; i++) {
+			char c = line.charAt(i);
+			if (c == ']' || c == ',') {
+				if (segment == 0) {
+					return -1;
+				}
+				if (c == ']') {
+					return i;
+				}
+				segment = 0;
+			} else {
+				segment++;
+			}
+			if (c != ' ') {
+				token.append(c);
+			}
+		}
+		return -1;
 	}
-	private StyleCommand createFadeCommand(String[] params, int charpoint) {
-		if (params.length != 2) {
-			throw new RadicalFishException("Number of Parameters for fade (fd) command must be 2 (duration, type)");
+	/**
+	 * @return the template for the command in the token, parses it if it's not known yet.
+	 */
+	private Template getTemplate(int charpoint) {
+		int hash = 0;
+		for (int i = 0; i < token.length(); i++) {
+			hash = 31 * hash + token.charAt(i);
 		}
-		
-		float duration = parseFloat(params[0]);
-		if (!params[1].equals("in") && !params[1].equals("out")) {
-			throw new RadicalFishException("second parameter of fade command is not valid (must be in or out) given: " + params[1]);
+		int index = hash & (templates.length - 1);
+		for (Template t = templates[index]; t != null; t = t.next) {
+			if (t.hash == hash && equalsToken(t.key)) {
+				return t;
+			}
 		}
-		boolean type = params[1].equals("in");
 		
-		return new FadeCommand(type ? FADE.IN : FADE.OUT, duration, charpoint);
+		// generated commands (e.g. a color per character) would fill the table forever
+		if (templateCount >= TEMPLATE_CACHE_SIZE) {
+			clearCache();
+		}
+		Template template = parseTemplate(0, token.length(), charpoint);
+		template.key = token.toString();
+		template.hash = hash;
+		template.next = templates[index];
+		templates[index] = template;
+		if (++templateCount > templates.length * 3 / 4) {
+			growTemplates();
+		}
+		return template;
 	}
-	private StyleCommand createResetCommand(String[] params, int charpoint) {
-		if (params.length != 1) {
-			throw new RadicalFishException("Number of Parameters for reset (x) command must be 1 (type)");
+	/**
+	 * Parses the command <code>name:params</code> in the token from <code>start</code> to <code>end</code>.
+	 */
+	private Template parseTemplate(int start, int end, int charpoint) {
+		int colon = start;
+		while (colon < end && token.charAt(colon) != ':') {
+			colon++;
 		}
-		RESET res = null;
+		String name = token.substring(start, colon);
+		int first = usedParams;
+		int count = split(colon < end ? colon + 1 : end, end);
 		try {
-			res = RESET.valueOf(params[0].toUpperCase());
-		} catch (IllegalArgumentException e) {
-			throw new RadicalFishException("the given reset type is not in the enum: '" + params[0] + "'");
+			return createTemplate(name, first, count, charpoint);
+		} finally {
+			usedParams = first;
 		}
-		return new ResetCommand(res, charpoint);
-		
 	}
-	private StyleCommand createGroupCommand(String[] params, int charpoint) {
-		if (params.length != 3) {
-			throw new RadicalFishException("Number of Parameters for group command must be 3 (command, delay, number of characters)");
-		}
-		
-		String name;
-		String command = params[0].substring(1, params[0].length() - 1);
-		if (command.contains(":")) {
-			name = command.substring(0, command.indexOf(":"));
-			command = command.substring(command.indexOf(":") + 1, command.length()).replace(" ", "");
+	private Template createTemplate(String name, int first, int count, int charpoint) {
+		Template t = new Template();
+		if (name.equals("co") || name.equals("sc")) {
+			if (count != 4) {
+				throw new RadicalFishException("Number of Parameters for color/scolor (co/sc) command must be 4 (r, g, b, a)");
+			}
+			t.type = name.equals("co") ? COLOR : SINGLE_COLOR;
+			t.color = new Color(parseFloat(first, 0), parseFloat(first, 1), parseFloat(first, 2), parseFloat(first, 3));
+		} else if (name.equals("fd")) {
+			if (count != 2) {
+				throw new RadicalFishException("Number of Parameters for fade (fd) command must be 2 (duration, type)");
+			}
+			t.type = FADE_CHARS;
+			t.a = parseFloat(first, 0);
+			String type = getParam(first, 1);
+			if (!type.equals("in") && !type.equals("out")) {
+				throw new RadicalFishException("second parameter of fade command is not valid (must be in or out) given: " + type);
+			}
+			t.fade = type.equals("in") ? FADE.IN : FADE.OUT;
+		} else if (name.equals("x")) {
+			if (count != 1) {
+				throw new RadicalFishException("Number of Parameters for reset (x) command must be 1 (type)");
+			}
+			t.type = RESET_STYLE;
+			String type = getParam(first, 0);
+			try {
+				t.reset = RESET.valueOf(type.toUpperCase());
+			} catch (IllegalArgumentException e) {
+				throw new RadicalFishException("the given reset type is not in the enum: '" + type + "'");
+			}
+		} else if (name.equals("gp")) {
+			if (count != 3) {
+				throw new RadicalFishException("Number of Parameters for group command must be 3 (command, delay, number of characters)");
+			}
+			t.type = GROUP;
+			t.a = parseFloat(first, 1);
+			t.count = parseInt(first, 2);
+			t.inner = parseInner(first, charpoint);
+		} else if (name.equals("rp")) {
+			if (count != 2) {
+				throw new RadicalFishException("Number of Parameters for repeat (rp) command must be 2 (command, number of characters)");
+			}
+			t.type = REPEAT;
+			t.count = parseInt(first, 1);
+			t.inner = parseInner(first, charpoint);
+		} else if (name.equals("mv") || name.equals("sm")) {
+			if (count != 3) {
+				throw new RadicalFishException("Number of Parameters for move/smove (mv/sm) command must be 3 (x, y, time)");
+			}
+			t.type = name.equals("mv") ? MOVE : SINGLE_MOVE;
+			t.a = parseFloat(first, 0);
+			t.b = parseFloat(first, 1);
+			t.c = parseFloat(first, 2);
 		} else {
-			name = command;
-			command = "";
+			throw new RadicalFishException("Could not parse command: " + name + " with paramaters: "
+					+ token.substring(params[first * 2], params[(first + count - 1) * 2 + 1]) + " at charpoint: "
+					+ charpoint);
 		}
-		
-		float delay = parseFloat(params[1]);
-		int times = parseInt(params[2]);
-		
-		Array<StyleCommand> c = new Array<StyleCommand>();
-		for (int i = 0; i < times; i++) {
-			c.add(createCommand(name, command, charpoint));
+		return t;
+	}
+	/**
+	 * Parses the command in a () container in the first parameter of a group or repeat command.
+	 */
+	private Template parseInner(int first, int charpoint) {
+		int start = params[first * 2], end = params[first * 2 + 1];
+		if (end - start < 2) {
+			throw new RadicalFishException("Could not parse command: " + token.substring(start, end) + " at charpoint: "
+					+ charpoint);
 		}
-		
-		return new GroupCommand(c, charpoint, delay);
+		return parseTemplate(start + 1, end - 1, charpoint);
 	}
-	private StyleCommand createRepeatCommand(String[] params, int charpoint) {
-		if (params.length != 2) {
-			throw new RadicalFishException("Number of Parameters for repeat (rp) command must be 2 (command, number of characters)");
+	/**
+	 * Splits the token from <code>start</code> to <code>end</code> at each ',' outside of () containers and pushes the
+	 * parameters onto the used ones.
+	 * 
+	 * @return the number of parameters.
+	 */
+	private int split(int start, int end) {
+		int count = 0, depth = 0, paramStart = start;
+		for (int i = start; i <= end; i++) {
+			char c = i < end ? token.charAt(i) : ',';
+			if (c == '(') {
+				depth++;
+			} else if (c == ')') {
+				depth--;
+			} else if (c == ',' && (depth <= 0 || i == end)) {
+				ensureParams(usedParams + 1);
+				params[usedParams * 2] = paramStart;
+				params[usedParams * 2 + 1] = i;
+				usedParams++;
+				count++;
+				paramStart = i + 1;
+			}
 		}
-		
-		String name;
-		String command = params[0].substring(1, params[0].length() - 1);
-		if (command.contains(":")) {
-			name = command.substring(0, command.indexOf(":"));
-			command = command.substring(command.indexOf(":") + 1, command.length()).replace(" ", "");
-		} else {
-			name = command;
-			command = "";
+		return count;
+	}
+	private String getParam(int first, int index) {
+		return token.substring(params[(first + index) * 2], params[(first + index) * 2 + 1]);
+	}
+	private void ensureParams(int pairs) {
+		if (pairs * 2 > params.length) {
+			int[] newParams = new int[Math.max(pairs * 2, params.length * 2)];
+			System.arraycopy(params, 0, newParams, 0, params.length);
+			params = newParams;
 		}
-		
-		int times = parseInt(params[1]);
-		
-		return new RepeatCommand(createCommand(name, command, charpoint), charpoint, times);
 	}
-	private StyleCommand createMoveCommand(String[] params, int charpoint, boolean single) {
-		if (params.length != 3) {
-			throw new RadicalFishException("Number of Parameters for move/smove (mv/sm) command must be 3 (x, y, time)");
+	/**
+	 * @return the text as string, <code>previous</code> if it is the same text.
+	 */
+	private String getResult(String previous) {
+		if (previous != null && equals(previous, text)) {
+			return previous;
 		}
-		
-		float x = parseFloat(params[0]);
-		float y = parseFloat(params[1]);
-		float time = parseFloat(params[2]);
-		return new MoveCommand(x, y, charpoint, time, single);
+		return text.toString();
+	}
+	private boolean equalsToken(String key) {
+		return equals(key, token);
+	}
+	private static boolean equals(String key, StringBuilder builder) {
+		if (key.length() != builder.length()) {
+			return false;
+		}
+		for (int i = 0; i < key.length(); i++) {
+			if (key.charAt(i) != builder.charAt(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+	private void growTemplates() {
+		Template[] old = templates;
+		templates = new Template[old.length * 2];
+		for (int i = 0; i < old.length; i++) {
+			Template t = old[i];
+			while (t != null) {
+				Template next = t.next;
+				int index = t.hash & (templates.length - 1);
+				t.next = templates[index];
+				templates[index] = t;
+				t = next;
+			}
+		}
+	}
+	private static boolean isNameChar(char c) {
+		return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_';
 	}
 	
-	private int parseInt(String val) {
+	private int parseInt(int first, int index) {
 		try {
-			return Integer.parseInt(val);
+			return Integer.parseInt(getParam(first, index));
 		} catch (NumberFormatException e) {
 			throw new RadicalFishException("Could not parse int value parameter (Maybe a parameter is not a int where it should be).");
 		}
 	}
-	private float parseFloat(String val) {
+	private float parseFloat(int first, int index) {
 		try {
-			return Float.parseFloat(val);
+			return Float.parseFloat(getParam(first, index));
 		} catch (NumberFormatException e) {
 			throw new RadicalFishException("Could not parse float value parameter (Maybe a parameter is not a float where it should be).");
 		}
 	}
 	
+	// INTERN CLASSES
+	// 
+	/**
+	 * A parsed command which creates the {@link StyleCommand}s with its parameters. Commands are not shared because
+	 * they keep their state and charpoint, parameters that are never changed (the color) are.
+	 */
+	private static class Template {
+		
+		String key;
+		int hash;
+		Template next;
+		
+		int type, count;
+		float a, b, c;
+		Color color;
+		FADE fade;
+		RESET reset;
+		Template inner;
+		
+		StyleCommand create(CommandPool pool, int charpoint) {
+			switch (type) {
+				case COLOR:
+				case SINGLE_COLOR:
+					return pool.obtain(ColorCommand.class).set(color, charpoint, type == SINGLE_COLOR);
+				case FADE_CHARS:
+					return pool.obtain(FadeCommand.class).set(fade, a, charpoint);
+				case RESET_STYLE:
+					return pool.obtain(ResetCommand.class).set(reset, charpoint);
+				case GROUP:
+					GroupCommand group = pool.obtain(GroupCommand.class).set(charpoint, a);
+					for (int i = 0; i < count; i++) {
+						group.addStyleCommand(inner.create(pool, charpoint));
+					}
+					return group;
+				case REPEAT:
+					return pool.obtain(RepeatCommand.class).set(inner.create(pool, charpoint), charpoint, count);
+				default:
+					return pool.obtain(MoveCommand.class).set(a, b, charpoint, c, type == SINGLE_MOVE);
+			}
+		}
+		
+	}
+	
 }
@@ -29,11 +29,19 @@
  */
 package de.radicalfish.font;
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
 import de.radicalfish.GameContainer;
+import de.radicalfish.font.commands.CommandPool;
 import de.radicalfish.font.commands.StyleCommand;
+import de.radicalfish.font.commands.TimeCommand;
 
 /**
  * A wrapper for a list of {@link StyleCommand}s in a single line of text.
+ * <p>
+ * The line gets compiled before it's used (see {@link #compile()}): every character knows the commands that can be
+ * executed on it, so drawing a character only checks these commands instead of all commands of the line. Updates only
+ * go to the commands which are still running, a {@link TimeCommand} gets one last update with an alpha of 1 after it
+ * is done and is not updated anymore until the line gets reset.
  * 
  * @author Stefan Lange
  * @version 1.0.0
@@ -41,15 +49,83 @@ import de.radicalfish.font.commands.StyleCommand;
  */
 public class StyledLine {
 	
-	/** The array containing all commands for this line. */
+	/** The array containing all commands for this line. Call {@link #compile()} after changing it directly. */
 	public final Array<StyleCommand> commands = new Array<StyleCommand>();
 	
 	private final Array<StyleCommand> finish = new Array<StyleCommand>();
+	private final Array<StyleCommand> active = new Array<StyleCommand>();
+	
+	// the indices of the commands for each character, the ones of char c go from charStarts[c] to charStarts[c + 1]
+	private int[] charStarts = new int[1];
+	private int[] charCommands = new int[0];
+	private int chars;
+	// commands without a known range, checked on every character
+	private final IntArray anyChar = new IntArray();
+	
+	private boolean dirty = true;
+	
+	// the text the StyleParser returned for this line, returned again if the next parsed text is the same
+	String result;
 	
 	// METHODS
 	// 
 	/**
-	 * Updates all commands in this list.
+	 * Builds the index of commands per character (from {@link StyleCommand#getCharPoint()} and
+	 * {@link StyleCommand#getCharCount()}) and marks all commands as running. The {@link StyleParser} compiles the
+	 * lines it creates, {@link #add(StyleCommand)} and {@link #remove(StyleCommand)} make the line compile again before
+	 * it's used next time.
+	 */
+	public void compile() {
+		chars = 0;
+		anyChar.clear();
+		for (int i = 0; i < commands.size; i++) {
+			StyleCommand sc = commands.get(i);
+			if (sc.getCharCount() <= 0) {
+				anyChar.add(i);
+			} else {
+				chars = Math.max(chars, sc.charpoint + sc.getCharCount());
+			}
+		}
+		if (charStarts.length < chars + 1) {
+			charStarts = new int[chars + 1];
+		}
+		for (int c = 0; c <= chars; c++) {
+			charStarts[c] = 0;
+		}
+		
+		// count the commands per character and turn the counts into start indices
+		int total = 0;
+		for (int i = 0; i < commands.size; i++) {
+			StyleCommand sc = commands.get(i);
+			for (int c = Math.max(0, sc.charpoint); c < sc.charpoint + sc.getCharCount(); c++) {
+				charStarts[c + 1]++;
+				total++;
+			}
+		}
+		for (int c = 0; c < chars; c++) {
+			charStarts[c + 1] += charStarts[c];
+		}
+		if (charCommands.length < total) {
+			charCommands = new int[total];
+		}
+		// fill in the order of the commands, this moves every start to the start of the next character
+		for (int i = 0; i < commands.size; i++) {
+			StyleCommand sc = commands.get(i);
+			for (int c = Math.max(0, sc.charpoint); c < sc.charpoint + sc.getCharCount(); c++) {
+				charCommands[charStarts[c]++] = i;
+			}
+		}
+		for (int c = chars; c > 0; c--) {
+			charStarts[c] = charStarts[c - 1];
+		}
+		charStarts[0] = 0;
+		
+		active.clear();
+		active.addAll(commands);
+		dirty = false;
+	}
+	/**
+	 * Updates all commands in this list which are still running.
 	 * 
 	 * @param container
 	 *            the container the game runs in
@@ -57,8 +133,21 @@ public class StyledLine {
 	 *            the time since the last frame in seconds
 	 */
 	public void update(GameContainer container, float delta)  {
-		for (int i = 0; i < commands.size; i++) {
-			commands.get(i).update(container, delta);
+		if (dirty) {
+			compile();
+		}
+		for (int i = 0; i < active.size; i++) {
+			StyleCommand sc = active.get(i);
+			if (sc instanceof TimeCommand) {
+				// the update after the command is done passes an alpha of 1, it's the last one it needs
+				boolean done = ((TimeCommand) sc).isDone();
+				sc.update(container, delta);
+				if (done) {
+					active.removeIndex(i--);
+				}
+			} else {
+				sc.update(container, delta);
+			}
 		}
 	}
 	/**
@@ -73,8 +162,23 @@ public class StyledLine {
 	 *            the current character
 	 */
 	public void execute(GameContainer container, StyleInfo style, int charpoint)  {
-		for (int i = 0; i < commands.size; i++) {
-			StyleCommand sc = commands.get(i);
+		if (dirty) {
+			compile();
+		}
+		int next = 0, end = 0, any = 0;
+		if (charpoint >= 0 && charpoint < chars) {
+			next = charStarts[charpoint];
+			end = charStarts[charpoint + 1];
+		}
+		// merge both lists so the commands get executed in the order they were added
+		while (next < end || any < anyChar.size) {
+			int index;
+			if (any == anyChar.size || (next < end && charCommands[next] < anyChar.get(any))) {
+				index = charCommands[next++];
+			} else {
+				index = anyChar.get(any++);
+			}
+			StyleCommand sc = commands.get(index);
 			if (sc.getCharPoint() == charpoint) {
 				sc.execute(container, style);
 				finish.add(sc);
@@ -97,12 +201,25 @@ public class StyledLine {
 	}
 	
 	/**
-	 * Resets all {@link StyleCommand}.
+	 * Resets all {@link StyleCommand} and marks them as running again.
 	 */
 	public void reset() {
 		for (int i = 0; i < commands.size; i++) {
 			commands.get(i).reset();
 		}
+		active.clear();
+		active.addAll(commands);
+	}
+	
+	/**
+	 * Frees all commands into <code>pool</code> and removes them, the line can be used again afterwards.
+	 */
+	public void free(CommandPool pool) {
+		pool.free(commands);
+		commands.clear();
+		active.clear();
+		finish.clear();
+		dirty = true;
 	}
 	
 	/**
@@ -110,12 +227,23 @@ public class StyledLine {
 	 */
 	public void add(StyleCommand command) {
 		commands.add(command);
+		dirty = true;
 	}
 	/**
 	 * Removes the given {@link StyleCommand} from the list of commands.
 	 */
 	public void remove(StyleCommand command) {
 		commands.removeValue(command, true);
+		dirty = true;
+	}
+	
+	// GETTER
+	// 
+	/**
+	 * @return the number of commands which still get updated.
+	 */
+	public int getActiveCount() {
+		return active.size;
 	}
 	
 }
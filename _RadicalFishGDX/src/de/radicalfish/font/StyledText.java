@@ -30,6 +30,7 @@
 package de.radicalfish.font;
 import com.badlogic.gdx.utils.Array;
 import de.radicalfish.GameContainer;
+import de.radicalfish.font.commands.CommandPool;
 
 /**
  * A wrapper for a list of {@link StyledLine}s in a multi line text. the {@link StyledLine}s must be added in the order
@@ -44,8 +45,22 @@ public class StyledText {
 	/** The array containing all commands for this line. */
 	public final Array<StyledLine> lines = new Array<StyledLine>();
 	
+	// lines of a freed text to use again
+	private final Array<StyledLine> spare = new Array<StyledLine>();
+	
+	// the text the StyleParser returned for this text, returned again if the next parsed text is the same
+	String result;
+	
 	// METHODS
 	// 
+	/**
+	 * Compiles all lines, see {@link StyledLine#compile()}.
+	 */
+	public void compile() {
+		for (int i = 0; i < lines.size; i++) {
+			lines.get(i).compile();
+		}
+	}
 	/**
 	 * Updates all lines.
 	 * 
@@ -97,6 +112,28 @@ public class StyledText {
 		}
 	}
 	
+	/**
+	 * Frees the commands of all lines into <code>pool</code> and removes the lines. The lines are kept and returned by
+	 * {@link #obtainLine()}, so a text which gets parsed again (e.g. a dialog box shown again) creates no objects.
+	 */
+	public void free(CommandPool pool) {
+		for (int i = 0; i < lines.size; i++) {
+			lines.get(i).free(pool);
+		}
+		spare.addAll(lines);
+		lines.clear();
+	}
+	/**
+	 * Adds an empty line, a line of a freed text gets used again if there is one.
+	 * 
+	 * @return the added line.
+	 */
+	public StyledLine obtainLine() {
+		StyledLine line = spare.size > 0 ? spare.pop() : new StyledLine();
+		lines.add(line);
+		return line;
+	}
+	
 	/**
 	 * Adds the given {@link StyledLine} to the list of commands.
 	 */
@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) 2012, Stefan Lange
+ * 
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ *     * Redistributions of source code must retain the above copyright notice,
+ *       this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of Stefan Lange nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package de.radicalfish.font;
+import de.radicalfish.util.RadicalFishException;
+
+/**
+ * A reusable text to draw with {@link Font#draw(com.badlogic.gdx.graphics.g2d.SpriteBatch, CharSequence, float, float)}
+ * . Text which changes every frame (fps, positions, timers) would create new strings every frame when built with
+ * <code>"Fps: " + fps</code>. A {@link TextBuffer} gets cleared and filled again instead, numbers get formatted
+ * straight into the preallocated buffer, so building and drawing the text creates no objects:
+ * 
+ * <pre>
+ * text.clear().append(&quot;Fps: &quot;).append(fps).append(&quot; Delta: &quot;).append(delta, 2);
+ * font.draw(batch, text, 5, 5);
+ * </pre>
+ * 
+ * The buffer only grows if the text gets longer than the capacity. {@link #toString()} creates a new string, so don't
+ * use it every frame.
+ * 
+ * @author Stefan Lange
+ * @version 1.0.0
+ * @since 18.10.2026
+ */
+public class TextBuffer implements CharSequence {
+	
+	private static final int[] POWERS_OF_TEN = { 1, 10, 100, 1000, 10000, 100000, 1000000, 10000000, 100000000,
+			1000000000 };
+			
+	private final StringBuilder builder;
+	
+	/**
+	 * Creates a new {@link TextBuffer} with a capacity of 64 characters.
+	 */
+	public TextBuffer() {
+		this(64);
+	}
+	/**
+	 * Creates a new {@link TextBuffer}.
+	 * 
+	 * @param capacity
+	 *            the number of characters the buffer can take before it has to grow
+	 */
+	public TextBuffer(int capacity) {
+		builder = new StringBuilder(capacity);
+	}
+	
+	// METHODS
+	// 
+	/**
+	 * Removes all characters.
+	 * 
+	 * @return this buffer for chaining.
+	 */
+	public TextBuffer clear() {
+		builder.setLength(0);
+		return this;
+	}
+	public TextBuffer append(CharSequence text) {
+		builder.append(text);
+		return this;
+	}
+	public TextBuffer append(char c) {
+		builder.append(c);
+		return this;
+	}
+	public TextBuffer append(int value) {
+		builder.append(value);
+		return this;
+	}
+	public TextBuffer append(long value) {
+		builder.append(value);
+		return this;
+	}
+	/**
+	 * Appends <code>value</code> with exactly <code>decimals</code> digits after the point, rounded half up. Unlike
+	 * {@link StringBuilder#append(float)} this creates no objects.
+	 * 
+	 * @param decimals
+	 *            the number of digits after the point, between 0 and 9
+	 * @return this buffer for chaining.
+	 */
+	public TextBuffer append(float value, int decimals) {
+		if (decimals < 0 || decimals >= POWERS_OF_TEN.length) {
+			throw new RadicalFishException("decimals must be between 0 and 9: " + decimals);
+		}
+		if (value != value) {
+			builder.append("NaN");
+			return this;
+		}
+		if (value == Float.POSITIVE_INFINITY || value == Float.NEGATIVE_INFINITY) {
+			builder.append(value > 0 ? "Infinity" : "-Infinity");
+			return this;
+		}
+		int power = POWERS_OF_TEN[decimals];
+		long scaled = Math.round(Math.abs((double) value) * power);
+		if (value < 0 && scaled != 0) {
+			builder.append('-');
+		}
+		builder.append(scaled / power);
+		if (decimals > 0) {
+			builder.append('.');
+			long fraction = scaled % power;
+			for (int p = power / 10; p > 1 && fraction < p; p /= 10) {
+				builder.append('0');
+			}
+			builder.append(fraction);
+		}
+		return this;
+	}
+	/**
+	 * Appends <code>value</code> padded with leading zeros to at least <code>digits</code> digits (e.g. for timers).
+	 * 
+	 * @return this buffer for chaining.
+	 */
+	public TextBuffer append(int value, int digits) {
+		if (value == Integer.MIN_VALUE) {
+			builder.append(value);
+			return this;
+		}
+		if (value < 0) {
+			builder.append('-');
+			value = -value;
+		}
+		for (int i = 1; i < digits && i < POWERS_OF_TEN.length; i++) {
+			if (value < POWERS_OF_TEN[i]) {
+				builder.append('0');
+			}
+		}
+		builder.append(value);
+		return this;
+	}
+	
+	// GETTER
+	// 
+	public int length() {
+		return builder.length();
+	}
+	public char charAt(int index) {
+		return builder.charAt(index);
+	}
+	public CharSequence subSequence(int start, int end) {
+		return builder.subSequence(start, end);
+	}
+	/**
+	 * @return the builder holding the text, to use the rest of its methods.
+	 */
+	public StringBuilder getBuilder() {
+		return builder;
+	}
+	public String toString() {
+		return builder.toString();
+	}
+	
+}
@@ -0,0 +1,273 @@
+/*
+ * Copyright (c) 2012, Stefan Lange
+ * 
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ *     * Redistributions of source code must retain the above copyright notice,
+ *       this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of Stefan Lange nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package de.radicalfish.font;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.BitmapFont.HAlignment;
+import com.badlogic.gdx.graphics.g2d.BitmapFont.TextBounds;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.utils.NumberUtils;
+
+/**
+ * The finished vertices of a text at a position and in a color. Static text (HUD labels, menu entries) doesn't need
+ * to be laid out and submitted glyph by glyph every frame, fill a {@link TextCache} once with
+ * {@link Font#cache(TextCache, CharSequence, float, float)} and draw it with {@link #draw(SpriteBatch)}, which copies
+ * all vertices into the batch with a single call:
+ * 
+ * <pre>
+ * label = font.cache(label, &quot;Start Game&quot;, 20, 40);
+ * ...
+ * label.draw(batch);
+ * </pre>
+ * 
+ * Moving the text with {@link #setPosition(float, float)} or changing its color only touches the vertices if the value
+ * changed. Styled text can't be cached, the commands change the characters every frame.
+ * <p>
+ * The vertex array only grows, a cache can be filled again with another text without creating objects.
+ * 
+ * @author Stefan Lange
+ * @version 1.0.0
+ * @since 18.10.2026
+ */
+public class TextCache {
+	
+	/** The number of floats of one glyph (4 vertices with x, y, color, u, v). */
+	public static final int GLYPH_SIZE = 20;
+	
+	private final TextBounds bounds = new TextBounds();
+	private final Color tempColor = new Color();
+	
+	private float[] vertices;
+	private int idx;
+	private Texture texture;
+	
+	private float x, y;
+	private float color = Color.WHITE.toFloatBits();
+	
+	/**
+	 * Creates a new empty {@link TextCache} with space for 32 glyphs.
+	 */
+	public TextCache() {
+		this(32);
+	}
+	/**
+	 * Creates a new empty {@link TextCache}.
+	 * 
+	 * @param glyphs
+	 *            the number of glyphs the cache can take before it has to grow
+	 */
+	public TextCache(int glyphs) {
+		vertices = new float[Math.max(glyphs, 1) * GLYPH_SIZE];
+	}
+	
+	// METHODS
+	// 
+	/**
+	 * Draws the cached text with one call to {@link SpriteBatch#draw(Texture, float[], int, int)}.
+	 */
+	public void draw(SpriteBatch batch) {
+		if (idx > 0) {
+			batch.draw(texture, vertices, 0, idx);
+		}
+	}
+	/**
+	 * Moves the text to <code>x</code>, <code>y</code> (see {@link #setPosition(float, float)}) and draws it, e.g.
+	 * for a label which follows an entity.
+	 */
+	public void draw(SpriteBatch batch, float x, float y) {
+		setPosition(x, y);
+		draw(batch);
+	}
+	/**
+	 * Moves the text by <code>x</code>, <code>y</code>.
+	 */
+	public void translate(float x, float y) {
+		if (x == 0 && y == 0) {
+			return;
+		}
+		this.x += x;
+		this.y += y;
+		for (int i = 0; i < idx; i += 5) {
+			vertices[i] += x;
+			vertices[i + 1] += y;
+		}
+	}
+	/**
+	 * Removes the text.
+	 */
+	public void clear() {
+		idx = 0;
+		x = 0;
+		y = 0;
+		texture = null;
+		bounds.width = 0;
+		bounds.height = 0;
+	}
+	
+	// INTERN
+	// 
+	/**
+	 * Removes the old text and makes room for <code>glyphs</code> glyphs of <code>texture</code> in
+	 * <code>color</code>.
+	 */
+	void begin(Texture texture, int glyphs, float color) {
+		clear();
+		this.texture = texture;
+		this.color = color;
+		if (vertices.length < glyphs * GLYPH_SIZE) {
+			vertices = new float[Math.max(glyphs * GLYPH_SIZE, vertices.length * 2)];
+		}
+	}
+	/**
+	 * Adds a glyph like {@link SpriteBatch#draw(Texture, float, float, float, float, float, float, float, float)}.
+	 */
+	void add(float x, float y, float width, float height, float u, float v, float u2, float v2) {
+		if (idx == vertices.length) {
+			float[] newVertices = new float[vertices.length * 2];
+			System.arraycopy(vertices, 0, newVertices, 0, idx);
+			vertices = newVertices;
+		}
+		float x2 = x + width;
+		float y2 = y + height;
+		
+		vertices[idx++] = x;
+		vertices[idx++] = y;
+		vertices[idx++] = color;
+		vertices[idx++] = u;
+		vertices[idx++] = v;
+		
+		vertices[idx++] = x;
+		vertices[idx++] = y2;
+		vertices[idx++] = color;
+		vertices[idx++] = u;
+		vertices[idx++] = v2;
+		
+		vertices[idx++] = x2;
+		vertices[idx++] = y2;
+		vertices[idx++] = color;
+		vertices[idx++] = u2;
+		vertices[idx++] = v2;
+		
+		vertices[idx++] = x2;
+		vertices[idx++] = y;
+		vertices[idx++] = color;
+		vertices[idx++] = u2;
+		vertices[idx++] = v;
+	}
+	/**
+	 * Sets the bounds of the cached text.
+	 */
+	void setBounds(float width, float height) {
+		bounds.width = width;
+		bounds.height = height;
+	}
+	/**
+	 * @return the x offset of a line of <code>lineWidth</code> aligned in <code>alignWidth</code>.
+	 */
+	static float align(float lineWidth, float alignWidth, HAlignment alignment) {
+		if (alignment == HAlignment.LEFT) {
+			return 0;
+		}
+		float offset = alignWidth - lineWidth;
+		return alignment == HAlignment.CENTER ? offset / 2 : offset;
+	}
+	
+	// SETTER
+	// 
+	/**
+	 * Moves the text to <code>x</code>, <code>y</code> relative to the position it was cached at.
+	 */
+	public void setPosition(float x, float y) {
+		translate(x - this.x, y - this.y);
+	}
+	public void setColor(Color color) {
+		setColor(color.toFloatBits());
+	}
+	public void setColor(float r, float g, float b, float a) {
+		setColor(Color.toFloatBits(r, g, b, a));
+	}
+	/**
+	 * Sets the color of all glyphs.
+	 */
+	public void setColor(float color) {
+		if (color == this.color) {
+			return;
+		}
+		this.color = color;
+		for (int i = 2; i < idx; i += 5) {
+			vertices[i] = color;
+		}
+	}
+	
+	// GETTER
+	// 
+	/**
+	 * @return the x position relative to the position the text was cached at.
+	 */
+	public float getX() {
+		return x;
+	}
+	/**
+	 * @return the y position relative to the position the text was cached at.
+	 */
+	public float getY() {
+		return y;
+	}
+	/**
+	 * @return the color of the glyphs, the instance is shared between calls.
+	 */
+	public Color getColor() {
+		int intBits = NumberUtils.floatToIntColor(color);
+		tempColor.r = (intBits & 0xff) / 255f;
+		tempColor.g = ((intBits >>> 8) & 0xff) / 255f;
+		tempColor.b = ((intBits >>> 16) & 0xff) / 255f;
+		tempColor.a = ((intBits >>> 24) & 0xff) / 255f;
+		return tempColor;
+	}
+	/**
+	 * @return the bounds of the cached text like {@link Font#getBounds(String)}.
+	 */
+	public TextBounds getBounds() {
+		return bounds;
+	}
+	/**
+	 * @return the number of cached glyphs.
+	 */
+	public int getGlyphCount() {
+		return idx / GLYPH_SIZE;
+	}
+	/**
+	 * @return the texture of the glyphs or null if the cache is empty.
+	 */
+	public Texture getTexture() {
+		return texture;
+	}
+	
+}
@@ -50,7 +50,7 @@ public class ColorCommand extends StyleCommand {
 	protected Color color;
 	
 	/** True if the effect will only be applied on one character */
- 	protected final boolean singleChar;
+ 	protected boolean singleChar;
 	
 	private Color c1 = new Color(), c2 = new Color(), c3 = new Color(), c4 = new Color();
 	
@@ -66,12 +66,33 @@ public class ColorCommand extends StyleCommand {
 	 */
 	public ColorCommand(Color color, int charpoint, boolean singleChar) {
 		super(charpoint);
-		this.color = color;
-		this.singleChar = singleChar;
+		set(color, charpoint, singleChar);
+	}
+	/**
+	 * Creates an empty {@link ColorCommand} for a {@link CommandPool}, set it up with
+	 * {@link #set(Color, int, boolean)}.
+	 */
+	public ColorCommand() {
+		super(0);
 	}
 	
 	// METHODS
 	// 
+	/**
+	 * Sets up the command like the constructor does. The color is not copied and must not be changed while the
+	 * command is used.
+	 * 
+	 * @return this command for chaining.
+	 */
+	public ColorCommand set(Color color, int charpoint, boolean singleChar) {
+		this.color = color;
+		this.charpoint = charpoint;
+		this.singleChar = singleChar;
+		return this;
+	}
+	public void release(CommandPool pool) {
+		color = null;
+	}
 	public void execute(GameContainer container, StyleInfo style) {
 		c1.set(style.colorTopLeft);
 		c2.set(style.colorTopRight);
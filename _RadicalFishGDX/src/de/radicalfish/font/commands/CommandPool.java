@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2012, Stefan Lange
+ * 
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ *     * Redistributions of source code must retain the above copyright notice,
+ *       this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of Stefan Lange nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package de.radicalfish.font.commands;
+import java.lang.reflect.InvocationTargetException;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.utils.Pool;
+import de.radicalfish.util.RadicalFishException;
+import de.radicalfish.util.Utils;
+
+/**
+ * Holds one {@link Pool} per command class, so texts which get parsed again and again (e.g. dialog boxes) reuse their
+ * {@link StyleCommand}s instead of creating new ones. Commands get created with their public no-arg constructor when
+ * a pool runs empty and are filled with their <code>set</code> methods, a custom pool can be set with
+ * {@link #setPool(Class, Pool)}.
+ * <p>
+ * {@link #free(StyleCommand)} calls {@link StyleCommand#release(CommandPool)} before the command goes back into its
+ * pool, commands which hold other commands (group, repeat, sequence, parallel) free them as well. A command must not
+ * be used anymore after it was freed and must not be freed twice.
+ * 
+ * @author Stefan Lange
+ * @version 1.0.0
+ * @since 18.10.2026
+ */
+public class CommandPool {
+	
+	private final ObjectMap<Class<?>, Pool<? extends StyleCommand>> pools;
+	private final int max;
+	
+	private int created;
+	
+	/**
+	 * Creates a new {@link CommandPool} with no limit on the number of free commands per class.
+	 */
+	public CommandPool() {
+		this(Integer.MAX_VALUE);
+	}
+	/**
+	 * Creates a new {@link CommandPool}.
+	 * 
+	 * @param max
+	 *            the maximum number of free commands kept per class, more get dropped
+	 */
+	public CommandPool(int max) {
+		if (max <= 0) {
+			throw new RadicalFishException("max must be greater than 0!");
+		}
+		this.max = max;
+		pools = new ObjectMap<Class<?>, Pool<? extends StyleCommand>>();
+	}
+	
+	// METHODS
+	// 
+	/**
+	 * @return a free command of <code>type</code> or a new one if there is none. Set it up with its <code>set</code>
+	 *         method.
+	 */
+	public <T extends StyleCommand> T obtain(Class<T> type) {
+		return getPool(type).obtain();
+	}
+	/**
+	 * Releases <code>command</code> and the commands it holds and puts them back into the pools of their classes.
+	 */
+	@SuppressWarnings("unchecked")
+	public void free(StyleCommand command) {
+		Utils.notNull("command", command);
+		command.release(this);
+		((Pool<StyleCommand>) getPool(command.getClass())).free(command);
+	}
+	/**
+	 * Frees all <code>commands</code>, see {@link #free(StyleCommand)}.
+	 */
+	public void free(Array<? extends StyleCommand> commands) {
+		for (int i = 0; i < commands.size; i++) {
+			free(commands.get(i));
+		}
+	}
+	/**
+	 * Removes all free commands from all pools.
+	 */
+	public void clear() {
+		for (Pool<? extends StyleCommand> pool : pools.values()) {
+			pool.clear();
+		}
+	}
+	
+	// GETTER
+	// 
+	/**
+	 * @return the pool for <code>type</code>, a new one gets created if there is none yet.
+	 */
+	@SuppressWarnings("unchecked")
+	public <T extends StyleCommand> Pool<T> getPool(Class<T> type) {
+		Pool<T> pool = (Pool<T>) pools.get(type);
+		if (pool == null) {
+			pool = new ReflectionPool<T>(type, max);
+			pools.put(type, pool);
+		}
+		return pool;
+	}
+	/**
+	 * @return the number of commands the pools had to create so far (not counting custom pools). If this number keeps
+	 *         growing while the same texts get parsed again the texts don't get freed.
+	 */
+	public int getCreatedCount() {
+		return created;
+	}
+	
+	// SETTER
+	// 
+	/**
+	 * Sets a custom pool for <code>type</code>, e.g. for commands without a no-arg constructor.
+	 */
+	public <T extends StyleCommand> void setPool(Class<T> type, Pool<T> pool) {
+		Utils.notNull("type", type);
+		Utils.notNull("pool", pool);
+		pools.put(type, pool);
+	}
+	
+	// INTERN CLASSES
+	// 
+	/**
+	 * Creates commands with the public no-arg constructor of their class.
+	 */
+	private class ReflectionPool<T extends StyleCommand> extends Pool<T> {
+		
+		private final Class<T> type;
+		
+		public ReflectionPool(Class<T> type, int max) {
+			super(16, max);
+			this.type = type;
+		}
+		
+		protected T newObject() {
+			try {
+				T command = type.getDeclaredConstructor().newInstance();
+				created++;
+				return command;
+			} catch (InvocationTargetException e) {
+				throw new RadicalFishException("the constructor of " + type.getName() + " failed", e.getCause());
+			} catch (Exception e) {
+				throw new RadicalFishException("could not create a command of " + type.getName()
+						+ ", it needs a public no-arg constructor!", e);
+			}
+		}
+		
+	}
+	
+}
@@ -43,7 +43,7 @@ import de.radicalfish.state.transitions.FadeTransition.FADE;
 public class FadeCommand extends TimeCommand {
 	
 	/** The type of the fade. */
-	protected final FADE type;
+	protected FADE type;
 	
 	private float a1, a2, a3, a4;
 	
@@ -59,13 +59,29 @@ public class FadeCommand extends TimeCommand {
 	 */
 	public FadeCommand(FADE type, float duration, int charpoint) {
 		super(charpoint, duration);
-		
-		this.type = type;
-		this.duration = duration;
+		set(type, duration, charpoint);
+	}
+	/**
+	 * Creates an empty {@link FadeCommand} for a {@link CommandPool}, set it up with {@link #set(FADE, float, int)}.
+	 */
+	public FadeCommand() {
+		super(0, 0);
 	}
 	
 	// METHODS
 	// 
+	/**
+	 * Sets up the command like the constructor does and resets it.
+	 * 
+	 * @return this command for chaining.
+	 */
+	public FadeCommand set(FADE type, float duration, int charpoint) {
+		this.type = type;
+		this.duration = duration;
+		this.charpoint = charpoint;
+		reset();
+		return this;
+	}
 	
 	public void execute(GameContainer container, StyleInfo style, float alpha) {
 		if (type == FADE.OUT) {
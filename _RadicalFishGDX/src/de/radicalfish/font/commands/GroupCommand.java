@@ -55,15 +55,18 @@ public class GroupCommand extends StyleCommand {
 	 * The commands to repeat. This has the size of 1 if the {@link GroupCommand#RepeatCommand(StyleCommand, int)} was
 	 * used.
 	 */
-	protected final Array<Container> commands;
+	protected final Array<Container> commands = new Array<Container>();
 	
 	/** The time to wait to execute the next command. */
-	protected final float delay;
+	protected float delay;
 	/** The number of characters to apply the effect. */
-	protected final int characters;
+	protected int characters;
 	/** The current character we proceed. */
 	protected int currentpoint;
 	
+	// containers of removed commands to use again
+	private final Array<Container> spare = new Array<Container>();
+	
 	/**
 	 * Creates a new {@link GroupCommand}.
 	 * 
@@ -77,20 +80,14 @@ public class GroupCommand extends StyleCommand {
 	 */
 	public GroupCommand(final Array<StyleCommand> commands, int charpoint, float delay) {
 		super(charpoint);
-		
-		this.commands = new Array<Container>();
-		for (int i = 0; i < commands.size; i++) {
-			this.commands.add(new Container(commands.get(i)));
-		}
-		for (int i = 0; i < this.commands.size; i++) {
-			if (i + 1 < commands.size) {
-				this.commands.get(i).next = this.commands.get(i + 1);
-			}
-		}
-		this.commands.get(0).started = true;
-		characters = commands.size;
-		currentpoint = 0;
-		this.delay = delay;
+		set(commands, charpoint, delay);
+	}
+	/**
+	 * Creates an empty {@link GroupCommand} for a {@link CommandPool}, set it up with {@link #set(Array, int, float)}
+	 * or {@link #set(int, float)} and {@link #addStyleCommand(StyleCommand)}.
+	 */
+	public GroupCommand() {
+		super(0);
 	}
 	
 	// OVERRIDE
@@ -114,30 +111,96 @@ public class GroupCommand extends StyleCommand {
 		for (int i = 0; i < commands.size; i++) {
 			commands.get(i).reset();
 		}
-		commands.get(0).started = true;
+		if (commands.size > 0) {
+			commands.get(0).started = true;
+		}
 		currentpoint = 0;
 	}
+	public void release(CommandPool pool) {
+		for (int i = 0; i < commands.size; i++) {
+			Container c = commands.get(i);
+			pool.free(c.command);
+			c.command = null;
+			c.next = null;
+			spare.add(c);
+		}
+		commands.clear();
+		characters = 0;
+	}
 	
 	// METHODS
 	// 
+	/**
+	 * Sets up the command like the constructor does, the commands get copied into the group.
+	 * 
+	 * @return this command for chaining.
+	 */
+	public GroupCommand set(Array<StyleCommand> commands, int charpoint, float delay) {
+		set(charpoint, delay);
+		for (int i = 0; i < commands.size; i++) {
+			add(commands.get(i));
+		}
+		reset();
+		return this;
+	}
+	/**
+	 * Sets up an empty group, add the commands with {@link #addStyleCommand(StyleCommand)}.
+	 * 
+	 * @return this command for chaining.
+	 */
+	public GroupCommand set(int charpoint, float delay) {
+		for (int i = 0; i < commands.size; i++) {
+			commands.get(i).command = null;
+			commands.get(i).next = null;
+		}
+		spare.addAll(commands);
+		commands.clear();
+		characters = 0;
+		this.charpoint = charpoint;
+		this.delay = delay;
+		currentpoint = 0;
+		return this;
+	}
 	/**
 	 * Adds a command to the end of the array.
 	 */
 	public void addStyleCommand(StyleCommand command) {
-		commands.add(new Container(command));
+		add(command);
 		reset();
 	}
 	/**
 	 * Removes an command from the list.
 	 */
 	public void remove(int index) {
-		commands.removeIndex(index);
+		Container c = commands.removeIndex(index);
+		c.command = null;
+		c.next = null;
+		spare.add(c);
+		for (int i = 0; i < commands.size; i++) {
+			commands.get(i).next = i + 1 < commands.size ? commands.get(i + 1) : null;
+		}
+		characters = commands.size;
 		reset();
 	}
 	
 	public int getCharPoint() {
 		return charpoint + currentpoint;
 	}
+	public int getCharCount() {
+		return characters;
+	}
+	
+	// INTERN
+	// 
+	private void add(StyleCommand command) {
+		Container c = spare.size > 0 ? spare.pop() : new Container();
+		c.command = command;
+		if (commands.size > 0) {
+			commands.peek().next = c;
+		}
+		commands.add(c);
+		characters = commands.size;
+	}
 	
 	// INTERN CLASSES
 	// 
@@ -149,10 +212,6 @@ public class GroupCommand extends StyleCommand {
 		
 		float time = 0;
 		
-		public Container(StyleCommand command) {
-			this.command = command;
-		}
-		
 		void update(GameContainer container, float delta) {
 			if (!started) {
 				return;
@@ -56,7 +56,7 @@ public class MoveCommand extends TimeCommand {
 	protected final Vector2 current = new Vector2(0, 0);
 	
 	/** True if the effect will only be applied on one character */
-	protected final boolean singleChar;
+	protected boolean singleChar;
 	
 	/**
 	 * Creates a new {@link MoveCommand}.
@@ -94,9 +94,41 @@ public class MoveCommand extends TimeCommand {
 	 */
 	public MoveCommand(Interpolation tween, float offsetx, float offsety, int charpoint, float duration, boolean singleChar) {
 		super(charpoint, duration);
+		set(tween, offsetx, offsety, charpoint, duration, singleChar);
+	}
+	/**
+	 * Creates an empty {@link MoveCommand} for a {@link CommandPool}, set it up with
+	 * {@link #set(Interpolation, float, float, int, float, boolean)}.
+	 */
+	public MoveCommand() {
+		super(0, 0);
+		tween = Interpolation.linear;
+	}
+	
+	// METHODS
+	// 
+	/**
+	 * Sets up the command like the constructor does (with a linear {@link Interpolation}) and resets it.
+	 * 
+	 * @return this command for chaining.
+	 */
+	public MoveCommand set(float offsetx, float offsety, int charpoint, float duration, boolean singleChar) {
+		return set(Interpolation.linear, offsetx, offsety, charpoint, duration, singleChar);
+	}
+	/**
+	 * Sets up the command like the constructor does and resets it.
+	 * 
+	 * @return this command for chaining.
+	 */
+	public MoveCommand set(Interpolation tween, float offsetx, float offsety, int charpoint, float duration,
+			boolean singleChar) {
 		this.tween = tween;
 		offset.set(offsetx, offsety);
+		this.charpoint = charpoint;
+		this.duration = duration;
 		this.singleChar = singleChar;
+		reset();
+		return this;
 	}
 	
 	// OVERRIDE
@@ -54,6 +54,12 @@ public class ParallelCommand extends StyleCommand {
 	public ParallelCommand(int charpoint) {
 		super(charpoint);
 	}
+	/**
+	 * Creates an empty {@link ParallelCommand} for a {@link CommandPool}, set it up with {@link #set(int)}.
+	 */
+	public ParallelCommand() {
+		super(0);
+	}
 	
 	// OVERRIDE
 	// 
@@ -78,9 +84,22 @@ public class ParallelCommand extends StyleCommand {
 		}
 		
 	}
+	public void release(CommandPool pool) {
+		pool.free(commands);
+		commands.clear();
+	}
 	
 	// METHODS
 	// 
+	/**
+	 * Sets the charpoint like the constructor does.
+	 * 
+	 * @return this command for chaining.
+	 */
+	public ParallelCommand set(int charpoint) {
+		this.charpoint = charpoint;
+		return this;
+	}
 	/**
 	 * Adds a command to the parallel group.
 	 */
@@ -41,10 +41,10 @@ import de.radicalfish.font.StyleInfo;
 public class RepeatCommand extends StyleCommand {
 	
 	/** The {@link StyleCommand} to use. */
-	protected final StyleCommand repeat;
+	protected StyleCommand repeat;
 	
 	/** he number of characters to apply the command on. */
-	protected final int characters;
+	protected int characters;
 	
 	/** the current point (0 for the first and <code>characters</code> -1 for the max)*/
 	protected int currentpoint;
@@ -61,8 +61,29 @@ public class RepeatCommand extends StyleCommand {
 	 */
 	public RepeatCommand(StyleCommand repeat, int charpoint, int characters) {
 		super(charpoint);
+		set(repeat, charpoint, characters);
+	}
+	/**
+	 * Creates an empty {@link RepeatCommand} for a {@link CommandPool}, set it up with
+	 * {@link #set(StyleCommand, int, int)}.
+	 */
+	public RepeatCommand() {
+		super(0);
+	}
+	
+	// METHODS
+	// 
+	/**
+	 * Sets up the command like the constructor does.
+	 * 
+	 * @return this command for chaining.
+	 */
+	public RepeatCommand set(StyleCommand repeat, int charpoint, int characters) {
 		this.repeat = repeat;
+		this.charpoint = charpoint;
 		this.characters = characters;
+		currentpoint = 0;
+		return this;
 	}
 	
 	// OVERRIDE
@@ -80,10 +101,19 @@ public class RepeatCommand extends StyleCommand {
 	public void reset() {
 		repeat.reset();
 	}
+	public void release(CommandPool pool) {
+		if (repeat != null) {
+			pool.free(repeat);
+			repeat = null;
+		}
+	}
 	
 	public int getCharPoint() {
 		return charpoint + currentpoint;
 	}
+	public int getCharCount() {
+		return characters;
+	}
 	
 	
 }
@@ -53,7 +53,7 @@ public class ResetCommand extends StyleCommand {
 		ALL, COLOR, ALPHA, GEOM
 	}
 	
-	protected final RESET type;
+	protected RESET type;
 	
 	/**
 	 * Creates a new {@link ResetCommand}.
@@ -67,9 +67,26 @@ public class ResetCommand extends StyleCommand {
 		super(charpoint);
 		this.type = type;
 	}
+	/**
+	 * Creates an empty {@link ResetCommand} for a {@link CommandPool}, set it up with {@link #set(RESET, int)}.
+	 */
+	public ResetCommand() {
+		super(0);
+		type = RESET.ALL;
+	}
 	
 	// METHODS
 	// 
+	/**
+	 * Sets up the command like the constructor does.
+	 * 
+	 * @return this command for chaining.
+	 */
+	public ResetCommand set(RESET type, int charpoint) {
+		this.type = type;
+		this.charpoint = charpoint;
+		return this;
+	}
 	public void execute(GameContainer container, StyleInfo style) {
 		switch (type) {
 			case ALL:
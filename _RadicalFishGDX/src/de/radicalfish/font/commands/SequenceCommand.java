@@ -73,10 +73,14 @@ public class SequenceCommand extends StyleCommand {
 	 */
 	public SequenceCommand(Array<TimeCommand> commands, int charpoint, boolean loops, boolean pingpong) {
 		super(charpoint);
-		Utils.notNull("commands", commands);
-		commands.addAll(commands, 0, commands.size);
-		this.loops = loops;
-		this.pingpong = pingpong;
+		set(commands, charpoint, loops, pingpong);
+	}
+	/**
+	 * Creates an empty {@link SequenceCommand} for a {@link CommandPool}, set it up with
+	 * {@link #set(Array, int, boolean, boolean)}.
+	 */
+	public SequenceCommand() {
+		super(0);
 	}
 	
 	// OVERRIDE
@@ -120,12 +124,17 @@ public class SequenceCommand extends StyleCommand {
 		commands.get(current).finish(container, style);
 	}
 	public void reset() {
+		direction = 1;
 		stopped = false;
 		for (int i = 0; i < commands.size; i++) {
 			commands.get(i).reset();
 		}
 		current = 0;
 	}
+	public void release(CommandPool pool) {
+		pool.free(commands);
+		commands.clear();
+	}
 	
 	public int getCharPoint() {
 		if (commands.size == 0) {
@@ -133,9 +142,28 @@ public class SequenceCommand extends StyleCommand {
 		}
 		return commands.get(current).getCharPoint();
 	}
+	public int getCharCount() {
+		// the char point depends on the current command
+		return 0;
+	}
 	
 	// METHODS
 	// 
+	/**
+	 * Sets up the command like the constructor does and resets it. The commands get copied into the sequence.
+	 * 
+	 * @return this command for chaining.
+	 */
+	public SequenceCommand set(Array<TimeCommand> commands, int charpoint, boolean loops, boolean pingpong) {
+		Utils.notNull("commands", commands);
+		this.commands.clear();
+		this.commands.addAll(commands);
+		this.charpoint = charpoint;
+		this.loops = loops;
+		this.pingpong = pingpong;
+		reset();
+		return this;
+	}
 	/**
 	 * Adds a {@link TimeCommand} to the sequence.
 	 */
@@ -90,6 +90,12 @@ public abstract class StyleCommand {
 	 * Resets the {@link StyleCommand}.
 	 */
 	public abstract void reset();
+	/**
+	 * Frees the commands this command holds into <code>pool</code> and drops references to other objects, so the
+	 * command can go back into a pool. Called by {@link CommandPool#free(StyleCommand)}, commands which hold other
+	 * commands must override this.
+	 */
+	public void release(CommandPool pool) {}
 	
 	// GETTER
 	// 
@@ -99,4 +105,12 @@ public abstract class StyleCommand {
 	public int getCharPoint() {
 		return charpoint;
 	}
+	/**
+	 * @return the number of characters starting at {@link #charpoint} this command can be executed on. Used by
+	 *         {@link de.radicalfish.font.StyledLine#compile()} to only check the command on these characters. 0 if the
+	 *         range is not known before drawing, these commands get checked on every character.
+	 */
+	public int getCharCount() {
+		return 1;
+	}
 }
@@ -39,7 +39,8 @@ import de.radicalfish.font.StyleInfo;
  * The methods include the passed time since the command has been started (reset will of course reset the timer) in a
  * range of 0 - 1. 0 means the start of the command and 1 means the command is done.
  * <p>
- * Note that the update method will still be called when the time is over! Also if the duration 
+ * Note that the update method will still be called once when the time is over, with an alpha of 1. A
+ * {@link de.radicalfish.font.StyledLine} stops updating the command after that until it gets reset.
  * 
  * @author Stefan Lange
  * @version 1.0.0
@@ -36,7 +36,9 @@ import com.badlogic.gdx.graphics.Pixmap;
 import com.badlogic.gdx.graphics.Pixmap.Format;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+import com.badlogic.gdx.math.Matrix4;
 import com.badlogic.gdx.math.Vector3;
 import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.Disposable;
@@ -48,6 +50,11 @@ import de.radicalfish.util.RadicalFishException;
 
 /**
  * A wrapper for translating the context, drawing sprites with the {@link SpriteBatch} and drawing primitives.
+ * <p>
+ * Between {@link #beginDeferred()} and {@link #endDeferred()} the draw methods of this class and the primitives don't
+ * go to the batch directly but get recorded in a {@link RenderQueue} with the current layer, depth and
+ * {@link BlendMode}. {@link #endDeferred()} sorts them by layer, blend mode and texture and draws them with as few
+ * flushes as possible. Draws done on the {@link SpriteBatch} itself are not recorded.
  * 
  * @author Stefan Lange
  * @version 1.0.0
@@ -72,6 +79,10 @@ public class Graphics implements Disposable {
 	private Array<GraphicsTransform> transformStack = new Array<GraphicsTransform>();
 	
 	private float[] lineVerts = new float[4 * 5];
+	private float[] quadVerts = new float[4 * 5];
+	
+	private RenderQueue queue;
+	private Matrix4 identity = new Matrix4(), projection = new Matrix4();
 	private float linewidth = 1f;
 	private float color = 0f;
 	
@@ -80,6 +91,7 @@ public class Graphics implements Disposable {
 	private boolean useGL20;
 	private boolean wasAlphaMap = false, wasAlphaBlend = false;
 	private boolean wasSubtract = false;
+	private boolean deferred = false;
 	
 	public Graphics(int width, int height, boolean useGL20, int batchSize) {
 		this.width = width;
@@ -215,7 +227,61 @@ public class Graphics implements Disposable {
 	 * while batching.
 	 */
 	public void applyBatch() {
-		spriteBatch.setProjectionMatrix(gContext.combined);
+		if (deferred) {
+			queue.setProjection(gContext.combined);
+		} else {
+			spriteBatch.setProjectionMatrix(gContext.combined);
+		}
+	}
+	
+	/**
+	 * Starts recording draws instead of drawing them. The {@link SpriteBatch} must not be started. Use
+	 * {@link #setLayer(int)} and {@link #setDepth(float)} to order the draws.
+	 */
+	public void beginDeferred() {
+		if (deferred) {
+			throw new RadicalFishException("beginDeferred was called twice without endDeferred!");
+		}
+		if (queue == null) {
+			queue = new RenderQueue();
+		}
+		queue.clear();
+		queue.setLayer(0);
+		queue.setDepth(0);
+		queue.setBlendMode(blendMode);
+		queue.setProjection(spriteBatch.getProjectionMatrix());
+		deferred = true;
+	}
+	/**
+	 * Sorts all draws recorded since {@link #beginDeferred()} and draws them. Afterwards the blend mode is the one set
+	 * last while recording. The flush counts before and after sorting can be read from {@link #getRenderQueue()}.
+	 */
+	public void endDeferred() {
+		if (!deferred) {
+			throw new RadicalFishException("endDeferred was called without beginDeferred!");
+		}
+		deferred = false;
+		queue.sort();
+		
+		// the blend mode set last while recording stays active after the draws
+		BlendMode recordedMode = queue.getBlendMode();
+		projection.set(spriteBatch.getProjectionMatrix());
+		// the vertices are already transformed
+		spriteBatch.setProjectionMatrix(identity);
+		spriteBatch.begin();
+		float[] vertices = queue.getVertices();
+		for (int i = 0; i < queue.getSize(); i++) {
+			BlendMode mode = queue.getBlendMode(i);
+			if (mode != blendMode) {
+				spriteBatch.flush();
+				setBlendMode(mode);
+			}
+			spriteBatch.draw(queue.getTexture(i), vertices, queue.getOffset(i), RenderQueue.SPRITE_SIZE);
+		}
+		spriteBatch.end();
+		setBlendMode(recordedMode);
+		spriteBatch.setProjectionMatrix(projection);
+		queue.clear();
 	}
 	
 	/**
@@ -241,10 +307,59 @@ public class Graphics implements Disposable {
 	}
 	
 	public void dispose() {
+		if (queue != null) {
+			queue.clear();
+		}
 		texture.dispose();
 		spriteBatch.dispose();
 	}
 	
+	// METHODS DRAWING
+	// 
+	/**
+	 * Draws <code>region</code> at <code>x, y</code> with its own size, the same as {@link SpriteBatch} does. Gets
+	 * recorded in deferred mode.
+	 */
+	public void draw(TextureRegion region, float x, float y) {
+		draw(region, x, y, Math.abs(region.getRegionWidth()), Math.abs(region.getRegionHeight()));
+	}
+	/**
+	 * Draws <code>region</code> at <code>x, y</code> stretched to <code>width, height</code>, the same as
+	 * {@link SpriteBatch} does. Gets recorded in deferred mode.
+	 */
+	public void draw(TextureRegion region, float x, float y, float width, float height) {
+		if (deferred) {
+			quad(region.getTexture(), x, y, width, height, region.getU(), region.getV2(), region.getU2(), region.getV(),
+					spriteBatch.getColor().toFloatBits());
+		} else {
+			spriteBatch.draw(region, x, y, width, height);
+		}
+	}
+	/**
+	 * Draws <code>texture</code> at <code>x, y</code> stretched to <code>width, height</code>, the same as
+	 * {@link SpriteBatch} does. Gets recorded in deferred mode.
+	 */
+	public void draw(Texture texture, float x, float y, float width, float height) {
+		if (deferred) {
+			quad(texture, x, y, width, height, 0, 1, 1, 0, spriteBatch.getColor().toFloatBits());
+		} else {
+			spriteBatch.draw(texture, x, y, width, height);
+		}
+	}
+	/**
+	 * Draws sprites given as vertices (x, y, color, u, v for each of the 4 corners), the same as {@link SpriteBatch}
+	 * does. Gets recorded in deferred mode.
+	 */
+	public void draw(Texture texture, float[] vertices, int offset, int length) {
+		if (deferred) {
+			for (int i = offset; i + RenderQueue.SPRITE_SIZE <= offset + length; i += RenderQueue.SPRITE_SIZE) {
+				queue.add(texture, vertices, i);
+			}
+		} else {
+			spriteBatch.draw(texture, vertices, offset, length);
+		}
+	}
+	
 	// METHODS PRIMITIVES
 	// 
 	/**
@@ -254,6 +369,10 @@ public class Graphics implements Disposable {
 	 * You must <code>apply</code> all transformation for this too! also the {@link SpriteBatch} must be started!
 	 */
 	public void fillRect(float x, float y, float width, float height) {
+		if (deferred) {
+			quad(texture, x, y, width, height, 0, 1, 1, 0, color);
+			return;
+		}
 		Color temp = spriteBatch.getColor();
 		
 		spriteBatch.setColor(shapeColor);
@@ -267,6 +386,13 @@ public class Graphics implements Disposable {
 	 * You must <code>apply</code> all transformation for this too! also the {@link SpriteBatch} must be started!
 	 */
 	public void drawRect(float x, float y, float width, float height) {
+		if (deferred) {
+			quad(texture, x, y, width, linewidth, 0, 1, 1, 0, color);
+			quad(texture, x + width, y, linewidth, height + 1, 0, 1, 1, 0, color);
+			quad(texture, x + width, y + height, -width, linewidth, 0, 1, 1, 0, color);
+			quad(texture, x, y + height, linewidth, -height, 0, 1, 1, 0, color);
+			return;
+		}
 		Color temp = spriteBatch.getColor();
 		spriteBatch.setColor(shapeColor);
 		spriteBatch.draw(texture, x, y, width, linewidth);
@@ -294,6 +420,10 @@ public class Graphics implements Disposable {
 		vertexLine(10, x2 + dx - dy, y2 + dy + dx, color, 1, 1);
 		vertexLine(15, x2 + dx + dy, y2 + dy - dx, color, 0, 1);
 		
+		if (deferred) {
+			queue.add(texture, lineVerts, 0);
+			return;
+		}
 		Color temp = spriteBatch.getColor();
 		spriteBatch.setColor(shapeColor);
 		spriteBatch.draw(texture, lineVerts, 0, lineVerts.length);
@@ -310,6 +440,35 @@ public class Graphics implements Disposable {
 		lineVerts[index + 4] = v;
 	}
 	
+	private void quad(Texture texture, float x, float y, float width, float height, float u, float v, float u2,
+			float v2, float color) {
+		float[] verts = quadVerts;
+		verts[0] = x;
+		verts[1] = y;
+		verts[2] = color;
+		verts[3] = u;
+		verts[4] = v;
+		
+		verts[5] = x;
+		verts[6] = y + height;
+		verts[7] = color;
+		verts[8] = u;
+		verts[9] = v2;
+		
+		verts[10] = x + width;
+		verts[11] = y + height;
+		verts[12] = color;
+		verts[13] = u2;
+		verts[14] = v2;
+		
+		verts[15] = x + width;
+		verts[16] = y;
+		verts[17] = color;
+		verts[18] = u2;
+		verts[19] = v;
+		queue.add(texture, verts, 0);
+	}
+	
 	private void solveAlphaBlend(BlendMode mode) {
 		if (blendMode == BlendMode.ALPHA_MAP) {
 			if (!wasAlphaBlend) {
@@ -444,6 +603,14 @@ public class Graphics implements Disposable {
 	 * Sets the {@link BlendMode} to use for drawing sprite via the {@link SpriteBatch}.
 	 */
 	public void setBlendMode(BlendMode mode) {
+		if (deferred) {
+			if (mode == BlendMode.SUB && !useGL20) {
+				Logger.warn("Can't set BlendMode.SUB because GL20 is not supported!");
+				return;
+			}
+			queue.setBlendMode(mode);
+			return;
+		}
 		if (blendMode == mode) {
 			return;
 		}
@@ -473,6 +640,26 @@ public class Graphics implements Disposable {
 		spriteBatch.setBlendFunction(src, dst);
 	}
 	
+	/**
+	 * Sets the layer of the following draws in deferred mode. Lower layers get drawn first.
+	 */
+	public void setLayer(int layer) {
+		if (queue == null) {
+			queue = new RenderQueue();
+		}
+		queue.setLayer(layer);
+	}
+	/**
+	 * Sets the depth of the following draws in deferred mode. Inside a layer, draws with the same blend mode and
+	 * texture get drawn with the lower depth first.
+	 */
+	public void setDepth(float depth) {
+		if (queue == null) {
+			queue = new RenderQueue();
+		}
+		queue.setDepth(depth);
+	}
+	
 	/**
 	 * Sets the y direction of the viewport. true stand for y-down while false stand for y-up.
 	 */
@@ -528,6 +715,25 @@ public class Graphics implements Disposable {
 		return gContext.getScaleY();
 	}
 	
+	/**
+	 * @return the {@link BlendMode} of the following draws. In deferred mode it's the one which gets recorded.
+	 */
+	public BlendMode getBlendMode() {
+		return deferred ? queue.getBlendMode() : blendMode;
+	}
+	/**
+	 * @return the queue the draws get recorded in while in deferred mode, or null if deferred mode was never used.
+	 *         Holds the flush counts of the last {@link #endDeferred()}.
+	 */
+	public RenderQueue getRenderQueue() {
+		return queue;
+	}
+	/**
+	 * @return true if the draws get recorded instead of drawn, see {@link #beginDeferred()}.
+	 */
+	public boolean isDeferred() {
+		return deferred;
+	}
 	/**
 	 * @return true if the viewport direction is y-down, false otherwise.
 	 */
@@ -0,0 +1,328 @@
+/*
+ * Copyright (c) 2012, Stefan Lange
+ * 
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ *     * Redistributions of source code must retain the above copyright notice,
+ *       this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of Stefan Lange nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package de.radicalfish.graphics;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.math.Matrix4;
+
+/**
+ * Records sprite draws for the deferred mode of {@link Graphics} (see {@link Graphics#beginDeferred()}). Each draw is
+ * stored as 4 vertices (like the {@link com.badlogic.gdx.graphics.g2d.SpriteBatch} uses them) together with the
+ * texture, the {@link BlendMode}, a layer and a depth. The vertices get transformed by the projection at the time of
+ * the draw, so translating the context between draws does not break the batch.
+ * <p>
+ * {@link #sort()} orders the draws by layer, then blend mode, then texture and at last by depth. Draws with equal keys
+ * keep the order they were recorded in. Only the layer guarantees the order on the screen: two draws on the same layer
+ * with a different texture or blend mode may swap, so things that overlap and need a fixed order should go on
+ * different layers.
+ * <p>
+ * The queue counts the flushes the draws would need in the order they were recorded and in the sorted order, a flush
+ * is needed whenever the texture or the blend mode changes.
+ * 
+ * @author Stefan Lange
+ * @version 1.0.0
+ * @since 18.10.2026
+ */
+public class RenderQueue {
+	
+	/** The number of floats one draw takes: 4 vertices with x, y, color, u, v. */
+	public static final int SPRITE_SIZE = 20;
+	
+	private Texture[] textures;
+	private BlendMode[] modes;
+	private int[] layers, handles;
+	private float[] depths;
+	private float[] vertices;
+	private int[] order, temp;
+	private int size;
+	
+	private final float[] projection = new float[16];
+	private int layer;
+	private float depth;
+	private BlendMode blendMode = BlendMode.NORMAL;
+	
+	private int unsortedFlushes, sortedFlushes;
+	private boolean sorted;
+	
+	/**
+	 * Creates a new {@link RenderQueue} with room for 256 draws.
+	 */
+	public RenderQueue() {
+		this(256);
+	}
+	/**
+	 * Creates a new {@link RenderQueue}.
+	 * 
+	 * @param capacity
+	 *            the number of draws the queue can take before it has to grow
+	 */
+	public RenderQueue(int capacity) {
+		capacity = Math.max(1, capacity);
+		textures = new Texture[capacity];
+		modes = new BlendMode[capacity];
+		layers = new int[capacity];
+		handles = new int[capacity];
+		depths = new float[capacity];
+		vertices = new float[capacity * SPRITE_SIZE];
+		order = new int[capacity];
+		temp = new int[capacity];
+		setProjection(new Matrix4());
+	}
+	
+	// METHODS
+	// 
+	/**
+	 * Records a draw of <code>texture</code> with 4 vertices starting at <code>offset</code> in <code>source</code>.
+	 * The positions get transformed by the current projection.
+	 */
+	public void add(Texture texture, float[] source, int offset) {
+		if (size == textures.length) {
+			grow();
+		}
+		
+		textures[size] = texture;
+		handles[size] = texture.getTextureObjectHandle();
+		modes[size] = blendMode;
+		layers[size] = layer;
+		depths[size] = depth;
+		order[size] = size;
+		
+		float[] m = projection;
+		int index = size * SPRITE_SIZE;
+		System.arraycopy(source, offset, vertices, index, SPRITE_SIZE);
+		for (int i = index; i < index + SPRITE_SIZE; i += 5) {
+			float x = vertices[i], y = vertices[i + 1];
+			vertices[i] = m[Matrix4.M00] * x + m[Matrix4.M01] * y + m[Matrix4.M03];
+			vertices[i + 1] = m[Matrix4.M10] * x + m[Matrix4.M11] * y + m[Matrix4.M13];
+		}
+		
+		size++;
+		sorted = false;
+	}
+	/**
+	 * Sorts the draws by layer, blend mode, texture and depth and updates the flush counts. The sort is stable and
+	 * creates no objects.
+	 */
+	public void sort() {
+		if (sorted) {
+			return;
+		}
+		unsortedFlushes = countFlushes();
+		mergeSort(0, size);
+		sortedFlushes = countFlushes();
+		sorted = true;
+	}
+	/**
+	 * Removes all draws. The projection, layer, depth and blend mode stay as they are.
+	 */
+	public void clear() {
+		for (int i = 0; i < size; i++) {
+			textures[i] = null;
+		}
+		size = 0;
+		sorted = false;
+	}
+	
+	// INTERN
+	// 
+	private int compare(int a, int b) {
+		if (layers[a] != layers[b]) {
+			return layers[a] < layers[b] ? -1 : 1;
+		}
+		if (modes[a] != modes[b]) {
+			return modes[a].ordinal() - modes[b].ordinal();
+		}
+		if (handles[a] != handles[b]) {
+			return handles[a] < handles[b] ? -1 : 1;
+		}
+		if (depths[a] != depths[b]) {
+			return depths[a] < depths[b] ? -1 : 1;
+		}
+		return a - b;
+	}
+	private void mergeSort(int from, int to) {
+		if (to - from < 8) {
+			// insertion sort for small ranges
+			for (int i = from + 1; i < to; i++) {
+				int value = order[i];
+				int j = i - 1;
+				while (j >= from && compare(order[j], value) > 0) {
+					order[j + 1] = order[j];
+					j--;
+				}
+				order[j + 1] = value;
+			}
+			return;
+		}
+		int mid = (from + to) >>> 1;
+		mergeSort(from, mid);
+		mergeSort(mid, to);
+		if (compare(order[mid - 1], order[mid]) <= 0) {
+			return;
+		}
+		System.arraycopy(order, from, temp, from, to - from);
+		int i = from, j = mid, k = from;
+		while (i < mid && j < to) {
+			order[k++] = compare(temp[j], temp[i]) < 0 ? temp[j++] : temp[i++];
+		}
+		while (i < mid) {
+			order[k++] = temp[i++];
+		}
+		while (j < to) {
+			order[k++] = temp[j++];
+		}
+	}
+	private int countFlushes() {
+		if (size == 0) {
+			return 0;
+		}
+		int flushes = 1;
+		for (int i = 1; i < size; i++) {
+			int a = order[i - 1], b = order[i];
+			if (handles[a] != handles[b] || modes[a] != modes[b]) {
+				flushes++;
+			}
+		}
+		return flushes;
+	}
+	private void grow() {
+		int capacity = textures.length * 2;
+		Texture[] newTextures = new Texture[capacity];
+		System.arraycopy(textures, 0, newTextures, 0, size);
+		textures = newTextures;
+		BlendMode[] newModes = new BlendMode[capacity];
+		System.arraycopy(modes, 0, newModes, 0, size);
+		modes = newModes;
+		layers = copy(layers, capacity);
+		handles = copy(handles, capacity);
+		float[] newDepths = new float[capacity];
+		System.arraycopy(depths, 0, newDepths, 0, size);
+		depths = newDepths;
+		float[] newVertices = new float[capacity * SPRITE_SIZE];
+		System.arraycopy(vertices, 0, newVertices, 0, size * SPRITE_SIZE);
+		vertices = newVertices;
+		order = copy(order, capacity);
+		temp = new int[capacity];
+	}
+	private int[] copy(int[] array, int capacity) {
+		int[] result = new int[capacity];
+		System.arraycopy(array, 0, result, 0, size);
+		return result;
+	}
+	
+	// SETTER
+	// 
+	/**
+	 * Sets the projection the positions of the following draws get transformed with. Only the 2D part (scale, rotation
+	 * and translation in x and y) is used.
+	 */
+	public void setProjection(Matrix4 matrix) {
+		System.arraycopy(matrix.val, 0, projection, 0, 16);
+	}
+	/**
+	 * Sets the layer of the following draws. Lower layers get drawn first.
+	 */
+	public void setLayer(int layer) {
+		this.layer = layer;
+	}
+	/**
+	 * Sets the depth of the following draws. Inside a layer, draws with the same blend mode and texture get drawn with
+	 * the lower depth first.
+	 */
+	public void setDepth(float depth) {
+		this.depth = depth;
+	}
+	/**
+	 * Sets the {@link BlendMode} of the following draws.
+	 */
+	public void setBlendMode(BlendMode blendMode) {
+		this.blendMode = blendMode;
+	}
+	
+	// GETTER
+	// 
+	/**
+	 * @return the number of recorded draws.
+	 */
+	public int getSize() {
+		return size;
+	}
+	/**
+	 * @return the texture of the draw at position <code>index</code> in the (sorted) order.
+	 */
+	public Texture getTexture(int index) {
+		return textures[order[index]];
+	}
+	/**
+	 * @return the blend mode of the draw at position <code>index</code> in the (sorted) order.
+	 */
+	public BlendMode getBlendMode(int index) {
+		return modes[order[index]];
+	}
+	/**
+	 * @return the layer of the draw at position <code>index</code> in the (sorted) order.
+	 */
+	public int getLayer(int index) {
+		return layers[order[index]];
+	}
+	/**
+	 * @return the offset of the vertices of the draw at position <code>index</code> in the (sorted) order.
+	 */
+	public int getOffset(int index) {
+		return order[index] * SPRITE_SIZE;
+	}
+	/**
+	 * @return the array holding the vertices of all draws, use {@link #getOffset(int)} to find one draw.
+	 */
+	public float[] getVertices() {
+		return vertices;
+	}
+	public int getLayer() {
+		return layer;
+	}
+	public float getDepth() {
+		return depth;
+	}
+	public BlendMode getBlendMode() {
+		return blendMode;
+	}
+	/**
+	 * @return the number of flushes the draws of the last {@link #sort()} would have needed in the recorded order.
+	 */
+	public int getUnsortedFlushes() {
+		return unsortedFlushes;
+	}
+	/**
+	 * @return the number of flushes the draws of the last {@link #sort()} need in the sorted order.
+	 */
+	public int getSortedFlushes() {
+		return sortedFlushes;
+	}
+	
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2012, Stefan Lange
+ * 
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ *     * Redistributions of source code must retain the above copyright notice,
+ *       this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of Stefan Lange nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package de.radicalfish.particles;
+import de.radicalfish.util.RadicalFishException;
+
+/**
+ * Slows all particles down. The velocity loses the given fraction per second, so a drag of 0.5 halves the speed of a
+ * particle every second regardless of how often the system gets updated.
+ * 
+ * @author Stefan Lange
+ * @version 1.0.0
+ * @since 18.10.2026
+ */
+public class Drag implements ParticleAffector {
+	
+	private float drag;
+	
+	/**
+	 * Creates a new {@link Drag}.
+	 * 
+	 * @param drag
+	 *            the fraction of the velocity lost per second, between 0 and 1
+	 */
+	public Drag(float drag) {
+		setDrag(drag);
+	}
+	
+	// METHODS
+	// 
+	public void apply(ParticleSystem system, int from, int to, float delta) {
+		float[] vx = system.vx, vy = system.vy;
+		float factor = (float) Math.pow(1 - drag, delta);
+		for (int i = from; i < to; i++) {
+			vx[i] *= factor;
+			vy[i] *= factor;
+		}
+	}
+	
+	// GETTER
+	// 
+	public float getDrag() {
+		return drag;
+	}
+	
+	// SETTER
+	// 
+	/**
+	 * @param drag
+	 *            the fraction of the velocity lost per second, between 0 and 1
+	 */
+	public void setDrag(float drag) {
+		if (drag < 0 || drag > 1) {
+			throw new RadicalFishException("drag must be between 0 and 1!");
+		}
+		this.drag = drag;
+	}
+	
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2012, Stefan Lange
+ * 
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ *     * Redistributions of source code must retain the above copyright notice,
+ *       this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of Stefan Lange nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package de.radicalfish.particles;
+
+/**
+ * Pulls all particles towards a point (or pushes them away with a negative strength). The pull is the same on every
+ * distance, only its direction changes, so particles swing around the point instead of collapsing into it.
+ * 
+ * @author Stefan Lange
+ * @version 1.0.0
+ * @since 18.10.2026
+ */
+public class GravityPoint implements ParticleAffector {
+	
+	private float x, y;
+	private float strength;
+	
+	/**
+	 * Creates a new {@link GravityPoint}.
+	 * 
+	 * @param strength
+	 *            the acceleration towards the point in pixels per second squared
+	 */
+	public GravityPoint(float x, float y, float strength) {
+		this.x = x;
+		this.y = y;
+		this.strength = strength;
+	}
+	
+	// METHODS
+	// 
+	public void apply(ParticleSystem system, int from, int to, float delta) {
+		float[] px = system.px, py = system.py, vx = system.vx, vy = system.vy;
+		float pull = strength * delta, dx, dy, length;
+		for (int i = from; i < to; i++) {
+			dx = x - px[i];
+			dy = y - py[i];
+			length = (float) Math.sqrt(dx * dx + dy * dy);
+			if (length > 0.0001f) {
+				length = pull / length;
+				vx[i] += dx * length;
+				vy[i] += dy * length;
+			}
+		}
+	}
+	
+	// GETTER
+	// 
+	public float getX() {
+		return x;
+	}
+	public float getY() {
+		return y;
+	}
+	public float getStrength() {
+		return strength;
+	}
+	
+	// SETTER
+	// 
+	public void setPosition(float x, float y) {
+		this.x = x;
+		this.y = y;
+	}
+	/**
+	 * @param strength
+	 *            the acceleration towards the point in pixels per second squared, negative values push away
+	 */
+	public void setStrength(float strength) {
+		this.strength = strength;
+	}
+	
+}
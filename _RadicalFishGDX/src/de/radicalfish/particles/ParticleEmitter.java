@@ -0,0 +1,225 @@
+/*
+ * Copyright (c) 2012, Stefan Lange
+ * 
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ *     * Redistributions of source code must retain the above copyright notice,
+ *       this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of Stefan Lange nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package de.radicalfish.particles;
+import java.util.Random;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.math.MathUtils;
+import de.radicalfish.util.RadicalFishException;
+import de.radicalfish.util.Utils;
+
+/**
+ * Spawns particles into a {@link ParticleSystem}. The emitter spawns a number of particles per second continuously and
+ * can spawn a burst of particles at once with {@link #burst(ParticleSystem, int)}. New particles start on the position
+ * of the emitter (plus a random offset in a square of the given spread) and move in a random direction between the
+ * minimum and maximum angle with a random speed.
+ * <p>
+ * Add an emitter to a system with {@link ParticleSystem#addEmitter(ParticleEmitter)} to get it updated with the
+ * system, or update it yourself.
+ * 
+ * @author Stefan Lange
+ * @version 1.0.0
+ * @since 18.10.2026
+ */
+public class ParticleEmitter {
+	
+	private final Random random;
+	
+	private float x, y;
+	private float spread;
+	private float rate, pending;
+	private float minAngle = 0, maxAngle = 360;
+	private float minSpeed, maxSpeed;
+	private float minLife = 1, maxLife = 1;
+	private float color = Color.WHITE.toFloatBits();
+	
+	private boolean active = true;
+	
+	/**
+	 * Creates a new {@link ParticleEmitter} which doesn't spawn particles continuously.
+	 */
+	public ParticleEmitter(float x, float y) {
+		this(x, y, 0);
+	}
+	/**
+	 * Creates a new {@link ParticleEmitter}.
+	 * 
+	 * @param rate
+	 *            the number of particles to spawn per second
+	 */
+	public ParticleEmitter(float x, float y, float rate) {
+		this.x = x;
+		this.y = y;
+		setRate(rate);
+		random = new Random();
+	}
+	
+	// METHODS
+	// 
+	/**
+	 * Spawns the particles due since the last update if the emitter is active.
+	 * 
+	 * @param delta
+	 *            the time since the last update in seconds
+	 */
+	public void update(ParticleSystem system, float delta) {
+		if (!active) {
+			return;
+		}
+		pending += rate * delta;
+		int count = (int) pending;
+		pending -= count;
+		burst(system, count);
+	}
+	/**
+	 * Spawns <code>count</code> particles at once. Stops early if the system is full.
+	 * 
+	 * @return the number of particles spawned.
+	 */
+	public int burst(ParticleSystem system, int count) {
+		Utils.notNull("system", system);
+		float angle, speed;
+		for (int i = 0; i < count; i++) {
+			angle = minAngle + random.nextFloat() * (maxAngle - minAngle);
+			speed = minSpeed + random.nextFloat() * (maxSpeed - minSpeed);
+			if (system.spawn(x + (random.nextFloat() - 0.5f) * spread, y + (random.nextFloat() - 0.5f) * spread,
+					MathUtils.cosDeg(angle) * speed, MathUtils.sinDeg(angle) * speed,
+					minLife + random.nextFloat() * (maxLife - minLife), color) == -1) {
+				return i;
+			}
+		}
+		return count;
+	}
+	
+	// GETTER
+	// 
+	public float getX() {
+		return x;
+	}
+	public float getY() {
+		return y;
+	}
+	public float getSpread() {
+		return spread;
+	}
+	public float getRate() {
+		return rate;
+	}
+	public float getMinAngle() {
+		return minAngle;
+	}
+	public float getMaxAngle() {
+		return maxAngle;
+	}
+	public float getMinSpeed() {
+		return minSpeed;
+	}
+	public float getMaxSpeed() {
+		return maxSpeed;
+	}
+	public float getMinLife() {
+		return minLife;
+	}
+	public float getMaxLife() {
+		return maxLife;
+	}
+	/**
+	 * @return the color of new particles, packed with {@link Color#toFloatBits()}.
+	 */
+	public float getColor() {
+		return color;
+	}
+	public boolean isActive() {
+		return active;
+	}
+	
+	// SETTER
+	// 
+	public void setPosition(float x, float y) {
+		this.x = x;
+		this.y = y;
+	}
+	/**
+	 * @param spread
+	 *            the size of the square around the position new particles get placed in
+	 */
+	public void setSpread(float spread) {
+		this.spread = spread;
+	}
+	/**
+	 * @param rate
+	 *            the number of particles to spawn per second
+	 */
+	public void setRate(float rate) {
+		if (rate < 0) {
+			throw new RadicalFishException("rate must be 0 or greater!");
+		}
+		this.rate = rate;
+	}
+	/**
+	 * Sets the range of directions new particles move in, in degrees.
+	 */
+	public void setAngle(float min, float max) {
+		minAngle = min;
+		maxAngle = max;
+	}
+	/**
+	 * Sets the range of speeds new particles start with, in pixels per second.
+	 */
+	public void setSpeed(float min, float max) {
+		minSpeed = min;
+		maxSpeed = max;
+	}
+	/**
+	 * Sets the range of life times of new particles, in seconds.
+	 */
+	public void setLife(float min, float max) {
+		if (min <= 0 || max < min) {
+			throw new RadicalFishException("the life time must be greater than 0 and max must not be less than min!");
+		}
+		minLife = min;
+		maxLife = max;
+	}
+	/**
+	 * @param color
+	 *            the color of new particles
+	 */
+	public void setColor(Color color) {
+		Utils.notNull("color", color);
+		this.color = color.toFloatBits();
+	}
+	/**
+	 * @param active
+	 *            false to stop spawning particles continuously, bursts still work
+	 */
+	public void setActive(boolean active) {
+		this.active = active;
+	}
+	
+}
@@ -0,0 +1,207 @@
+/*
+ * Copyright (c) 2012, Stefan Lange
+ * 
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ *     * Redistributions of source code must retain the above copyright notice,
+ *       this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of Stefan Lange nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package de.radicalfish.particles;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import de.radicalfish.effects.Rumble;
+import de.radicalfish.graphics.BlendMode;
+import de.radicalfish.graphics.Graphics;
+import de.radicalfish.util.RadicalFishException;
+import de.radicalfish.util.Utils;
+
+/**
+ * Draws the particles of a {@link ParticleSystem} as squares of the same image. The renderer writes the vertices of
+ * the particles straight into one array it creates once and hands them to the {@link SpriteBatch} in large blocks with
+ * {@link Graphics#draw(Texture, float[], int, int)}, instead of one draw call per particle.
+ * <p>
+ * The renderer sets its {@link BlendMode} on the {@link Graphics} before drawing and restores the previous one
+ * afterwards. If a {@link Rumble} is set, all particles get offset by the rumble's offset so they shake with the
+ * screen. The sprite batch must be started.
+ * 
+ * @author Stefan Lange
+ * @version 1.0.0
+ * @since 18.10.2026
+ */
+public class ParticleRenderer {
+	
+	/** The number of floats per particle: 4 vertices with x, y, color, u, v. */
+	public static final int SPRITE_SIZE = 20;
+	/** The default number of particles written into the vertex array before it gets drawn. */
+	public static final int DEFAULT_BLOCK_SIZE = 1000;
+	
+	private final float[] vertices;
+	
+	private TextureRegion region;
+	private BlendMode blendMode = BlendMode.ADD;
+	private Rumble rumble;
+	private float size;
+	
+	/**
+	 * Creates a new {@link ParticleRenderer} with the default block size.
+	 * 
+	 * @param region
+	 *            the image to draw for each particle
+	 * @param size
+	 *            the width and height of a particle in pixels
+	 */
+	public ParticleRenderer(TextureRegion region, float size) {
+		this(region, size, DEFAULT_BLOCK_SIZE);
+	}
+	/**
+	 * Creates a new {@link ParticleRenderer}.
+	 * 
+	 * @param region
+	 *            the image to draw for each particle
+	 * @param size
+	 *            the width and height of a particle in pixels
+	 * @param blockSize
+	 *            the number of particles written into the vertex array before it gets drawn. Should not be bigger
+	 *            than the size of the sprite batch
+	 */
+	public ParticleRenderer(TextureRegion region, float size, int blockSize) {
+		if (blockSize <= 0) {
+			throw new RadicalFishException("blockSize must be greater than 0!");
+		}
+		setRegion(region);
+		this.size = size;
+		vertices = new float[blockSize * SPRITE_SIZE];
+	}
+	
+	// METHODS
+	// 
+	/**
+	 * Draws all living particles of <code>system</code> centered on their position.
+	 */
+	public void render(Graphics g, ParticleSystem system) {
+		BlendMode previousMode = g.getBlendMode();
+		g.setBlendMode(blendMode);
+		Texture texture = region.getTexture();
+		float u = region.getU(), v = region.getV(), u2 = region.getU2(), v2 = region.getV2();
+		float half = size * 0.5f;
+		float offsetX = -half, offsetY = -half;
+		if (rumble != null) {
+			offsetX += rumble.getOffsetX();
+			offsetY += rumble.getOffsetY();
+		}
+		
+		float[] px = system.px, py = system.py, color = system.color;
+		float[] vertices = this.vertices;
+		int size = system.getSize(), idx = 0;
+		float x, y, x2, y2, c;
+		for (int i = 0; i < size; i++) {
+			x = px[i] + offsetX;
+			y = py[i] + offsetY;
+			x2 = x + this.size;
+			y2 = y + this.size;
+			c = color[i];
+			
+			vertices[idx++] = x;
+			vertices[idx++] = y;
+			vertices[idx++] = c;
+			vertices[idx++] = u;
+			vertices[idx++] = v2;
+			
+			vertices[idx++] = x;
+			vertices[idx++] = y2;
+			vertices[idx++] = c;
+			vertices[idx++] = u;
+			vertices[idx++] = v;
+			
+			vertices[idx++] = x2;
+			vertices[idx++] = y2;
+			vertices[idx++] = c;
+			vertices[idx++] = u2;
+			vertices[idx++] = v;
+			
+			vertices[idx++] = x2;
+			vertices[idx++] = y;
+			vertices[idx++] = c;
+			vertices[idx++] = u2;
+			vertices[idx++] = v2;
+			
+			if (idx == vertices.length) {
+				g.draw(texture, vertices, 0, idx);
+				idx = 0;
+			}
+		}
+		if (idx > 0) {
+			g.draw(texture, vertices, 0, idx);
+		}
+		g.setBlendMode(previousMode);
+	}
+	
+	// GETTER
+	// 
+	public TextureRegion getRegion() {
+		return region;
+	}
+	public BlendMode getBlendMode() {
+		return blendMode;
+	}
+	public Rumble getRumble() {
+		return rumble;
+	}
+	public float getSize() {
+		return size;
+	}
+	/**
+	 * @return the number of particles written into the vertex array before it gets drawn.
+	 */
+	public int getBlockSize() {
+		return vertices.length / SPRITE_SIZE;
+	}
+	
+	// SETTER
+	// 
+	public void setRegion(TextureRegion region) {
+		Utils.notNull("region", region);
+		this.region = region;
+	}
+	public void setBlendMode(BlendMode blendMode) {
+		Utils.notNull("blendMode", blendMode);
+		this.blendMode = blendMode;
+	}
+	/**
+	 * @param rumble
+	 *            the rumble to offset the particles with or null to draw them without offset
+	 */
+	public void setRumble(Rumble rumble) {
+		this.rumble = rumble;
+	}
+	/**
+	 * @param size
+	 *            the width and height of a particle in pixels
+	 */
+	public void setSize(float size) {
+		this.size = size;
+	}
+	
+}
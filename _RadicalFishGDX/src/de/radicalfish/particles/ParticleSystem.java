@@ -0,0 +1,374 @@
+/*
+ * Copyright (c) 2012, Stefan Lange
+ * 
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ *     * Redistributions of source code must retain the above copyright notice,
+ *       this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of Stefan Lange nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package de.radicalfish.particles;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import com.badlogic.gdx.utils.Array;
+import de.radicalfish.util.RadicalFishException;
+import de.radicalfish.util.Utils;
+
+/**
+ * Holds a fixed number of particles as a struct of arrays: one float array per attribute (position, velocity, life and
+ * packed color) instead of one object per particle. Updating and drawing walk straight through these arrays, which
+ * is a lot faster than touching thousands of small objects every frame.
+ * <p>
+ * Each frame {@link #update(float)} first lets the {@link ParticleEmitter}s spawn new particles, then runs all
+ * {@link ParticleAffector}s over the living particles, moves them by their velocity and ages them. Particles with no
+ * life left get removed by moving the last particle into their slot, so the living particles always are the first
+ * {@link #getSize()} entries of the arrays.
+ * <p>
+ * With more than one thread the particles get split into one continuous part per thread like the
+ * {@link de.radicalfish.world.ParallelEntitySystem} does. Affectors only ever get a range of particles and may only
+ * write the particles in that range, so they run on several threads without further work. Removing dead particles
+ * always happens on the calling thread.
+ * 
+ * @author Stefan Lange
+ * @version 1.0.0
+ * @since 18.10.2026
+ */
+public class ParticleSystem {
+	
+	/** The default minimum number of particles a thread gets. */
+	public static final int DEFAULT_MIN_PART_SIZE = 8192;
+	
+	/** The position of the particles. */
+	public final float[] px, py;
+	/** The velocity of the particles in pixels per second. */
+	public final float[] vx, vy;
+	/** The life left of the particles in seconds. */
+	public final float[] life;
+	/** The color of the particles, packed with {@link com.badlogic.gdx.graphics.Color#toFloatBits()}. */
+	public final float[] color;
+	
+	private final Array<ParticleEmitter> emitters;
+	private final Array<ParticleAffector> affectors;
+	
+	private final ExecutorService executor;
+	private final boolean ownExecutor;
+	private final Part[] parts;
+	private final Semaphore done;
+	
+	private int size;
+	private int minPartSize = DEFAULT_MIN_PART_SIZE;
+	private int usedParts;
+	
+	private float delta;
+	private volatile Throwable error;
+	
+	/**
+	 * Creates a new {@link ParticleSystem} which updates on the calling thread only.
+	 * 
+	 * @param capacity
+	 *            the maximum number of particles alive at the same time
+	 */
+	public ParticleSystem(int capacity) {
+		this(capacity, 1, null);
+	}
+	/**
+	 * Creates a new {@link ParticleSystem} with its own threads.
+	 * 
+	 * @param capacity
+	 *            the maximum number of particles alive at the same time
+	 * @param threads
+	 *            the number of threads to update with, 1 updates on the calling thread only
+	 */
+	public ParticleSystem(int capacity, int threads) {
+		this(capacity, threads, null);
+	}
+	/**
+	 * Creates a new {@link ParticleSystem}.
+	 * 
+	 * @param capacity
+	 *            the maximum number of particles alive at the same time
+	 * @param threads
+	 *            the number of threads to update with, 1 updates on the calling thread only
+	 * @param executor
+	 *            the executor to run the parts on or null to create an own one. An executor passed in will not be shut
+	 *            down by {@link #dispose()}
+	 */
+	public ParticleSystem(int capacity, int threads, ExecutorService executor) {
+		if (capacity <= 0) {
+			throw new RadicalFishException("capacity must be greater than 0!");
+		}
+		if (threads <= 0) {
+			throw new RadicalFishException("threads must be greater than 0!");
+		}
+		px = new float[capacity];
+		py = new float[capacity];
+		vx = new float[capacity];
+		vy = new float[capacity];
+		life = new float[capacity];
+		color = new float[capacity];
+		
+		emitters = new Array<ParticleEmitter>(false, 4);
+		affectors = new Array<ParticleAffector>(4);
+		
+		parts = new Part[threads];
+		for (int i = 0; i < threads; i++) {
+			parts[i] = new Part();
+		}
+		done = new Semaphore(0);
+		
+		if (threads == 1) {
+			this.executor = null;
+			this.ownExecutor = false;
+		} else if (executor == null) {
+			// the calling thread updates the first part itself
+			this.executor = Executors.newFixedThreadPool(threads - 1, new UpdateThreadFactory());
+			this.ownExecutor = true;
+		} else {
+			this.executor = executor;
+			this.ownExecutor = false;
+		}
+	}
+	
+	// METHODS
+	// 
+	/**
+	 * Spawns new particles with the emitters, applies the affectors, moves and ages all particles and removes the dead
+	 * ones.
+	 * 
+	 * @param delta
+	 *            the time since the last update in seconds
+	 */
+	public void update(float delta) {
+		for (int i = 0; i < emitters.size; i++) {
+			emitters.get(i).update(this, delta);
+		}
+		
+		// split into continuous parts
+		usedParts = Math.max(1, Math.min(parts.length, size / minPartSize));
+		int partSize = size / usedParts, rest = size % usedParts, from = 0;
+		for (int i = 0; i < usedParts; i++) {
+			int to = from + partSize + (i < rest ? 1 : 0);
+			parts[i].from = from;
+			parts[i].to = to;
+			from = to;
+		}
+		
+		this.delta = delta;
+		error = null;
+		for (int i = 1; i < usedParts; i++) {
+			executor.execute(parts[i]);
+		}
+		parts[0].run();
+		if (usedParts > 1) {
+			done.acquireUninterruptibly(usedParts - 1);
+		}
+		if (error != null) {
+			throw new RadicalFishException("a particle affector failed to update!", error);
+		}
+		
+		removeDead();
+	}
+	/**
+	 * Shuts down the threads if the system created them.
+	 */
+	public void dispose() {
+		if (ownExecutor) {
+			executor.shutdownNow();
+		}
+	}
+	
+	/**
+	 * Adds a new particle if the system is not full.
+	 * 
+	 * @param x
+	 *            the x position
+	 * @param y
+	 *            the y position
+	 * @param velocityX
+	 *            the x velocity in pixels per second
+	 * @param velocityY
+	 *            the y velocity in pixels per second
+	 * @param lifeTime
+	 *            the life time in seconds
+	 * @param packedColor
+	 *            the color packed with {@link com.badlogic.gdx.graphics.Color#toFloatBits()}
+	 * @return the index of the new particle or -1 if the system is full.
+	 */
+	public int spawn(float x, float y, float velocityX, float velocityY, float lifeTime, float packedColor) {
+		if (size == px.length) {
+			return -1;
+		}
+		int index = size++;
+		px[index] = x;
+		py[index] = y;
+		vx[index] = velocityX;
+		vy[index] = velocityY;
+		life[index] = lifeTime;
+		color[index] = packedColor;
+		return index;
+	}
+	/**
+	 * Removes all particles.
+	 */
+	public void clear() {
+		size = 0;
+	}
+	
+	public void addEmitter(ParticleEmitter emitter) {
+		Utils.notNull("emitter", emitter);
+		emitters.add(emitter);
+	}
+	public void removeEmitter(ParticleEmitter emitter) {
+		emitters.removeValue(emitter, true);
+	}
+	/**
+	 * Adds an affector. Affectors get applied in the order they were added.
+	 */
+	public void addAffector(ParticleAffector affector) {
+		Utils.notNull("affector", affector);
+		affectors.add(affector);
+	}
+	public void removeAffector(ParticleAffector affector) {
+		affectors.removeValue(affector, true);
+	}
+	
+	// GETTER
+	// 
+	/**
+	 * @return the number of living particles.
+	 */
+	public int getSize() {
+		return size;
+	}
+	/**
+	 * @return the maximum number of particles alive at the same time.
+	 */
+	public int getCapacity() {
+		return px.length;
+	}
+	public Array<ParticleEmitter> getEmitters() {
+		return emitters;
+	}
+	public Array<ParticleAffector> getAffectors() {
+		return affectors;
+	}
+	/**
+	 * @return the number of threads the system can use.
+	 */
+	public int getThreads() {
+		return parts.length;
+	}
+	/**
+	 * @return the number of threads used in the last update.
+	 */
+	public int getUsedThreads() {
+		return usedParts;
+	}
+	public int getMinPartSize() {
+		return minPartSize;
+	}
+	
+	// SETTER
+	// 
+	/**
+	 * @param minPartSize
+	 *            the minimum number of particles a thread gets. Fewer particles are not worth the cost of handing them
+	 *            to another thread.
+	 */
+	public void setMinPartSize(int minPartSize) {
+		if (minPartSize <= 0) {
+			throw new RadicalFishException("minPartSize must be greater than 0!");
+		}
+		this.minPartSize = minPartSize;
+	}
+	
+	// INTERN
+	// 
+	private void updateRange(int from, int to, float delta) {
+		for (int i = 0; i < affectors.size; i++) {
+			affectors.get(i).apply(this, from, to, delta);
+		}
+		for (int i = from; i < to; i++) {
+			px[i] += vx[i] * delta;
+			py[i] += vy[i] * delta;
+			life[i] -= delta;
+		}
+	}
+	private void removeDead() {
+		int i = 0;
+		while (i < size) {
+			if (life[i] > 0) {
+				i++;
+				continue;
+			}
+			// the last particle takes the slot, check it again in the next run
+			int last = --size;
+			px[i] = px[last];
+			py[i] = py[last];
+			vx[i] = vx[last];
+			vy[i] = vy[last];
+			life[i] = life[last];
+			color[i] = color[last];
+		}
+	}
+	
+	// INTERN CLASSES
+	// 
+	/**
+	 * A continuous part of the particles, updated by one thread.
+	 */
+	private class Part implements Runnable {
+		
+		private int from, to;
+		
+		public void run() {
+			try {
+				updateRange(from, to, delta);
+			} catch (Throwable t) {
+				error = t;
+			} finally {
+				if (this != parts[0]) {
+					done.release();
+				}
+			}
+		}
+		
+	}
+	/**
+	 * Creates the daemon threads which update the particles.
+	 */
+	private static class UpdateThreadFactory implements ThreadFactory {
+		
+		private int count;
+		
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, "ParticleSystem Update " + (++count));
+			thread.setDaemon(true);
+			return thread;
+		}
+		
+	}
+	
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2012, Stefan Lange
+ * 
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ *     * Redistributions of source code must retain the above copyright notice,
+ *       this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of Stefan Lange nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package de.radicalfish.particles;
+
+/**
+ * Spins all particles around a point. The particles get accelerated at a right angle to the direction to the point,
+ * counter clockwise for a positive strength (with y pointing up). Particles beyond the radius are not affected, a
+ * radius of 0 affects all particles.
+ * 
+ * @author Stefan Lange
+ * @version 1.0.0
+ * @since 18.10.2026
+ */
+public class Vortex implements ParticleAffector {
+	
+	private float x, y;
+	private float strength;
+	private float radius;
+	
+	/**
+	 * Creates a new {@link Vortex} affecting all particles.
+	 * 
+	 * @param strength
+	 *            the acceleration around the point in pixels per second squared
+	 */
+	public Vortex(float x, float y, float strength) {
+		this(x, y, strength, 0);
+	}
+	/**
+	 * Creates a new {@link Vortex}.
+	 * 
+	 * @param strength
+	 *            the acceleration around the point in pixels per second squared
+	 * @param radius
+	 *            the radius around the point particles get affected in or 0 for all particles
+	 */
+	public Vortex(float x, float y, float strength, float radius) {
+		this.x = x;
+		this.y = y;
+		this.strength = strength;
+		this.radius = radius;
+	}
+	
+	// METHODS
+	// 
+	public void apply(ParticleSystem system, int from, int to, float delta) {
+		float[] px = system.px, py = system.py, vx = system.vx, vy = system.vy;
+		float spin = strength * delta, radius2 = radius > 0 ? radius * radius : Float.MAX_VALUE;
+		float dx, dy, length2, length;
+		for (int i = from; i < to; i++) {
+			dx = px[i] - x;
+			dy = py[i] - y;
+			length2 = dx * dx + dy * dy;
+			if (length2 > 0.0001f && length2 < radius2) {
+				length = spin / (float) Math.sqrt(length2);
+				vx[i] -= dy * length;
+				vy[i] += dx * length;
+			}
+		}
+	}
+	
+	// GETTER
+	// 
+	public float getX() {
+		return x;
+	}
+	public float getY() {
+		return y;
+	}
+	public float getStrength() {
+		return strength;
+	}
+	public float getRadius() {
+		return radius;
+	}
+	
+	// SETTER
+	// 
+	public void setPosition(float x, float y) {
+		this.x = x;
+		this.y = y;
+	}
+	/**
+	 * @param strength
+	 *            the acceleration around the point in pixels per second squared, negative values spin clockwise
+	 */
+	public void setStrength(float strength) {
+		this.strength = strength;
+	}
+	/**
+	 * @param radius
+	 *            the radius around the point particles get affected in or 0 for all particles
+	 */
+	public void setRadius(float radius) {
+		this.radius = radius;
+	}
+	
+}
@@ -31,16 +31,20 @@ package de.radicalfish.state;
 import com.badlogic.gdx.InputProcessor;
 import com.badlogic.gdx.utils.IntMap;
 import de.radicalfish.GameContainer;
+import de.radicalfish.ThreadedGame;
 import de.radicalfish.context.GameWithContext;
 import de.radicalfish.context.GameContext;
 import de.radicalfish.context.GameDelta;
 import de.radicalfish.context.defaults.DefaultGameContext;
+import de.radicalfish.debug.Profiler;
 import de.radicalfish.graphics.Graphics;
 import de.radicalfish.state.transitions.EmptyTransition;
 import de.radicalfish.state.transitions.Transition;
 import de.radicalfish.util.RadicalFishException;
+import de.radicalfish.util.SnapshotBuffer;
 import de.radicalfish.util.Utils;
 import de.radicalfish.world.GameWorld;
+import de.radicalfish.world.WorldSnapshot;
 
 /**
  * A game which handles a set of {@link GameState}s. The class always updates and renders one state but exposes access
@@ -64,12 +68,17 @@ import de.radicalfish.world.GameWorld;
  * <p>
  * {@link StateBasedGame} is a {@link GameWithContext} which means you a getter for the {@link GameContext} and the
  * {@link GameWorld}.
+ * <p>
+ * If the {@link GameContainer} updates on its own thread (see {@link GameContainer#setThreadedUpdate(boolean)}) the
+ * state of the world, the current state and the transitions get published in a {@link WorldSnapshot} after each
+ * update. Render then only uses the published references and passes null as world to the render methods, the states
+ * render the entities from {@link StateBasedGame#getSnapshot()} instead.
  * 
  * @author Stefan Lange
  * @version 1.0.0
  * @since 17.08.2012
  */
-public abstract class StateBasedGame implements GameWithContext, InputProcessor {
+public abstract class StateBasedGame implements GameWithContext, ThreadedGame, InputProcessor {
 	
 	/** A list of all the states. */
 	protected IntMap<GameState> states = new IntMap<GameState>();
@@ -92,6 +101,9 @@ public abstract class StateBasedGame implements GameWithContext, InputProcessor
 	
 	private boolean usingDefaultContext = false;
 	
+	private final SnapshotBuffer<Frame> snapshots = new SnapshotBuffer<Frame>(new Frame(), new Frame(), new Frame());
+	private Frame renderFrame; // only used by the render thread
+			
 	// METHODS
 	// 
 	/**
@@ -248,7 +260,12 @@ public abstract class StateBasedGame implements GameWithContext, InputProcessor
 		preUpdate(context, world, context.getGameDelta());
 		
 		if (leaveTransition != null) {
-			leaveTransition.update(container, context.getGameDelta().getDelta());
+			Profiler.begin("transition");
+			try {
+				leaveTransition.update(container, context.getGameDelta().getDelta());
+			} finally {
+				Profiler.end();
+			}
 			if (leaveTransition.isFinished()) {
 				currentState.left(context, world, nextState);
 				previousState = currentState;
@@ -266,7 +283,12 @@ public abstract class StateBasedGame implements GameWithContext, InputProcessor
 		}
 		
 		if (enterTransition != null) {
-			enterTransition.update(container, context.getGameDelta().getDelta());
+			Profiler.begin("transition");
+			try {
+				enterTransition.update(container, context.getGameDelta().getDelta());
+			} finally {
+				Profiler.end();
+			}
 			if (enterTransition.isFinished()) {
 				currentState.entered(context, world, previousState);
 				previousState = null;
@@ -279,35 +301,77 @@ public abstract class StateBasedGame implements GameWithContext, InputProcessor
 		
 		if (!pauseUpdate) {
 			if (currentState != null) {
-				currentState.update(context, world, context.getGameDelta());
+				Profiler.begin("state");
+				try {
+					currentState.update(context, world, context.getGameDelta());
+				} finally {
+					Profiler.end();
+				}
 			}
 		}
 		
 		postUpdate(context, world, context.getGameDelta());
 	}
 	public final void render(GameContainer container, Graphics g) {
+		// in threaded mode the update thread reassigns the fields any time, so only the published ones get used
+		GameState state;
+		Transition leave, enter;
+		GameWorld world;
+		if (container.isThreadedUpdate()) {
+			renderFrame = snapshots.getReadBuffer();
+			state = renderFrame.state;
+			leave = renderFrame.leaveTransition;
+			enter = renderFrame.enterTransition;
+			world = null;
+		} else {
+			state = currentState;
+			leave = leaveTransition;
+			enter = enterTransition;
+			world = this.world;
+		}
+		
 		preRender(context, world, g);
 		
-		if (leaveTransition != null) {
-			leaveTransition.preRender(container, g);
-		} else if (enterTransition != null) {
-			enterTransition.preRender(container, g);
+		if (leave != null) {
+			leave.preRender(container, g);
+		} else if (enter != null) {
+			enter.preRender(container, g);
 		}
 		
 		if (!pauseRender) {
-			if (currentState != null) {
-				currentState.render(context, world, g);
+			if (state != null) {
+				Profiler.begin("state");
+				try {
+					state.render(context, world, g);
+				} finally {
+					Profiler.end();
+				}
 			}
 		}
 		
-		if (leaveTransition != null) {
-			leaveTransition.postRender(container, g);
-		} else if (enterTransition != null) {
-			enterTransition.postRender(container, g);
+		if (leave != null) {
+			leave.postRender(container, g);
+		} else if (enter != null) {
+			enter.postRender(container, g);
 		}
 		
 		postRender(context, world, g);
 	}
+	public void publish(GameContainer container) {
+		Frame frame = snapshots.getWriteBuffer();
+		frame.state = currentState;
+		frame.leaveTransition = leaveTransition;
+		frame.enterTransition = enterTransition;
+		if (world != null) {
+			Profiler.begin("snapshot");
+			try {
+				frame.world.capture(world);
+			} finally {
+				Profiler.end();
+			}
+		}
+		snapshots.publish();
+	}
 	
 	// INPUT METHODS
 	// 
@@ -413,6 +477,17 @@ public abstract class StateBasedGame implements GameWithContext, InputProcessor
 	public GameWorld getWorld() {
 		return world;
 	}
+	/**
+	 * @return the snapshot of the world published by the update thread which gets rendered in this frame. Only filled
+	 *         if the container updates on its own thread and the game has a world. Call it only from the render
+	 *         thread.
+	 */
+	public WorldSnapshot getSnapshot() {
+		if (renderFrame == null) {
+			renderFrame = snapshots.getReadBuffer();
+		}
+		return renderFrame.world;
+	}
 	
 	/**
 	 * @return the current state.
@@ -440,4 +515,17 @@ public abstract class StateBasedGame implements GameWithContext, InputProcessor
 		return pauseRender;
 	}
 	
+	// INTERN CLASSES
+	// 
+	/**
+	 * Everything render needs from one update in threaded mode.
+	 */
+	private static class Frame {
+		
+		private final WorldSnapshot world = new WorldSnapshot();
+		private GameState state;
+		private Transition leaveTransition, enterTransition;
+		
+	}
+	
 }
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2012, Stefan Lange
+ * 
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ *     * Redistributions of source code must retain the above copyright notice,
+ *       this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of Stefan Lange nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package de.radicalfish.util;
+
+/**
+ * Hands snapshots from one thread (the writer, e.g. the update thread) to another (the reader, e.g. the render thread)
+ * without copying and without one thread waiting for the other. The writer fills the write buffer and calls
+ * {@link #publish()}, the reader calls {@link #getReadBuffer()} and always gets the newest published snapshot.
+ * <p>
+ * It's a double buffer with a spare: besides the buffer the writer fills and the one the reader reads, a third one
+ * holds the latest published snapshot. So the writer can start the next snapshot while the reader still reads the
+ * previous one. Swapping only exchanges references under a short lock.
+ * 
+ * @author Stefan Lange
+ * @version 1.0.0
+ * @since 18.10.2026
+ */
+public class SnapshotBuffer<T> {
+	
+	private T write, spare, read;
+	private boolean fresh;
+	private long published;
+	
+	/**
+	 * Creates a new {@link SnapshotBuffer} with three instances of the snapshot, they must be distinct.
+	 */
+	public SnapshotBuffer(T first, T second, T third) {
+		Utils.notNull("first", first);
+		Utils.notNull("second", second);
+		Utils.notNull("third", third);
+		if (first == second || first == third || second == third) {
+			throw new RadicalFishException("the buffers must be three different instances!");
+		}
+		write = first;
+		spare = second;
+		read = third;
+	}
+	
+	// METHODS
+	// 
+	/**
+	 * Publishes the write buffer. The writer gets a new write buffer, which holds an older snapshot.
+	 */
+	public synchronized void publish() {
+		T temp = spare;
+		spare = write;
+		write = temp;
+		fresh = true;
+		published++;
+	}
+	
+	// GETTER
+	// 
+	/**
+	 * @return the buffer the writer fills. Only call this from the writing thread.
+	 */
+	public synchronized T getWriteBuffer() {
+		return write;
+	}
+	/**
+	 * @return the newest published snapshot. Only call this from the reading thread, the buffer stays valid until the
+	 *         next call.
+	 */
+	public synchronized T getReadBuffer() {
+		if (fresh) {
+			T temp = read;
+			read = spare;
+			spare = temp;
+			fresh = false;
+		}
+		return read;
+	}
+	/**
+	 * @return true if a snapshot was published since the last call to {@link #getReadBuffer()}.
+	 */
+	public synchronized boolean hasNew() {
+		return fresh;
+	}
+	/**
+	 * @return the number of snapshots published so far.
+	 */
+	public synchronized long getPublished() {
+		return published;
+	}
+	
+}
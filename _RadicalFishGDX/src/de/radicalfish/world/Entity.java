@@ -53,6 +53,7 @@ import de.radicalfish.graphics.Graphics;
 public abstract class Entity  {
 	
 	private static final Rectangle BOUNDS = new Rectangle();
+	private static final float WHITE = Color.WHITE.toFloatBits();
 	
 	private Color flashColor = new Color(1f, 1f, 1f, 1f);
 	
@@ -81,6 +82,8 @@ public abstract class Entity  {
 	protected boolean flash = false;
 	protected boolean alive = true;
 	
+	private EntityListener listener;
+	
 	/**
 	 * Creates a new basic Entity.
 	 */
@@ -179,6 +182,32 @@ public abstract class Entity  {
 	 *            the world in which the entity lives
 	 */
 	protected void destroy(GameContext context, GameWorld world) {}
+	/**
+	 * Gets called by an {@link EntityPool} before the entity goes back into the pool. Brings the entity back into the
+	 * state of a new one: positions, velocity, the flash effect and the id get cleared and the entity is alive, active
+	 * and visible again. The name, offset, off screen ranges and y sort offset are kept since they are usually set once
+	 * in the constructor. Sub classes with state of their own should override this and call <code>super.reset()</code>.
+	 */
+	public void reset() {
+		position.set(0, 0);
+		velocity.set(0, 0);
+		acceleration.set(1, 1);
+		old.set(0, 0);
+		screen.set(0, 0);
+		direction.set(0, 0);
+		grid.set(0, 0);
+		collisionbox.set(0, 0, 0, 0);
+		
+		flashValue = 0;
+		flashTimer = 0;
+		flashStartTime = 0;
+		flash = false;
+		
+		ID = -1;
+		active = true;
+		visible = true;
+		alive = true;
+	}
 	
 	// COLLISION
 	// 
@@ -428,6 +457,22 @@ public abstract class Entity  {
 	public float getOldPositionY() {
 		return old.y;
 	}
+	/**
+	 * @param alpha
+	 *            the interpolation alpha of the container, see {@link de.radicalfish.GameContainer#getAlpha()}
+	 * @return the x position blended between the old and the current position.
+	 */
+	public float getInterpolatedX(float alpha) {
+		return old.x + (position.x - old.x) * alpha;
+	}
+	/**
+	 * @param alpha
+	 *            the interpolation alpha of the container, see {@link de.radicalfish.GameContainer#getAlpha()}
+	 * @return the y position blended between the old and the current position.
+	 */
+	public float getInterpolatedY(float alpha) {
+		return old.y + (position.y - old.y) * alpha;
+	}
 	public float getDirectionX() {
 		return direction.x;
 	}
@@ -453,6 +498,26 @@ public abstract class Entity  {
 	public int getID() {
 		return ID;
 	}
+	/**
+	 * @return the listener notified about name and id changes, may be null.
+	 */
+	public EntityListener getEntityListener() {
+		return listener;
+	}
+	/**
+	 * @return the frame of the animation the entity shows right now, copied into a {@link WorldSnapshot} to render it
+	 *         on another thread. Default is 0, entities with an animation should return its current frame.
+	 */
+	public int getRenderFrame() {
+		return 0;
+	}
+	/**
+	 * @return the tint of the entity as packed color (see {@link Color#toFloatBits()}), copied into a
+	 *         {@link WorldSnapshot}. Default is white.
+	 */
+	public float getRenderColor() {
+		return WHITE;
+	}
 	
 	public boolean isActive() {
 		return active;
@@ -561,10 +626,28 @@ public abstract class Entity  {
 	// SETTER OTHERS
 	// 
 	public void setName(String name) {
+		String old = this.name;
 		this.name = name;
+		if (listener != null && (old == null ? name != null : !old.equals(name))) {
+			listener.onNameChanged(this, old);
+		}
 	}
 	public void setID(int id) {
+		int old = ID;
 		ID = id;
+		if (listener != null && old != id) {
+			listener.onIDChanged(this, old);
+		}
+	}
+	/**
+	 * Sets the listener which gets notified when the name or the id of this entity changes. Entity systems which index
+	 * their entities use this to keep the index up to date, an entity can only have one listener.
+	 * 
+	 * @param listener
+	 *            the listener or null to remove it
+	 */
+	public void setEntityListener(EntityListener listener) {
+		this.listener = listener;
 	}
 	
 	public void setActive(boolean active) {
@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2012, Stefan Lange
+ * 
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ *     * Redistributions of source code must retain the above copyright notice,
+ *       this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of Stefan Lange nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package de.radicalfish.world;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+import de.radicalfish.context.GameContext;
+import de.radicalfish.util.Utils;
+
+/**
+ * A buffer for effects an entity has on others or on the world (spawning, removing, damage and such) while the entities
+ * of a {@link ParallelEntitySystem} get updated. Entities only change their own state during the update and queue
+ * everything else here; the system applies the buffers after all entities were updated in the order the effects were
+ * queued, buffer by buffer in the order of the entities.
+ * <p>
+ * A buffer is only used by one thread at a time, it is not thread safe.
+ * 
+ * @author Stefan Lange
+ * @version 1.0.0
+ * @since 18.10.2026
+ */
+public class EntityEffects {
+	
+	private static final int SPAWN = 0, REMOVE = 1, EFFECT = 2;
+	
+	private final IntArray types;
+	private final Array<Object> targets;
+	
+	/**
+	 * Creates a new empty {@link EntityEffects} buffer.
+	 */
+	public EntityEffects() {
+		types = new IntArray(64);
+		targets = new Array<Object>(64);
+	}
+	
+	// METHODS
+	// 
+	/**
+	 * Queues <code>entity</code> to be added to the system.
+	 */
+	public void spawn(Entity entity) {
+		Utils.notNull("entity", entity);
+		types.add(SPAWN);
+		targets.add(entity);
+	}
+	/**
+	 * Queues <code>entity</code> to be removed from the system.
+	 */
+	public void remove(Entity entity) {
+		Utils.notNull("entity", entity);
+		types.add(REMOVE);
+		targets.add(entity);
+	}
+	/**
+	 * Queues an effect, e.g. damage to another entity.
+	 */
+	public void post(Effect effect) {
+		Utils.notNull("effect", effect);
+		types.add(EFFECT);
+		targets.add(effect);
+	}
+	
+	/**
+	 * Applies all queued effects in the order they were queued and clears the buffer.
+	 */
+	public void apply(GameContext context, GameWorld world, EntitySystem system) {
+		for (int i = 0; i < types.size; i++) {
+			switch (types.get(i)) {
+				case SPAWN:
+					system.addEntity((Entity) targets.get(i), context, world);
+					break;
+				case REMOVE:
+					system.removeEntity((Entity) targets.get(i));
+					break;
+				default:
+					((Effect) targets.get(i)).apply(context, world);
+					break;
+			}
+		}
+		clear();
+	}
+	/**
+	 * Drops all queued effects.
+	 */
+	public void clear() {
+		types.clear();
+		targets.clear();
+	}
+	
+	// GETTER
+	// 
+	/**
+	 * @return the number of queued effects.
+	 */
+	public int size() {
+		return types.size;
+	}
+	
+	// INTERN CLASSES
+	// 
+	/**
+	 * An effect queued by an entity, applied after the update of all entities.
+	 */
+	public interface Effect {
+		
+		/**
+		 * Applies the effect. Gets called on the thread which updates the entity system.
+		 * 
+		 * @param context
+		 *            the context the games runs in
+		 * @param world
+		 *            the world the game plays in
+		 */
+		public void apply(GameContext context, GameWorld world);
+		
+	}
+	
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2012, Stefan Lange
+ * 
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ *     * Redistributions of source code must retain the above copyright notice,
+ *       this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of Stefan Lange nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package de.radicalfish.world;
+import java.lang.reflect.InvocationTargetException;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.utils.Pool;
+import de.radicalfish.util.RadicalFishException;
+import de.radicalfish.util.Utils;
+
+/**
+ * Holds one {@link Pool} per entity class, so short living entities like bullets or effects can be reused instead of
+ * being created over and over again. Entities get created with their public no-arg constructor when a pool runs empty,
+ * a custom pool can be set with {@link #setPool(Class, Pool)} for entities which need constructor arguments.
+ * <p>
+ * {@link #free(Entity)} calls {@link Entity#reset()} before the entity goes back into its pool. An entity must not be
+ * used anymore after it was freed and must not be freed twice.
+ * 
+ * @author Stefan Lange
+ * @version 1.0.0
+ * @since 18.10.2026
+ */
+public class EntityPool {
+	
+	private final ObjectMap<Class<?>, Pool<? extends Entity>> pools;
+	private final int max;
+	
+	private int created;
+	
+	/**
+	 * Creates a new {@link EntityPool} with no limit on the number of free entities per class.
+	 */
+	public EntityPool() {
+		this(Integer.MAX_VALUE);
+	}
+	/**
+	 * Creates a new {@link EntityPool}.
+	 * 
+	 * @param max
+	 *            the maximum number of free entities kept per class, more get dropped
+	 */
+	public EntityPool(int max) {
+		if (max <= 0) {
+			throw new RadicalFishException("max must be greater than 0!");
+		}
+		this.max = max;
+		pools = new ObjectMap<Class<?>, Pool<? extends Entity>>();
+	}
+	
+	// METHODS
+	// 
+	/**
+	 * @return a free entity of <code>type</code> or a new one if there is none.
+	 */
+	public <T extends Entity> T obtain(Class<T> type) {
+		return getPool(type).obtain();
+	}
+	/**
+	 * Resets <code>entity</code> and puts it back into the pool of its class.
+	 */
+	@SuppressWarnings("unchecked")
+	public void free(Entity entity) {
+		Utils.notNull("entity", entity);
+		entity.reset();
+		((Pool<Entity>) getPool(entity.getClass())).free(entity);
+	}
+	/**
+	 * Creates <code>count</code> entities of <code>type</code> and puts them into the pool, so the first frames using
+	 * them don't need to create any.
+	 */
+	public <T extends Entity> void fill(Class<T> type, int count) {
+		Pool<T> pool = getPool(type);
+		for (int i = 0; i < count; i++) {
+			T entity = pool.obtain();
+			entity.reset();
+			pool.free(entity);
+		}
+	}
+	/**
+	 * Removes all free entities from all pools.
+	 */
+	public void clear() {
+		for (Pool<? extends Entity> pool : pools.values()) {
+			pool.clear();
+		}
+	}
+	
+	// GETTER
+	// 
+	/**
+	 * @return the pool for <code>type</code>, a new one gets created if there is none yet.
+	 */
+	@SuppressWarnings("unchecked")
+	public <T extends Entity> Pool<T> getPool(Class<T> type) {
+		Pool<T> pool = (Pool<T>) pools.get(type);
+		if (pool == null) {
+			pool = new ReflectionPool<T>(type, max);
+			pools.put(type, pool);
+		}
+		return pool;
+	}
+	/**
+	 * @return the number of entities the pools had to create so far (not counting custom pools). If this number keeps
+	 *         growing in a running game the pools are too small or entities don't get freed.
+	 */
+	public int getCreatedCount() {
+		return created;
+	}
+	
+	// SETTER
+	// 
+	/**
+	 * Sets a custom pool for <code>type</code>, e.g. for entities without a no-arg constructor.
+	 */
+	public <T extends Entity> void setPool(Class<T> type, Pool<T> pool) {
+		Utils.notNull("type", type);
+		Utils.notNull("pool", pool);
+		pools.put(type, pool);
+	}
+	
+	// INTERN CLASSES
+	// 
+	/**
+	 * Creates entities with the public no-arg constructor of their class.
+	 */
+	private class ReflectionPool<T extends Entity> extends Pool<T> {
+		
+		private final Class<T> type;
+		
+		public ReflectionPool(Class<T> type, int max) {
+			super(16, max);
+			this.type = type;
+		}
+		
+		protected T newObject() {
+			try {
+				T entity = type.getDeclaredConstructor().newInstance();
+				created++;
+				return entity;
+			} catch (InvocationTargetException e) {
+				throw new RadicalFishException("the constructor of " + type.getName() + " failed", e.getCause());
+			} catch (Exception e) {
+				throw new RadicalFishException("could not create an entity of " + type.getName()
+						+ ", it needs a public no-arg constructor!", e);
+			}
+		}
+		
+	}
+	
+}
@@ -0,0 +1,293 @@
+/*
+ * Copyright (c) 2012, Stefan Lange
+ * 
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ *     * Redistributions of source code must retain the above copyright notice,
+ *       this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of Stefan Lange nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package de.radicalfish.world;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntMap;
+import com.badlogic.gdx.utils.ObjectIntMap;
+import com.badlogic.gdx.utils.ObjectMap;
+import de.radicalfish.context.GameContext;
+import de.radicalfish.context.GameDelta;
+import de.radicalfish.debug.Profiler;
+import de.radicalfish.util.RadicalFishException;
+import de.radicalfish.util.Utils;
+
+/**
+ * An {@link EntitySystem} which keeps its entities indexed by id and by name, so {@link #getEntity(int)},
+ * {@link #getEntities(String)} and {@link #removeEntity(int)} don't need to look at every entity and don't create any
+ * objects. The indexes are kept up to date on adding and removing and when an entity changes its name or id later on
+ * (the system registers itself as {@link EntityListener} on every entity it holds). The system also knows the position
+ * of every entity in the entity list and in its name list, so removing an entity doesn't search for it. The last
+ * entity of the list takes the place of the removed one, so removing changes the order of the entities.
+ * <p>
+ * Entities with a negative id (the default is -1) are not indexed by id. Ids should be unique, adding an entity or
+ * changing the id of an entity to an id already in use throws a {@link RadicalFishException}.
+ * <p>
+ * Each update calls {@link Entity#update(GameContext, GameWorld, GameDelta)} on every entity, followed by a check with
+ * every collision manager added with {@link #addCollisionManager(String)}. Dead entities get removed at the end of the
+ * update.
+ * 
+ * @author Stefan Lange
+ * @version 1.0.0
+ * @since 18.10.2026
+ */
+public class IndexedEntitySystem implements EntitySystem {
+	
+	private final ArrayList<Entity> entities;
+	private final IntMap<Entity> ids;
+	private final ObjectMap<String, ArrayList<Entity>> names;
+	private final ObjectIntMap<Entity> positions;
+	private final ObjectIntMap<Entity> namePositions;
+	private final Array<String> collisionManagers;
+	
+	private final Indexer indexer = new Indexer();
+	
+	/**
+	 * Creates a new empty {@link IndexedEntitySystem}.
+	 */
+	public IndexedEntitySystem() {
+		entities = new ArrayList<Entity>();
+		ids = new IntMap<Entity>();
+		names = new ObjectMap<String, ArrayList<Entity>>();
+		positions = new ObjectIntMap<Entity>();
+		namePositions = new ObjectIntMap<Entity>();
+		collisionManagers = new Array<String>(2);
+	}
+	
+	// METHODS
+	// 
+	public void init(GameContext context, GameWorld world) {
+		for (int i = 0; i < entities.size(); i++) {
+			entities.get(i).init(context, world);
+		}
+	}
+	public void update(GameContext context, GameWorld world, GameDelta delta) {
+		Profiler.begin("entities");
+		try {
+			Entity entity;
+			for (int i = 0; i < entities.size(); i++) {
+				entity = entities.get(i);
+				if (!entity.isAlive()) {
+					continue;
+				}
+				entity.update(context, world, delta);
+				for (int j = 0; j < collisionManagers.size; j++) {
+					CollisionManager manager = world.getCollisionManager(collisionManagers.get(j));
+					if (manager != null) {
+						manager.checkCollision(context, world, entity);
+					}
+				}
+			}
+			removeDead();
+		} finally {
+			Profiler.end();
+		}
+	}
+	
+	/**
+	 * Adds the name of a collision manager of the world every entity gets checked with after its update. Managers are
+	 * checked in the order they were added.
+	 */
+	public void addCollisionManager(String name) {
+		Utils.notNull("name", name);
+		collisionManagers.add(name);
+	}
+	
+	// ADDING & CHECKING
+	// 
+	public Entity addEntity(Entity e, GameContext context, GameWorld world) {
+		Utils.notNull("entity", e);
+		if (e.getEntityListener() != null) {
+			throw new RadicalFishException("the entity " + e.getName() + " is already part of an entity system!");
+		}
+		if (e.getID() >= 0 && ids.containsKey(e.getID())) {
+			throw new RadicalFishException("an entity with the id " + e.getID() + " already exists!");
+		}
+		positions.put(e, entities.size());
+		entities.add(e);
+		index(e);
+		e.setEntityListener(indexer);
+		e.init(context, world);
+		return e;
+	}
+	/**
+	 * Removes an entity from the system.
+	 * 
+	 * @return the entity removed or null if <code>e</code> is not part of this system.
+	 */
+	public Entity removeEntity(Entity e) {
+		if (e == null || e.getEntityListener() != indexer) {
+			return null;
+		}
+		removeAt(entities, positions, positions.get(e, -1));
+		unindex(e);
+		return e;
+	}
+	/**
+	 * Removes an entity by its id.
+	 * 
+	 * @return the entity removed or null if there is no entity with <code>id</code>.
+	 */
+	public Entity removeEntity(int id) {
+		return removeEntity(ids.get(id));
+	}
+	
+	// GETTER
+	// 
+	public List<Entity> getEntities() {
+		return entities;
+	}
+	/**
+	 * @return the entity with <code>id</code> or null if there is none.
+	 */
+	public Entity getEntity(int id) {
+		return ids.get(id);
+	}
+	/**
+	 * @return all entities with <code>name</code>. The list is the one of the index and must not be changed, if no
+	 *         entity has the name an empty list gets returned.
+	 */
+	public List<Entity> getEntities(String name) {
+		ArrayList<Entity> list = names.get(name);
+		if (list == null) {
+			return Collections.emptyList();
+		}
+		return list;
+	}
+	/**
+	 * @return the number of entities in the system.
+	 */
+	public int getEntityCount() {
+		return entities.size();
+	}
+	
+	// INTERN
+	// 
+	private void removeDead() {
+		int alive = 0;
+		Entity entity;
+		for (int i = 0; i < entities.size(); i++) {
+			entity = entities.get(i);
+			if (entity.isAlive()) {
+				if (alive != i) {
+					entities.set(alive, entity);
+					positions.put(entity, alive);
+				}
+				alive++;
+			} else {
+				unindex(entity);
+			}
+		}
+		for (int i = entities.size() - 1; i >= alive; i--) {
+			entities.remove(i);
+		}
+	}
+	private void index(Entity e) {
+		if (e.getID() >= 0) {
+			ids.put(e.getID(), e);
+		}
+		addName(e, e.getName());
+	}
+	private void unindex(Entity e) {
+		if (e.getID() >= 0 && ids.get(e.getID()) == e) {
+			ids.remove(e.getID());
+		}
+		removeName(e, e.getName());
+		positions.remove(e, -1);
+		e.setEntityListener(null);
+	}
+	private void addName(Entity e, String name) {
+		if (name == null) {
+			return;
+		}
+		ArrayList<Entity> list = names.get(name);
+		if (list == null) {
+			list = new ArrayList<Entity>(4);
+			names.put(name, list);
+		}
+		namePositions.put(e, list.size());
+		list.add(e);
+	}
+	private void removeName(Entity e, String name) {
+		if (name == null) {
+			return;
+		}
+		ArrayList<Entity> list = names.get(name);
+		if (list != null) {
+			removeAt(list, namePositions, namePositions.remove(e, -1));
+		}
+	}
+	/**
+	 * Removes the entity at <code>index</code> by moving the last entity of <code>list</code> to its place and updates
+	 * the position of the moved entity in <code>listPositions</code>.
+	 */
+	private void removeAt(ArrayList<Entity> list, ObjectIntMap<Entity> listPositions, int index) {
+		if (index < 0) {
+			return;
+		}
+		Entity last = list.remove(list.size() - 1);
+		if (index < list.size()) {
+			list.set(index, last);
+			listPositions.put(last, index);
+		}
+	}
+	
+	// INTERN CLASSES
+	// 
+	/**
+	 * Keeps the indexes up to date when an entity changes.
+	 */
+	private class Indexer implements EntityListener {
+		
+		public void onNameChanged(Entity entity, String oldName) {
+			removeName(entity, oldName);
+			addName(entity, entity.getName());
+		}
+		public void onIDChanged(Entity entity, int oldID) {
+			int id = entity.getID();
+			Entity other = id >= 0 ? ids.get(id) : null;
+			if (other != null && other != entity) {
+				// restore the old id first, this calls us again and leaves the index untouched
+				entity.setID(oldID);
+				throw new RadicalFishException("an entity with the id " + id + " already exists!");
+			}
+			if (oldID >= 0 && ids.get(oldID) == entity) {
+				ids.remove(oldID);
+			}
+			if (id >= 0) {
+				ids.put(id, entity);
+			}
+		}
+		
+	}
+	
+}
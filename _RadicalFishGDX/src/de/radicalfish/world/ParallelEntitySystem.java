@@ -0,0 +1,390 @@
+/*
+ * Copyright (c) 2012, Stefan Lange
+ * 
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ *     * Redistributions of source code must retain the above copyright notice,
+ *       this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of Stefan Lange nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package de.radicalfish.world;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import com.badlogic.gdx.utils.Array;
+import de.radicalfish.context.GameContext;
+import de.radicalfish.context.GameDelta;
+import de.radicalfish.debug.Profiler;
+import de.radicalfish.util.RadicalFishException;
+import de.radicalfish.util.Utils;
+
+/**
+ * An {@link EntitySystem} which updates its entities on several threads. The list of entities is split into one
+ * continuous part per thread, every part gets updated on its own thread and the system waits until all parts are done.
+ * <p>
+ * For this to work an entity may only change its own state in <code>doUpdate</code>. Everything else (spawning or
+ * removing entities, damaging another entity, ...) has to be queued into the buffer returned by {@link #getEffects()}.
+ * After all entities were updated the system runs the commit phase on the calling thread: every entity gets checked
+ * with the collision managers added with {@link #addCollisionManager(String)}, the buffers get applied part by part
+ * and dead entities get removed. Since the parts are continuous, the buffers hold the effects in the same order a
+ * single thread would have queued them, so the result of a frame is the same no matter how many threads are used.
+ * <p>
+ * Spawned entities join the system at the end of the commit phase. With one thread no executor is used at all and the
+ * system runs like a sequential one with deferred effects.
+ * 
+ * @author Stefan Lange
+ * @version 1.0.0
+ * @since 18.10.2026
+ */
+public class ParallelEntitySystem implements EntitySystem {
+	
+	/** The default minimum number of entities a thread gets. */
+	public static final int DEFAULT_MIN_PART_SIZE = 64;
+	
+	private final ArrayList<Entity> entities;
+	private final ArrayList<Entity> nameList;
+	private final Array<String> collisionManagers;
+	
+	private final ExecutorService executor;
+	private final boolean ownExecutor;
+	private final Part[] parts;
+	private final Semaphore done;
+	private final ThreadLocal<EntityEffects> current;
+	private final EntityEffects outside;
+	
+	private int minPartSize = DEFAULT_MIN_PART_SIZE;
+	private int usedParts;
+	
+	private GameContext context;
+	private GameWorld world;
+	private GameDelta delta;
+	private volatile Throwable error;
+	
+	/**
+	 * Creates a new {@link ParallelEntitySystem} with one thread per available processor.
+	 */
+	public ParallelEntitySystem() {
+		this(Runtime.getRuntime().availableProcessors());
+	}
+	/**
+	 * Creates a new {@link ParallelEntitySystem} with its own threads.
+	 * 
+	 * @param threads
+	 *            the number of threads to update with, 1 updates on the calling thread only
+	 */
+	public ParallelEntitySystem(int threads) {
+		this(threads, null);
+	}
+	/**
+	 * Creates a new {@link ParallelEntitySystem}.
+	 * 
+	 * @param threads
+	 *            the number of threads to update with, 1 updates on the calling thread only
+	 * @param executor
+	 *            the executor to run the parts on or null to create an own one. An executor passed in will not be shut
+	 *            down by {@link #dispose()}
+	 */
+	public ParallelEntitySystem(int threads, ExecutorService executor) {
+		if (threads <= 0) {
+			throw new RadicalFishException("threads must be greater than 0!");
+		}
+		entities = new ArrayList<Entity>(256);
+		nameList = new ArrayList<Entity>();
+		collisionManagers = new Array<String>(2);
+		
+		parts = new Part[threads];
+		for (int i = 0; i < threads; i++) {
+			parts[i] = new Part();
+		}
+		done = new Semaphore(0);
+		current = new ThreadLocal<EntityEffects>();
+		outside = new EntityEffects();
+		
+		if (threads == 1) {
+			this.executor = null;
+			this.ownExecutor = false;
+		} else if (executor == null) {
+			// the calling thread updates the first part itself
+			this.executor = Executors.newFixedThreadPool(threads - 1, new UpdateThreadFactory());
+			this.ownExecutor = true;
+		} else {
+			this.executor = executor;
+			this.ownExecutor = false;
+		}
+	}
+	
+	// METHODS
+	// 
+	public void init(GameContext context, GameWorld world) {
+		for (int i = 0; i < entities.size(); i++) {
+			entities.get(i).init(context, world);
+		}
+	}
+	public void update(GameContext context, GameWorld world, GameDelta delta) {
+		this.context = context;
+		this.world = world;
+		this.delta = delta;
+		Profiler.begin("entities");
+		try {
+			// split into continuous parts
+			int size = entities.size();
+			usedParts = Math.max(1, Math.min(parts.length, size / minPartSize));
+			int partSize = size / usedParts, rest = size % usedParts, from = 0;
+			for (int i = 0; i < usedParts; i++) {
+				int to = from + partSize + (i < rest ? 1 : 0);
+				parts[i].from = from;
+				parts[i].to = to;
+				from = to;
+			}
+			
+			// update phase
+			error = null;
+			for (int i = 1; i < usedParts; i++) {
+				executor.execute(parts[i]);
+			}
+			parts[0].run();
+			if (usedParts > 1) {
+				done.acquireUninterruptibly(usedParts - 1);
+			}
+			if (error != null) {
+				for (int i = 0; i < usedParts; i++) {
+					parts[i].effects.clear();
+				}
+				throw new RadicalFishException("an entity failed to update!", error);
+			}
+			
+			Profiler.begin("commit");
+			try {
+				commit(context, world);
+			} finally {
+				Profiler.end();
+			}
+		} finally {
+			Profiler.end();
+			this.context = null;
+			this.world = null;
+			this.delta = null;
+		}
+	}
+	/**
+	 * Shuts down the threads if the system created them.
+	 */
+	public void dispose() {
+		if (ownExecutor) {
+			executor.shutdownNow();
+		}
+	}
+	
+	/**
+	 * Adds the name of a collision manager of the world every entity gets checked with in the commit phase. Managers
+	 * are checked in the order they were added.
+	 */
+	public void addCollisionManager(String name) {
+		Utils.notNull("name", name);
+		collisionManagers.add(name);
+	}
+	
+	// ADDING & CHECKING
+	// 
+	/**
+	 * Initiates <code>e</code> and adds it. While the entities get updated, use {@link EntityEffects#spawn(Entity)}
+	 * instead.
+	 * 
+	 * @return the entity added.
+	 */
+	public Entity addEntity(Entity e, GameContext context, GameWorld world) {
+		Utils.notNull("entity", e);
+		e.init(context, world);
+		entities.add(e);
+		return e;
+	}
+	/**
+	 * Removes <code>e</code>. While the entities get updated, use {@link EntityEffects#remove(Entity)} instead.
+	 * 
+	 * @return the entity removed or null if it was not part of the system.
+	 */
+	public Entity removeEntity(Entity e) {
+		return entities.remove(e) ? e : null;
+	}
+	public Entity removeEntity(int id) {
+		return removeEntity(getEntity(id));
+	}
+	
+	// GETTER
+	// 
+	/**
+	 * @return the buffer the calling thread has to queue its effects in. During the update phase this is the buffer of
+	 *         the part the thread updates, otherwise a buffer which gets applied before all others at the next commit.
+	 */
+	public EntityEffects getEffects() {
+		EntityEffects effects = current.get();
+		return effects == null ? outside : effects;
+	}
+	public List<Entity> getEntities() {
+		return entities;
+	}
+	/**
+	 * @return the entity with <code>id</code> or null if there is none.
+	 */
+	public Entity getEntity(int id) {
+		for (int i = 0; i < entities.size(); i++) {
+			if (entities.get(i).getID() == id) {
+				return entities.get(i);
+			}
+		}
+		return null;
+	}
+	/**
+	 * @return all entities with <code>name</code>. The list gets reused and is only valid until the next call.
+	 */
+	public List<Entity> getEntities(String name) {
+		Utils.notNull("name", name);
+		nameList.clear();
+		for (int i = 0; i < entities.size(); i++) {
+			if (name.equals(entities.get(i).getName())) {
+				nameList.add(entities.get(i));
+			}
+		}
+		return nameList;
+	}
+	/**
+	 * @return the number of threads the system can use.
+	 */
+	public int getThreads() {
+		return parts.length;
+	}
+	/**
+	 * @return the number of threads used in the last update.
+	 */
+	public int getUsedThreads() {
+		return usedParts;
+	}
+	public int getMinPartSize() {
+		return minPartSize;
+	}
+	
+	// SETTER
+	// 
+	/**
+	 * @param minPartSize
+	 *            the minimum number of entities a thread gets. Fewer entities are not worth the cost of handing them to
+	 *            another thread.
+	 */
+	public void setMinPartSize(int minPartSize) {
+		if (minPartSize <= 0) {
+			throw new RadicalFishException("minPartSize must be greater than 0!");
+		}
+		this.minPartSize = minPartSize;
+	}
+	
+	// INTERN
+	// 
+	private void commit(GameContext context, GameWorld world) {
+		Entity entity;
+		if (collisionManagers.size > 0) {
+			for (int i = 0; i < entities.size(); i++) {
+				entity = entities.get(i);
+				if (!entity.isAlive()) {
+					continue;
+				}
+				for (int j = 0; j < collisionManagers.size; j++) {
+					CollisionManager manager = world.getCollisionManager(collisionManagers.get(j));
+					if (manager != null) {
+						manager.checkCollision(context, world, entity);
+					}
+				}
+			}
+		}
+		
+		outside.apply(context, world, this);
+		for (int i = 0; i < usedParts; i++) {
+			parts[i].effects.apply(context, world, this);
+		}
+		
+		int alive = 0;
+		for (int i = 0; i < entities.size(); i++) {
+			entity = entities.get(i);
+			if (entity.isAlive()) {
+				if (alive != i) {
+					entities.set(alive, entity);
+				}
+				alive++;
+			} else {
+				entity.destroy(context, world);
+			}
+		}
+		for (int i = entities.size() - 1; i >= alive; i--) {
+			entities.remove(i);
+		}
+	}
+	
+	// INTERN CLASSES
+	// 
+	/**
+	 * A continuous part of the entities, updated by one thread.
+	 */
+	private class Part implements Runnable {
+		
+		private final EntityEffects effects = new EntityEffects();
+		private int from, to;
+		
+		public void run() {
+			current.set(effects);
+			try {
+				Entity entity;
+				for (int i = from; i < to; i++) {
+					entity = entities.get(i);
+					if (entity.isAlive()) {
+						entity.update(context, world, delta);
+					}
+				}
+			} catch (Throwable t) {
+				error = t;
+			} finally {
+				current.set(null);
+				if (this != parts[0]) {
+					done.release();
+				}
+			}
+		}
+		
+	}
+	/**
+	 * Creates the daemon threads which update the entities.
+	 */
+	private static class UpdateThreadFactory implements ThreadFactory {
+		
+		private int count;
+		
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, "ParallelEntitySystem Update " + (++count));
+			thread.setDaemon(true);
+			return thread;
+		}
+		
+	}
+	
+}
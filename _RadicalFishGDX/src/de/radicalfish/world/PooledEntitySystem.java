@@ -0,0 +1,286 @@
+/*
+ * Copyright (c) 2012, Stefan Lange
+ * 
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ *     * Redistributions of source code must retain the above copyright notice,
+ *       this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of Stefan Lange nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package de.radicalfish.world;
+import java.util.ArrayList;
+import java.util.List;
+import com.badlogic.gdx.utils.Array;
+import de.radicalfish.context.GameContext;
+import de.radicalfish.context.GameDelta;
+import de.radicalfish.debug.Profiler;
+import de.radicalfish.util.RadicalFishException;
+import de.radicalfish.util.Utils;
+
+/**
+ * An {@link EntitySystem} made for a lot of short living entities (bullets, effects and such). Adding and removing
+ * entities is deferred: new entities get {@link Entity#init(GameContext, GameWorld)} right away but join the system at
+ * the end of the next update (or {@link #flush(GameContext, GameWorld)}), removed entities leave it at the same point.
+ * This way entities can spawn and remove other entities while the system iterates over them.
+ * <p>
+ * Dead entities are removed at the end of every update by swapping them with the last entity, so removing is O(1) and
+ * the order of the entities changes. Killing an entity with {@link Entity#setAlive(boolean)} is the cheap way to get
+ * rid of it, {@link #removeEntity(Entity)} has to search the entity first.
+ * <p>
+ * If an {@link EntityPool} is set, dead entities go back into it and {@link #spawn(Class, GameContext, GameWorld)}
+ * takes new ones from it. Once the pool and the lists of the system have grown to the number of entities a scene
+ * needs, no objects get created anymore.
+ * 
+ * @author Stefan Lange
+ * @version 1.0.0
+ * @since 18.10.2026
+ */
+public class PooledEntitySystem implements EntitySystem {
+	
+	private final ArrayList<Entity> entities;
+	private final ArrayList<Entity> added;
+	private final ArrayList<Entity> removed;
+	private final ArrayList<Entity> nameList;
+	private final Array<String> collisionManagers;
+	
+	private EntityPool pool;
+	
+	/**
+	 * Creates a new {@link PooledEntitySystem} without a pool.
+	 */
+	public PooledEntitySystem() {
+		this(null);
+	}
+	/**
+	 * Creates a new {@link PooledEntitySystem}.
+	 * 
+	 * @param pool
+	 *            the pool dead entities go back to, may be null
+	 */
+	public PooledEntitySystem(EntityPool pool) {
+		this.pool = pool;
+		entities = new ArrayList<Entity>(256);
+		added = new ArrayList<Entity>(64);
+		removed = new ArrayList<Entity>(16);
+		nameList = new ArrayList<Entity>();
+		collisionManagers = new Array<String>(2);
+	}
+	
+	// METHODS
+	// 
+	public void init(GameContext context, GameWorld world) {
+		for (int i = 0; i < entities.size(); i++) {
+			entities.get(i).init(context, world);
+		}
+	}
+	public void update(GameContext context, GameWorld world, GameDelta delta) {
+		Profiler.begin("entities");
+		try {
+			Entity entity;
+			for (int i = 0; i < entities.size(); i++) {
+				entity = entities.get(i);
+				if (!entity.isAlive()) {
+					continue;
+				}
+				entity.update(context, world, delta);
+				for (int j = 0; j < collisionManagers.size; j++) {
+					CollisionManager manager = world.getCollisionManager(collisionManagers.get(j));
+					if (manager != null) {
+						manager.checkCollision(context, world, entity);
+					}
+				}
+			}
+			flush(context, world);
+		} finally {
+			Profiler.end();
+		}
+	}
+	/**
+	 * Applies all pending adds and removes and removes dead entities. Gets called at the end of every update.
+	 * 
+	 * @param context
+	 *            the context the games runs in
+	 * @param world
+	 *            the world the game plays in
+	 */
+	public void flush(GameContext context, GameWorld world) {
+		for (int i = 0; i < removed.size(); i++) {
+			Entity entity = removed.get(i);
+			int index = entities.indexOf(entity);
+			if (index >= 0) {
+				swapRemove(index);
+				entity.destroy(context, world);
+			}
+		}
+		removed.clear();
+		
+		for (int i = 0; i < added.size(); i++) {
+			entities.add(added.get(i));
+		}
+		added.clear();
+		
+		Entity entity;
+		for (int i = 0; i < entities.size();) {
+			entity = entities.get(i);
+			if (entity.isAlive()) {
+				i++;
+				continue;
+			}
+			swapRemove(i);
+			entity.destroy(context, world);
+			if (pool != null) {
+				pool.free(entity);
+			}
+		}
+	}
+	
+	/**
+	 * Takes an entity of <code>type</code> from the pool and adds it to the system.
+	 * 
+	 * @return the entity, it joins the system at the end of the next update.
+	 */
+	public <T extends Entity> T spawn(Class<T> type, GameContext context, GameWorld world) {
+		if (pool == null) {
+			throw new RadicalFishException("spawn needs an entity pool!");
+		}
+		T entity = pool.obtain(type);
+		addEntity(entity, context, world);
+		return entity;
+	}
+	/**
+	 * Adds the name of a collision manager of the world every entity gets checked with after its update. Managers are
+	 * checked in the order they were added.
+	 */
+	public void addCollisionManager(String name) {
+		Utils.notNull("name", name);
+		collisionManagers.add(name);
+	}
+	
+	// ADDING & CHECKING
+	// 
+	/**
+	 * Initiates <code>e</code> and adds it at the end of the next update.
+	 * 
+	 * @return the entity added.
+	 */
+	public Entity addEntity(Entity e, GameContext context, GameWorld world) {
+		Utils.notNull("entity", e);
+		e.init(context, world);
+		added.add(e);
+		return e;
+	}
+	/**
+	 * Removes <code>e</code> at the end of the next update. The entity does not go back into the pool.
+	 * 
+	 * @return the entity removed or null if it was not part of the system.
+	 */
+	public Entity removeEntity(Entity e) {
+		if (e == null) {
+			return null;
+		}
+		if (added.remove(e)) {
+			return e;
+		}
+		if (!entities.contains(e)) {
+			return null;
+		}
+		if (!removed.contains(e)) {
+			removed.add(e);
+		}
+		return e;
+	}
+	public Entity removeEntity(int id) {
+		return removeEntity(getEntity(id));
+	}
+	
+	// GETTER
+	// 
+	/**
+	 * @return all entities in the system, without the ones added since the last update.
+	 */
+	public List<Entity> getEntities() {
+		return entities;
+	}
+	/**
+	 * @return the entity with <code>id</code> (including the ones not yet added) or null if there is none.
+	 */
+	public Entity getEntity(int id) {
+		for (int i = 0; i < entities.size(); i++) {
+			if (entities.get(i).getID() == id) {
+				return entities.get(i);
+			}
+		}
+		for (int i = 0; i < added.size(); i++) {
+			if (added.get(i).getID() == id) {
+				return added.get(i);
+			}
+		}
+		return null;
+	}
+	/**
+	 * @return all entities with <code>name</code>. The list gets reused and is only valid until the next call.
+	 */
+	public List<Entity> getEntities(String name) {
+		Utils.notNull("name", name);
+		nameList.clear();
+		for (int i = 0; i < entities.size(); i++) {
+			if (name.equals(entities.get(i).getName())) {
+				nameList.add(entities.get(i));
+			}
+		}
+		return nameList;
+	}
+	/**
+	 * @return the number of entities waiting to be added.
+	 */
+	public int getPendingCount() {
+		return added.size();
+	}
+	/**
+	 * @return the pool dead entities go back to, may be null.
+	 */
+	public EntityPool getPool() {
+		return pool;
+	}
+	
+	// SETTER
+	// 
+	/**
+	 * @param pool
+	 *            the pool dead entities go back to, null to let them go
+	 */
+	public void setPool(EntityPool pool) {
+		this.pool = pool;
+	}
+	
+	// INTERN
+	// 
+	private void swapRemove(int index) {
+		int last = entities.size() - 1;
+		if (index != last) {
+			entities.set(index, entities.get(last));
+		}
+		entities.remove(last);
+	}
+	
+}
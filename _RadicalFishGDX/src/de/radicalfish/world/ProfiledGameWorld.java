@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2012, Stefan Lange
+ * 
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ *     * Redistributions of source code must retain the above copyright notice,
+ *       this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of Stefan Lange nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package de.radicalfish.world;
+import java.util.List;
+import de.radicalfish.context.GameContext;
+import de.radicalfish.context.GameDelta;
+import de.radicalfish.debug.Profiler;
+import de.radicalfish.graphics.Graphics;
+import de.radicalfish.util.Utils;
+import de.radicalfish.world.map.Map;
+
+/**
+ * Wraps a {@link GameWorld} and measures its update and render with the {@link Profiler} in the scope "world".
+ * Everything else gets passed to the wrapped world unchanged. The entity systems of the engine measure themselves in
+ * the scope "entities", so they show up as "update/.../world/entities".
+ * 
+ * <pre>
+ * protected GameWorld initWorld(GameContainer container) {
+ * 	return new ProfiledGameWorld(new MyWorld());
+ * }
+ * </pre>
+ * 
+ * @author Stefan Lange
+ * @version 1.0.0
+ * @since 18.10.2026
+ */
+public class ProfiledGameWorld implements GameWorld {
+	
+	private final GameWorld world;
+	
+	/**
+	 * Creates a new {@link ProfiledGameWorld}.
+	 * 
+	 * @param world
+	 *            the world to measure
+	 */
+	public ProfiledGameWorld(GameWorld world) {
+		Utils.notNull("world", world);
+		this.world = world;
+	}
+	
+	// METHODS
+	// 
+	public void init(GameContext context) {
+		world.init(context);
+	}
+	public void update(GameContext context, GameDelta delta) {
+		Profiler.begin("world");
+		try {
+			world.update(context, delta);
+		} finally {
+			Profiler.end();
+		}
+	}
+	public void render(GameContext context, Graphics g) {
+		Profiler.begin("world");
+		try {
+			world.render(context, g);
+		} finally {
+			Profiler.end();
+		}
+	}
+	public void dispose() {
+		world.dispose();
+	}
+	
+	// GETTER
+	// 
+	/**
+	 * @return the wrapped world.
+	 */
+	public GameWorld getWorld() {
+		return world;
+	}
+	public CollisionManager getCollisionManager(String name) {
+		return world.getCollisionManager(name);
+	}
+	public List<EntitySystem> getEntitySystems() {
+		return world.getEntitySystems();
+	}
+	public EntitySystem getEntitySystem(String name) {
+		return world.getEntitySystem(name);
+	}
+	public Camera getCamera() {
+		return world.getCamera();
+	}
+	public Map getMap() {
+		return world.getMap();
+	}
+	public float getGravity() {
+		return world.getGravity();
+	}
+	public int getTileSize() {
+		return world.getTileSize();
+	}
+	
+	// SETTER
+	// 
+	public void addCollisionManager(String name, CollisionManager manager) {
+		world.addCollisionManager(name, manager);
+	}
+	public void addEntitySystem(String name, EntitySystem system) {
+		world.addEntitySystem(name, system);
+	}
+	public void removeEntitySystem(String name) {
+		world.removeEntitySystem(name);
+	}
+	public void setCamera(Camera camera) {
+		world.setCamera(camera);
+	}
+	public void setMap(Map map) {
+		world.setMap(map);
+	}
+	public void setGravity(float gravity) {
+		world.setGravity(gravity);
+	}
+	
+}
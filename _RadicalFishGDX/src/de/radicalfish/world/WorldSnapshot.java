@@ -0,0 +1,245 @@
+/*
+ * Copyright (c) 2012, Stefan Lange
+ * 
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ *     * Redistributions of source code must retain the above copyright notice,
+ *       this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of Stefan Lange nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package de.radicalfish.world;
+import java.util.List;
+
+/**
+ * A copy of the state of a {@link GameWorld} the render code needs: the camera position and, for every entity of all
+ * entity systems, the current and the old position, the direction, the layer, if it is visible, the animation frame
+ * ({@link Entity#getRenderFrame()}), the tint ({@link Entity#getRenderColor()}) and the flash color. Used to render on
+ * one thread while the world gets updated on another one (see {@link de.radicalfish.util.SnapshotBuffer}).
+ * <p>
+ * The entity itself is stored too, but only to get to state which doesn't change during an update (images,
+ * animations set up in init). Everything which changes must be read from the snapshot, an entity with more render
+ * state of its own has to expose it through the methods above. The arrays only grow, so capturing into the same
+ * snapshot again creates no objects.
+ * 
+ * @author Stefan Lange
+ * @version 1.0.0
+ * @since 18.10.2026
+ */
+public class WorldSnapshot {
+	
+	private Entity[] entities;
+	private float[] positions; // x, y, oldX, oldY
+	private float[] looks; // color, flash color, direction x, direction y
+	private int[] layers, frames;
+	private boolean[] visible, flash;
+	private int size;
+	
+	private float cameraX, cameraY;
+	
+	/**
+	 * Creates a new empty {@link WorldSnapshot}.
+	 */
+	public WorldSnapshot() {
+		this(64);
+	}
+	/**
+	 * Creates a new empty {@link WorldSnapshot}.
+	 * 
+	 * @param capacity
+	 *            the number of entities the snapshot can take before it has to grow
+	 */
+	public WorldSnapshot(int capacity) {
+		capacity = Math.max(1, capacity);
+		entities = new Entity[capacity];
+		positions = new float[capacity * 4];
+		looks = new float[capacity * 4];
+		layers = new int[capacity];
+		frames = new int[capacity];
+		visible = new boolean[capacity];
+		flash = new boolean[capacity];
+	}
+	
+	// METHODS
+	// 
+	/**
+	 * Clears the snapshot and copies the state of the camera and all entities of all entity systems of
+	 * <code>world</code>. Dead entities are skipped.
+	 */
+	public void capture(GameWorld world) {
+		clear();
+		Camera camera = world.getCamera();
+		if (camera != null) {
+			cameraX = camera.getCurrentX();
+			cameraY = camera.getCurrentY();
+		}
+		List<EntitySystem> systems = world.getEntitySystems();
+		if (systems == null) {
+			return;
+		}
+		for (int i = 0; i < systems.size(); i++) {
+			List<Entity> list = systems.get(i).getEntities();
+			for (int j = 0; j < list.size(); j++) {
+				if (list.get(j).isAlive()) {
+					add(list.get(j));
+				}
+			}
+		}
+	}
+	/**
+	 * Copies the state of <code>entity</code> into the snapshot.
+	 */
+	public void add(Entity entity) {
+		if (size == entities.length) {
+			grow();
+		}
+		entities[size] = entity;
+		int index = size * 4;
+		positions[index] = entity.getPositionX();
+		positions[index + 1] = entity.getPositionY();
+		positions[index + 2] = entity.getOldPositionX();
+		positions[index + 3] = entity.getOldPositionY();
+		looks[index] = entity.getRenderColor();
+		looks[index + 1] = entity.getFlashColor().toFloatBits();
+		looks[index + 2] = entity.getDirectionX();
+		looks[index + 3] = entity.getDirectionY();
+		layers[size] = entity.getLayer();
+		frames[size] = entity.getRenderFrame();
+		visible[size] = entity.isVisible();
+		flash[size] = entity.isFlash();
+		size++;
+	}
+	/**
+	 * Removes all entities from the snapshot.
+	 */
+	public void clear() {
+		for (int i = 0; i < size; i++) {
+			entities[i] = null;
+		}
+		size = 0;
+	}
+	
+	// GETTER
+	// 
+	/**
+	 * @return the number of entities in the snapshot.
+	 */
+	public int getSize() {
+		return size;
+	}
+	public Entity getEntity(int index) {
+		return entities[index];
+	}
+	public float getX(int index) {
+		return positions[index * 4];
+	}
+	public float getY(int index) {
+		return positions[index * 4 + 1];
+	}
+	public float getOldX(int index) {
+		return positions[index * 4 + 2];
+	}
+	public float getOldY(int index) {
+		return positions[index * 4 + 3];
+	}
+	/**
+	 * @return the x position of the entity at <code>index</code> blended between the old and the current position.
+	 */
+	public float getInterpolatedX(int index, float alpha) {
+		float old = positions[index * 4 + 2];
+		return old + (positions[index * 4] - old) * alpha;
+	}
+	/**
+	 * @return the y position of the entity at <code>index</code> blended between the old and the current position.
+	 */
+	public float getInterpolatedY(int index, float alpha) {
+		float old = positions[index * 4 + 3];
+		return old + (positions[index * 4 + 1] - old) * alpha;
+	}
+	public float getDirectionX(int index) {
+		return looks[index * 4 + 2];
+	}
+	public float getDirectionY(int index) {
+		return looks[index * 4 + 3];
+	}
+	public int getLayer(int index) {
+		return layers[index];
+	}
+	/**
+	 * @return the animation frame of the entity at <code>index</code>, see {@link Entity#getRenderFrame()}.
+	 */
+	public int getFrame(int index) {
+		return frames[index];
+	}
+	/**
+	 * @return the tint of the entity at <code>index</code> as packed color, see {@link Entity#getRenderColor()}.
+	 */
+	public float getColor(int index) {
+		return looks[index * 4];
+	}
+	/**
+	 * @return the flash color of the entity at <code>index</code> as packed color, the alpha is the current flash.
+	 */
+	public float getFlashColor(int index) {
+		return looks[index * 4 + 1];
+	}
+	public boolean isVisible(int index) {
+		return visible[index];
+	}
+	public boolean isFlash(int index) {
+		return flash[index];
+	}
+	public float getCameraX() {
+		return cameraX;
+	}
+	public float getCameraY() {
+		return cameraY;
+	}
+	
+	// INTERN
+	// 
+	private void grow() {
+		int capacity = entities.length * 2;
+		Entity[] newEntities = new Entity[capacity];
+		System.arraycopy(entities, 0, newEntities, 0, size);
+		entities = newEntities;
+		float[] newPositions = new float[capacity * 4];
+		System.arraycopy(positions, 0, newPositions, 0, size * 4);
+		positions = newPositions;
+		float[] newLooks = new float[capacity * 4];
+		System.arraycopy(looks, 0, newLooks, 0, size * 4);
+		looks = newLooks;
+		int[] newLayers = new int[capacity];
+		System.arraycopy(layers, 0, newLayers, 0, size);
+		layers = newLayers;
+		int[] newFrames = new int[capacity];
+		System.arraycopy(frames, 0, newFrames, 0, size);
+		frames = newFrames;
+		boolean[] newVisible = new boolean[capacity];
+		System.arraycopy(visible, 0, newVisible, 0, size);
+		visible = newVisible;
+		boolean[] newFlash = new boolean[capacity];
+		System.arraycopy(flash, 0, newFlash, 0, size);
+		flash = newFlash;
+	}
+	
+}
@@ -0,0 +1,316 @@
+/*
+ * Copyright (c) 2012, Stefan Lange
+ * 
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ *     * Redistributions of source code must retain the above copyright notice,
+ *       this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of Stefan Lange nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package de.radicalfish.world.collision;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IdentityMap;
+import com.badlogic.gdx.utils.LongArray;
+import com.badlogic.gdx.utils.LongMap;
+import com.badlogic.gdx.utils.LongMap.Entry;
+import de.radicalfish.context.GameContext;
+import de.radicalfish.util.RadicalFishException;
+import de.radicalfish.world.CollisionManager;
+import de.radicalfish.world.Entity;
+import de.radicalfish.world.GameWorld;
+
+/**
+ * A {@link CollisionManager} for entity vs entity collision which sorts the entities into a uniform grid (a spatial
+ * hash). A cell is <code>cellTiles</code> x <code>cellTiles</code> tiles big, the size of a tile is taken from
+ * {@link GameWorld#getTileSize()}. Checking an entity only tests the entities in the cells its collision box touches,
+ * so the cost per entity stays the same no matter how many entities live in the world.
+ * <p>
+ * The grid is updated incrementally: every call to {@link #checkCollision(GameContext, GameWorld, Entity)} computes
+ * the collision box with {@link Entity#calculateCollisionBox(Rectangle)} and moves the entity to its new cells if
+ * needed. The intended use is to call it once per entity and frame, right after the entity was updated (like the
+ * entity systems do). A pair is only tested against entities which were already checked in the current pass, so both
+ * boxes are up to date and every overlapping pair is reported exactly once per pass: both entities get
+ * {@link Entity#onCollision(Entity)} when the second one is checked.
+ * <p>
+ * A new pass starts automatically as soon as an entity gets checked the second time, or explicitly with
+ * {@link #nextPass()}. Every new pass sweeps the grid: entities which are dead or weren't checked during the last pass
+ * (e.g. because they were removed from the world) get dropped together with cells which became empty, so the grid
+ * never holds on to old entities. Entities which can't collide are removed when they get checked,
+ * {@link #remove(Entity)} removes an entity right away.
+ * 
+ * @author Stefan Lange
+ * @version 1.0.0
+ * @since 18.10.2026
+ */
+public class SpatialHashCollisionManager implements CollisionManager {
+	
+	/** The default size of a cell in tiles. */
+	public static final int DEFAULT_CELL_TILES = 2;
+	
+	private final int cellTiles;
+	private int cellSize;
+	
+	private final IdentityMap<Entity, Proxy> proxies;
+	private final LongMap<Array<Proxy>> cells;
+	private final Array<Proxy> staleProxies = new Array<Proxy>(false, 16);
+	private final LongArray emptyCells = new LongArray(false, 16);
+	
+	private int pass = 1, query;
+	private int pairs, lastPairs;
+	
+	/**
+	 * Creates a new {@link SpatialHashCollisionManager} with cells of {@link #DEFAULT_CELL_TILES} tiles.
+	 */
+	public SpatialHashCollisionManager() {
+		this(DEFAULT_CELL_TILES);
+	}
+	/**
+	 * Creates a new {@link SpatialHashCollisionManager}.
+	 * 
+	 * @param cellTiles
+	 *            the width and height of a cell in tiles. Cells should be about as big as the common entity.
+	 */
+	public SpatialHashCollisionManager(int cellTiles) {
+		if (cellTiles <= 0) {
+			throw new RadicalFishException("cellTiles must be greater than 0!");
+		}
+		this.cellTiles = cellTiles;
+		proxies = new IdentityMap<Entity, Proxy>();
+		cells = new LongMap<Array<Proxy>>();
+	}
+	
+	// METHODS
+	// 
+	public boolean checkCollision(GameContext context, GameWorld world, Entity entity) {
+		return checkCollision(context, world, entity, true);
+	}
+	/**
+	 * Moves <code>entity</code> to its current cells and reports all overlaps with entities checked before in this
+	 * pass.
+	 * 
+	 * @return true if at least one overlapping pair with <code>entity</code> was reported by this call.
+	 */
+	public boolean checkCollision(GameContext context, GameWorld world, Entity entity, boolean invokeCallbacks) {
+		if (!entity.isAlive() || !entity.canCollide()) {
+			remove(entity);
+			return false;
+		}
+		int size = world.getTileSize() * cellTiles;
+		if (size != cellSize) {
+			clear();
+			cellSize = size;
+		}
+		
+		Proxy proxy = proxies.get(entity);
+		if (proxy == null) {
+			proxy = new Proxy(entity);
+			proxies.put(entity, proxy);
+		}
+		if (proxy.pass == pass) {
+			nextPass();
+		}
+		proxy.pass = pass;
+		move(proxy);
+		
+		// test the entities of all touched cells, every entity only once
+		query++;
+		boolean collided = false;
+		for (int cy = proxy.cellY; cy <= proxy.cellY2; cy++) {
+			for (int cx = proxy.cellX; cx <= proxy.cellX2; cx++) {
+				Array<Proxy> cell = cells.get(key(cx, cy));
+				for (int i = cell.size - 1; i >= 0; i--) {
+					Proxy other = cell.get(i);
+					if (other == proxy || other.query == query) {
+						continue;
+					}
+					other.query = query;
+					if (other.pass < pass - 1 || !other.entity.isAlive()) {
+						removeProxy(other);
+						continue;
+					}
+					if (other.pass != pass || !proxy.box.overlaps(other.box)) {
+						continue;
+					}
+					collided = true;
+					pairs++;
+					if (invokeCallbacks) {
+						entity.onCollision(other.entity);
+						other.entity.onCollision(entity);
+					}
+				}
+			}
+		}
+		return collided;
+	}
+	
+	/**
+	 * Starts a new pass, every entity can collide again. Entities which are dead or weren't checked during the last
+	 * pass and empty cells get removed.
+	 */
+	public void nextPass() {
+		pass++;
+		lastPairs = pairs;
+		pairs = 0;
+		sweep();
+	}
+	/**
+	 * Removes <code>entity</code> from the grid.
+	 */
+	public void remove(Entity entity) {
+		Proxy proxy = proxies.get(entity);
+		if (proxy != null) {
+			removeProxy(proxy);
+		}
+	}
+	/**
+	 * Removes all entities and cells.
+	 */
+	public void clear() {
+		proxies.clear();
+		cells.clear();
+	}
+	
+	// GETTER
+	// 
+	/**
+	 * @return the number of pairs reported in the last completed pass.
+	 */
+	public int getPairCount() {
+		return lastPairs;
+	}
+	/**
+	 * @return the number of entities in the grid.
+	 */
+	public int getEntityCount() {
+		return proxies.size;
+	}
+	/**
+	 * @return the number of cells which were used so far.
+	 */
+	public int getCellCount() {
+		return cells.size;
+	}
+	/**
+	 * @return the width and height of a cell in tiles.
+	 */
+	public int getCellTiles() {
+		return cellTiles;
+	}
+	
+	// INTERN
+	// 
+	private void move(Proxy proxy) {
+		proxy.entity.calculateCollisionBox(proxy.box);
+		Rectangle box = proxy.box;
+		int cx = cell(box.x), cy = cell(box.y);
+		int cx2 = cell(box.x + box.width), cy2 = cell(box.y + box.height);
+		if (proxy.inserted && cx == proxy.cellX && cy == proxy.cellY && cx2 == proxy.cellX2 && cy2 == proxy.cellY2) {
+			return;
+		}
+		if (proxy.inserted) {
+			removeFromCells(proxy);
+		}
+		proxy.cellX = cx;
+		proxy.cellY = cy;
+		proxy.cellX2 = cx2;
+		proxy.cellY2 = cy2;
+		for (int j = cy; j <= cy2; j++) {
+			for (int i = cx; i <= cx2; i++) {
+				long key = key(i, j);
+				Array<Proxy> cell = cells.get(key);
+				if (cell == null) {
+					cell = new Array<Proxy>(false, 8);
+					cells.put(key, cell);
+				}
+				cell.add(proxy);
+			}
+		}
+		proxy.inserted = true;
+	}
+	private void sweep() {
+		// collected first, removing while iterating can skip entries of the stash
+		for (Proxy proxy : proxies.values()) {
+			if (proxy.pass < pass - 1 || !proxy.entity.isAlive()) {
+				staleProxies.add(proxy);
+			}
+		}
+		for (int i = 0; i < staleProxies.size; i++) {
+			removeProxy(staleProxies.get(i));
+		}
+		staleProxies.clear();
+		
+		for (Entry<Array<Proxy>> entry : cells.entries()) {
+			if (entry.value.size == 0) {
+				emptyCells.add(entry.key);
+			}
+		}
+		for (int i = 0; i < emptyCells.size; i++) {
+			cells.remove(emptyCells.get(i));
+		}
+		emptyCells.clear();
+	}
+	private void removeProxy(Proxy proxy) {
+		if (proxy.inserted) {
+			removeFromCells(proxy);
+		}
+		proxies.remove(proxy.entity);
+	}
+	private void removeFromCells(Proxy proxy) {
+		for (int j = proxy.cellY; j <= proxy.cellY2; j++) {
+			for (int i = proxy.cellX; i <= proxy.cellX2; i++) {
+				Array<Proxy> cell = cells.get(key(i, j));
+				if (cell != null) {
+					cell.removeValue(proxy, true);
+				}
+			}
+		}
+		proxy.inserted = false;
+	}
+	private int cell(float value) {
+		return (int) Math.floor(value / cellSize);
+	}
+	private static long key(int x, int y) {
+		return ((long) x << 32) | (y & 0xFFFFFFFFL);
+	}
+	
+	// INTERN CLASSES
+	// 
+	/**
+	 * The state of an entity in the grid.
+	 */
+	private static class Proxy {
+		
+		private final Entity entity;
+		private final Rectangle box = new Rectangle();
+		private int cellX, cellY, cellX2, cellY2;
+		private boolean inserted;
+		private int pass, query;
+		
+		public Proxy(Entity entity) {
+			this.entity = entity;
+		}
+		
+	}
+	
+}
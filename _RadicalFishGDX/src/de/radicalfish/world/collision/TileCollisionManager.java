@@ -0,0 +1,254 @@
+/*
+ * Copyright (c) 2012, Stefan Lange
+ * 
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ *     * Redistributions of source code must retain the above copyright notice,
+ *       this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of Stefan Lange nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package de.radicalfish.world.collision;
+import com.badlogic.gdx.math.Rectangle;
+import de.radicalfish.context.GameContext;
+import de.radicalfish.world.CollisionManager;
+import de.radicalfish.world.Entity;
+import de.radicalfish.world.GameWorld;
+import de.radicalfish.world.map.ChunkedLayer;
+import de.radicalfish.world.map.Layer;
+import de.radicalfish.world.map.Map;
+import de.radicalfish.world.map.RegionMap;
+import de.radicalfish.world.map.Tile;
+
+/**
+ * A {@link CollisionManager} which stops entities at solid tiles of the collision layer of the current {@link Map}.
+ * The move of an entity since its last update (from {@link Entity#getOldPosition()} to {@link Entity#getPosition()})
+ * is swept along the x axis first and the y axis second. For each axis only the tile cells the leading edge of the
+ * collision box passes are tested, so the cost depends on the number of tiles an edge crosses and not on the number of
+ * pixels. Fast entities can't tunnel through thin walls since every column (or row) in between is tested.
+ * <p>
+ * If a solid tile is hit, the entity gets placed right next to it and {@link Entity#onMapCollision(int, int, int)} is
+ * called with the id and the position of the tile. The velocity is not touched, that's up to the entity. Tiles
+ * outside of the map and cells without a tile are never solid, which tile ids are solid can be changed by overriding
+ * {@link #isSolid(int)}. Collision layers which are {@link ChunkedLayer}s (also the ones of the regions of a
+ * {@link RegionMap}) are read by id, other layers through their {@link Tile} objects.
+ * <p>
+ * All state lives in the instance, so every world (or thread) should use its own manager.
+ * 
+ * @author Stefan Lange
+ * @version 1.0.0
+ * @since 18.10.2026
+ */
+public class TileCollisionManager implements CollisionManager {
+	
+	private final Rectangle box = new Rectangle();
+	
+	private Map map;
+	private ChunkedLayer chunked;
+	private RegionMap regions;
+	private int tileSize, mapWidth, mapHeight;
+	
+	private int hitID, hitX, hitY;
+	private int testedTiles;
+	
+	// METHODS
+	// 
+	public boolean checkCollision(GameContext context, GameWorld world, Entity entity) {
+		return checkCollision(context, world, entity, true);
+	}
+	public boolean checkCollision(GameContext context, GameWorld world, Entity entity, boolean invokeCallbacks) {
+		if (!entity.canCollide() || world.getMap() == null) {
+			return false;
+		}
+		prepare(world);
+		
+		float offsetX = entity.getOffsetX(), offsetY = entity.getOffsetY();
+		float width = entity.getCollisionWidth(), height = entity.getCollisionHeight();
+		float x = entity.getOldPositionX() + offsetX, y = entity.getOldPositionY() + offsetY;
+		float targetX = entity.getPositionX() + offsetX, targetY = entity.getPositionY() + offsetY;
+		boolean collided = false;
+		
+		// x axis with the old y
+		box.set(x, y, width, height);
+		if (targetX != x) {
+			float resolved = sweepX(box, targetX);
+			if (resolved != targetX) {
+				collided = true;
+				if (invokeCallbacks) {
+					entity.onMapCollision(hitID, hitX, hitY);
+				}
+			}
+			box.x = resolved;
+		}
+		
+		// y axis with the resolved x
+		if (targetY != y) {
+			float resolved = sweepY(box, targetY);
+			if (resolved != targetY) {
+				collided = true;
+				if (invokeCallbacks) {
+					entity.onMapCollision(hitID, hitX, hitY);
+				}
+			}
+			box.y = resolved;
+		} else {
+			box.y = targetY;
+		}
+		
+		if (collided) {
+			entity.setPosition(box.x - offsetX, box.y - offsetY);
+			entity.calculateCollisionBox(entity.getCollisionBox());
+		}
+		return collided;
+	}
+	
+	/**
+	 * Resets the counter of tested tile cells.
+	 */
+	public void resetTestedTiles() {
+		testedTiles = 0;
+	}
+	
+	// GETTER
+	// 
+	/**
+	 * @return the number of tile cells tested since the last call to {@link #resetTestedTiles()}.
+	 */
+	public int getTestedTiles() {
+		return testedTiles;
+	}
+	
+	// INTERN
+	// 
+	/**
+	 * @return true if a tile with <code>id</code> blocks entities. The default treats every id greater than 0 as solid
+	 *         (0 is air).
+	 */
+	protected boolean isSolid(int id) {
+		return id > 0;
+	}
+	
+	private void prepare(GameWorld world) {
+		map = world.getMap();
+		tileSize = world.getTileSize();
+		mapWidth = map.getTileWidth();
+		mapHeight = map.getTileHeight();
+		Layer layer = map.getCollisionLayer();
+		chunked = layer instanceof ChunkedLayer ? (ChunkedLayer) layer : null;
+		regions = map instanceof RegionMap ? (RegionMap) map : null;
+	}
+	/**
+	 * Moves <code>box</code> along the x axis to <code>targetX</code>.
+	 * 
+	 * @return the x position the box can move to.
+	 */
+	private float sweepX(Rectangle box, float targetX) {
+		int firstRow = (int) Math.floor(box.y / tileSize);
+		int lastRow = (int) Math.ceil((box.y + box.height) / tileSize) - 1;
+		if (targetX > box.x) {
+			// columns in front of the right edge, the column the edge is in is already occupied
+			int first = (int) Math.ceil((box.x + box.width) / tileSize);
+			int last = (int) Math.ceil((targetX + box.width) / tileSize) - 1;
+			for (int column = first; column <= last; column++) {
+				if (hitColumn(column, firstRow, lastRow)) {
+					return column * tileSize - box.width;
+				}
+			}
+		} else {
+			int first = (int) Math.floor(box.x / tileSize) - 1;
+			int last = (int) Math.floor(targetX / tileSize);
+			for (int column = first; column >= last; column--) {
+				if (hitColumn(column, firstRow, lastRow)) {
+					return (column + 1) * tileSize;
+				}
+			}
+		}
+		return targetX;
+	}
+	/**
+	 * Moves <code>box</code> along the y axis to <code>targetY</code>.
+	 * 
+	 * @return the y position the box can move to.
+	 */
+	private float sweepY(Rectangle box, float targetY) {
+		int firstColumn = (int) Math.floor(box.x / tileSize);
+		int lastColumn = (int) Math.ceil((box.x + box.width) / tileSize) - 1;
+		if (targetY > box.y) {
+			int first = (int) Math.ceil((box.y + box.height) / tileSize);
+			int last = (int) Math.ceil((targetY + box.height) / tileSize) - 1;
+			for (int row = first; row <= last; row++) {
+				if (hitRow(row, firstColumn, lastColumn)) {
+					return row * tileSize - box.height;
+				}
+			}
+		} else {
+			int first = (int) Math.floor(box.y / tileSize) - 1;
+			int last = (int) Math.floor(targetY / tileSize);
+			for (int row = first; row >= last; row--) {
+				if (hitRow(row, firstColumn, lastColumn)) {
+					return (row + 1) * tileSize;
+				}
+			}
+		}
+		return targetY;
+	}
+	private boolean hitColumn(int column, int firstRow, int lastRow) {
+		for (int row = firstRow; row <= lastRow; row++) {
+			if (hit(column, row)) {
+				return true;
+			}
+		}
+		return false;
+	}
+	private boolean hitRow(int row, int firstColumn, int lastColumn) {
+		for (int column = firstColumn; column <= lastColumn; column++) {
+			if (hit(column, row)) {
+				return true;
+			}
+		}
+		return false;
+	}
+	private boolean hit(int x, int y) {
+		testedTiles++;
+		if (x < 0 || y < 0 || x >= mapWidth || y >= mapHeight) {
+			return false;
+		}
+		int id;
+		if (chunked != null) {
+			id = x < chunked.getWidth() && y < chunked.getHeight() ? chunked.getTileIDAt(x, y) : -1;
+		} else if (regions != null) {
+			// the regions have their own collision layers, usually int layers which would create a tile per cell
+			id = regions.getCollisionTileIDAt(x, y);
+		} else {
+			Tile tile = map.getCollisionTileAt(x, y);
+			id = tile == null ? -1 : tile.getTileID();
+		}
+		if (!isSolid(id)) {
+			return false;
+		}
+		hitID = id;
+		hitX = x;
+		hitY = y;
+		return true;
+	}
+	
+}
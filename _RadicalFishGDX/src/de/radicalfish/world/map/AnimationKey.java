@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2012, Stefan Lange
+ * 
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ *     * Redistributions of source code must retain the above copyright notice,
+ *       this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of Stefan Lange nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package de.radicalfish.world.map;
+import java.util.Arrays;
+
+/**
+ * The data of a distinct {@link AnimatedTile} animation: frame times, indexes and ping-pong. Two keys are equal if
+ * their data is equal. Used to share animations between tiles by the {@link MapIO} class and {@link TileAnimations}.
+ * The arrays get copied, so later changes to the tile don't change the key.
+ * 
+ * @author Stefan Lange
+ * @version 1.0.0
+ * @since 18.10.2026
+ */
+class AnimationKey {
+	
+	final int[] times, indexes;
+	final boolean pingPong;
+	private final int hash;
+	
+	public AnimationKey(int[] times, int[] indexes, boolean pingPong) {
+		this.times = times.clone();
+		this.indexes = indexes.clone();
+		this.pingPong = pingPong;
+		this.hash = (Arrays.hashCode(times) * 31 + Arrays.hashCode(indexes)) * 31 + (pingPong ? 1 : 0);
+	}
+	
+	public int hashCode() {
+		return hash;
+	}
+	public boolean equals(Object obj) {
+		if (!(obj instanceof AnimationKey)) {
+			return false;
+		}
+		AnimationKey other = (AnimationKey) obj;
+		return pingPong == other.pingPong && Arrays.equals(times, other.times) && Arrays.equals(indexes, other.indexes);
+	}
+	
+}
@@ -0,0 +1,451 @@
+/*
+ * Copyright (c) 2012, Stefan Lange
+ * 
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ *     * Redistributions of source code must retain the above copyright notice,
+ *       this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of Stefan Lange nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package de.radicalfish.world.map;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.IntMap;
+import de.radicalfish.context.GameContext;
+import de.radicalfish.context.GameDelta;
+import de.radicalfish.graphics.Graphics;
+import de.radicalfish.util.RadicalFishException;
+import de.radicalfish.world.Camera;
+import de.radicalfish.world.GameWorld;
+
+/**
+ * A {@link Layer} which splits its tiles into square chunks of <code>chunkSize</code> x <code>chunkSize</code> tiles.
+ * When rendering, only the chunks intersecting the visible area of the camera get touched, so the cost of a frame
+ * depends on the size of the screen and not on the size of the map. Chunks without any tile are skipped entirely.
+ * <p>
+ * The visible area is computed from {@link Camera#getCurrent()} and the game size from
+ * {@link GameContext#getGameWidth()} and {@link GameContext#getGameHeight()}. If the world has no camera, the whole
+ * layer will be rendered. Tiles are drawn by their id from the {@link TileSet} via the {@link SpriteBatch} of the
+ * {@link Graphics} object, which must be started. Tiles with an id below 0 are treated as empty.
+ * <p>
+ * A layer can be placed somewhere else in the world with {@link #setOrigin(int, int)}, e.g. if it's only a part of a
+ * bigger map like the regions of a {@link RegionMap}. The tiles are still addressed from 0, 0.
+ * <p>
+ * With {@link #setCache(LayerCache)} the chunks get built once into a static vertex buffer and are drawn from there,
+ * see {@link LayerCache}. Every chunk has a version which gets increased by {@link #setTileAt(int, int, int)} and
+ * {@link #setTileAt(int, int, Tile)}, so the cache knows which chunks to rebuild. If you change a {@link Tile} object
+ * directly, call {@link #invalidate()}.
+ * <p>
+ * A layer bound to {@link TileAnimations} (see {@link #setAnimations(TileAnimations)}) takes the ids of its
+ * {@link AnimatedTile}s from the shared animations and does nothing in update, the owner of the {@link TileAnimations}
+ * updates them once for all layers.
+ * 
+ * @author Stefan Lange
+ * @version 1.0.0
+ * @since 18.10.2026
+ */
+public class ChunkedLayer implements Layer {
+	
+	/** The default size of a chunk in tiles. */
+	public static final int DEFAULT_CHUNK_SIZE = 16;
+	
+	protected String name;
+	protected TileSet tileSet;
+	protected Tile[][] tiles;
+	
+	protected final int chunkSize;
+	protected int width, height;
+	protected int chunksAcross, chunksDown;
+	protected int[] chunkTiles;
+	protected int[] chunkVersions;
+	protected int version;
+	protected int originX, originY;
+	
+	protected int firstTileX, firstTileY, lastTileX, lastTileY;
+	protected int renderedChunks;
+	
+	protected LayerCache cache;
+	protected TileAnimations animations;
+	protected IntMap<TileAnimations.SharedAnimation> shared = new IntMap<TileAnimations.SharedAnimation>();
+	
+	/**
+	 * Creates a new empty {@link ChunkedLayer} with the default chunk size. This can be used by the {@link MapIO}
+	 * class.
+	 */
+	public ChunkedLayer() {
+		this(DEFAULT_CHUNK_SIZE);
+	}
+	/**
+	 * Creates a new empty {@link ChunkedLayer}.
+	 * 
+	 * @param chunkSize
+	 *            the width and height of a chunk in tiles
+	 */
+	public ChunkedLayer(int chunkSize) {
+		if (chunkSize <= 0) {
+			throw new RadicalFishException("chunkSize must be greater than 0!");
+		}
+		this.chunkSize = chunkSize;
+		this.chunkTiles = new int[0];
+		this.chunkVersions = new int[0];
+	}
+	/**
+	 * Creates a new {@link ChunkedLayer}.
+	 * 
+	 * @param name
+	 *            the name of the layer
+	 * @param tileSet
+	 *            the {@link TileSet} to draw the tiles from
+	 * @param tiles
+	 *            the tiles of the layer in the form [x][y]
+	 * @param chunkSize
+	 *            the width and height of a chunk in tiles
+	 */
+	public ChunkedLayer(String name, TileSet tileSet, Tile[][] tiles, int chunkSize) {
+		this(chunkSize);
+		this.name = name;
+		this.tileSet = tileSet;
+		setTiles(tiles);
+	}
+	
+	// METHODS
+	// 
+	public void update(GameContext context, GameWorld world, GameDelta delta) {
+		if (tiles == null || animations != null) {
+			return;
+		}
+		for (int i = 0; i < width; i++) {
+			for (int j = 0; j < height; j++) {
+				if (tiles[i][j] != null) {
+					tiles[i][j].update(context, world, delta);
+				}
+			}
+		}
+	}
+	public void render(GameContext context, GameWorld world, Graphics g) {
+		renderedChunks = 0;
+		if (tileSet == null || width == 0 || height == 0) {
+			return;
+		}
+		if (cache != null) {
+			cache.render(this, context, world, g);
+			return;
+		}
+		
+		int tileSize = world.getTileSize();
+		computeVisibleArea(context, world.getCamera(), tileSize);
+		if (lastTileX < firstTileX || lastTileY < firstTileY) {
+			return;
+		}
+		
+		SpriteBatch batch = g.getSpriteBatch();
+		int lastChunkX = lastTileX / chunkSize, lastChunkY = lastTileY / chunkSize;
+		for (int cy = firstTileY / chunkSize; cy <= lastChunkY; cy++) {
+			for (int cx = firstTileX / chunkSize; cx <= lastChunkX; cx++) {
+				if (chunkTiles[cy * chunksAcross + cx] == 0) {
+					continue;
+				}
+				renderChunk(batch, cx, cy, tileSize);
+				renderedChunks++;
+			}
+		}
+	}
+	
+	/**
+	 * Marks all chunks as changed, so a {@link LayerCache} builds them again. Call this after changing {@link Tile}
+	 * objects of the layer directly.
+	 */
+	public void invalidate() {
+		version++;
+	}
+	
+	// INTERN
+	// 
+	/**
+	 * Computes the visible tile range (clamped to the layer bounds) and stores it in <code>firstTileX</code>,
+	 * <code>firstTileY</code>, <code>lastTileX</code> and <code>lastTileY</code>.
+	 */
+	protected void computeVisibleArea(GameContext context, Camera camera, int tileSize) {
+		if (camera == null || tileSize <= 0) {
+			firstTileX = firstTileY = 0;
+			lastTileX = width - 1;
+			lastTileY = height - 1;
+			return;
+		}
+		float x = camera.getCurrentX() - originX * tileSize, y = camera.getCurrentY() - originY * tileSize;
+		firstTileX = Math.max(0, (int) Math.floor(x / tileSize));
+		firstTileY = Math.max(0, (int) Math.floor(y / tileSize));
+		lastTileX = Math.min(width - 1, (int) Math.floor((x + context.getGameWidth() - 1) / tileSize));
+		lastTileY = Math.min(height - 1, (int) Math.floor((y + context.getGameHeight() - 1) / tileSize));
+	}
+	/**
+	 * Renders the visible part of the chunk at <code>cx</code>, <code>cy</code> (in chunk coordinates).
+	 */
+	protected void renderChunk(SpriteBatch batch, int cx, int cy, int tileSize) {
+		int startX = Math.max(cx * chunkSize, firstTileX), endX = Math.min((cx + 1) * chunkSize - 1, lastTileX);
+		int startY = Math.max(cy * chunkSize, firstTileY), endY = Math.min((cy + 1) * chunkSize - 1, lastTileY);
+		
+		TextureRegion region;
+		int id;
+		for (int y = startY; y <= endY; y++) {
+			for (int x = startX; x <= endX; x++) {
+				id = getTileIDAt(x, y);
+				if (id < 0) {
+					continue;
+				}
+				region = tileSet.getTileAt(id);
+				batch.draw(region, (originX + x) * tileSize, (originY + y) * tileSize);
+			}
+		}
+	}
+	
+	/**
+	 * @return true if the cell at <code>x</code>, <code>y</code> holds an {@link AnimatedTile}.
+	 */
+	public boolean isAnimatedAt(int x, int y) {
+		return tiles[x][y] instanceof AnimatedTile;
+	}
+	/**
+	 * @return the id of the tile at <code>x</code>, <code>y</code> or -1 if there is no tile.
+	 */
+	public int getTileIDAt(int x, int y) {
+		Tile tile = tiles[x][y];
+		if (tile == null) {
+			return -1;
+		}
+		if (animations != null && tile instanceof AnimatedTile) {
+			return shared.get(y * width + x).getTileID();
+		}
+		return tile.getTileID();
+	}
+	/**
+	 * Recreates the chunk grid for a layer of <code>width</code> x <code>height</code> tiles. All chunks will be
+	 * empty.
+	 */
+	protected void resize(int width, int height) {
+		this.width = width;
+		this.height = height;
+		chunksAcross = (width + chunkSize - 1) / chunkSize;
+		chunksDown = (height + chunkSize - 1) / chunkSize;
+		chunkTiles = new int[chunksAcross * chunksDown];
+		chunkVersions = new int[chunksAcross * chunksDown];
+		shared.clear();
+		version++;
+	}
+	/**
+	 * Adds <code>amount</code> to the tile count of the chunk containing the tile at <code>x</code>, <code>y</code>.
+	 */
+	protected void countTile(int x, int y, int amount) {
+		chunkTiles[(y / chunkSize) * chunksAcross + x / chunkSize] += amount;
+	}
+	/**
+	 * Registers all {@link AnimatedTile}s of the layer at the bound {@link TileAnimations}.
+	 */
+	protected void registerAnimations() {
+		shared.clear();
+		if (animations == null || tiles == null) {
+			return;
+		}
+		for (int i = 0; i < width; i++) {
+			for (int j = 0; j < height; j++) {
+				registerAnimation(i, j, tiles[i][j]);
+			}
+		}
+	}
+	/**
+	 * Registers <code>tile</code> at the bound {@link TileAnimations} for the cell at <code>x</code>, <code>y</code>
+	 * if it's an {@link AnimatedTile} or removes the cell from the shared animations if not.
+	 */
+	protected void registerAnimation(int x, int y, Tile tile) {
+		if (animations == null) {
+			return;
+		}
+		if (tile instanceof AnimatedTile) {
+			shared.put(y * width + x, animations.register((AnimatedTile) tile));
+		} else {
+			shared.remove(y * width + x);
+		}
+	}
+	/**
+	 * Increases the version of the chunk containing the tile at <code>x</code>, <code>y</code>.
+	 */
+	protected void touchTile(int x, int y) {
+		chunkVersions[(y / chunkSize) * chunksAcross + x / chunkSize]++;
+	}
+	
+	// GETTER
+	// 
+	public String getName() {
+		return name;
+	}
+	public TileSet getTileSet() {
+		return tileSet;
+	}
+	public Tile[][] getTiles() {
+		return tiles;
+	}
+	public Tile getTileAt(int x, int y) {
+		return tiles[x][y];
+	}
+	
+	/**
+	 * @return the width and height of a chunk in tiles.
+	 */
+	public int getChunkSize() {
+		return chunkSize;
+	}
+	/**
+	 * @return the number of chunks on the x axis.
+	 */
+	public int getChunksAcross() {
+		return chunksAcross;
+	}
+	/**
+	 * @return the number of chunks on the y axis.
+	 */
+	public int getChunksDown() {
+		return chunksDown;
+	}
+	/**
+	 * @return the version of the chunk at <code>cx</code>, <code>cy</code> (in chunk coordinates). Changes whenever a
+	 *         tile in the chunk gets set.
+	 */
+	public int getChunkVersion(int cx, int cy) {
+		return chunkVersions[cy * chunksAcross + cx];
+	}
+	/**
+	 * @return the version of the whole layer. Changes when the size, the tile set or the origin changes or
+	 *         {@link #invalidate()} gets called.
+	 */
+	public int getVersion() {
+		return version;
+	}
+	/**
+	 * @return the shared animations the layer is bound to or null.
+	 */
+	public TileAnimations getAnimations() {
+		return animations;
+	}
+	/**
+	 * @return the cache the layer gets drawn with or null.
+	 */
+	public LayerCache getCache() {
+		return cache;
+	}
+	/**
+	 * @return the number of chunks drawn in the last call to render.
+	 */
+	public int getRenderedChunks() {
+		return renderedChunks;
+	}
+	/**
+	 * @return the width of the layer in tiles.
+	 */
+	public int getWidth() {
+		return width;
+	}
+	/**
+	 * @return the height of the layer in tiles.
+	 */
+	public int getHeight() {
+		return height;
+	}
+	/**
+	 * @return the x position of the layer in the world in tiles.
+	 */
+	public int getOriginX() {
+		return originX;
+	}
+	/**
+	 * @return the y position of the layer in the world in tiles.
+	 */
+	public int getOriginY() {
+		return originY;
+	}
+	
+	// SETTER
+	// 
+	public void setName(String name) {
+		this.name = name;
+	}
+	public void setTileSet(TileSet set) {
+		this.tileSet = set;
+		version++;
+	}
+	/**
+	 * Places the layer at <code>x</code>, <code>y</code> (in tiles) in the world. The default is 0, 0.
+	 */
+	public void setOrigin(int x, int y) {
+		this.originX = x;
+		this.originY = y;
+		version++;
+	}
+	/**
+	 * Sets the {@link LayerCache} to draw the layer with, null draws every tile with the {@link SpriteBatch} each frame
+	 * (the default). A cache should only be used by one layer.
+	 */
+	public void setCache(LayerCache cache) {
+		this.cache = cache;
+	}
+	/**
+	 * Binds the layer to <code>animations</code>: all {@link AnimatedTile}s get registered there and show the frame of
+	 * their shared animation, the layer won't update them anymore. null goes back to updating every animated tile in
+	 * {@link #update(GameContext, GameWorld, GameDelta)}. Call it again if you change the animation data of a tile.
+	 */
+	public void setAnimations(TileAnimations animations) {
+		this.animations = animations;
+		registerAnimations();
+	}
+	
+	public void setTiles(Tile[][] tiles) {
+		this.tiles = tiles;
+		if (tiles == null || tiles.length == 0) {
+			resize(0, 0);
+			return;
+		}
+		resize(tiles.length, tiles[0].length);
+		for (int i = 0; i < width; i++) {
+			for (int j = 0; j < height; j++) {
+				if (tiles[i][j] != null) {
+					countTile(i, j, 1);
+				}
+			}
+		}
+		registerAnimations();
+	}
+	public void setTileAt(int x, int y, int id) {
+		tiles[x][y].setTileID(id);
+		touchTile(x, y);
+	}
+	public void setTileAt(int x, int y, Tile tile) {
+		if (tiles[x][y] == null && tile != null) {
+			countTile(x, y, 1);
+		} else if (tiles[x][y] != null && tile == null) {
+			countTile(x, y, -1);
+		}
+		tiles[x][y] = tile;
+		registerAnimation(x, y, tile);
+		touchTile(x, y);
+	}
+	
+}
@@ -0,0 +1,326 @@
+/*
+ * Copyright (c) 2012, Stefan Lange
+ * 
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ *     * Redistributions of source code must retain the above copyright notice,
+ *       this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of Stefan Lange nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package de.radicalfish.world.map;
+import java.util.Arrays;
+import com.badlogic.gdx.utils.IntMap;
+import de.radicalfish.context.GameContext;
+import de.radicalfish.context.GameDelta;
+import de.radicalfish.graphics.Graphics;
+import de.radicalfish.util.RadicalFishException;
+import de.radicalfish.world.GameWorld;
+
+/**
+ * A {@link ChunkedLayer} which stores the tile ids in one flat <code>int[]</code> (row by row) instead of one
+ * {@link Tile} object per cell. Only cells holding an {@link AnimatedTile} keep their tile object, so a layer of
+ * 1024x1024 tiles costs about 4 MB instead of millions of objects. Update only touches the animated tiles.
+ * <p>
+ * Since there are no tile objects for plain cells, {@link #getTileAt(int, int)} returns a new small tile bound to the
+ * cell which reads and writes the id of the cell, so hot loops should use {@link #getTileIDAt(int, int)} instead.
+ * Empty cells return null like in every other layer, negative ids are stored as empty cells like
+ * {@link ChunkedLayer} draws them. {@link #getTiles()} creates a copy of the data made of {@link SimpleTile}s and
+ * should only be used for tools.
+ * 
+ * @author Stefan Lange
+ * @version 1.0.0
+ * @since 18.10.2026
+ */
+public class IntArrayLayer extends ChunkedLayer {
+	
+	/** The id stored for cells without a tile. */
+	public static final int EMPTY = -1;
+	/** The id stored for cells which hold an {@link AnimatedTile}. */
+	protected static final int ANIMATED = -2;
+	
+	protected int[] ids;
+	protected IntMap<Tile> animated;
+	
+	/**
+	 * Creates a new empty {@link IntArrayLayer} with the default chunk size. This can be used by the {@link MapIO}
+	 * class.
+	 */
+	public IntArrayLayer() {
+		this(DEFAULT_CHUNK_SIZE);
+	}
+	/**
+	 * Creates a new empty {@link IntArrayLayer}.
+	 * 
+	 * @param chunkSize
+	 *            the width and height of a chunk in tiles
+	 */
+	public IntArrayLayer(int chunkSize) {
+		super(chunkSize);
+		ids = new int[0];
+		animated = new IntMap<Tile>();
+	}
+	/**
+	 * Creates a new {@link IntArrayLayer} with all cells being empty.
+	 * 
+	 * @param name
+	 *            the name of the layer
+	 * @param tileSet
+	 *            the {@link TileSet} to draw the tiles from
+	 * @param width
+	 *            the width of the layer in tiles
+	 * @param height
+	 *            the height of the layer in tiles
+	 * @param chunkSize
+	 *            the width and height of a chunk in tiles
+	 */
+	public IntArrayLayer(String name, TileSet tileSet, int width, int height, int chunkSize) {
+		this(chunkSize);
+		this.name = name;
+		this.tileSet = tileSet;
+		setSize(width, height);
+	}
+	
+	// METHODS
+	// 
+	public void update(GameContext context, GameWorld world, GameDelta delta) {
+		if (animated.size == 0 || animations != null) {
+			return;
+		}
+		for (Tile tile : animated.values()) {
+			tile.update(context, world, delta);
+		}
+	}
+	
+	/**
+	 * Resizes the layer to <code>width</code> x <code>height</code> tiles. All cells will be empty afterwards.
+	 */
+	public void setSize(int width, int height) {
+		if (width < 0 || height < 0) {
+			throw new RadicalFishException("the size of a layer can not be negative!");
+		}
+		resize(width, height);
+		ids = new int[width * height];
+		Arrays.fill(ids, EMPTY);
+		animated.clear();
+	}
+	
+	// GETTER
+	// 
+	/**
+	 * @return a new array of {@link SimpleTile}s (and the {@link AnimatedTile}s of this layer) in the form [x][y].
+	 *         Changes to the array will not affect the layer.
+	 */
+	public Tile[][] getTiles() {
+		Tile[][] tiles = new Tile[width][height];
+		int id;
+		for (int i = 0; i < width; i++) {
+			for (int j = 0; j < height; j++) {
+				id = ids[j * width + i];
+				if (id == ANIMATED) {
+					tiles[i][j] = animated.get(j * width + i);
+				} else if (id != EMPTY) {
+					tiles[i][j] = new SimpleTile(id);
+				}
+			}
+		}
+		return tiles;
+	}
+	/**
+	 * Plain cells have no tile object, so this allocates a new tile bound to the cell on every call. Loops over many
+	 * cells should use {@link #getTileIDAt(int, int)} instead.
+	 * 
+	 * @return the {@link AnimatedTile} at <code>x</code>, <code>y</code>, a new tile bound to the cell or null if the
+	 *         cell is empty.
+	 */
+	public Tile getTileAt(int x, int y) {
+		checkBounds(x, y);
+		int index = y * width + x;
+		int id = ids[index];
+		if (id == EMPTY) {
+			return null;
+		}
+		if (id == ANIMATED) {
+			return animated.get(index);
+		}
+		return new CellTile(index);
+	}
+	public boolean isAnimatedAt(int x, int y) {
+		return ids[y * width + x] == ANIMATED;
+	}
+	public int getTileIDAt(int x, int y) {
+		int id = ids[y * width + x];
+		if (id == ANIMATED) {
+			if (animations != null) {
+				return shared.get(y * width + x).getTileID();
+			}
+			return animated.get(y * width + x).getTileID();
+		}
+		return id;
+	}
+	
+	/**
+	 * @return the number of cells holding an {@link AnimatedTile}.
+	 */
+	public int getAnimatedTileCount() {
+		return animated.size;
+	}
+	
+	// SETTER
+	// 
+	public void setTiles(Tile[][] tiles) {
+		if (tiles == null || tiles.length == 0) {
+			setSize(0, 0);
+			return;
+		}
+		setSize(tiles.length, tiles[0].length);
+		for (int i = 0; i < width; i++) {
+			for (int j = 0; j < height; j++) {
+				if (tiles[i][j] != null) {
+					setTileAt(i, j, tiles[i][j]);
+				}
+			}
+		}
+	}
+	/**
+	 * Sets the id of a tile at <code>x</code>, <code>y</code>. If the cell holds an {@link AnimatedTile} the id will be
+	 * passed to the tile like in other layers, otherwise it will be stored directly. An empty cell becomes a plain
+	 * tile. A negative id (e.g. {@link IntArrayLayer#EMPTY}) clears a plain cell.
+	 */
+	public void setTileAt(int x, int y, int id) {
+		checkBounds(x, y);
+		int index = y * width + x;
+		int old = ids[index];
+		if (old == ANIMATED) {
+			animated.get(index).setTileID(id);
+			touchTile(x, y);
+			return;
+		}
+		if (id < 0) {
+			id = EMPTY;
+		}
+		if (old == EMPTY && id != EMPTY) {
+			countTile(x, y, 1);
+		} else if (old != EMPTY && id == EMPTY) {
+			countTile(x, y, -1);
+		}
+		ids[index] = id;
+		touchTile(x, y);
+	}
+	/**
+	 * Changes the tile at <code>x</code>, <code>y</code>. Only {@link AnimatedTile}s will be kept, for every other tile
+	 * just the id is stored. null or a tile with a negative id clears the cell.
+	 */
+	public void setTileAt(int x, int y, Tile tile) {
+		checkBounds(x, y);
+		int index = y * width + x;
+		int old = ids[index];
+		if (old == ANIMATED) {
+			animated.remove(index);
+		}
+		if (tile != null && !(tile instanceof AnimatedTile) && tile.getTileID() < 0) {
+			tile = null;
+		}
+		registerAnimation(x, y, tile);
+		
+		if (tile == null) {
+			ids[index] = EMPTY;
+		} else if (tile instanceof AnimatedTile) {
+			ids[index] = ANIMATED;
+			animated.put(index, tile);
+		} else {
+			ids[index] = tile.getTileID();
+		}
+		
+		if (old == EMPTY && tile != null) {
+			countTile(x, y, 1);
+		} else if (old != EMPTY && tile == null) {
+			countTile(x, y, -1);
+		}
+		touchTile(x, y);
+	}
+	
+	// INTERN
+	// 
+	/**
+	 * Counts the tiles of every chunk again after the ids were written directly into the array (like the
+	 * {@link MapIO} class does). Invalid ids will throw an exception.
+	 */
+	protected void recount() {
+		version++;
+		Arrays.fill(chunkTiles, 0);
+		for (int j = 0; j < height; j++) {
+			for (int i = 0; i < width; i++) {
+				int index = j * width + i;
+				int id = ids[index];
+				if (id == EMPTY) {
+					continue;
+				}
+				if (id < EMPTY && (id != ANIMATED || !animated.containsKey(index))) {
+					throw new RadicalFishException("invalid tile id at " + i + ", " + j + ": " + id);
+				}
+				countTile(i, j, 1);
+			}
+		}
+		registerAnimations();
+	}
+	protected void registerAnimations() {
+		shared.clear();
+		if (animations == null) {
+			return;
+		}
+		for (IntMap.Entry<Tile> entry : animated.entries()) {
+			shared.put(entry.key, animations.register((AnimatedTile) entry.value));
+		}
+	}
+	private void checkBounds(int x, int y) {
+		if (x < 0 || y < 0 || x >= width || y >= height) {
+			throw new RadicalFishException("tile " + x + ", " + y + " is out of bounds (" + width + "x" + height + ")");
+		}
+	}
+	
+	// INTERN CLASSES
+	// 
+	/**
+	 * Tile which reads and writes the id of a single cell.
+	 */
+	private class CellTile implements Tile {
+		
+		private final int index;
+		
+		public CellTile(int index) {
+			this.index = index;
+		}
+		
+		public void update(GameContext context, GameWorld world, GameDelta delta) {}
+		public void render(GameContext context, GameWorld world, Graphics g) {}
+		
+		public int getTileID() {
+			return getTileIDAt(index % width, index / width);
+		}
+		public void setTileID(int id) {
+			setTileAt(index % width, index / width, id);
+		}
+		
+	}
+	
+}
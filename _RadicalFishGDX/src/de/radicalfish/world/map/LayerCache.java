@@ -0,0 +1,364 @@
+/*
+ * Copyright (c) 2012, Stefan Lange
+ * 
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ *     * Redistributions of source code must retain the above copyright notice,
+ *       this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of Stefan Lange nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package de.radicalfish.world.map;
+import java.util.Arrays;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL10;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.SpriteCache;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.IntArray;
+import de.radicalfish.context.GameContext;
+import de.radicalfish.graphics.Graphics;
+import de.radicalfish.util.RadicalFishException;
+import de.radicalfish.world.GameWorld;
+
+/**
+ * Draws a {@link ChunkedLayer} from static vertex buffers instead of sending every tile through the
+ * {@link SpriteBatch} each frame. Each visible chunk gets built once into a slot of a {@link SpriteCache} and is drawn
+ * from there with one call per texture, until a tile of the chunk changes (see {@link ChunkedLayer#getChunkVersion}).
+ * Cells holding an {@link AnimatedTile} are left out of the cache and drawn with the batch each frame on top, so the
+ * cache stays valid while they animate.
+ * <p>
+ * The cache has a fixed number of slots, each big enough for one chunk. Slots of chunks which went out of view get
+ * reused for new ones. If all slots are in use, the remaining chunks are drawn with the batch like without a cache. By
+ * default the number of slots is computed from the game size on the first render. The {@link SpriteCache} can hold at
+ * most 16383 tiles, so the chunk size times itself times the number of slots is capped to that.
+ * <p>
+ * To draw the cache the {@link SpriteBatch} gets ended and started again, so it must be started when the layer gets
+ * rendered. The cache is drawn with normal alpha blending. Use one cache per layer and dispose it when done.
+ * 
+ * @author Stefan Lange
+ * @version 1.0.0
+ * @since 18.10.2026
+ */
+public class LayerCache implements Disposable {
+	
+	private static final int MAX_TILES = 16383;
+	
+	private SpriteCache cache;
+	private ChunkedLayer layer;
+	private int layerVersion;
+	private int chunkSize;
+	
+	private int slots;
+	private int[] slotChunk, slotVersion, slotCacheID, slotCount, slotUsed;
+	private IntArray[] slotAnimated;
+	private int[] chunkSlot;
+	private IntArray uncached = new IntArray();
+	
+	private int frame;
+	private int builtChunks, cachedChunks;
+	
+	/**
+	 * Creates a new {@link LayerCache} which computes the number of slots from the game size.
+	 */
+	public LayerCache() {
+		this(0);
+	}
+	/**
+	 * Creates a new {@link LayerCache}.
+	 * 
+	 * @param slots
+	 *            the number of chunks the cache can hold at once, 0 to compute it from the game size
+	 */
+	public LayerCache(int slots) {
+		if (slots < 0) {
+			throw new RadicalFishException("slots can not be negative!");
+		}
+		this.slots = slots;
+	}
+	
+	// METHODS
+	// 
+	/**
+	 * Renders the visible chunks of <code>layer</code>. Gets called by {@link ChunkedLayer#render} if the cache was set
+	 * on the layer.
+	 */
+	public void render(ChunkedLayer layer, GameContext context, GameWorld world, Graphics g) {
+		int tileSize = world.getTileSize();
+		layer.computeVisibleArea(context, world.getCamera(), tileSize);
+		if (layer.lastTileX < layer.firstTileX || layer.lastTileY < layer.firstTileY) {
+			return;
+		}
+		if (cache == null || this.layer != layer || chunkSize != layer.chunkSize) {
+			bind(layer, context, tileSize);
+		}
+		if (layerVersion != layer.version || chunkSlot.length != layer.chunkTiles.length) {
+			reset(layer);
+		}
+		frame++;
+		builtChunks = cachedChunks = 0;
+		uncached.clear();
+		
+		SpriteBatch batch = g.getSpriteBatch();
+		batch.end();
+		cache.setProjectionMatrix(batch.getProjectionMatrix());
+		cache.setTransformMatrix(batch.getTransformMatrix());
+		
+		int lastChunkX = layer.lastTileX / chunkSize, lastChunkY = layer.lastTileY / chunkSize;
+		int firstChunkX = layer.firstTileX / chunkSize, firstChunkY = layer.firstTileY / chunkSize;
+		// mark the visible slots first, so they don't get taken by other chunks of this frame
+		for (int cy = firstChunkY; cy <= lastChunkY; cy++) {
+			for (int cx = firstChunkX; cx <= lastChunkX; cx++) {
+				int slot = chunkSlot[cy * layer.chunksAcross + cx];
+				if (slot != -1) {
+					slotUsed[slot] = frame;
+				}
+			}
+		}
+		
+		Gdx.gl.glEnable(GL10.GL_BLEND);
+		Gdx.gl.glBlendFunc(GL10.GL_SRC_ALPHA, GL10.GL_ONE_MINUS_SRC_ALPHA);
+		boolean drawing = false;
+		for (int cy = firstChunkY; cy <= lastChunkY; cy++) {
+			for (int cx = firstChunkX; cx <= lastChunkX; cx++) {
+				int chunk = cy * layer.chunksAcross + cx;
+				if (layer.chunkTiles[chunk] == 0) {
+					continue;
+				}
+				layer.renderedChunks++;
+				int slot = chunkSlot[chunk];
+				if (slot == -1 || slotVersion[slot] != layer.chunkVersions[chunk]) {
+					if (slot == -1) {
+						slot = findSlot();
+					}
+					if (slot == -1) {
+						uncached.add(chunk);
+						continue;
+					}
+					if (drawing) {
+						cache.end();
+						drawing = false;
+					}
+					build(slot, chunk, cx, cy, tileSize);
+				}
+				if (!drawing) {
+					cache.begin();
+					drawing = true;
+				}
+				if (slotCount[slot] > 0) {
+					cache.draw(slotCacheID[slot]);
+				}
+				cachedChunks++;
+			}
+		}
+		if (drawing) {
+			cache.end();
+		}
+		Gdx.gl.glDisable(GL10.GL_BLEND);
+		
+		batch.begin();
+		for (int i = 0; i < uncached.size; i++) {
+			int chunk = uncached.get(i);
+			layer.renderChunk(batch, chunk % layer.chunksAcross, chunk / layer.chunksAcross, tileSize);
+		}
+		drawAnimated(batch, firstChunkX, firstChunkY, lastChunkX, lastChunkY, tileSize);
+	}
+	/**
+	 * Throws away all built chunks, they get built again when they are visible.
+	 */
+	public void clear() {
+		if (layer != null) {
+			reset(layer);
+		}
+	}
+	public void dispose() {
+		if (cache != null) {
+			cache.dispose();
+			cache = null;
+		}
+		layer = null;
+	}
+	
+	// INTERN
+	// 
+	private void bind(ChunkedLayer layer, GameContext context, int tileSize) {
+		if (cache != null) {
+			cache.dispose();
+		}
+		this.layer = layer;
+		chunkSize = layer.chunkSize;
+		int tilesPerChunk = chunkSize * chunkSize;
+		if (tilesPerChunk > MAX_TILES) {
+			throw new RadicalFishException("the chunk size " + chunkSize + " is too big for a cache!");
+		}
+		int count = slots;
+		if (count == 0) {
+			int chunkPixels = Math.max(1, chunkSize * tileSize);
+			count = (context.getGameWidth() / chunkPixels + 2) * (context.getGameHeight() / chunkPixels + 2);
+		}
+		count = Math.max(1, Math.min(count, MAX_TILES / tilesPerChunk));
+		
+		cache = new SpriteCache(count * tilesPerChunk, true);
+		slotChunk = new int[count];
+		slotVersion = new int[count];
+		slotCacheID = new int[count];
+		slotCount = new int[count];
+		slotUsed = new int[count];
+		slotAnimated = new IntArray[count];
+		for (int i = 0; i < count; i++) {
+			slotAnimated[i] = new IntArray();
+		}
+		Arrays.fill(slotCacheID, -1);
+		reset(layer);
+	}
+	private void reset(ChunkedLayer layer) {
+		layerVersion = layer.version;
+		Arrays.fill(slotChunk, -1);
+		Arrays.fill(slotUsed, 0);
+		for (int i = 0; i < slotAnimated.length; i++) {
+			slotAnimated[i].clear();
+		}
+		if (chunkSlot == null || chunkSlot.length != layer.chunkTiles.length) {
+			chunkSlot = new int[layer.chunkTiles.length];
+		}
+		Arrays.fill(chunkSlot, -1);
+	}
+	/**
+	 * @return a slot not used in this frame (the least recently used one) or -1.
+	 */
+	private int findSlot() {
+		int found = -1;
+		for (int i = 0; i < slotChunk.length; i++) {
+			if (slotUsed[i] == frame) {
+				continue;
+			}
+			if (found == -1 || slotUsed[i] < slotUsed[found]) {
+				found = i;
+			}
+		}
+		if (found != -1) {
+			if (slotChunk[found] != -1) {
+				chunkSlot[slotChunk[found]] = -1;
+			}
+			slotUsed[found] = frame;
+		}
+		return found;
+	}
+	private void build(int slot, int chunk, int cx, int cy, int tileSize) {
+		TileSet tileSet = layer.tileSet;
+		IntArray animated = slotAnimated[slot];
+		animated.clear();
+		
+		if (slotCacheID[slot] == -1) {
+			cache.beginCache();
+		} else {
+			cache.beginCache(slotCacheID[slot]);
+		}
+		
+		int startX = cx * chunkSize, endX = Math.min(startX + chunkSize, layer.width);
+		int startY = cy * chunkSize, endY = Math.min(startY + chunkSize, layer.height);
+		int count = 0;
+		TextureRegion region = null;
+		for (int y = startY; y < endY; y++) {
+			for (int x = startX; x < endX; x++) {
+				if (layer.isAnimatedAt(x, y)) {
+					animated.add(y * layer.width + x);
+					continue;
+				}
+				int id = layer.getTileIDAt(x, y);
+				if (id < 0) {
+					continue;
+				}
+				region = tileSet.getTileAt(id);
+				cache.add(region, (layer.originX + x) * tileSize, (layer.originY + y) * tileSize);
+				count++;
+			}
+		}
+		
+		if (slotCacheID[slot] == -1) {
+			// the first build reserves room for a full chunk, a cache can't grow when rebuilt. the padding has no area
+			if (region == null) {
+				region = tileSet.getTileAt(0);
+			}
+			for (int i = count; i < chunkSize * chunkSize; i++) {
+				cache.add(region.getTexture(), 0, 0, 0, 0, 0, 0, 0, 0, 0);
+			}
+		}
+		slotCacheID[slot] = cache.endCache();
+		slotCount[slot] = count;
+		slotChunk[slot] = chunk;
+		slotVersion[slot] = layer.chunkVersions[chunk];
+		chunkSlot[chunk] = slot;
+		builtChunks++;
+	}
+	private void drawAnimated(SpriteBatch batch, int firstChunkX, int firstChunkY, int lastChunkX, int lastChunkY,
+			int tileSize) {
+		for (int cy = firstChunkY; cy <= lastChunkY; cy++) {
+			for (int cx = firstChunkX; cx <= lastChunkX; cx++) {
+				int chunk = cy * layer.chunksAcross + cx;
+				int slot = chunkSlot[chunk];
+				if (slot == -1 || slotVersion[slot] != layer.chunkVersions[chunk]) {
+					continue;
+				}
+				IntArray animated = slotAnimated[slot];
+				for (int i = 0; i < animated.size; i++) {
+					int index = animated.get(i);
+					int x = index % layer.width, y = index / layer.width;
+					int id = layer.getTileIDAt(x, y);
+					if (id >= 0) {
+						batch.draw(layer.tileSet.getTileAt(id), (layer.originX + x) * tileSize, (layer.originY + y)
+								* tileSize);
+					}
+				}
+			}
+		}
+	}
+	
+	// GETTER
+	// 
+	/**
+	 * @return the number of chunks the cache can hold at once, 0 if it gets computed on the first render.
+	 */
+	public int getSlots() {
+		return slotChunk != null ? slotChunk.length : slots;
+	}
+	/**
+	 * @return the number of chunks built in the last call to render.
+	 */
+	public int getBuiltChunks() {
+		return builtChunks;
+	}
+	/**
+	 * @return the number of chunks drawn from the cache in the last call to render.
+	 */
+	public int getCachedChunks() {
+		return cachedChunks;
+	}
+	/**
+	 * @return the number of chunks drawn with the batch in the last call to render because all slots were in use.
+	 */
+	public int getUncachedChunks() {
+		return uncached.size;
+	}
+	
+}
@@ -30,19 +30,27 @@
 package de.radicalfish.world.map;
 import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.GZIPOutputStream;
 import com.badlogic.gdx.graphics.g3d.Animator;
 import com.badlogic.gdx.math.Vector2;
 import de.radicalfish.debug.Logger;
+import de.radicalfish.debug.Profiler;
 import de.radicalfish.util.RadicalFishException;
 import de.radicalfish.util.ResourceLoader;
 import de.radicalfish.util.Utils;
@@ -59,17 +67,31 @@ import de.radicalfish.world.Entity;
  * Implementation.
  * <p>
  * All data provided via the getter in the Interfaces and the Entity class should never return a null object. This could
- * lead to errors while writing/reading maps.
+ * lead to errors while writing/reading maps. The only exception are empty cells in a {@link ChunkedLayer}, they will be
+ * written as empty and stay empty when reading.
  * <p>
  * MapIO can use GZIP to compress the file. For this {@link GZIPInputStream} and {@link GZIPOutputStream} are used. Use
  * the boolean parameters in the write/read methods to enable GZIP. Not using GZIP will leave the format quite open to
  * read for other applications (in other languages too of course).
  * <p>
- * Note: A TileSet can be null, in case a TileSet is null, "null" will be written into the file for the null TilSet.
+ * Note: A TileSet can be null, in case a TileSet is null, it will be marked as null in the file.
  * When reading the {@link MapIOReader#getTileSetIntance(String, String, String)} method will not be invoked! This is
  * done so you can use a {@link Layer} as collision layer.
  * <p>
- * String will be written without UTF-8 (Could be a feature later...), so make sure all Strings are ASCII or something.
+ * Since version 102 the format uses a string table, so every class name and resource name is written only once per
+ * file (as UTF-8). Integers are written as variable length integers, tiles are written row by row and runs of equal
+ * tiles are compressed if that makes the layer smaller. The data of an {@link AnimatedTile} (times, indexes and
+ * ping-pong) is written only once for each distinct animation. If the layer returned by the {@link MapIOReader} is an
+ * {@link IntArrayLayer}, plain tiles are stored as ids directly and no {@link Tile} instances are requested. Maps
+ * written with version 101 can still be read.
+ * <p>
+ * Uncompressed files store the ids of a layer as one block of ints unless runs of equal tiles make the layer smaller
+ * (e.g. mostly empty or uniform layers). {@link #readMapMapped(String, MapIOReader)} maps the file into memory and
+ * copies the block layers of an {@link IntArrayLayer} with a single bulk get, layers written as runs are decoded from
+ * the mapped buffer. This is the fastest way to load big maps from the local file system.
+ * <p>
+ * Reading and writing get measured by the {@link Profiler} in the scopes "readMap" (with "layers" and "entities"
+ * below) and "writeMap".
  * <p>
  * <hr>
  * Changelog:
@@ -77,10 +99,12 @@ import de.radicalfish.world.Entity;
  * <li>0.6 - added null checks for writing</li>
  * <li>0.7 - added writing entities</li>
  * <li>1.0 - added reading maps</li>
+ * <li>1.1 - format 102 with string table, varints, run length encoding and shared animations</li>
+ * <li>1.2 - added block encoding and reading memory mapped files</li>
  * <hr>
  * 
  * @author Stefan Lange
- * @version 1.0.0
+ * @version 1.2.0
  * @since 04.07.2012
  */
 public class MapIO {
@@ -88,7 +112,13 @@ public class MapIO {
 	/** If true, the methods will print logs while writing/reading the maps. */
 	public static final boolean LOG = true;
 	
-	private static final int VERSION = 101;
+	private static final int VERSION = 102;
+	private static final int VERSION_LEGACY = 101;
+	
+	private static final int ENCODING_RAW = 0;
+	private static final int ENCODING_RLE = 1;
+	private static final int ENCODING_BLOCK = 2;
+	private static final String[] ENCODING_NAMES = { "RAW", "RLE", "BLOCK" };
 	
 	// METHODS
 	// 
@@ -126,6 +156,7 @@ public class MapIO {
 		Utils.notNull("stream", stream);
 		Utils.notNull("map", map);
 		
+		Profiler.begin("writeMap");
 		try {
 			DataOutputStream dos = null;
 			if (zip) {
@@ -140,11 +171,18 @@ public class MapIO {
 			
 			log("Version: " + VERSION);
 			
-			// version and time stamp.
-			dos.writeInt(VERSION);
+			// the body is written first, so we know all strings and animations for the tables
+			WriteTables tables = new WriteTables();
+			tables.blocks = !zip;
+			ByteArrayOutputStream body = new ByteArrayOutputStream();
+			DataOutputStream bos = new DataOutputStream(body);
+			writeMap(bos, map, tables);
+			bos.flush();
 			
-			// write map
-			writeMap(dos, map);
+			// version, tables and the map
+			dos.writeInt(VERSION);
+			writeTables(dos, tables);
+			body.writeTo(dos);
 			
 			dos.flush();
 			dos.close();
@@ -157,6 +195,8 @@ public class MapIO {
 		} catch (Exception e) {
 			e.printStackTrace();
 			throw new RadicalFishException(e.getMessage());
+		} finally {
+			Profiler.end();
 		}
 	}
 	
@@ -169,6 +209,7 @@ public class MapIO {
 		Utils.notNull("stream", stream);
 		Utils.notNull("callback", callback);
 		
+		Profiler.begin("readMap");
 		try {
 			DataInputStream dis = null;
 			if (unzip) {
@@ -182,13 +223,18 @@ public class MapIO {
 			}
 			
 			int version = dis.readInt();
-			if (version != VERSION) {
-				Logger.info("Version Mismatch! Current: " + VERSION + ", Read: " + version);
-				Logger.info("Will try to load map anyway...");
+			if (version != VERSION && version != VERSION_LEGACY) {
+				throw new RadicalFishException("unknown map version " + version + " (supported: " + VERSION_LEGACY
+						+ ", " + VERSION + ")");
 			}
 			log("Version: " + version);
 			
-			Map map = readMap(dis, callback);
+			Map map = null;
+			if (version == VERSION_LEGACY) {
+				map = readMap(dis, callback);
+			} else {
+				map = readMap(dis, callback, readTables(dis));
+			}
 			
 			dis.close();
 			
@@ -197,11 +243,305 @@ public class MapIO {
 		} catch (Exception e) {
 			e.printStackTrace();
 			throw new RadicalFishException(e.getMessage(), e.getCause());
+		} finally {
+			Profiler.end();
+		}
+	}
+	
+	/**
+	 * Loads an uncompressed map by mapping the file at <code>path</code> into memory. Layers written as block (layers
+	 * of an uncompressed file where runs of equal tiles wouldn't be smaller) are copied with bulk gets from the mapped
+	 * buffer, which is a lot faster than reading the ids one by one from a stream. Layers written as runs are decoded
+	 * from the buffer. The file must be on the local file system and written with version 102 or later.
+	 * 
+	 * @param path
+	 *            the path of the map file on the file system
+	 * @param callback
+	 *            the callback to create the instances of the map
+	 * @return the loaded map
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T extends Map> T readMapMapped(String path, MapIOReader callback) {
+		Utils.notNull("path", path);
+		Utils.notNull("callback", callback);
+		
+		Profiler.begin("readMap");
+		RandomAccessFile file = null;
+		try {
+			file = new RandomAccessFile(path, "r");
+			FileChannel channel = file.getChannel();
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			
+			// the stream reads straight from the buffer, so both always share the same position
+			DataInputStream dis = new DataInputStream(new ByteBufferInputStream(buffer));
+			
+			if (LOG) {
+				Logger.info("Loading Map (mapped)...");
+			}
+			
+			int version = dis.readInt();
+			if (version != VERSION) {
+				throw new RadicalFishException("mapped loading needs an uncompressed map of version " + VERSION
+						+ ", read: " + version);
+			}
+			log("Version: " + version);
+			
+			ReadTables tables = readTables(dis);
+			tables.buffer = buffer;
+			
+			return (T) readMap(dis, callback, tables);
+			
+		} catch (IOException e) {
+			throw new RadicalFishException(e.getMessage(), e);
+		} finally {
+			if (file != null) {
+				try {
+					file.close();
+				} catch (IOException e) {
+					Logger.error("Could not close map file: " + path);
+				}
+			}
+			Profiler.end();
 		}
 	}
 	
 	// INTERN READ
 	// 
+	private static ReadTables readTables(DataInputStream dis) throws IOException {
+		ReadTables tables = new ReadTables();
+		
+		tables.strings = new String[readVarInt(dis)];
+		for (int i = 0; i < tables.strings.length; i++) {
+			byte[] bytes = new byte[readVarInt(dis)];
+			dis.readFully(bytes);
+			tables.strings[i] = new String(bytes, "UTF-8");
+		}
+		
+		int animations = readVarInt(dis);
+		tables.times = new int[animations][];
+		tables.indexes = new int[animations][];
+		tables.pingPong = new boolean[animations];
+		for (int i = 0; i < animations; i++) {
+			tables.times[i] = readVarInts(dis);
+			tables.indexes[i] = readVarInts(dis);
+			tables.pingPong[i] = dis.readBoolean();
+		}
+		
+		log("Read Tables (Strings: " + tables.strings.length + ", Animations: " + animations + ")");
+		
+		return tables;
+	}
+	private static Map readMap(DataInputStream dis, MapIOReader callback, ReadTables tables) throws IOException {
+		Map map = callback.getMapInstance(tables.string(dis));
+		Utils.notNull("map instance", map);
+		
+		// read infos
+		map.setName(tables.string(dis));
+		map.setTileSize(readVarInt(dis));
+		map.setSize(readVarInt(dis), readVarInt(dis));
+		
+		// read layers
+		Profiler.begin("layers");
+		try {
+			List<Layer> layers = new ArrayList<Layer>();
+			int numLayers = readVarInt(dis);
+			for (int i = 0; i < numLayers; i++) {
+				layers.add(readLayer(dis, callback, tables));
+			}
+			map.setLayers(layers);
+			
+			// read collision
+			map.setCollisionLayer(readLayer(dis, callback, tables));
+		} finally {
+			Profiler.end();
+		}
+		
+		// read entity layer
+		Profiler.begin("entities");
+		try {
+			map.setEntityLayer(readEntityLayer(dis, callback, tables));
+		} finally {
+			Profiler.end();
+		}
+		
+		return map;
+	}
+	private static Layer readLayer(DataInputStream dis, MapIOReader callback, ReadTables tables) throws IOException {
+		Layer layer = callback.getLayerIntance(tables.string(dis));
+		Utils.notNull("layer instance", layer);
+		
+		layer.setName(tables.string(dis));
+		layer.setTileSet(readTileSet(dis, callback, tables));
+		
+		int width = readVarInt(dis);
+		int height = readVarInt(dis);
+		
+		// kinds of tiles used in this layer, 0 is the empty cell
+		int numKinds = readVarInt(dis);
+		String[] kindClass = new String[numKinds + 1];
+		int[] kindAnimation = new int[numKinds + 1];
+		for (int i = 1; i <= numKinds; i++) {
+			kindClass[i] = tables.string(dis);
+			kindAnimation[i] = readVarInt(dis) - 1;
+		}
+		
+		LayerTarget target = new LayerTarget(layer, width, height, kindClass, kindAnimation, callback, tables);
+		
+		int encoding = dis.readByte();
+		int numTiles = 0;
+		if (encoding == ENCODING_BLOCK) {
+			numTiles = readBlock(dis, target);
+		} else if (encoding == ENCODING_RLE || encoding == ENCODING_RAW) {
+			numTiles = readRuns(dis, target, encoding == ENCODING_RLE);
+		} else {
+			throw new RadicalFishException("unknown tile encoding " + encoding + " in layer " + layer.getName());
+		}
+		target.finish();
+		
+		log("Read Layer: " + layer.getName() + " (Tiles: " + numTiles + ", " + ENCODING_NAMES[encoding] + ")");
+		
+		return layer;
+	}
+	private static int readRuns(DataInputStream dis, LayerTarget target, boolean rle) throws IOException {
+		int cells = target.width * target.height, cell = 0, numTiles = 0;
+		while (cell < cells) {
+			int run = rle ? readVarInt(dis) : 1;
+			int kind = readVarInt(dis);
+			if (run <= 0 || cell + run > cells || kind >= target.kindClass.length) {
+				throw new RadicalFishException("corrupt tile data in layer " + target.layer.getName());
+			}
+			int id = kind != 0 ? readZigZag(dis) : IntArrayLayer.EMPTY;
+			target.fill(cell, cell + run, kind, id);
+			if (kind != 0) {
+				numTiles += run;
+			}
+			cell += run;
+		}
+		return numTiles;
+	}
+	private static int readBlock(DataInputStream dis, LayerTarget target) throws IOException {
+		int cells = target.width * target.height;
+		int defaultKind = readVarInt(dis);
+		if (defaultKind >= target.kindClass.length) {
+			throw new RadicalFishException("corrupt tile data in layer " + target.layer.getName());
+		}
+		
+		// cells which don't use the default kind
+		int exceptions = readVarInt(dis);
+		int[] exceptionCells = new int[exceptions];
+		int[] exceptionKinds = new int[exceptions];
+		int numTiles = defaultKind != 0 ? cells : 0;
+		for (int i = 0, last = 0; i < exceptions; i++) {
+			last += readVarInt(dis);
+			exceptionCells[i] = last;
+			exceptionKinds[i] = readVarInt(dis);
+			if (last >= cells || (i > 0 && last <= exceptionCells[i - 1])
+					|| exceptionKinds[i] >= target.kindClass.length) {
+				throw new RadicalFishException("corrupt tile data in layer " + target.layer.getName());
+			}
+			if (exceptionKinds[i] == 0 && defaultKind != 0) {
+				numTiles--;
+			} else if (exceptionKinds[i] != 0 && defaultKind == 0) {
+				numTiles++;
+			}
+		}
+		
+		// the ids of all cells, for an int layer they go straight into the storage
+		int[] ids = target.ints != null ? target.ints.ids : new int[cells];
+		if (target.tables.buffer != null) {
+			ByteBuffer buffer = target.tables.buffer;
+			buffer.asIntBuffer().get(ids, 0, cells);
+			buffer.position(buffer.position() + cells * 4);
+		} else {
+			for (int i = 0; i < cells; i++) {
+				ids[i] = dis.readInt();
+			}
+		}
+		
+		if (target.ints != null && (defaultKind == 0 || target.kindAnimation[defaultKind] < 0)) {
+			// plain ids are in place already, negative ids are empty cells and only the exceptions need work
+			for (int i = 0; i < cells; i++) {
+				if (ids[i] < 0) {
+					ids[i] = IntArrayLayer.EMPTY;
+				}
+			}
+			for (int i = 0; i < exceptions; i++) {
+				target.set(exceptionCells[i], exceptionKinds[i], ids[exceptionCells[i]]);
+			}
+		} else {
+			for (int i = 0, next = 0; i < cells; i++) {
+				int kind = defaultKind;
+				if (next < exceptions && exceptionCells[next] == i) {
+					kind = exceptionKinds[next++];
+				}
+				target.set(i, kind, ids[i]);
+			}
+		}
+		return numTiles;
+	}
+	private static Tile createTile(MapIOReader callback, ReadTables tables, String classname, int animation, int id) {
+		Tile tile = callback.getTileInstance(classname, animation < 0 ? "normal" : "animated");
+		Utils.notNull("tile instance", tile);
+		
+		if (animation >= 0) {
+			if (!(tile instanceof AnimatedTile)) {
+				throw new RadicalFishException("tile instance for animated tiles must be an AnimatedTile: "
+						+ classname);
+			}
+			AnimatedTile animated = (AnimatedTile) tile;
+			animated.setFrameTimes(tables.times[animation]);
+			animated.setIndexes(tables.indexes[animation]);
+			animated.setPingPong(tables.pingPong[animation]);
+		}
+		tile.setTileID(id);
+		
+		return tile;
+	}
+	private static TileSet readTileSet(DataInputStream dis, MapIOReader callback, ReadTables tables)
+			throws IOException {
+		int classname = readVarInt(dis);
+		if (classname == 0) {
+			return null;
+		}
+		
+		TileSet set = callback.getTileSetIntance(tables.string(classname - 1), tables.string(dis), tables.string(dis));
+		Utils.notNull("tileset instance", set);
+		
+		set.setName(tables.string(dis));
+		
+		log("Read TileSet: " + set.getName());
+		return set;
+	}
+	private static EntityLayer readEntityLayer(DataInputStream dis, MapIOReader callback, ReadTables tables)
+			throws IOException {
+		EntityLayer layer = callback.getEntityLayerInstance(tables.string(dis));
+		Utils.notNull("entity layer", layer);
+		
+		// set the name
+		layer.setName(tables.string(dis));
+		
+		// read entities
+		List<Entity> entities = new ArrayList<Entity>();
+		int numEn = readVarInt(dis);
+		for (int i = 0; i < numEn; i++) {
+			Entity entity = callback.getEntityInstance(tables.string(dis));
+			Utils.notNull("entity instance", entity);
+			
+			entity.setName(tables.string(dis));
+			entity.setID(readZigZag(dis));
+			readEntityData(dis, entity);
+			
+			entities.add(entity);
+		}
+		layer.setEntities(entities);
+		
+		log("Read Entity Layer: " + layer.getName() + " (Entities: " + numEn + ")");
+		
+		return layer;
+	}
+	
+	// INTERN READ LEGACY (101)
+	// 
 	private static Map readMap(DataInputStream dis, MapIOReader callback) throws IOException {
 		Map map = callback.getMapInstance(readString(dis));
 		Utils.notNull("map instance", map);
@@ -322,6 +662,12 @@ public class MapIO {
 		
 		entity.setName(readString(dis));
 		entity.setID(dis.readInt());
+		readEntityData(dis, entity);
+		
+		return entity;
+		
+	}
+	private static void readEntityData(DataInputStream dis, Entity entity) throws IOException {
 		entity.setGridPosition(dis.readFloat(), dis.readFloat());
 		entity.setPosition(dis.readFloat(), dis.readFloat());
 		entity.setOldPosition(dis.readFloat(), dis.readFloat());
@@ -336,180 +682,249 @@ public class MapIO {
 		entity.setActive(dis.readBoolean());
 		entity.setVisible(dis.readBoolean());
 		entity.setAlive(dis.readBoolean());
-		
-		return entity;
-		
 	}
 	
 	// INTERN WRITE
 	// 
-	private static void writeMap(DataOutputStream dos, Map map) throws IOException {
+	private static void writeTables(DataOutputStream dos, WriteTables tables) throws IOException {
+		writeVarInt(dos, tables.strings.size());
+		for (int i = 0; i < tables.strings.size(); i++) {
+			byte[] bytes = tables.strings.get(i).getBytes("UTF-8");
+			writeVarInt(dos, bytes.length);
+			dos.write(bytes);
+		}
+		
+		writeVarInt(dos, tables.animations.size());
+		for (int i = 0; i < tables.animations.size(); i++) {
+			AnimationKey key = tables.animations.get(i);
+			writeVarInts(dos, key.times);
+			writeVarInts(dos, key.indexes);
+			dos.writeBoolean(key.pingPong);
+		}
+		
+		log("Wrote Tables (Strings: " + tables.strings.size() + ", Animations: " + tables.animations.size() + ")");
+	}
+	private static void writeMap(DataOutputStream dos, Map map, WriteTables tables) throws IOException {
 		Utils.notNull("map", map.getName());
 		Utils.notNull("layers", map.getLayers());
 		Utils.notNull("collision layer", map.getCollisionLayer());
 		Utils.notNull("entity layer", map.getEntityLayer());
 		
 		// class name for loading
-		writeString(dos, map.getClass().getSimpleName());
+		tables.writeString(dos, map.getClass().getSimpleName());
 		
 		// map name
-		writeString(dos, map.getName());
+		tables.writeString(dos, map.getName());
 		
 		// information about the map
-		dos.writeInt(map.getTileSize());
-		dos.writeInt(map.getTileWidth());
-		dos.writeInt(map.getTileHeight());
+		writeVarInt(dos, map.getTileSize());
+		writeVarInt(dos, map.getTileWidth());
+		writeVarInt(dos, map.getTileHeight());
 		
 		// layers
 		int layers = map.getLayers().size();
-		dos.writeInt(layers);
+		writeVarInt(dos, layers);
 		for (int i = 0; i < layers; i++) {
-			writeLayer(dos, map.getLayer(i));
+			writeLayer(dos, map.getLayer(i), tables);
 		}
 		
 		// write collision
-		writeLayer(dos, map.getCollisionLayer());
+		writeLayer(dos, map.getCollisionLayer(), tables);
 		
 		// write entities
-		writeEntityLayer(dos, map.getEntityLayer());
+		writeEntityLayer(dos, map.getEntityLayer(), tables);
 	}
-	private static void writeLayer(DataOutputStream dos, Layer layer) throws IOException {
+	private static void writeLayer(DataOutputStream dos, Layer layer, WriteTables tables) throws IOException {
 		Utils.notNull("layer", layer);
 		Utils.notNull("layer name", layer.getName());
-		Utils.notNull("layer tiles", layer.getTiles());
 		
 		// class name for loading
-		writeString(dos, layer.getClass().getSimpleName());
+		tables.writeString(dos, layer.getClass().getSimpleName());
 		
 		// write layer name
-		writeString(dos, layer.getName());
+		tables.writeString(dos, layer.getName());
 		
 		// TileSet
-		writeTileSet(dos, layer.getTileSet());
-		
-		// write tiles
-		Tile[][] tiles = layer.getTiles();
-		int numTiles = 0;
-		if (tiles != null) {
-			numTiles = tiles.length * tiles[0].length;
+		writeTileSet(dos, layer.getTileSet(), tables);
+		
+		// chunked layers can have empty cells and the int layer should not create a copy of all tiles
+		Tile[][] tiles = null;
+		IntArrayLayer ints = layer instanceof IntArrayLayer ? (IntArrayLayer) layer : null;
+		int width = 0, height = 0;
+		if (layer instanceof ChunkedLayer) {
+			width = ((ChunkedLayer) layer).getWidth();
+			height = ((ChunkedLayer) layer).getHeight();
+		} else {
+			tiles = layer.getTiles();
+			Utils.notNull("layer tiles", tiles);
+			width = tiles.length;
+			height = width > 0 ? tiles[0].length : 0;
 		}
 		
-		dos.writeLong(numTiles);
-		dos.writeInt(tiles != null ? tiles.length : 0);
-		dos.writeInt(tiles != null ? tiles[0].length : 0);
-		if (numTiles > 0) {
-			for (int i = 0; i < tiles.length; i++) {
-				for (int j = 0; j < tiles[0].length; j++) {
-					writeTile(dos, tiles[i][j]);
+		// collect kind and id of all cells row by row, kind 0 is an empty cell
+		HashMap<Long, Integer> kindIndex = new HashMap<Long, Integer>();
+		ArrayList<Long> kinds = new ArrayList<Long>();
+		int[] cellKinds = new int[width * height];
+		int[] cellIds = new int[width * height];
+		int runs = 0, numTiles = 0;
+		for (int j = 0; j < height; j++) {
+			for (int i = 0; i < width; i++) {
+				int cell = j * width + i;
+				Tile tile = null;
+				int id = IntArrayLayer.EMPTY;
+				if (ints != null) {
+					// plain cells of the int layer are read by id, getTileAt would create a tile for each of them
+					id = ints.ids[cell];
+					if (id == IntArrayLayer.ANIMATED) {
+						tile = ints.animated.get(cell);
+						id = tile.getTileID();
+					}
+				} else {
+					tile = tiles != null ? tiles[i][j] : layer.getTileAt(i, j);
+					if (tile != null) {
+						id = tile.getTileID();
+					}
+				}
+				if (tile != null || (ints != null && id != IntArrayLayer.EMPTY)) {
+					long kind = tile != null ? tables.getKind(layer, tile) : tables.getPlainKind();
+					Integer index = kindIndex.get(kind);
+					if (index == null) {
+						kinds.add(kind);
+						index = kinds.size();
+						kindIndex.put(kind, index);
+					}
+					cellKinds[cell] = index;
+					cellIds[cell] = id;
+					numTiles++;
+				}
+				if (cell == 0 || cellKinds[cell] != cellKinds[cell - 1] || cellIds[cell] != cellIds[cell - 1]) {
+					runs++;
 				}
 			}
-			
 		}
 		
-		log("Wrote Layer: " + layer.getName() + " (Tiles: " + numTiles + ")");
-		
-	}
-	private static void writeTileSet(DataOutputStream dos, TileSet tileSet) throws IOException {
-		if (tileSet != null) {
-			Utils.notNull("tilset name", tileSet.getName());
-			Utils.notNull("tilset resource name", tileSet.getResourceName());
-			Utils.notNull("tilset resource location", tileSet.getResourceLocation());
-		}
-		if (tileSet == null) {
-			writeString(dos, "null");
-			return;
+		// kinds
+		writeVarInt(dos, width);
+		writeVarInt(dos, height);
+		writeVarInt(dos, kinds.size());
+		for (int i = 0; i < kinds.size(); i++) {
+			long kind = kinds.get(i);
+			writeVarInt(dos, (int) (kind >>> 32));
+			writeVarInt(dos, (int) kind);
 		}
 		
-		// class name for loading
-		writeString(dos, tileSet.getClass().getSimpleName());
-		
-		// resource name
-		writeString(dos, tileSet.getResourceName());
-		
-		// resource location
-		writeString(dos, tileSet.getResourceLocation());
+		// a run costs about 3 values, a raw cell 2. uncompressed files get fixed size blocks for fast loading
+		int encoding = runs * 3 < width * height * 2 ? ENCODING_RLE : tables.blocks ? ENCODING_BLOCK : ENCODING_RAW;
+		dos.writeByte(encoding);
+		if (encoding == ENCODING_BLOCK) {
+			writeBlock(dos, cellKinds, cellIds, kinds.size());
+		} else {
+			writeRuns(dos, cellKinds, cellIds, encoding == ENCODING_RLE);
+		}
 		
-		// write tileset name
-		writeString(dos, tileSet.getName());
+		log("Wrote Layer: " + layer.getName() + " (Tiles: " + numTiles + ", " + ENCODING_NAMES[encoding] + ")");
 		
-		log("Wrote TileSet: " + tileSet.getName());
 	}
-	private static void writeTile(DataOutputStream dos, Tile tile) throws IOException {
-		Utils.notNull("tile", tile);
-		
-		// class name for loading
-		writeString(dos, tile.getClass().getSimpleName());
-		
-		// write sub type later this can be changed to some custom saving and so on
-		dos.writeInt(tile instanceof AnimatedTile ? 2 : 1);
-		
-		// write down the id.
-		dos.writeInt(tile.getTileID());
-		
-		// is this tile has AnimatedTile as interface, save this extra infos
-		if (tile instanceof AnimatedTile) {
-			writeAnimatedTile(dos, (AnimatedTile) tile);
+	private static void writeRuns(DataOutputStream dos, int[] cellKinds, int[] cellIds, boolean rle)
+			throws IOException {
+		int cell = 0, cells = cellKinds.length;
+		while (cell < cells) {
+			int run = 1;
+			if (rle) {
+				while (cell + run < cells && cellKinds[cell + run] == cellKinds[cell]
+						&& cellIds[cell + run] == cellIds[cell]) {
+					run++;
+				}
+				writeVarInt(dos, run);
+			}
+			writeVarInt(dos, cellKinds[cell]);
+			if (cellKinds[cell] != 0) {
+				writeZigZag(dos, cellIds[cell]);
+			}
+			cell += run;
 		}
 	}
-	private static void writeAnimatedTile(DataOutputStream dos, AnimatedTile tile) throws IOException {
-		Utils.notNull("animated tile", tile);
-		Utils.notNull("animated tile times array", tile.getFrameTimes());
-		Utils.notNull("animated tile index array", tile.getIndexes());
-		
-		// times
-		int[] times = tile.getFrameTimes();
-		int num = 0;
-		if (times != null) {
-			num = times.length;
+	private static void writeBlock(DataOutputStream dos, int[] cellKinds, int[] cellIds, int numKinds)
+			throws IOException {
+		// the most used kind is the default, all other cells are written as exceptions
+		int[] counts = new int[numKinds + 1];
+		for (int i = 0; i < cellKinds.length; i++) {
+			counts[cellKinds[i]]++;
 		}
-		
-		dos.writeInt(num);
-		for (int i = 0; i < times.length; i++) {
-			dos.writeInt(times[i]);
+		int defaultKind = 0;
+		for (int i = 1; i < counts.length; i++) {
+			if (counts[i] > counts[defaultKind]) {
+				defaultKind = i;
+			}
 		}
-		
-		// indexes
-		int[] indexes = tile.getIndexes();
-		num = 0;
-		if (indexes != null) {
-			num = indexes.length;
+		writeVarInt(dos, defaultKind);
+		writeVarInt(dos, cellKinds.length - counts[defaultKind]);
+		for (int i = 0, last = 0; i < cellKinds.length; i++) {
+			if (cellKinds[i] != defaultKind) {
+				writeVarInt(dos, i - last);
+				writeVarInt(dos, cellKinds[i]);
+				last = i;
+			}
 		}
 		
-		dos.writeInt(num);
-		for (int i = 0; i < indexes.length; i++) {
-			dos.writeInt(indexes[i]);
+		// the ids as one block of ints
+		for (int i = 0; i < cellIds.length; i++) {
+			dos.writeInt(cellKinds[i] == 0 ? IntArrayLayer.EMPTY : cellIds[i]);
+		}
+	}
+	private static void writeTileSet(DataOutputStream dos, TileSet tileSet, WriteTables tables) throws IOException {
+		if (tileSet == null) {
+			writeVarInt(dos, 0);
+			return;
 		}
+		Utils.notNull("tilset name", tileSet.getName());
+		Utils.notNull("tilset resource name", tileSet.getResourceName());
+		Utils.notNull("tilset resource location", tileSet.getResourceLocation());
+		
+		// class name for loading, shifted by one so 0 can be null
+		writeVarInt(dos, tables.getString(tileSet.getClass().getSimpleName()) + 1);
 		
+		// resource name and location
+		tables.writeString(dos, tileSet.getResourceName());
+		tables.writeString(dos, tileSet.getResourceLocation());
+		
+		// write tileset name
+		tables.writeString(dos, tileSet.getName());
+		
+		log("Wrote TileSet: " + tileSet.getName());
 	}
-	private static void writeEntityLayer(DataOutputStream dos, EntityLayer layer) throws IOException {
+	private static void writeEntityLayer(DataOutputStream dos, EntityLayer layer, WriteTables tables)
+			throws IOException {
 		// class name for loading
-		writeString(dos, layer.getClass().getSimpleName());
+		tables.writeString(dos, layer.getClass().getSimpleName());
 		
 		// name
-		writeString(dos, layer.getName());
+		tables.writeString(dos, layer.getName());
 		
 		// write entities
 		int entities = layer.getEntites().size();
-		dos.writeInt(entities);
+		writeVarInt(dos, entities);
 		for (int i = 0; i < entities; i++) {
-			writeEntity(dos, layer.getEntity(i));
+			Entity entity = layer.getEntity(i);
+			Utils.notNull("entity", entity);
+			
+			// class name for loading
+			tables.writeString(dos, entity.getClass().getSimpleName());
+			
+			// write name and id
+			tables.writeString(dos, entity.getName());
+			writeZigZag(dos, entity.getID());
+			
+			writeEntityData(dos, entity);
 		}
 		
 		log("Wrote Entity Layer: " + layer.getName() + " (Entities: " + entities + ")");
 		
 	}
-	private static void writeEntity(DataOutputStream dos, Entity entity) throws IOException {
-		Utils.notNull("entity", entity);
+	private static void writeEntityData(DataOutputStream dos, Entity entity) throws IOException {
 		// we don't need to do checks for the rest, since there get initialized by the abstract class anyway
 		// is someone sets them to null he did something very wrong
 		
-		// class name for loading
-		writeString(dos, entity.getClass().getSimpleName());
-		
-		// write name and id
-		writeString(dos, entity.getName());
-		dos.writeInt(entity.getID());
-		
 		// write positions, velocity, acceleration
 		writeVector(dos, entity.getGridPosition());
 		writeVector(dos, entity.getPosition());
@@ -543,13 +958,238 @@ public class MapIO {
 		dis.read(bytes);
 		return new String(bytes);
 	}
+	private static int readVarInt(DataInputStream dis) throws IOException {
+		int value = 0, shift = 0, b;
+		do {
+			if (shift > 28) {
+				throw new RadicalFishException("malformed variable length integer");
+			}
+			b = dis.readUnsignedByte();
+			value |= (b & 0x7F) << shift;
+			shift += 7;
+		} while ((b & 0x80) != 0);
+		return value;
+	}
+	private static int readZigZag(DataInputStream dis) throws IOException {
+		int value = readVarInt(dis);
+		return (value >>> 1) ^ -(value & 1);
+	}
+	private static int[] readVarInts(DataInputStream dis) throws IOException {
+		int[] values = new int[readVarInt(dis)];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = readZigZag(dis);
+		}
+		return values;
+	}
 	
-	private static void writeString(DataOutputStream dos, String string) throws IOException {
-		dos.writeInt(string.length());
-		dos.writeBytes(string);
+	private static void writeVarInt(DataOutputStream dos, int value) throws IOException {
+		while ((value & ~0x7F) != 0) {
+			dos.writeByte((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		dos.writeByte(value);
+	}
+	private static void writeZigZag(DataOutputStream dos, int value) throws IOException {
+		writeVarInt(dos, (value << 1) ^ (value >> 31));
+	}
+	private static void writeVarInts(DataOutputStream dos, int[] values) throws IOException {
+		writeVarInt(dos, values.length);
+		for (int i = 0; i < values.length; i++) {
+			writeZigZag(dos, values[i]);
+		}
 	}
 	private static void writeVector(DataOutputStream dos, Vector2 vector) throws IOException {
 		dos.writeFloat(vector.x);
 		dos.writeFloat(vector.y);
 	}
+	
+	// INTERN CLASSES
+	// 
+	/**
+	 * The string and animation tables collected while writing a map.
+	 */
+	private static class WriteTables {
+		
+		private ArrayList<String> strings = new ArrayList<String>();
+		private HashMap<String, Integer> stringIndex = new HashMap<String, Integer>();
+		private ArrayList<AnimationKey> animations = new ArrayList<AnimationKey>();
+		private HashMap<AnimationKey, Integer> animationIndex = new HashMap<AnimationKey, Integer>();
+		/** If true, layers which don't compress well are written as block instead of raw. */
+		private boolean blocks;
+		
+		public void writeString(DataOutputStream dos, String string) throws IOException {
+			writeVarInt(dos, getString(string));
+		}
+		public int getString(String string) {
+			Integer index = stringIndex.get(string);
+			if (index == null) {
+				index = strings.size();
+				strings.add(string);
+				stringIndex.put(string, index);
+			}
+			return index;
+		}
+		/**
+		 * @return the kind of a tile packed as long, the upper half is the class name, the lower half the animation
+		 *         (0 for none).
+		 */
+		public long getKind(Layer layer, Tile tile) {
+			int animation = 0;
+			String classname = null;
+			if (tile instanceof AnimatedTile) {
+				animation = getAnimation((AnimatedTile) tile) + 1;
+				classname = tile.getClass().getSimpleName();
+			} else if (layer instanceof IntArrayLayer) {
+				return getPlainKind();
+			} else {
+				classname = tile.getClass().getSimpleName();
+			}
+			return ((long) getString(classname) << 32) | animation;
+		}
+		/**
+		 * @return the kind of the plain cells of an {@link IntArrayLayer}. They have no tile objects and are written
+		 *         the way {@link IntArrayLayer#getTiles()} would return them.
+		 */
+		public long getPlainKind() {
+			return (long) getString(SimpleTile.class.getSimpleName()) << 32;
+		}
+		private int getAnimation(AnimatedTile tile) {
+			Utils.notNull("animated tile times array", tile.getFrameTimes());
+			Utils.notNull("animated tile index array", tile.getIndexes());
+			
+			AnimationKey key = new AnimationKey(tile.getFrameTimes(), tile.getIndexes(), tile.isPingPong());
+			Integer index = animationIndex.get(key);
+			if (index == null) {
+				index = animations.size();
+				animations.add(key);
+				animationIndex.put(key, index);
+			}
+			return index;
+		}
+		
+	}
+	/**
+	 * The string and animation tables of a map which is read.
+	 */
+	private static class ReadTables {
+		
+		private String[] strings;
+		private int[][] times, indexes;
+		private boolean[] pingPong;
+		/** The mapped file if the map is read with {@link MapIO#readMapMapped(String, MapIOReader)}. */
+		private ByteBuffer buffer;
+		
+		public String string(DataInputStream dis) throws IOException {
+			return string(readVarInt(dis));
+		}
+		public String string(int index) {
+			if (index < 0 || index >= strings.length) {
+				throw new RadicalFishException("string index out of range: " + index);
+			}
+			return strings[index];
+		}
+		
+	}
+	/**
+	 * Puts the tiles read from the file into a layer. An {@link IntArrayLayer} gets the ids directly, every other layer
+	 * gets a <code>Tile[][]</code> when finished.
+	 */
+	private static class LayerTarget {
+		
+		private final Layer layer;
+		private final int width, height;
+		private final String[] kindClass;
+		private final int[] kindAnimation;
+		private final MapIOReader callback;
+		private final ReadTables tables;
+		private final IntArrayLayer ints;
+		private final Tile[][] tiles;
+		
+		public LayerTarget(Layer layer, int width, int height, String[] kindClass, int[] kindAnimation,
+				MapIOReader callback, ReadTables tables) {
+			this.layer = layer;
+			this.width = width;
+			this.height = height;
+			this.kindClass = kindClass;
+			this.kindAnimation = kindAnimation;
+			this.callback = callback;
+			this.tables = tables;
+			if (layer instanceof IntArrayLayer) {
+				ints = (IntArrayLayer) layer;
+				ints.setSize(width, height);
+				tiles = null;
+			} else {
+				ints = null;
+				tiles = new Tile[width][height];
+			}
+		}
+		
+		public void set(int cell, int kind, int id) {
+			if (ints != null) {
+				if (kind == 0) {
+					ints.ids[cell] = IntArrayLayer.EMPTY;
+				} else if (kindAnimation[kind] < 0) {
+					// negative ids are empty cells like in setTileAt, the int layer uses them as markers
+					ints.ids[cell] = id < 0 ? IntArrayLayer.EMPTY : id;
+				} else {
+					ints.ids[cell] = IntArrayLayer.ANIMATED;
+					ints.animated.put(cell, createTile(callback, tables, kindClass[kind], kindAnimation[kind], id));
+				}
+			} else if (kind != 0) {
+				tiles[cell % width][cell / width] = createTile(callback, tables, kindClass[kind], kindAnimation[kind],
+						id);
+			}
+		}
+		public void fill(int from, int to, int kind, int id) {
+			if (ints != null && (kind == 0 || kindAnimation[kind] < 0)) {
+				Arrays.fill(ints.ids, from, to, kind == 0 || id < 0 ? IntArrayLayer.EMPTY : id);
+			} else {
+				for (int i = from; i < to; i++) {
+					set(i, kind, id);
+				}
+			}
+		}
+		/**
+		 * Hands the tiles to the layer. The int layer only needs to update its chunks.
+		 */
+		public void finish() {
+			if (ints != null) {
+				ints.recount();
+			} else {
+				layer.setTiles(tiles);
+			}
+		}
+		
+	}
+	/**
+	 * An {@link InputStream} reading from a {@link ByteBuffer}. It doesn't buffer, so the position of the buffer is
+	 * always the position of the stream.
+	 */
+	private static class ByteBufferInputStream extends InputStream {
+		
+		private final ByteBuffer buffer;
+		
+		public ByteBufferInputStream(ByteBuffer buffer) {
+			this.buffer = buffer;
+		}
+		
+		public int read() {
+			return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+		}
+		public int read(byte[] bytes, int offset, int length) {
+			if (length == 0) {
+				return 0;
+			}
+			if (!buffer.hasRemaining()) {
+				return -1;
+			}
+			length = Math.min(length, buffer.remaining());
+			buffer.get(bytes, offset, length);
+			return length;
+		}
+		public int available() {
+			return buffer.remaining();
+		}
+		
+	}
 }
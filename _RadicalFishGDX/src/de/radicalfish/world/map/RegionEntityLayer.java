@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2012, Stefan Lange
+ * 
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ *     * Redistributions of source code must retain the above copyright notice,
+ *       this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of Stefan Lange nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package de.radicalfish.world.map;
+import de.radicalfish.context.GameContext;
+import de.radicalfish.context.GameDelta;
+import de.radicalfish.graphics.Graphics;
+import de.radicalfish.util.Utils;
+import de.radicalfish.world.Entity;
+import de.radicalfish.world.GameWorld;
+
+/**
+ * The {@link EntityLayer} of a {@link RegionMap}. It holds the entities of all regions loaded so far, but only updates
+ * and renders the entities standing in a region which is currently loaded. All other entities are parked: they stay in
+ * the layer with their state untouched until their region gets loaded again. Entities outside of the map are never
+ * parked.
+ * 
+ * @author Stefan Lange
+ * @version 1.0.0
+ * @since 18.10.2026
+ */
+public class RegionEntityLayer extends SimpleEntityLayer {
+	
+	private final RegionMap map;
+	private int parked;
+	
+	/**
+	 * Creates a new empty {@link RegionEntityLayer}.
+	 * 
+	 * @param map
+	 *            the map which knows the loaded regions
+	 */
+	public RegionEntityLayer(RegionMap map) {
+		Utils.notNull("map", map);
+		this.map = map;
+	}
+	
+	// METHODS
+	// 
+	public void update(GameContext context, GameWorld world, GameDelta delta) {
+		parked = 0;
+		Entity entity;
+		for (int i = 0; i < entities.size(); i++) {
+			entity = entities.get(i);
+			if (map.isLoadedAt(entity.getPositionX(), entity.getPositionY())) {
+				entity.update(context, world, delta);
+			} else {
+				parked++;
+			}
+		}
+	}
+	public void render(GameContext context, GameWorld world, Graphics g) {
+		Entity entity;
+		for (int i = 0; i < entities.size(); i++) {
+			entity = entities.get(i);
+			if (map.isLoadedAt(entity.getPositionX(), entity.getPositionY())) {
+				entity.render(context, world, g);
+			}
+		}
+	}
+	
+	// GETTER
+	// 
+	/**
+	 * @return the number of entities which were parked in the last update.
+	 */
+	public int getParkedCount() {
+		return parked;
+	}
+	
+}
@@ -0,0 +1,851 @@
+/*
+ * Copyright (c) 2012, Stefan Lange
+ * 
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ *     * Redistributions of source code must retain the above copyright notice,
+ *       this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of Stefan Lange nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package de.radicalfish.world.map;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import com.badlogic.gdx.utils.Array;
+import de.radicalfish.context.GameContext;
+import de.radicalfish.context.GameDelta;
+import de.radicalfish.debug.Logger;
+import de.radicalfish.graphics.Graphics;
+import de.radicalfish.util.RadicalFishException;
+import de.radicalfish.util.Utils;
+import de.radicalfish.world.Camera;
+import de.radicalfish.world.Entity;
+import de.radicalfish.world.GameWorld;
+
+/**
+ * A {@link Map} which splits a big world into square regions of <code>regionSize</code> x <code>regionSize</code>
+ * tiles, each stored in its own file (written by {@link #writeRegions(Map, String, int, boolean)}). Only the regions
+ * around the {@link Camera} are kept in memory. They get loaded on a background thread with the {@link MapIO} class,
+ * while regions which are far away get dropped (least recently used first) as soon as the loaded regions need more
+ * memory than the budget allows. A missing region file is treated as an empty region.
+ * <p>
+ * Every region is a normal {@link Map} created by the {@link MapIOReader}. It is called from the loader thread, so it
+ * must not create any OpenGL resources: hand out {@link TileSet}s which were loaded before. Layers of a region should
+ * be {@link ChunkedLayer}s (which the {@link IntArrayLayer} is), they get moved to the position of the region with
+ * {@link ChunkedLayer#setOrigin(int, int)}. Other layers are rendered with a translated {@link Graphics} context.
+ * <p>
+ * The entities of a region are moved into the {@link RegionEntityLayer} of this map when the region is loaded the
+ * first time. From then on they live there, even if their region gets dropped. Entities in regions which are not
+ * loaded are parked (not updated and rendered) until their region gets loaded again. If a region can't be loaded the
+ * error gets logged and the region stays unloaded (keeping its entities parked), it will be requested again after a
+ * delay which grows with every failure.
+ * <p>
+ * The {@link AnimatedTile}s of all regions share one {@link TileAnimations}, so water in two regions animates in sync
+ * and costs the same as in one region.
+ * <p>
+ * The tile access methods take world coordinates in tiles and return null for regions which are not loaded. The
+ * layers can't be set or returned as a whole, use {@link #getRegion(int, int)} for this.
+ * 
+ * @author Stefan Lange
+ * @version 1.0.0
+ * @since 18.10.2026
+ */
+public class RegionMap implements Map {
+	
+	/** The default memory budget for loaded regions in bytes. */
+	public static final long DEFAULT_MEMORY_BUDGET = 64L * 1024 * 1024;
+	
+	// frames to wait before a failed region gets loaded again, doubled with every failure up to the maximum
+	private static final int RETRY_FRAMES = 60, MAX_RETRY_FRAMES = 60 * 32;
+	
+	private String name;
+	private final String directory;
+	private final MapIOReader callback;
+	private final int regionSize, regionsAcross, regionsDown;
+	private int tileSize;
+	
+	private final ExecutorService executor;
+	private final boolean ownExecutor;
+	private long memoryBudget = DEFAULT_MEMORY_BUDGET;
+	private int loadRadius = 1;
+	
+	private final Region[] regions;
+	private final ArrayList<Region> resident, pending;
+	private long residentBytes, frame;
+	private int viewX, viewY, viewX2, viewY2;
+	
+	private EntityLayer entityLayer;
+	private final Array<MapListener> listeners;
+	private final TileAnimations animations = new TileAnimations();
+	
+	/**
+	 * Creates a new {@link RegionMap} which loads the regions on its own background thread.
+	 * 
+	 * @param name
+	 *            the name of the map, also the prefix of the region files
+	 * @param directory
+	 *            the directory holding the region files
+	 * @param regionSize
+	 *            the width and height of a region in tiles
+	 * @param regionsAcross
+	 *            the number of regions on the x axis
+	 * @param regionsDown
+	 *            the number of regions on the y axis
+	 * @param tileSize
+	 *            the size of a tile in pixel
+	 * @param callback
+	 *            the callback to create the instances of a region, will be called from the loader thread
+	 */
+	public RegionMap(String name, String directory, int regionSize, int regionsAcross, int regionsDown, int tileSize,
+			MapIOReader callback) {
+		this(name, directory, regionSize, regionsAcross, regionsDown, tileSize, callback, null);
+	}
+	/**
+	 * Creates a new {@link RegionMap}.
+	 * 
+	 * @param name
+	 *            the name of the map, also the prefix of the region files
+	 * @param directory
+	 *            the directory holding the region files
+	 * @param regionSize
+	 *            the width and height of a region in tiles
+	 * @param regionsAcross
+	 *            the number of regions on the x axis
+	 * @param regionsDown
+	 *            the number of regions on the y axis
+	 * @param tileSize
+	 *            the size of a tile in pixel
+	 * @param callback
+	 *            the callback to create the instances of a region, will be called from the loader thread
+	 * @param executor
+	 *            the executor to load the regions with or null to use an own thread. An executor passed in will not
+	 *            be shut down by {@link #dispose()}
+	 */
+	public RegionMap(String name, String directory, int regionSize, int regionsAcross, int regionsDown, int tileSize,
+			MapIOReader callback, ExecutorService executor) {
+		Utils.notNull("name", name);
+		Utils.notNull("directory", directory);
+		Utils.notNull("callback", callback);
+		if (regionSize <= 0 || regionsAcross <= 0 || regionsDown <= 0) {
+			throw new RadicalFishException("the size of a region map must be greater than 0!");
+		}
+		this.name = name;
+		this.directory = directory;
+		this.regionSize = regionSize;
+		this.regionsAcross = regionsAcross;
+		this.regionsDown = regionsDown;
+		this.tileSize = tileSize;
+		this.callback = callback;
+		
+		if (executor == null) {
+			this.executor = Executors.newSingleThreadExecutor(new LoaderThreadFactory());
+			this.ownExecutor = true;
+		} else {
+			this.executor = executor;
+			this.ownExecutor = false;
+		}
+		
+		regions = new Region[regionsAcross * regionsDown];
+		for (int j = 0; j < regionsDown; j++) {
+			for (int i = 0; i < regionsAcross; i++) {
+				regions[j * regionsAcross + i] = new Region(i, j);
+			}
+		}
+		resident = new ArrayList<Region>();
+		pending = new ArrayList<Region>();
+		
+		entityLayer = new RegionEntityLayer(this);
+		listeners = new Array<MapListener>();
+	}
+	
+	// METHODS
+	// 
+	/**
+	 * Loads the regions around the camera and waits until they are loaded, so the first frame is complete.
+	 */
+	public void init(GameContext context, GameWorld world) {
+		computeView(context, world);
+		requestRegions();
+		waitForPendingLoads(context, world);
+	}
+	/**
+	 * Takes over the regions loaded in the background, requests the regions around the camera, drops regions if the
+	 * memory budget is exceeded and updates the visible regions and the entities.
+	 */
+	public void update(GameContext context, GameWorld world, GameDelta delta) {
+		frame++;
+		integrateLoadedRegions(context, world, false);
+		
+		computeView(context, world);
+		requestRegions();
+		evictRegions();
+		
+		animations.update(delta);
+		for (int j = viewY; j <= viewY2; j++) {
+			for (int i = viewX; i <= viewX2; i++) {
+				Map region = regions[j * regionsAcross + i].map;
+				if (region != null) {
+					for (int l = 0; l < region.getLayers().size(); l++) {
+						region.getLayer(l).update(context, world, delta);
+					}
+				}
+			}
+		}
+		if (entityLayer != null) {
+			entityLayer.update(context, world, delta);
+		}
+	}
+	/**
+	 * Renders the visible regions layer by layer, so the layers of neighbouring regions don't overlap each other.
+	 */
+	public void render(GameContext context, GameWorld world, Graphics g) {
+		int layers = 0;
+		for (int j = viewY; j <= viewY2; j++) {
+			for (int i = viewX; i <= viewX2; i++) {
+				Map region = regions[j * regionsAcross + i].map;
+				if (region != null) {
+					layers = Math.max(layers, region.getLayers().size());
+				}
+			}
+		}
+		
+		for (int l = 0; l < layers; l++) {
+			for (int j = viewY; j <= viewY2; j++) {
+				for (int i = viewX; i <= viewX2; i++) {
+					Map region = regions[j * regionsAcross + i].map;
+					if (region != null && l < region.getLayers().size()) {
+						renderLayer(context, world, g, region.getLayer(l), i, j);
+					}
+				}
+			}
+			for (int i = 0; i < listeners.size; i++) {
+				listeners.get(i).onLayerComplete(context, world, g, l);
+			}
+		}
+		if (entityLayer != null) {
+			entityLayer.render(context, world, g);
+		}
+	}
+	/**
+	 * Stops loading and drops all regions. If the map created its own loader thread, it will be shut down.
+	 */
+	public void dispose() {
+		for (int i = 0; i < pending.size(); i++) {
+			pending.get(i).future.cancel(true);
+			pending.get(i).future = null;
+		}
+		if (ownExecutor) {
+			executor.shutdownNow();
+		}
+		for (int i = 0; i < resident.size(); i++) {
+			resident.get(i).map = null;
+		}
+		pending.clear();
+		resident.clear();
+		residentBytes = 0;
+		listeners.clear();
+	}
+	
+	/**
+	 * Blocks until all requested regions are loaded and takes them over.
+	 */
+	public void waitForPendingLoads(GameContext context, GameWorld world) {
+		integrateLoadedRegions(context, world, true);
+	}
+	
+	public void addMapListener(MapListener listener) {
+		Utils.notNull("listener", listener);
+		listeners.add(listener);
+	}
+	public void removeMapListener(MapListener listener) {
+		listeners.removeValue(listener, true);
+	}
+	public void removeAllListener() {
+		listeners.clear();
+	}
+	
+	/**
+	 * Splits <code>map</code> into region files which can be loaded by a {@link RegionMap}. Every layer of a region is
+	 * written as {@link IntArrayLayer}, entities go to the region they stand in. Regions without any tile or entity
+	 * are not written. The map will have <code>ceil(tileWidth / regionSize)</code> x
+	 * <code>ceil(tileHeight / regionSize)</code> regions.
+	 * 
+	 * @param map
+	 *            the map to split
+	 * @param directory
+	 *            the directory to write the region files to, will be created if needed
+	 * @param regionSize
+	 *            the width and height of a region in tiles
+	 * @param zip
+	 *            true if the region files should be compressed. Uncompressed regions can be memory mapped and load
+	 *            faster
+	 */
+	public static void writeRegions(Map map, String directory, int regionSize, boolean zip) {
+		Utils.notNull("map", map);
+		Utils.notNull("directory", directory);
+		if (regionSize <= 0) {
+			throw new RadicalFishException("regionSize must be greater than 0!");
+		}
+		new File(directory).mkdirs();
+		
+		int across = (map.getTileWidth() + regionSize - 1) / regionSize;
+		int down = (map.getTileHeight() + regionSize - 1) / regionSize;
+		int written = 0;
+		for (int j = 0; j < down; j++) {
+			for (int i = 0; i < across; i++) {
+				int x = i * regionSize, y = j * regionSize;
+				int w = Math.min(regionSize, map.getTileWidth() - x), h = Math.min(regionSize, map.getTileHeight() - y);
+				
+				SimpleMap region = new SimpleMap(map.getName(), w, h, map.getTileSize());
+				int content = 0;
+				for (Layer layer : map.getLayers()) {
+					IntArrayLayer copy = new IntArrayLayer(layer.getName(), layer.getTileSet(), w, h,
+							IntArrayLayer.DEFAULT_CHUNK_SIZE);
+					content += copyTiles(layer, copy, x, y);
+					region.getLayers().add(copy);
+				}
+				Layer collision = map.getCollisionLayer();
+				IntArrayLayer collisionCopy = new IntArrayLayer(collision != null ? collision.getName() : "collision",
+						collision != null ? collision.getTileSet() : null, w, h, IntArrayLayer.DEFAULT_CHUNK_SIZE);
+				if (collision != null) {
+					content += copyTiles(collision, collisionCopy, x, y);
+				}
+				region.setCollisionLayer(collisionCopy);
+				
+				if (map.getEntityLayer() != null) {
+					region.getEntityLayer().setName(map.getEntityLayer().getName());
+					for (Entity entity : map.getEntityLayer().getEntites()) {
+						int tileSize = map.getTileSize();
+						int tx = clamp((int) Math.floor(entity.getPositionX() / tileSize), map.getTileWidth());
+						int ty = clamp((int) Math.floor(entity.getPositionY() / tileSize), map.getTileHeight());
+						if (tx / regionSize == i && ty / regionSize == j) {
+							region.getEntityLayer().getEntites().add(entity);
+							content++;
+						}
+					}
+				}
+				
+				if (content > 0) {
+					MapIO.writeMap(getRegionFile(directory, map.getName(), i, j).getPath(), region, zip);
+					written++;
+				}
+			}
+		}
+		Logger.info("Wrote Regions: " + map.getName() + " (" + written + " of " + across + "x" + down + ")");
+	}
+	/**
+	 * @return the file of the region at <code>x</code>, <code>y</code> (in regions) of the map <code>name</code>.
+	 */
+	public static File getRegionFile(String directory, String name, int x, int y) {
+		return new File(directory, name + "_" + x + "_" + y + ".map");
+	}
+	
+	// GETTER
+	// 
+	public String getName() {
+		return name;
+	}
+	/**
+	 * @return the animations shared by the animated tiles of all regions.
+	 */
+	public TileAnimations getAnimations() {
+		return animations;
+	}
+	public int getTileWidth() {
+		return regionsAcross * regionSize;
+	}
+	public int getTileHeight() {
+		return regionsDown * regionSize;
+	}
+	public int getWidth() {
+		return getTileWidth() * tileSize;
+	}
+	public int getHeight() {
+		return getTileHeight() * tileSize;
+	}
+	public int getTileSize() {
+		return tileSize;
+	}
+	/**
+	 * Not supported, the tiles are stored in the regions.
+	 */
+	public Tile[][] getTiles(int layer) {
+		throw new RadicalFishException("a RegionMap has no tile array, use getRegion() to access the layers");
+	}
+	/**
+	 * @return the tile at <code>x</code>, <code>y</code> (in tiles) or null if the region is not loaded.
+	 */
+	public Tile getTileAt(int x, int y, int layer) {
+		Map region = getRegionAt(x, y);
+		if (region == null || layer >= region.getLayers().size()) {
+			return null;
+		}
+		return region.getLayer(layer).getTileAt(x % regionSize, y % regionSize);
+	}
+	/**
+	 * @return an empty list, the layers are stored in the regions.
+	 */
+	public List<Layer> getLayers() {
+		return Collections.emptyList();
+	}
+	/**
+	 * Not supported, the layers are stored in the regions.
+	 */
+	public Layer getLayer(int layer) {
+		throw new RadicalFishException("a RegionMap has no layers, use getRegion() to access the layers");
+	}
+	/**
+	 * @return null, every region has its own collision layer.
+	 */
+	public Layer getCollisionLayer() {
+		return null;
+	}
+	/**
+	 * @return the collision tile at <code>x</code>, <code>y</code> (in tiles) or null if the region is not loaded.
+	 */
+	public Tile getCollisionTileAt(int x, int y) {
+		Map region = getRegionAt(x, y);
+		if (region == null || region.getCollisionLayer() == null) {
+			return null;
+		}
+		return region.getCollisionLayer().getTileAt(x % regionSize, y % regionSize);
+	}
+	/**
+	 * Same as {@link #getCollisionTileAt(int, int)} but reads the id straight from the layer if the collision layer of
+	 * the region is a {@link ChunkedLayer}. An {@link IntArrayLayer} would have to create a tile for every call.
+	 * 
+	 * @return the id of the collision tile at <code>x</code>, <code>y</code> (in tiles) or -1 if there is no tile or
+	 *         the region is not loaded.
+	 */
+	public int getCollisionTileIDAt(int x, int y) {
+		Map region = getRegionAt(x, y);
+		if (region == null || region.getCollisionLayer() == null) {
+			return -1;
+		}
+		Layer layer = region.getCollisionLayer();
+		int cx = x % regionSize, cy = y % regionSize;
+		if (layer instanceof ChunkedLayer) {
+			ChunkedLayer chunked = (ChunkedLayer) layer;
+			return cx < chunked.getWidth() && cy < chunked.getHeight() ? chunked.getTileIDAt(cx, cy) : -1;
+		}
+		Tile tile = layer.getTileAt(cx, cy);
+		return tile == null ? -1 : tile.getTileID();
+	}
+	public EntityLayer getEntityLayer() {
+		return entityLayer;
+	}
+	
+	/**
+	 * @return the region at <code>x</code>, <code>y</code> (in regions) or null if it is not loaded.
+	 */
+	public Map getRegion(int x, int y) {
+		if (x < 0 || y < 0 || x >= regionsAcross || y >= regionsDown) {
+			throw new RadicalFishException("region " + x + ", " + y + " is out of bounds (" + regionsAcross + "x"
+					+ regionsDown + ")");
+		}
+		return regions[y * regionsAcross + x].map;
+	}
+	/**
+	 * @return true if the region containing the pixel <code>x</code>, <code>y</code> is loaded or the position is
+	 *         outside of the map.
+	 */
+	public boolean isLoadedAt(float x, float y) {
+		int rx = (int) Math.floor(x / tileSize / regionSize), ry = (int) Math.floor(y / tileSize / regionSize);
+		if (rx < 0 || ry < 0 || rx >= regionsAcross || ry >= regionsDown) {
+			return true;
+		}
+		return regions[ry * regionsAcross + rx].map != null;
+	}
+	/**
+	 * @return the width and height of a region in tiles.
+	 */
+	public int getRegionSize() {
+		return regionSize;
+	}
+	/**
+	 * @return the number of regions on the x axis.
+	 */
+	public int getRegionsAcross() {
+		return regionsAcross;
+	}
+	/**
+	 * @return the number of regions on the y axis.
+	 */
+	public int getRegionsDown() {
+		return regionsDown;
+	}
+	/**
+	 * @return the number of regions in memory.
+	 */
+	public int getResidentRegions() {
+		return resident.size();
+	}
+	/**
+	 * @return the estimated memory used by the regions in memory in bytes.
+	 */
+	public long getResidentBytes() {
+		return residentBytes;
+	}
+	/**
+	 * @return the number of regions which are requested but not loaded yet.
+	 */
+	public int getPendingLoads() {
+		return pending.size();
+	}
+	/**
+	 * @return the number of parked entities or 0 if the entity layer is not a {@link RegionEntityLayer}.
+	 */
+	public int getParkedEntities() {
+		return entityLayer instanceof RegionEntityLayer ? ((RegionEntityLayer) entityLayer).getParkedCount() : 0;
+	}
+	/**
+	 * @return the memory the loaded regions may use in bytes.
+	 */
+	public long getMemoryBudget() {
+		return memoryBudget;
+	}
+	/**
+	 * @return the number of regions around the visible ones which get loaded in advance.
+	 */
+	public int getLoadRadius() {
+		return loadRadius;
+	}
+	
+	// SETTER
+	// 
+	public void setName(String name) {
+		this.name = name;
+	}
+	public void setTileSize(int size) {
+		this.tileSize = size;
+	}
+	/**
+	 * Not supported, the size is defined by the regions.
+	 */
+	public void setSize(int tileWidth, int tileHeight) {
+		throw new RadicalFishException("the size of a RegionMap is defined by its regions");
+	}
+	/**
+	 * Sets the id of the tile at <code>x</code>, <code>y</code> (in tiles). The region must be loaded.
+	 */
+	public void setTileAt(int x, int y, int id, int layer) {
+		getLoadedRegionAt(x, y).setTileAt(x % regionSize, y % regionSize, id, layer);
+	}
+	/**
+	 * Sets the tile at <code>x</code>, <code>y</code> (in tiles). The region must be loaded.
+	 */
+	public void setTileAt(int x, int y, Tile tile, int layer) {
+		getLoadedRegionAt(x, y).setTileAt(x % regionSize, y % regionSize, tile, layer);
+	}
+	/**
+	 * Not supported, the layers are stored in the regions.
+	 */
+	public void setLayer(Layer layer, int layerIndex) {
+		throw new RadicalFishException("a RegionMap has no layers, use getRegion() to access the layers");
+	}
+	/**
+	 * Not supported, the layers are stored in the regions.
+	 */
+	public void setLayers(List<Layer> layers) {
+		throw new RadicalFishException("a RegionMap has no layers, use getRegion() to access the layers");
+	}
+	/**
+	 * Sets the collision id of the tile at <code>x</code>, <code>y</code> (in tiles). The region must be loaded.
+	 */
+	public void setCollisionTileAt(int x, int y, int id) {
+		getLoadedRegionAt(x, y).setCollisionTileAt(x % regionSize, y % regionSize, id);
+	}
+	/**
+	 * Sets the collision tile at <code>x</code>, <code>y</code> (in tiles). The region must be loaded.
+	 */
+	public void setCollisionTileAt(int x, int y, Tile tile) {
+		getLoadedRegionAt(x, y).setCollisionTileAt(x % regionSize, y % regionSize, tile);
+	}
+	/**
+	 * Not supported, every region has its own collision layer.
+	 */
+	public void setCollisionLayer(Layer layer) {
+		throw new RadicalFishException("a RegionMap has no collision layer, use getRegion() to access the layers");
+	}
+	/**
+	 * Sets the entity layer. Only a {@link RegionEntityLayer} will park the entities of regions which are not loaded.
+	 */
+	public void setEntityLayer(EntityLayer layer) {
+		this.entityLayer = layer;
+	}
+	/**
+	 * Sets the memory the loaded regions may use in bytes. Regions close to the camera are never dropped, even if
+	 * they exceed the budget.
+	 */
+	public void setMemoryBudget(long memoryBudget) {
+		this.memoryBudget = memoryBudget;
+	}
+	/**
+	 * Sets the number of regions around the visible ones which get loaded in advance. The default is 1.
+	 */
+	public void setLoadRadius(int loadRadius) {
+		this.loadRadius = Math.max(0, loadRadius);
+	}
+	
+	// INTERN
+	// 
+	/**
+	 * Loads the region stored in <code>file</code>. This is called from the loader thread.
+	 * 
+	 * @return the region or null if the file doesn't exist
+	 */
+	protected Map loadRegion(File file) throws IOException {
+		if (!file.exists()) {
+			return null;
+		}
+		
+		// GZIP files start with 0x1f, maps with the version as int
+		FileInputStream stream = new FileInputStream(file);
+		boolean zip = stream.read() == 0x1f;
+		stream.close();
+		
+		if (zip) {
+			return MapIO.readMap(new FileInputStream(file), true, callback);
+		}
+		return MapIO.readMapMapped(file.getPath(), callback);
+	}
+	/**
+	 * @return the estimated memory a loaded region uses in bytes.
+	 */
+	protected long estimateBytes(Map region) {
+		long bytes = 0;
+		for (Layer layer : region.getLayers()) {
+			bytes += estimateBytes(layer);
+		}
+		if (region.getCollisionLayer() != null) {
+			bytes += estimateBytes(region.getCollisionLayer());
+		}
+		return bytes;
+	}
+	
+	private long estimateBytes(Layer layer) {
+		if (layer instanceof IntArrayLayer) {
+			IntArrayLayer ints = (IntArrayLayer) layer;
+			return ints.getWidth() * ints.getHeight() * 4L + ints.getAnimatedTileCount() * 64L;
+		}
+		if (layer instanceof ChunkedLayer) {
+			return ((ChunkedLayer) layer).getWidth() * ((ChunkedLayer) layer).getHeight() * 24L;
+		}
+		Tile[][] tiles = layer.getTiles();
+		return tiles == null || tiles.length == 0 ? 0 : tiles.length * tiles[0].length * 24L;
+	}
+	private void computeView(GameContext context, GameWorld world) {
+		Camera camera = world.getCamera();
+		float x = camera != null ? camera.getCurrentX() : 0, y = camera != null ? camera.getCurrentY() : 0;
+		int pixels = regionSize * tileSize;
+		viewX = clamp((int) Math.floor(x / pixels), regionsAcross);
+		viewY = clamp((int) Math.floor(y / pixels), regionsDown);
+		viewX2 = clamp((int) Math.floor((x + context.getGameWidth() - 1) / pixels), regionsAcross);
+		viewY2 = clamp((int) Math.floor((y + context.getGameHeight() - 1) / pixels), regionsDown);
+	}
+	private void requestRegions() {
+		int x2 = Math.min(regionsAcross - 1, viewX2 + loadRadius), y2 = Math.min(regionsDown - 1, viewY2 + loadRadius);
+		for (int j = Math.max(0, viewY - loadRadius); j <= y2; j++) {
+			for (int i = Math.max(0, viewX - loadRadius); i <= x2; i++) {
+				Region region = regions[j * regionsAcross + i];
+				region.lastUsed = frame;
+				if (region.map == null && region.future == null && frame >= region.retryFrame) {
+					final File file = getRegionFile(directory, name, i, j);
+					region.future = executor.submit(new Callable<Map>() {
+						public Map call() throws Exception {
+							return loadRegion(file);
+						}
+					});
+					pending.add(region);
+				}
+			}
+		}
+	}
+	private void integrateLoadedRegions(GameContext context, GameWorld world, boolean wait) {
+		for (int i = pending.size() - 1; i >= 0; i--) {
+			Region region = pending.get(i);
+			if (!wait && !region.future.isDone()) {
+				continue;
+			}
+			
+			Map map = null;
+			try {
+				map = region.future.get();
+			} catch (ExecutionException e) {
+				// keep the region unloaded so its entities stay parked and try again later
+				region.future = null;
+				pending.remove(i);
+				region.retryFrame = frame + Math.min(RETRY_FRAMES << Math.min(region.failures, 5), MAX_RETRY_FRAMES);
+				region.failures++;
+				Logger.error("Could not load region " + region.x + ", " + region.y + " of " + name + " (failed "
+						+ region.failures + " times, retrying in " + (region.retryFrame - frame) + " frames)",
+						e.getCause());
+				continue;
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+			region.future = null;
+			region.failures = 0;
+			pending.remove(i);
+			addRegion(context, world, region, map);
+		}
+	}
+	private void addRegion(GameContext context, GameWorld world, Region region, Map map) {
+		if (map == null) {
+			map = new SimpleMap(name, regionSize, regionSize, tileSize);
+		}
+		for (Layer layer : map.getLayers()) {
+			if (layer instanceof ChunkedLayer) {
+				((ChunkedLayer) layer).setOrigin(region.x * regionSize, region.y * regionSize);
+				((ChunkedLayer) layer).setAnimations(animations);
+			}
+		}
+		if (map.getCollisionLayer() instanceof ChunkedLayer) {
+			((ChunkedLayer) map.getCollisionLayer()).setOrigin(region.x * regionSize, region.y * regionSize);
+		}
+		
+		// entities are taken over only once, after that they live in the entity layer of this map
+		if (map.getEntityLayer() != null) {
+			if (!region.entitiesLoaded && entityLayer != null) {
+				for (Entity entity : map.getEntityLayer().getEntites()) {
+					entity.init(context, world);
+					entityLayer.getEntites().add(entity);
+				}
+			}
+			map.getEntityLayer().getEntites().clear();
+		}
+		region.entitiesLoaded = true;
+		
+		region.map = map;
+		region.bytes = estimateBytes(map);
+		residentBytes += region.bytes;
+		resident.add(region);
+	}
+	private void evictRegions() {
+		while (residentBytes > memoryBudget) {
+			Region oldest = null;
+			for (int i = 0; i < resident.size(); i++) {
+				Region region = resident.get(i);
+				if (region.lastUsed < frame && (oldest == null || region.lastUsed < oldest.lastUsed)) {
+					oldest = region;
+				}
+			}
+			if (oldest == null) {
+				return;
+			}
+			resident.remove(oldest);
+			residentBytes -= oldest.bytes;
+			oldest.map = null;
+			oldest.bytes = 0;
+		}
+	}
+	private void renderLayer(GameContext context, GameWorld world, Graphics g, Layer layer, int x, int y) {
+		if (layer instanceof ChunkedLayer) {
+			layer.render(context, world, g);
+			return;
+		}
+		g.pushTransform();
+		g.translate(x * regionSize * tileSize, y * regionSize * tileSize);
+		g.apply();
+		layer.render(context, world, g);
+		g.popTransform(true);
+	}
+	private Map getRegionAt(int x, int y) {
+		if (x < 0 || y < 0 || x >= getTileWidth() || y >= getTileHeight()) {
+			throw new RadicalFishException("tile " + x + ", " + y + " is out of bounds (" + getTileWidth() + "x"
+					+ getTileHeight() + ")");
+		}
+		return regions[(y / regionSize) * regionsAcross + x / regionSize].map;
+	}
+	private Map getLoadedRegionAt(int x, int y) {
+		Map region = getRegionAt(x, y);
+		if (region == null) {
+			throw new RadicalFishException("the region of tile " + x + ", " + y + " is not loaded");
+		}
+		return region;
+	}
+	private static int copyTiles(Layer source, IntArrayLayer target, int x, int y) {
+		int tiles = 0;
+		for (int j = 0; j < target.getHeight(); j++) {
+			for (int i = 0; i < target.getWidth(); i++) {
+				Tile tile = source.getTileAt(x + i, y + j);
+				if (tile instanceof AnimatedTile) {
+					target.setTileAt(i, j, tile);
+				} else if (tile != null && tile.getTileID() >= 0) {
+					target.setTileAt(i, j, tile.getTileID());
+				} else {
+					continue;
+				}
+				tiles++;
+			}
+		}
+		return tiles;
+	}
+	private static int clamp(int value, int size) {
+		return Math.max(0, Math.min(size - 1, value));
+	}
+	
+	// INTERN CLASSES
+	// 
+	/**
+	 * The state of a single region.
+	 */
+	private static class Region {
+		
+		private final int x, y;
+		private Map map;
+		private Future<Map> future;
+		private long bytes, lastUsed, retryFrame;
+		private int failures;
+		private boolean entitiesLoaded;
+		
+		public Region(int x, int y) {
+			this.x = x;
+			this.y = y;
+		}
+		
+	}
+	/**
+	 * Creates the daemon thread which loads the regions.
+	 */
+	private static class LoaderThreadFactory implements ThreadFactory {
+		
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, "RegionMap Loader");
+			thread.setDaemon(true);
+			return thread;
+		}
+		
+	}
+	
+}
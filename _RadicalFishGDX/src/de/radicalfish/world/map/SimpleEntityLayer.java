@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2012, Stefan Lange
+ * 
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ *     * Redistributions of source code must retain the above copyright notice,
+ *       this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of Stefan Lange nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package de.radicalfish.world.map;
+import java.util.ArrayList;
+import java.util.List;
+import de.radicalfish.context.GameContext;
+import de.radicalfish.context.GameDelta;
+import de.radicalfish.graphics.Graphics;
+import de.radicalfish.util.Utils;
+import de.radicalfish.world.Entity;
+import de.radicalfish.world.GameWorld;
+
+/**
+ * A simple {@link EntityLayer} holding the entities in a list. Update and render will call the methods of every entity
+ * in the order of the list.
+ * 
+ * @author Stefan Lange
+ * @version 1.0.0
+ * @since 18.10.2026
+ */
+public class SimpleEntityLayer implements EntityLayer {
+	
+	protected String name;
+	protected List<Entity> entities;
+	
+	/**
+	 * Creates a new empty {@link SimpleEntityLayer}. This can be used by the {@link MapIO} class.
+	 */
+	public SimpleEntityLayer() {
+		this("entities");
+	}
+	/**
+	 * Creates a new empty {@link SimpleEntityLayer}.
+	 * 
+	 * @param name
+	 *            the name of the layer
+	 */
+	public SimpleEntityLayer(String name) {
+		this.name = name;
+		this.entities = new ArrayList<Entity>();
+	}
+	
+	// METHODS
+	// 
+	public void update(GameContext context, GameWorld world, GameDelta delta) {
+		for (int i = 0; i < entities.size(); i++) {
+			entities.get(i).update(context, world, delta);
+		}
+	}
+	public void render(GameContext context, GameWorld world, Graphics g) {
+		for (int i = 0; i < entities.size(); i++) {
+			entities.get(i).render(context, world, g);
+		}
+	}
+	
+	// GETTER
+	// 
+	public String getName() {
+		return name;
+	}
+	public List<Entity> getEntites() {
+		return entities;
+	}
+	public Entity getEntity(int index) {
+		return entities.get(index);
+	}
+	
+	// SETTER
+	// 
+	public void setName(String name) {
+		this.name = name;
+	}
+	public void setEntities(List<Entity> entities) {
+		Utils.notNull("entities", entities);
+		this.entities = entities;
+	}
+	public void setEntity(int index, Entity entity) {
+		entities.set(index, entity);
+	}
+	
+}
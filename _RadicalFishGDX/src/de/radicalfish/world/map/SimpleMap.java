@@ -0,0 +1,232 @@
+/*
+ * Copyright (c) 2012, Stefan Lange
+ * 
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ *     * Redistributions of source code must retain the above copyright notice,
+ *       this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of Stefan Lange nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package de.radicalfish.world.map;
+import java.util.ArrayList;
+import java.util.List;
+import com.badlogic.gdx.utils.Array;
+import de.radicalfish.context.GameContext;
+import de.radicalfish.context.GameDelta;
+import de.radicalfish.graphics.Graphics;
+import de.radicalfish.util.Utils;
+import de.radicalfish.world.GameWorld;
+
+/**
+ * A simple {@link Map} holding a list of {@link Layer}s, a collision layer and an {@link EntityLayer}. The map does not
+ * create any content in <code>init</code>, it's meant to be filled by the {@link MapIO} class or by the setters.
+ * <p>
+ * When rendering, every layer is drawn in order and the {@link MapListener}s get informed after each layer. The
+ * entities are drawn after all layers. The collision layer will neither be updated nor rendered.
+ * <p>
+ * The {@link AnimatedTile}s of all {@link ChunkedLayer}s share the {@link TileAnimations} of the map, which get updated
+ * once per frame. Layers get bound to them in update, so layers added later are bound too.
+ * 
+ * @author Stefan Lange
+ * @version 1.0.0
+ * @since 18.10.2026
+ */
+public class SimpleMap implements Map {
+	
+	protected String name;
+	protected int tileSize, tileWidth, tileHeight;
+	
+	protected List<Layer> layers;
+	protected Layer collisionLayer;
+	protected EntityLayer entityLayer;
+	
+	protected Array<MapListener> listeners;
+	protected TileAnimations animations;
+	
+	/**
+	 * Creates a new empty {@link SimpleMap}. This can be used by the {@link MapIO} class.
+	 */
+	public SimpleMap() {
+		this("map", 0, 0, 16);
+	}
+	/**
+	 * Creates a new empty {@link SimpleMap}.
+	 * 
+	 * @param name
+	 *            the name of the map
+	 * @param tileWidth
+	 *            the width of the map in tiles
+	 * @param tileHeight
+	 *            the height of the map in tiles
+	 * @param tileSize
+	 *            the size of a tile in pixel
+	 */
+	public SimpleMap(String name, int tileWidth, int tileHeight, int tileSize) {
+		this.name = name;
+		this.tileWidth = tileWidth;
+		this.tileHeight = tileHeight;
+		this.tileSize = tileSize;
+		layers = new ArrayList<Layer>();
+		entityLayer = new SimpleEntityLayer();
+		listeners = new Array<MapListener>();
+		animations = new TileAnimations();
+	}
+	
+	// METHODS
+	// 
+	public void init(GameContext context, GameWorld world) {}
+	public void update(GameContext context, GameWorld world, GameDelta delta) {
+		animations.update(delta);
+		for (int i = 0; i < layers.size(); i++) {
+			bindAnimations(layers.get(i));
+			layers.get(i).update(context, world, delta);
+		}
+		if (entityLayer != null) {
+			entityLayer.update(context, world, delta);
+		}
+	}
+	public void render(GameContext context, GameWorld world, Graphics g) {
+		for (int i = 0; i < layers.size(); i++) {
+			layers.get(i).render(context, world, g);
+			for (int j = 0; j < listeners.size; j++) {
+				listeners.get(j).onLayerComplete(context, world, g, i);
+			}
+		}
+		if (entityLayer != null) {
+			entityLayer.render(context, world, g);
+		}
+	}
+	public void dispose() {
+		layers.clear();
+		listeners.clear();
+		animations.clear();
+	}
+	
+	public void addMapListener(MapListener listener) {
+		Utils.notNull("listener", listener);
+		listeners.add(listener);
+	}
+	public void removeMapListener(MapListener listener) {
+		listeners.removeValue(listener, true);
+	}
+	public void removeAllListener() {
+		listeners.clear();
+	}
+	
+	// GETTER
+	// 
+	public String getName() {
+		return name;
+	}
+	public int getTileWidth() {
+		return tileWidth;
+	}
+	public int getTileHeight() {
+		return tileHeight;
+	}
+	public int getWidth() {
+		return tileWidth * tileSize;
+	}
+	public int getHeight() {
+		return tileHeight * tileSize;
+	}
+	public int getTileSize() {
+		return tileSize;
+	}
+	public Tile[][] getTiles(int layer) {
+		return layers.get(layer).getTiles();
+	}
+	public Tile getTileAt(int x, int y, int layer) {
+		return layers.get(layer).getTileAt(x, y);
+	}
+	public List<Layer> getLayers() {
+		return layers;
+	}
+	public Layer getLayer(int layer) {
+		return layers.get(layer);
+	}
+	public Layer getCollisionLayer() {
+		return collisionLayer;
+	}
+	public Tile getCollisionTileAt(int x, int y) {
+		return collisionLayer.getTileAt(x, y);
+	}
+	public EntityLayer getEntityLayer() {
+		return entityLayer;
+	}
+	
+	/**
+	 * @return the animations shared by the animated tiles of all layers.
+	 */
+	public TileAnimations getAnimations() {
+		return animations;
+	}
+	
+	// INTERN
+	// 
+	private void bindAnimations(Layer layer) {
+		if (layer instanceof ChunkedLayer && ((ChunkedLayer) layer).getAnimations() != animations) {
+			((ChunkedLayer) layer).setAnimations(animations);
+		}
+	}
+	
+	// SETTER
+	// 
+	public void setName(String name) {
+		this.name = name;
+	}
+	public void setTileSize(int size) {
+		this.tileSize = size;
+	}
+	public void setSize(int tileWidth, int tileHeight) {
+		this.tileWidth = tileWidth;
+		this.tileHeight = tileHeight;
+	}
+	public void setTileAt(int x, int y, int id, int layer) {
+		layers.get(layer).setTileAt(x, y, id);
+	}
+	public void setTileAt(int x, int y, Tile tile, int layer) {
+		layers.get(layer).setTileAt(x, y, tile);
+	}
+	public void setLayer(Layer layer, int layerIndex) {
+		Utils.notNull("layer", layer);
+		layers.set(layerIndex, layer);
+	}
+	public void setLayers(List<Layer> layers) {
+		Utils.notNull("layers", layers);
+		this.layers = layers;
+	}
+	public void setCollisionTileAt(int x, int y, int id) {
+		collisionLayer.setTileAt(x, y, id);
+	}
+	public void setCollisionTileAt(int x, int y, Tile tile) {
+		collisionLayer.setTileAt(x, y, tile);
+	}
+	public void setCollisionLayer(Layer layer) {
+		this.collisionLayer = layer;
+	}
+	public void setEntityLayer(EntityLayer layer) {
+		this.entityLayer = layer;
+	}
+	
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright (c) 2012, Stefan Lange
+ * 
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ *     * Redistributions of source code must retain the above copyright notice,
+ *       this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of Stefan Lange nor the names of its contributors may
+ *       be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package de.radicalfish.world.map;
+import java.util.ArrayList;
+import java.util.HashMap;
+import de.radicalfish.context.GameDelta;
+import de.radicalfish.util.Utils;
+
+/**
+ * A registry of the distinct animations of the {@link AnimatedTile}s of a map. Tiles with the same frame times, indexes
+ * and ping-pong share one {@link SharedAnimation}, which gets advanced once per frame no matter how many cells use it.
+ * A {@link ChunkedLayer} bound to the registry (see {@link ChunkedLayer#setAnimations(TileAnimations)}) looks up the
+ * current id of its animated cells here and doesn't update them by itself anymore, so updating the layers costs
+ * O(distinct animations) instead of O(cells).
+ * <p>
+ * All tiles sharing an animation show the same frame at the same time. {@link SimpleMap} and {@link RegionMap} own a
+ * registry, bind their layers to it and update it once per frame. Animations are never removed, {@link #clear()} drops
+ * all of them (bound layers have to be bound again).
+ * 
+ * @author Stefan Lange
+ * @version 1.0.0
+ * @since 18.10.2026
+ */
+public class TileAnimations {
+	
+	private final HashMap<AnimationKey, SharedAnimation> index = new HashMap<AnimationKey, SharedAnimation>();
+	private final ArrayList<SharedAnimation> animations = new ArrayList<SharedAnimation>();
+	
+	// METHODS
+	// 
+	/**
+	 * @return the {@link SharedAnimation} for the animation data of <code>tile</code>, a new one is created if no tile
+	 *         with the same data was registered before.
+	 */
+	public SharedAnimation register(AnimatedTile tile) {
+		Utils.notNull("animated tile times array", tile.getFrameTimes());
+		Utils.notNull("animated tile index array", tile.getIndexes());
+		
+		AnimationKey key = new AnimationKey(tile.getFrameTimes(), tile.getIndexes(), tile.isPingPong());
+		SharedAnimation animation = index.get(key);
+		if (animation == null) {
+			animation = new SharedAnimation(key);
+			index.put(key, animation);
+			animations.add(animation);
+		}
+		return animation;
+	}
+	/**
+	 * Advances all animations by the delta of <code>delta</code>.
+	 */
+	public void update(GameDelta delta) {
+		update(delta.getDelta() * 1000f);
+	}
+	/**
+	 * Advances all animations by <code>delta</code> ms.
+	 */
+	public void update(float delta) {
+		for (int i = 0; i < animations.size(); i++) {
+			animations.get(i).update(delta);
+		}
+	}
+	/**
+	 * Sets all animations back to their first frame.
+	 */
+	public void restart() {
+		for (int i = 0; i < animations.size(); i++) {
+			animations.get(i).restart();
+		}
+	}
+	/**
+	 * Removes all animations.
+	 */
+	public void clear() {
+		index.clear();
+		animations.clear();
+	}
+	
+	// GETTER
+	// 
+	/**
+	 * @return the number of distinct animations.
+	 */
+	public int getSize() {
+		return animations.size();
+	}
+	/**
+	 * @return the animation at <code>index</code> in the order they were registered.
+	 */
+	public SharedAnimation getAnimation(int index) {
+		return animations.get(index);
+	}
+	
+	// INTERN CLASSES
+	// 
+	/**
+	 * The clock of one distinct animation, shared by all tiles with the same animation data.
+	 */
+	public static final class SharedAnimation {
+		
+		private final int[] times, indexes;
+		private final boolean pingPong;
+		private int frame, direction = 1;
+		private float next;
+		
+		private SharedAnimation(AnimationKey key) {
+			this.times = key.times;
+			this.indexes = key.indexes;
+			this.pingPong = key.pingPong;
+			restart();
+		}
+		
+		private void update(float delta) {
+			if (indexes.length < 2) {
+				return;
+			}
+			next -= delta;
+			while (next < 0) {
+				frame = (frame + direction) % indexes.length;
+				if (pingPong) {
+					if (frame <= 0) {
+						frame = 0;
+						direction = 1;
+					} else if (frame >= indexes.length - 1) {
+						frame = indexes.length - 1;
+						direction = -1;
+					}
+				}
+				int time = getFrameTime(frame);
+				if (time <= 0) {
+					// a frame without time would never end the loop
+					next = 0;
+					break;
+				}
+				next += time;
+			}
+		}
+		private void restart() {
+			frame = 0;
+			direction = 1;
+			next = getFrameTime(0);
+		}
+		private int getFrameTime(int frame) {
+			return times.length == 0 ? 0 : times[Math.min(frame, times.length - 1)];
+		}
+		
+		/**
+		 * @return the tile id of the current frame.
+		 */
+		public int getTileID() {
+			return indexes.length == 0 ? -1 : indexes[frame];
+		}
+		/**
+		 * @return the current frame.
+		 */
+		public int getFrame() {
+			return frame;
+		}
+		
+	}
+	
+}